@@ -1,30 +1,67 @@
 package async;
 
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.Bucket;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.coalescing.CoalescingAsyncClient;
 import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.existence.ExistenceFilterOptions;
+import io.github.michaelcirkl.ubsa.client.existence.ExistenceFilteringAsyncClient;
+import io.github.michaelcirkl.ubsa.client.inventory.BlobChange;
+import io.github.michaelcirkl.ubsa.client.inventory.WatchOptions;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataIndex;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataIndexingAsyncClient;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataQuery;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingFilter;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
 import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.BlobDifference;
+import io.github.michaelcirkl.ubsa.client.transfer.BucketDiff;
+import io.github.michaelcirkl.ubsa.client.transfer.DiffOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.BlobMigration;
+import io.github.michaelcirkl.ubsa.client.transfer.CrossClientCopy;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.MigrationOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.MigrationResult;
+import io.github.michaelcirkl.ubsa.client.transfer.TransferProgress;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import support.AsyncProviderFixture;
 import support.AsyncTestContext;
 import support.AsyncTestSupport;
+import support.CountingAsyncClient;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 
@@ -36,6 +73,13 @@ class AsyncClientImplTest {
                 .map(AsyncProviderFixture::create);
     }
 
+    /**
+     * GCS listings only return the properties named in their field masks, so mapped fields are checked on GCS alone.
+     */
+    private static Stream<AsyncProviderFixture> gcpFixture() {
+        return Stream.of(AsyncProviderFixture.create(Provider.GCP));
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("fixtures")
     void getProviderExposesUbsaProvider(AsyncProviderFixture fixture) {
@@ -324,6 +368,18 @@ class AsyncClientImplTest {
             AsyncTestSupport.collectItems(context.client().streamBlobs(bucketName, "prefix/", 1))
                     .forEach(blob -> streamedKeys.add(blob.getKey()));
             assertEquals(Set.of("prefix/a.txt", "prefix/b.txt", "prefix/c.txt"), streamedKeys);
+            for (int prefetch : new int[]{0, 3}) {
+                assertEquals(
+                        List.of("prefix/a.txt", "prefix/b.txt", "prefix/c.txt"),
+                        AsyncTestSupport.collectItems(context.client().streamBlobs(bucketName, "prefix/", 1, prefetch))
+                                .stream().map(Blob::getKey).toList()
+                );
+            }
+
+            List<String> summaryKeys = new ArrayList<>();
+            AsyncTestSupport.collectItems(context.client().streamBlobSummaries(bucketName, "prefix/", 2))
+                    .forEach(summary -> summaryKeys.add(summary.getKey()));
+            assertEquals(List.of("prefix/a.txt", "prefix/b.txt", "prefix/c.txt"), summaryKeys);
         }
     }
 
@@ -368,6 +424,46 @@ class AsyncClientImplTest {
                 }
             });
             assertEquals(expectedNames, streamedBucketNames);
+            assertEquals(expectedNames, AsyncTestSupport.collectItems(context.client().streamBuckets(1, 0)).stream()
+                    .map(Bucket::getName)
+                    .filter(expectedNames::contains)
+                    .collect(Collectors.toSet()));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("gcpFixture")
+    void gcsListingsReturnEveryMappedField(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("fields");
+            createTextBlob(context, bucketName, "fields/a.txt", "mapped", Map.of("tenant", "a"), "gzip");
+            Blob head = context.await(context.client().getBlobMetadata(bucketName, "fields/a.txt"));
+            assertNotNull(head.getEtag());
+            assertNotNull(head.lastModified());
+
+            List<Blob> blobs = context.await(context.client().listBlobs(bucketName, "fields/", null)).getItems();
+            assertEquals(1, blobs.size());
+            Blob listed = blobs.getFirst();
+            assertEquals("gzip", listed.encoding());
+            assertEquals(Map.of("tenant", "a"), listed.getUserMetadata());
+            assertEquals(head.getEtag(), listed.getEtag());
+            assertEquals("mapped".length(), listed.getSize());
+            assertEquals(head.lastModified(), listed.lastModified());
+
+            List<BlobSummary> summaries = context.await(context.client().listBlobSummaries(bucketName, "fields/", null)).getItems();
+            assertEquals(1, summaries.size());
+            BlobSummary summary = summaries.getFirst();
+            assertEquals(head.getEtag(), summary.getEtag());
+            assertEquals("mapped".length(), summary.getSize());
+            assertEquals(head.lastModified(), summary.lastModified());
+
+            Bucket bucket = context.await(context.client().listAllBuckets()).stream()
+                    .filter(candidate -> candidate.getName().equals(bucketName))
+                    .findFirst()
+                    .orElseThrow();
+            assertNotNull(bucket.getCreationDate());
+            assertNotNull(bucket.getLastModified());
+            assertFalse(bucket.getLastModified().isBefore(bucket.getCreationDate()));
         }
     }
 
@@ -439,6 +535,504 @@ class AsyncClientImplTest {
         }
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void coalescingClientSharesConcurrentIdenticalReads(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("coalesce");
+            byte[] payload = "coalesced payload".getBytes(StandardCharsets.UTF_8);
+            createTextBlob(context, bucketName, "shared.txt", new String(payload, StandardCharsets.UTF_8), Map.of("shared", "true"), null);
+            CountingAsyncClient upstream = new CountingAsyncClient(context.client());
+            CoalescingAsyncClient client = new CoalescingAsyncClient(upstream, 2);
+
+            upstream.hold();
+            List<CompletableFuture<Blob>> reads = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                reads.add(client.getBlob(bucketName, "shared.txt"));
+            }
+            CompletableFuture<Blob> cancelled = client.getBlobMetadata(bucketName, "shared.txt");
+            CompletableFuture<Blob> metadata = client.getBlobMetadata(bucketName, "shared.txt");
+            cancelled.cancel(true);
+            upstream.release();
+
+            for (CompletableFuture<Blob> read : reads) {
+                assertArrayEquals(payload, context.await(read).getContent());
+            }
+            assertEquals(Map.of("shared", "true"), context.await(metadata).getUserMetadata());
+            assertTrue(cancelled.isCancelled());
+            assertEquals(1, upstream.calls("getBlob"));
+            assertEquals(1, upstream.calls("getBlobMetadata"));
+
+            context.await(client.getBlob(bucketName, "shared.txt"));
+            assertEquals(2, upstream.calls("getBlob"), "A read after completion must not reuse the finished request.");
+
+            upstream.hold();
+            CompletableFuture<Boolean> firstExists = client.blobExists(bucketName, "shared.txt");
+            CompletableFuture<Boolean> secondExists = client.blobExists(bucketName, "shared.txt");
+            CompletableFuture<?> sharedExists = upstream.lastUpstreamFuture();
+            assertEquals(1, upstream.calls("blobExists"));
+            firstExists.cancel(true);
+            assertFalse(sharedExists.isCancelled(), "The shared request must survive while a caller remains.");
+            secondExists.cancel(true);
+            assertTrue(sharedExists.isCancelled(), "The shared request must be cancelled once every caller cancelled.");
+            upstream.release();
+
+            upstream.hold();
+            Flow.Publisher<ByteBuffer> stream = client.openBlobStream(bucketName, "shared.txt");
+            CompletableFuture<byte[]> firstRead = AsyncTestSupport.readAllBytesAsync(stream);
+            CompletableFuture<byte[]> secondRead = AsyncTestSupport.readAllBytesAsync(stream);
+            upstream.release();
+            assertArrayEquals(payload, context.await(firstRead));
+            assertArrayEquals(payload, context.await(secondRead));
+            assertEquals(1, upstream.calls("openBlobStream"));
+
+            assertArrayEquals(payload, AsyncTestSupport.readAllBytes(stream));
+            assertEquals(2, upstream.calls("openBlobStream"), "A subscriber joining after the download must start its own.");
+
+            UbsaException missing = assertThrows(UbsaException.class, () -> context.await(client.getBlob(bucketName, "missing.txt")));
+            assertEquals(HttpURLConnection.HTTP_NOT_FOUND, missing.getStatusCode());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void bulkReadsReportPerKeyResults(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("bulkread");
+            for (int i = 0; i < 5; i++) {
+                createTextBlob(context, bucketName, "bulk/" + i + ".txt", "content-" + i, Map.of("index", String.valueOf(i)), null);
+            }
+            List<String> keys = List.of("bulk/0.txt", "bulk/1.txt", "bulk/2.txt", "bulk/3.txt", "bulk/4.txt", "bulk/missing.txt");
+
+            List<BulkResult<Blob>> blobs = AsyncTestSupport.collectItems(context.client().getBlobs(bucketName, keys, 2));
+            assertEquals(keys.size(), blobs.size());
+            assertEquals(Set.copyOf(keys), blobs.stream().map(BulkResult::getKey).collect(Collectors.toSet()));
+            for (BulkResult<Blob> result : blobs) {
+                if (result.getKey().equals("bulk/missing.txt")) {
+                    assertFalse(result.isSuccess());
+                    assertEquals(HttpURLConnection.HTTP_NOT_FOUND, result.getError().getStatusCode());
+                } else {
+                    assertTrue(result.isSuccess());
+                    String index = result.getKey().substring("bulk/".length(), "bulk/".length() + 1);
+                    assertEquals("content-" + index, new String(result.getValue().getContent(), StandardCharsets.UTF_8));
+                }
+            }
+
+            List<BulkResult<Blob>> metadata = AsyncTestSupport.collectItems(context.client().getBlobsMetadata(bucketName, keys, 3));
+            assertEquals(5, metadata.stream().filter(BulkResult::isSuccess).count());
+            metadata.stream().filter(BulkResult::isSuccess).forEach(result -> {
+                assertNull(result.getValue().getContent());
+                assertEquals(result.getKey().substring(5, 6), result.getValue().getUserMetadata().get("index"));
+            });
+
+            assertThrows(IllegalArgumentException.class, () -> context.client().getBlobs(bucketName, keys, 0));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void deleteBlobsRemovesExistingKeysAndIgnoresMissingOnes(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("batchdelete");
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                String key = "batch/" + i + ".txt";
+                createTextBlob(context, bucketName, key, "content-" + i, null, null);
+                keys.add(key);
+            }
+            createTextBlob(context, bucketName, "keep.txt", "keep", null, null);
+            keys.add("batch/missing.txt");
+
+            BatchDeleteResult result = context.await(context.client().deleteBlobs(bucketName, keys));
+
+            assertTrue(result.isSuccess(), () -> "Unexpected failures: " + result.getFailures());
+            assertEquals(keys.size(), result.getDeletedCount());
+            for (String key : keys) {
+                assertFalse(context.await(context.client().blobExists(bucketName, key)));
+            }
+            assertTrue(context.await(context.client().blobExists(bucketName, "keep.txt")));
+
+            BatchDeleteResult empty = context.await(context.client().deleteBlobs(bucketName, List.of()));
+            assertEquals(0, empty.getDeletedCount());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void deletePrefixAndForceDeleteBucketRemoveAllMatchingBlobs(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("prefixdelete");
+            for (int i = 0; i < 5; i++) {
+                createTextBlob(context, bucketName, "tmp/" + i + ".txt", "tmp-" + i, null, null);
+            }
+            createTextBlob(context, bucketName, "keep/data.txt", "keep", null, null);
+
+            BatchDeleteResult result = context.await(context.client().deletePrefix(bucketName, "tmp/"));
+
+            assertTrue(result.isSuccess(), () -> "Unexpected failures: " + result.getFailures());
+            assertEquals(5, result.getDeletedCount());
+            ListingPage<Blob> remaining = context.await(context.client().listBlobs(bucketName, null, PageRequest.firstPage()));
+            assertEquals(List.of("keep/data.txt"), remaining.getItems().stream().map(Blob::getKey).toList());
+
+            if (context.provider() != Provider.Azure) {
+                assertThrows(UbsaException.class, () -> context.await(context.client().deleteBucket(bucketName, false)));
+            }
+            context.await(context.client().deleteBucket(bucketName, true));
+            assertFalse(context.await(context.client().bucketExists(bucketName)));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void uploadDirectoryUploadsTreeAndSkipsUnchangedFiles(AsyncProviderFixture fixture, @TempDir Path tempDir) throws IOException {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("uploaddir");
+            Files.createDirectories(tempDir.resolve("nested/deeper"));
+            Files.writeString(tempDir.resolve("root.txt"), "root", StandardCharsets.UTF_8);
+            Files.writeString(tempDir.resolve("nested/a.txt"), "alpha", StandardCharsets.UTF_8);
+            Files.writeString(tempDir.resolve("nested/deeper/b.txt"), "bravo", StandardCharsets.UTF_8);
+            DirectoryUploadOptions options = DirectoryUploadOptions.builder().maxConcurrency(2).build();
+
+            DirectoryUploadResult first = context.await(context.client().uploadDirectory(tempDir, bucketName, "artifacts", options));
+
+            assertTrue(first.isSuccess(), () -> "Unexpected failures: " + first.getFailures());
+            assertEquals(3, first.getUploadedCount());
+            assertEquals(14, first.getUploadedBytes());
+            assertArrayEquals(
+                    "bravo".getBytes(StandardCharsets.UTF_8),
+                    context.await(context.client().getBlob(bucketName, "artifacts/nested/deeper/b.txt")).getContent()
+            );
+
+            Files.writeString(tempDir.resolve("nested/a.txt"), "alpha", StandardCharsets.UTF_8);
+            Files.writeString(tempDir.resolve("root.txt"), "ROOT", StandardCharsets.UTF_8);
+            DirectoryUploadResult second = context.await(context.client().uploadDirectory(tempDir, bucketName, "artifacts/", options));
+
+            assertTrue(second.isSuccess(), () -> "Unexpected failures: " + second.getFailures());
+            assertEquals(1, second.getUploadedCount());
+            assertEquals(2, second.getSkippedCount());
+            assertArrayEquals(
+                    "ROOT".getBytes(StandardCharsets.UTF_8),
+                    context.await(context.client().getBlob(bucketName, "artifacts/root.txt")).getContent()
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void migrateCopiesPrefixWithMetadataAndResumesFromCheckpoint(AsyncProviderFixture fixture, @TempDir Path tempDir) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String sourceBucket = context.createBucket("migratesrc");
+            String destinationBucket = context.createBucket("migratedst");
+            createTextBlob(context, sourceBucket, "data/a.txt", "alpha", Map.of("owner", "team-a"), null);
+            createTextBlob(context, sourceBucket, "data/b.txt", "bravo", null, null);
+            createTextBlob(context, sourceBucket, "other/c.txt", "charlie", null, null);
+            List<TransferProgress> progress = new CopyOnWriteArrayList<>();
+            MigrationOptions options = MigrationOptions.builder()
+                    .maxConcurrency(2)
+                    .checkpointFile(tempDir.resolve("migration.checkpoint"))
+                    .progressListener(progress::add)
+                    .build();
+
+            MigrationResult first = context.await(BlobMigration.migrate(
+                    context.client(), sourceBucket, context.client(), destinationBucket, "data/", options));
+
+            assertTrue(first.isSuccess(), () -> "Unexpected failures: " + first.getFailures());
+            assertEquals(2, first.getCopiedCount());
+            assertEquals(10, first.getCopiedBytes());
+            Blob copied = context.await(context.client().getBlob(destinationBucket, "data/a.txt"));
+            assertArrayEquals("alpha".getBytes(StandardCharsets.UTF_8), copied.getContent());
+            assertEquals("team-a", copied.getUserMetadata().get("owner"));
+            assertFalse(context.await(context.client().blobExists(destinationBucket, "other/c.txt")));
+            TransferProgress last = progress.get(progress.size() - 1);
+            assertTrue(last.isListingComplete());
+            assertEquals(2, last.getTransferredCount());
+            assertTrue(Files.exists(tempDir.resolve("migration.checkpoint")));
+
+            CountingAsyncClient resumedSource = new CountingAsyncClient(context.client());
+            MigrationResult resumed = context.await(BlobMigration.migrate(
+                    resumedSource, sourceBucket, context.client(), destinationBucket, "data/", options));
+            assertEquals(0, resumed.getCopiedCount());
+            assertEquals(0, resumed.getSkippedCount());
+            assertEquals("data/b.txt", resumedSource.pageRequests("listBlobs").getFirst().getStartAfter());
+            assertEquals(0, resumedSource.calls("getBlobMetadata"));
+
+            MigrationResult repeated = context.await(BlobMigration.migrate(
+                    context.client(), sourceBucket, context.client(), destinationBucket, "data/", MigrationOptions.defaults()));
+            assertEquals(0, repeated.getCopiedCount());
+            assertEquals(2, repeated.getSkippedCount());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void copyBlobAcrossClientsCopiesContentAndMetadata(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String sourceBucket = context.createBucket("crosssrc");
+            String destinationBucket = context.createBucket("crossdst");
+            createTextBlob(context, sourceBucket, "source.txt", "payload", Map.of("owner", "team-a"), null);
+            CountingAsyncClient source = new CountingAsyncClient(context.client());
+            CoalescingAsyncClient destination = new CoalescingAsyncClient(context.client());
+            boolean pullsFromUrl = context.provider() == Provider.Azure;
+
+            context.await(CrossClientCopy.copyBlobAcrossClients(
+                    source, sourceBucket, "source.txt", destination, destinationBucket, "copied.txt"));
+
+            Blob copied = context.await(context.client().getBlob(destinationBucket, "copied.txt"));
+            assertArrayEquals("payload".getBytes(StandardCharsets.UTF_8), copied.getContent());
+            assertEquals("team-a", copied.getUserMetadata().get("owner"));
+            assertEquals(pullsFromUrl, context.client().supportsCreateBlobFromUrl());
+            assertEquals(pullsFromUrl ? 0 : 1, source.calls("openBlobStream"));
+
+            assertThrows(UbsaException.class, () -> context.await(CrossClientCopy.copyBlobAcrossClients(
+                    source, sourceBucket, "source.txt", destination, "missing-" + destinationBucket, "copied.txt")));
+            assertEquals(pullsFromUrl ? 0 : 2, source.calls("openBlobStream"),
+                    "A failed URL pull must not be retried by streaming unless the URL was unusable.");
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void streamBlobsParallelListsEveryBlobInKeyOrder(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("parallellist");
+            List<String> expectedKeys = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                String key = "ranges/" + (char) ('a' + i) + "/" + i + ".txt";
+                createTextBlob(context, bucketName, key, "content-" + i, null, null);
+                expectedKeys.add(key);
+            }
+            ParallelListingOptions options = ParallelListingOptions.builder().parallelism(3).pageSize(2).ordered(true).build();
+
+            List<String> listedKeys = new ArrayList<>();
+            AsyncTestSupport.collectItems(context.client().streamBlobsParallel(bucketName, "ranges/", options))
+                    .forEach(blob -> listedKeys.add(blob.getKey()));
+            assertEquals(expectedKeys, listedKeys);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void listBlobsWithDelimiterReturnsOneLevelAndCommonPrefixes(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("hierarchy");
+            createTextBlob(context, bucketName, "tree/root.txt", "root", null, null);
+            createTextBlob(context, bucketName, "tree/a/one.txt", "one", null, null);
+            createTextBlob(context, bucketName, "tree/a/deep/two.txt", "two", null, null);
+            createTextBlob(context, bucketName, "tree/b/three.txt", "three", null, null);
+
+            ListingPage<Blob> page = context.await(
+                    context.client().listBlobs(bucketName, "tree/", PageRequest.builder().delimiter("/").build()));
+
+            assertEquals(List.of("tree/root.txt"), page.getItems().stream().map(Blob::getKey).toList());
+            assertEquals(List.of("tree/a/", "tree/b/"), page.getCommonPrefixes());
+
+            ListingPage<Blob> flat = context.await(context.client().listBlobs(bucketName, "tree/", null));
+            assertEquals(4, flat.getItems().size());
+            assertTrue(flat.getCommonPrefixes().isEmpty());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void streamBlobsWithFilterReturnsOnlyMatchingBlobs(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("filtered");
+            createTextBlob(context, bucketName, "filter/logs/a.gz", "0123456789", null, null);
+            createTextBlob(context, bucketName, "filter/logs/b.gz", "0", null, null);
+            createTextBlob(context, bucketName, "filter/logs/c.txt", "0123456789", null, null);
+            createTextBlob(context, bucketName, "filter/logs/deep/d.gz", "0123456789", null, null);
+            ListingFilter filter = ListingFilter.builder()
+                    .keyGlob("filter/logs/**.gz")
+                    .maxSize(5)
+                    .build();
+
+            List<String> keys = new ArrayList<>();
+            AsyncTestSupport.collectItems(context.client().streamBlobs(bucketName, "filter/", 1, filter))
+                    .forEach(blob -> keys.add(blob.getKey()));
+
+            assertEquals(List.of("filter/logs/b.gz"), keys);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void metadataIndexAnswersQueriesForWritesAndScans(AsyncProviderFixture fixture, @TempDir Path tempDir) {
+        try (AsyncTestContext context = fixture.openContext();
+             MetadataIndex index = MetadataIndex.open(tempDir.resolve("metadata-index"))) {
+            String bucketName = context.createBucket("metaindex");
+            MetadataIndexingAsyncClient client = new MetadataIndexingAsyncClient(context.client(), index);
+            for (String key : List.of("tenants/a-1.txt", "tenants/a-2.txt", "tenants/b-1.txt")) {
+                Blob blob = Blob.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .content(key.getBytes(StandardCharsets.UTF_8))
+                        .userMetadata(Map.of("tenant", key.substring(8, 9)))
+                        .build();
+                context.await(client.createBlob(bucketName, blob));
+            }
+
+            assertEquals(List.of("tenants/a-1.txt", "tenants/a-2.txt"),
+                    client.queryByMetadata(bucketName, MetadataQuery.equalTo("tenant", "a")));
+
+            context.await(client.deleteBlobIfExists(bucketName, "tenants/a-2.txt"));
+            createTextBlob(context, bucketName, "tenants/a-3.txt", "unindexed", Map.of("tenant", "a"), null);
+            assertEquals(List.of("tenants/a-1.txt"), client.queryByMetadata(bucketName, MetadataQuery.equalTo("tenant", "a")));
+
+            assertEquals(3L, context.await(client.scanMetadata(bucketName, "tenants/")));
+            assertEquals(List.of("tenants/a-1.txt", "tenants/a-3.txt"),
+                    client.queryByMetadata(bucketName, MetadataQuery.equalTo("tenant", "a")));
+            assertEquals(List.of("tenants/b-1.txt"),
+                    client.queryByMetadata(bucketName, MetadataQuery.exists("tenant").and(MetadataQuery.equalTo("tenant", "b"))));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void existenceFilterRulesOutAbsentBlobsLocally(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("existence");
+            createTextBlob(context, bucketName, "listed.txt", "listed", null, null);
+            CountingAsyncClient upstream = new CountingAsyncClient(context.client());
+            ExistenceFilteringAsyncClient client = new ExistenceFilteringAsyncClient(upstream,
+                    ExistenceFilterOptions.builder().expectedBlobs(100).build());
+            context.await(client.track(bucketName));
+
+            assertTrue(context.await(client.blobExists(bucketName, "listed.txt")));
+            assertEquals(1, upstream.calls("blobExists"));
+            assertFalse(context.await(client.blobExists(bucketName, "absent.txt")));
+            assertEquals(1, upstream.calls("blobExists"), "An absent key ruled out by the filter must not reach the provider.");
+
+            context.await(client.createBlob(bucketName, Blob.builder()
+                    .bucket(bucketName)
+                    .key("written.txt")
+                    .content("written".getBytes(StandardCharsets.UTF_8))
+                    .build()));
+            assertTrue(context.await(client.blobExists(bucketName, "written.txt")));
+
+            context.await(client.deleteBlobIfExists(bucketName, "listed.txt"));
+            assertFalse(context.await(client.blobExists(bucketName, "listed.txt")));
+
+            createTextBlob(context, bucketName, "external.txt", "external", null, null);
+            context.await(client.rebuild(bucketName));
+            assertTrue(context.await(client.blobExists(bucketName, "external.txt")));
+            assertTrue(context.await(client.blobExists(bucketName, "written.txt")));
+            int calls = upstream.calls("blobExists");
+            assertFalse(context.await(client.blobExists(bucketName, "listed.txt")));
+            assertEquals(calls, upstream.calls("blobExists"), "A rebuilt filter no longer holds deleted keys.");
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void computeStatsAggregatesCountsBytesAndGroups(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("stats");
+            createTextBlob(context, bucketName, "stats/a/one.txt", "one", null, null);
+            createTextBlob(context, bucketName, "stats/a/two.txt", "two!", null, null);
+            createTextBlob(context, bucketName, "stats/b/three.txt", "three", null, null);
+
+            BucketStats stats = context.await(context.client().computeStats(bucketName, "stats/", 1));
+
+            assertEquals(3, stats.getTotal().getObjectCount());
+            assertEquals(12, stats.getTotal().getTotalBytes());
+            assertEquals(5, stats.getTotal().approximateSizePercentile(100));
+            assertEquals(List.of("stats/a/", "stats/b/"), List.copyOf(stats.getGroups().keySet()));
+            assertEquals(5, stats.getGroups().get("stats/b/").getTotalBytes());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void bucketDiffReportsMissingAndMismatchedBlobsInKeyOrder(AsyncProviderFixture fixture) {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketA = context.createBucket("diff-a");
+            String bucketB = context.createBucket("diff-b");
+            createTextBlob(context, bucketA, "src/same.txt", "same", null, null);
+            createTextBlob(context, bucketB, "dst/same.txt", "same", null, null);
+            createTextBlob(context, bucketA, "src/changed.txt", "aaaa", null, null);
+            createTextBlob(context, bucketB, "dst/changed.txt", "bbbb", null, null);
+            createTextBlob(context, bucketA, "src/resized.txt", "short", null, null);
+            createTextBlob(context, bucketB, "dst/resized.txt", "much longer", null, null);
+            createTextBlob(context, bucketA, "src/only-a.txt", "a", null, null);
+            createTextBlob(context, bucketB, "dst/only-b.txt", "b", null, null);
+
+            List<BlobDifference> differences = AsyncTestSupport.collectItems(BucketDiff.diff(
+                    context.client(), bucketA, "src/", context.client(), bucketB, "dst/",
+                    DiffOptions.builder().verifyContent(true).rangeSize(2).build()));
+
+            assertEquals(List.of("changed.txt", "only-a.txt", "only-b.txt", "resized.txt"),
+                    differences.stream().map(BlobDifference::getKey).toList());
+            assertEquals(List.of(
+                    BlobDifference.Type.CONTENT_MISMATCH,
+                    BlobDifference.Type.ONLY_IN_A,
+                    BlobDifference.Type.ONLY_IN_B,
+                    BlobDifference.Type.SIZE_MISMATCH
+            ), differences.stream().map(BlobDifference::getType).toList());
+            assertNull(differences.get(1).getBlobB());
+            assertEquals("dst/only-b.txt", differences.get(2).getBlobB().getKey());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void watchPublishesCreatedUpdatedAndDeletedBlobs(AsyncProviderFixture fixture, @TempDir Path tempDir) throws InterruptedException {
+        try (AsyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("watch");
+            createTextBlob(context, bucketName, "watched/keep.txt", "keep", null, null);
+            createTextBlob(context, bucketName, "watched/old.txt", "old", null, null);
+            createTextBlob(context, bucketName, "other/ignored.txt", "ignored", null, null);
+
+            BlockingQueue<BlobChange> changes = new LinkedBlockingQueue<>();
+            List<Flow.Subscription> subscriptions = new CopyOnWriteArrayList<>();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            context.client().watch(bucketName, "watched/", Duration.ofMillis(200), WatchOptions.builder()
+                    .fullListingEvery(1)
+                    .reportExisting(true)
+                    .snapshotFile(tempDir.resolve("watch.inventory"))
+                    .build()
+            ).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriptions.add(subscription);
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(BlobChange change) {
+                    changes.add(change);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    failure.set(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    failure.set(new AssertionError("A watch never completes."));
+                }
+            });
+            try {
+                assertEquals(Map.of(
+                        "watched/keep.txt", BlobChange.Type.CREATED,
+                        "watched/old.txt", BlobChange.Type.CREATED
+                ), takeChanges(changes, failure, 2));
+
+                createTextBlob(context, bucketName, "watched/new.txt", "new", null, null);
+                createTextBlob(context, bucketName, "watched/keep.txt", "kept and changed", null, null);
+                context.await(context.client().deleteBlobIfExists(bucketName, "watched/old.txt"));
+
+                assertEquals(Map.of(
+                        "watched/keep.txt", BlobChange.Type.UPDATED,
+                        "watched/new.txt", BlobChange.Type.CREATED,
+                        "watched/old.txt", BlobChange.Type.DELETED
+                ), takeChanges(changes, failure, 3));
+            } finally {
+                subscriptions.forEach(Flow.Subscription::cancel);
+            }
+        }
+    }
+
     private static void createTextBlob(
             AsyncTestContext context,
             String bucketName,
@@ -460,6 +1054,30 @@ class AsyncClientImplTest {
         context.await(context.client().createBlob(bucketName, builder.build()));
     }
 
+    /**
+     * Takes {@code count} changes, failing as soon as the watch signals an error.
+     */
+    private static Map<String, BlobChange.Type> takeChanges(
+            BlockingQueue<BlobChange> changes,
+            AtomicReference<Throwable> failure,
+            int count
+    ) throws InterruptedException {
+        Map<String, BlobChange.Type> taken = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (int i = 0; i < count; ) {
+            if (failure.get() != null) {
+                throw new AssertionError("The watch failed.", failure.get());
+            }
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for change " + (i + 1) + " of " + count + ".");
+            BlobChange change = changes.poll(100, TimeUnit.MILLISECONDS);
+            if (change != null) {
+                taken.put(change.getKey(), change.getType());
+                i++;
+            }
+        }
+        return taken;
+    }
+
     private static void assertListedBlob(String bucketName, Blob blob) {
         assertEquals(bucketName, blob.getBucket());
         assertTrue(blob.getKey().startsWith("prefix/"));
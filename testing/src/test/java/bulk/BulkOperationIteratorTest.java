@@ -0,0 +1,54 @@
+package bulk;
+
+import io.github.michaelcirkl.ubsa.client.bulk.BulkOperationIterator;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkOperationIteratorTest {
+    @Test
+    void closeWakesConsumerWaitingForResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        BulkOperationIterator<String> iterator = new BulkOperationIterator<>(List.of("a", "b"), 2, key -> {
+            started.countDown();
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return key;
+        });
+        CompletableFuture<BulkResult<String>> next = CompletableFuture.supplyAsync(iterator::next);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        iterator.close();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> next.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(NoSuchElementException.class, error.getCause());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void streamDoesNotClaimSizeWhenItMayEndEarly() {
+        try (Stream<BulkResult<String>> stream = BulkOperationIterator.stream(List.of("a", "b"), 1, key -> key)) {
+            assertFalse(stream.spliterator().hasCharacteristics(Spliterator.SIZED));
+        }
+        try (Stream<BulkResult<String>> stream = BulkOperationIterator.stream(List.of("a", "b", "c"), 2, key -> key)) {
+            assertEquals(3, stream.filter(BulkResult::isSuccess).count());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package gcp;
+
+import io.github.michaelcirkl.ubsa.client.gcp.GCPAsyncClientImpl;
+import io.github.michaelcirkl.ubsa.client.gcp.GCPAsyncClientOptions;
+import io.github.michaelcirkl.ubsa.client.gcp.GCPIoExecutor;
+import org.junit.jupiter.api.Test;
+import support.FakeGcsStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GCPIoExecutorTest {
+    @Test
+    void capsRunningTasksAndStartsQueuedOnesInOrder() throws InterruptedException {
+        GCPIoExecutor executor = client(new FakeGcsStorage(), GCPAsyncClientOptions.builder().maxConcurrency(2).build())
+                .getIoExecutor();
+        List<Integer> started = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CountDownLatch> releases = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int task = i;
+            CountDownLatch release = new CountDownLatch(1);
+            releases.add(release);
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.add(task);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        awaitTrue(() -> started.size() == 2);
+        assertEquals(2, executor.activeCount());
+        assertEquals(3, executor.queueDepth());
+        for (int i = 0; i < 5; i++) {
+            releases.get(i).countDown();
+            int expected = Math.min(5, i + 3);
+            awaitTrue(() -> started.size() == expected);
+        }
+        awaitTrue(() -> executor.activeCount() == 0);
+
+        assertEquals(IntStream.range(0, 5).boxed().toList(), started, "Queued tasks start in submission order.");
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, executor.queueDepth());
+    }
+
+    @Test
+    void streamingUploadFromOwnBlobStreamCompletesWithOneSlot() throws Exception {
+        FakeGcsStorage storage = new FakeGcsStorage();
+        byte[] content = new byte[3 * 8192 + 100];
+        Arrays.fill(content, (byte) 7);
+        storage.put("source", "a.bin", content);
+        GCPAsyncClientImpl client = client(storage, GCPAsyncClientOptions.builder().maxConcurrency(1).build());
+
+        client.createBlob("destination", "b.bin", client.openBlobStream("source", "a.bin"), content.length, null)
+                .get(10, TimeUnit.SECONDS);
+
+        assertArrayEquals(content, storage.content("destination", "b.bin"));
+        awaitTrue(() -> client.getIoExecutor().activeCount() == 0);
+    }
+
+    @Test
+    void queuedCallRejectedByUnderlyingExecutorFailsItsFuture() throws Exception {
+        FakeGcsStorage storage = new FakeGcsStorage();
+        CountDownLatch inGet = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        storage.onGet(() -> {
+            inGet.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        RejectingExecutor underlying = new RejectingExecutor();
+        GCPAsyncClientImpl client = client(storage,
+                GCPAsyncClientOptions.builder().executor(underlying).maxConcurrency(1).build());
+
+        CompletableFuture<Boolean> first = client.blobExists("bucket", "a.txt");
+        assertTrue(inGet.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = client.blobExists("bucket", "b.txt");
+        assertEquals(1, client.getIoExecutor().queueDepth());
+        underlying.accepting = false;
+        release.countDown();
+
+        assertFalse(first.get(10, TimeUnit.SECONDS));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(10, TimeUnit.SECONDS));
+        assertTrue(hasCause(error, RejectedExecutionException.class), "The rejection must reach the caller.");
+        assertEquals(0, client.getIoExecutor().activeCount());
+        assertEquals(0, client.getIoExecutor().queueDepth());
+    }
+
+    private static GCPAsyncClientImpl client(FakeGcsStorage storage, GCPAsyncClientOptions options) {
+        return new GCPAsyncClientImpl(storage.storage(), options);
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Starts a virtual thread per task until told to reject, as a shut-down executor would.
+     */
+    private static final class RejectingExecutor implements Executor {
+        private volatile boolean accepting = true;
+
+        @Override
+        public void execute(Runnable task) {
+            if (!accepting) {
+                throw new RejectedExecutionException("Executor is shut down.");
+            }
+            Thread.ofVirtual().start(task);
+        }
+    }
+}
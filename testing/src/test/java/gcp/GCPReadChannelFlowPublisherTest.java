@@ -0,0 +1,171 @@
+package gcp;
+
+import com.google.cloud.storage.BlobId;
+import io.github.michaelcirkl.ubsa.client.gcp.GCPReadChannelFlowPublisher;
+import org.junit.jupiter.api.Test;
+import support.FakeGcsStorage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GCPReadChannelFlowPublisherTest {
+    private static final int CHUNK_SIZE = 8192;
+
+    @Test
+    void pausesWithoutDemandAndResumesOnRequest() throws InterruptedException {
+        FakeGcsStorage storage = new FakeGcsStorage();
+        byte[] content = content(5 * CHUNK_SIZE);
+        storage.put("bucket", "a.bin", content);
+        TrackingExecutor executor = new TrackingExecutor();
+        RecordingSubscriber subscriber = subscribe(storage, executor);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+        subscriber.subscription.request(1);
+        received.writeBytes(subscriber.take());
+        executor.awaitIdle();
+        assertNull(subscriber.items.poll(100, TimeUnit.MILLISECONDS), "Nothing is emitted without demand.");
+        assertEquals(1, storage.reads(), "A read task returns once demand is used up.");
+        assertEquals(0, storage.closes(), "The channel stays open while the stream waits for demand.");
+
+        subscriber.subscription.request(2);
+        received.writeBytes(subscriber.take());
+        received.writeBytes(subscriber.take());
+        executor.awaitIdle();
+        assertEquals(3, storage.reads());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        subscriber.items.forEach(item -> received.writeBytes(toBytes(item)));
+        assertArrayEquals(content, received.toByteArray());
+        assertEquals(1, storage.closes());
+        assertNull(subscriber.failure.get());
+    }
+
+    @Test
+    void cancelWhileIdleClosesChannelWithoutSchedulingReads() throws InterruptedException {
+        FakeGcsStorage storage = new FakeGcsStorage();
+        storage.put("bucket", "a.bin", content(3 * CHUNK_SIZE));
+        TrackingExecutor executor = new TrackingExecutor();
+        RecordingSubscriber subscriber = subscribe(storage, executor);
+
+        subscriber.subscription.request(1);
+        subscriber.take();
+        executor.awaitIdle();
+        subscriber.subscription.cancel();
+
+        assertEquals(1, storage.closes(), "Cancelling an idle stream closes its channel right away.");
+        subscriber.subscription.request(1);
+        assertEquals(1, executor.submitted.get(), "No read task is scheduled after cancel.");
+        assertEquals(1, storage.reads());
+        assertNull(subscriber.items.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, subscriber.completed.getCount());
+        assertNull(subscriber.failure.get());
+    }
+
+    private static RecordingSubscriber subscribe(FakeGcsStorage storage, Executor executor) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new GCPReadChannelFlowPublisher(storage.storage(), BlobId.of("bucket", "a.bin"), executor).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Starts a virtual thread per task and counts the tasks submitted and still running.
+     */
+    private static final class TrackingExecutor implements Executor {
+        private final AtomicInteger submitted = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable task) {
+            submitted.incrementAndGet();
+            running.incrementAndGet();
+            Thread.ofVirtual().start(() -> {
+                try {
+                    task.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        private void awaitIdle() throws InterruptedException {
+            awaitTrue(() -> running.get() == 0);
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final BlockingQueue<ByteBuffer> items = new LinkedBlockingQueue<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+
+        private byte[] take() throws InterruptedException {
+            ByteBuffer item = items.poll(10, TimeUnit.SECONDS);
+            if (failure.get() != null) {
+                throw new AssertionError("The stream failed.", failure.get());
+            }
+            if (item == null) {
+                throw new AssertionError("Timed out waiting for a chunk.");
+            }
+            return toBytes(item);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time.");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
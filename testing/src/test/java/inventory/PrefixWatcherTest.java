@@ -0,0 +1,180 @@
+package inventory;
+
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.client.inventory.BlobChange;
+import io.github.michaelcirkl.ubsa.client.inventory.PrefixWatcher;
+import io.github.michaelcirkl.ubsa.client.inventory.WatchOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixWatcherTest {
+    private static final Duration INTERVAL = Duration.ofMillis(50);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void incrementalPollsAppendNewKeysAndFullPollsCatchInsertsBeforeLastKey() throws InterruptedException {
+        SummaryListing listing = new SummaryListing();
+        listing.put("logs/a.txt", "1");
+        listing.put("logs/c.txt", "1");
+        WatchOptions options = WatchOptions.builder()
+                .fullListingEvery(3)
+                .snapshotFile(tempDir.resolve("watch.inventory"))
+                .build();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        PrefixWatcher.publisher(listing, "bucket", "logs/", INTERVAL, true, options).subscribe(subscriber);
+        try {
+            awaitTrue(() -> listing.requests().size() >= 1);
+            listing.put("logs/d.txt", "1");
+            listing.put("logs/b.txt", "1");
+
+            assertChange(BlobChange.Type.CREATED, "logs/d.txt", subscriber.take());
+            assertChange(BlobChange.Type.CREATED, "logs/b.txt", subscriber.take());
+
+            List<String> startAfters = listing.requests().subList(0, 4).stream().map(PageRequest::getStartAfter).toList();
+            assertEquals(Arrays.asList(null, "logs/c.txt", "logs/d.txt", null), startAfters,
+                    "Polls between full polls list after the last key, so the insert before it waits for the next full poll.");
+            subscriber.assertNoFailure();
+        } finally {
+            subscriber.cancel();
+        }
+    }
+
+    @Test
+    void everyPollIsFullWhenStartAfterIsNotPushedDown() throws InterruptedException {
+        SummaryListing listing = new SummaryListing();
+        listing.put("logs/a.txt", "1");
+        listing.put("logs/c.txt", "1");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        PrefixWatcher.publisher(listing, "bucket", "logs/", INTERVAL, false, WatchOptions.defaults()).subscribe(subscriber);
+        try {
+            awaitTrue(() -> listing.requests().size() >= 1);
+            listing.put("logs/b.txt", "1");
+            listing.put("logs/c.txt", "2");
+
+            assertChange(BlobChange.Type.CREATED, "logs/b.txt", subscriber.take());
+            assertChange(BlobChange.Type.UPDATED, "logs/c.txt", subscriber.take());
+            assertTrue(listing.requests().stream().allMatch(request -> request.getStartAfter() == null));
+            subscriber.assertNoFailure();
+        } finally {
+            subscriber.cancel();
+        }
+    }
+
+    private static void assertChange(BlobChange.Type type, String key, BlobChange change) {
+        assertEquals(type, change.getType());
+        assertEquals(key, change.getKey());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Mutable sorted listing that applies {@code startAfter} and records every request after its page was read.
+     */
+    private static final class SummaryListing implements Function<PageRequest, CompletableFuture<ListingPage<BlobSummary>>> {
+        private final NavigableMap<String, BlobSummary> summaries = new ConcurrentSkipListMap<>(BlobKeys.ORDER);
+        private final List<PageRequest> requests = new CopyOnWriteArrayList<>();
+
+        private void put(String key, String etag) {
+            summaries.put(key, BlobSummary.of("bucket", key, 1, etag, 0, null));
+        }
+
+        private List<PageRequest> requests() {
+            return List.copyOf(requests);
+        }
+
+        @Override
+        public CompletableFuture<ListingPage<BlobSummary>> apply(PageRequest request) {
+            String after = request.getStartAfter();
+            List<BlobSummary> page = new ArrayList<>((after == null ? summaries : summaries.tailMap(after, false)).values());
+            requests.add(request);
+            return CompletableFuture.completedFuture(ListingPage.of(page, null));
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<BlobChange> {
+        private final BlockingQueue<BlobChange> changes = new LinkedBlockingQueue<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile Flow.Subscription subscription;
+
+        /**
+         * Takes the next change, failing as soon as the watch signals an error.
+         */
+        private BlobChange take() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (System.nanoTime() < deadline) {
+                assertNoFailure();
+                BlobChange change = changes.poll(20, TimeUnit.MILLISECONDS);
+                if (change != null) {
+                    return change;
+                }
+            }
+            throw new AssertionError("Timed out waiting for a change.");
+        }
+
+        private void assertNoFailure() {
+            if (failure.get() != null) {
+                throw new AssertionError("The watch failed.", failure.get());
+            }
+        }
+
+        private void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(BlobChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            failure.set(new AssertionError("A watch never completes."));
+        }
+    }
+}
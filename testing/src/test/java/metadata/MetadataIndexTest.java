@@ -0,0 +1,123 @@
+package metadata;
+
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataIndex;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetadataIndexTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void answersQueriesFromDiskAcrossReopen() throws IOException {
+        Path directory = tempDir.resolve("index");
+        int blobs = 6000;
+        try (MetadataIndex index = MetadataIndex.open(directory)) {
+            for (int i = 0; i < blobs; i++) {
+                index.put("bucket", key(i), Map.of("Tenant", i % 3 == 0 ? "a" : "b", "part", Integer.toString(i % 10)));
+            }
+            index.put("bucket", key(0), Map.of("tenant", "c"));
+            index.remove("bucket", key(3));
+            index.put("other", key(6), Map.of("tenant", "a"));
+        }
+        assertTrue(segmentFiles(directory) > 0, "Indexed blobs must be written out to segment files.");
+
+        try (MetadataIndex index = MetadataIndex.open(directory)) {
+            List<String> tenantA = IntStream.range(1, blobs).filter(i -> i % 3 == 0 && i != 3).mapToObj(MetadataIndexTest::key).toList();
+            assertEquals(tenantA, index.query("bucket", MetadataQuery.equalTo("TENANT", "a")));
+            assertEquals(List.of(key(0)), index.query("bucket", MetadataQuery.equalTo("tenant", "c")));
+            assertEquals(Map.of("tenant", "c"), index.get("bucket", key(0)));
+            assertNull(index.get("bucket", key(3)));
+            assertEquals(blobs, index.size());
+            assertEquals(List.of(key(6)), index.query("other", MetadataQuery.exists("tenant")));
+
+            List<String> partsOneOrTwo = IntStream.range(1, blobs)
+                    .filter(i -> i != 3 && (i % 10 == 1 || i % 10 == 2) && i % 3 != 0)
+                    .mapToObj(MetadataIndexTest::key)
+                    .toList();
+            assertEquals(partsOneOrTwo, index.query("bucket",
+                    MetadataQuery.matches("part", value -> value.equals("1") || value.equals("2"))
+                            .and(MetadataQuery.equalTo("tenant", "b"))));
+        }
+    }
+
+    @Test
+    void removePrefixAndBucketDropPostings() {
+        try (MetadataIndex index = MetadataIndex.open(tempDir.resolve("index"))) {
+            index.put("bucket", "logs/a.txt", Map.of("tenant", "a"));
+            index.put("bucket", "logs/b.txt", Map.of("tenant", "a"));
+            index.put("bucket", "data/c.txt", Map.of("tenant", "a"));
+            index.put("other", "logs/a.txt", Map.of("tenant", "a"));
+
+            index.removePrefix("bucket", "logs/");
+            assertEquals(List.of("data/c.txt"), index.query("bucket", MetadataQuery.equalTo("tenant", "a")));
+            assertEquals(List.of("logs/a.txt"), index.query("other", MetadataQuery.equalTo("tenant", "a")));
+
+            index.removeBucket("other");
+            assertEquals(List.of(), index.query("other", MetadataQuery.exists("tenant")));
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    void compactionDropsRemovedBlobs() throws IOException {
+        Path directory = tempDir.resolve("index");
+        try (MetadataIndex index = MetadataIndex.open(directory)) {
+            for (int i = 0; i < 5000; i++) {
+                index.put("bucket", key(i), Map.of("tenant", "a"));
+            }
+            index.removeBucket("bucket");
+            index.put("bucket", "kept.txt", Map.of("tenant", "b"));
+            index.compact();
+
+            assertEquals(1, segmentFiles(directory));
+            assertEquals(1, index.size());
+            assertEquals(List.of("kept.txt"), index.query("bucket", MetadataQuery.exists("tenant")));
+        }
+    }
+
+    @Test
+    void corruptLogTailIsTruncatedOnOpen() throws IOException {
+        Path directory = tempDir.resolve("index");
+        try (MetadataIndex index = MetadataIndex.open(directory)) {
+            index.put("bucket", "a.txt", Map.of("tenant", "a"));
+        }
+        // A batch header whose payload is garbage rather than cut short, as left by a crash mid-write.
+        ByteBuffer garbage = ByteBuffer.allocate(20).putInt(12).putInt(0x1234_5678).putLong(-1L).putInt(7);
+        Files.write(directory.resolve("wal.log"), garbage.array(), StandardOpenOption.APPEND);
+
+        try (MetadataIndex index = MetadataIndex.open(directory)) {
+            assertEquals(List.of("a.txt"), index.query("bucket", MetadataQuery.equalTo("tenant", "a")));
+            index.put("bucket", "b.txt", Map.of("tenant", "a"));
+        }
+        try (MetadataIndex index = MetadataIndex.open(directory)) {
+            assertEquals(List.of("a.txt", "b.txt"), index.query("bucket", MetadataQuery.equalTo("tenant", "a")),
+                    "Writes after a truncated tail must not be hidden behind it.");
+        }
+    }
+
+    private static String key(int i) {
+        return String.format("blobs/%05d.txt", i);
+    }
+
+    private static long segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".sst")).count();
+        }
+    }
+}
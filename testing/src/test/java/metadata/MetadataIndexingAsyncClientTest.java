@@ -0,0 +1,185 @@
+package metadata;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataIndex;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataIndexingAsyncClient;
+import io.github.michaelcirkl.ubsa.client.metadata.MetadataQuery;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetadataIndexingAsyncClientTest {
+    private static final MetadataQuery TENANT_A = MetadataQuery.equalTo("tenant", "a");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void copyPrefixWithoutTrailingSlashIndexesOnlyCopiedBlobs() {
+        Store store = new Store(Set.of("logs/fail.txt"));
+        try (MetadataIndex index = MetadataIndex.open(tempDir.resolve("index"))) {
+            MetadataIndexingAsyncClient client = indexed(store, index);
+
+            PrefixCopyResult result = client.copyPrefix("bucket", "logs", "bucket", "archive/", null).join();
+
+            assertEquals(1, result.getCopiedCount());
+            assertEquals(1, result.getFailures().size());
+            assertEquals(List.of("archive/a.txt", "logs/a.txt", "logs/fail.txt", "logs2/b.txt", "logsX.txt"),
+                    client.queryByMetadata("bucket", TENANT_A),
+                    "Sibling prefixes are not copied and the failed copy is not recorded.");
+        }
+    }
+
+    @Test
+    void movePrefixWithoutTrailingSlashMovesOnlyCopiedBlobs() {
+        Store store = new Store(Set.of("logs/fail.txt"));
+        try (MetadataIndex index = MetadataIndex.open(tempDir.resolve("index"))) {
+            MetadataIndexingAsyncClient client = indexed(store, index);
+
+            PrefixCopyResult result = client.movePrefix("bucket", "logs", "bucket", "archive", null).join();
+
+            assertEquals(1, result.getDeletedCount());
+            assertEquals(List.of("archive/a.txt", "logs/fail.txt", "logs2/b.txt", "logsX.txt"),
+                    client.queryByMetadata("bucket", TENANT_A),
+                    "Only the moved blob leaves the source prefix; siblings and the failed copy stay.");
+            assertNull(index.get("bucket", "archive//a.txt"));
+            assertEquals(Set.of("archive/a.txt", "logs/fail.txt", "logs2/b.txt", "logsX.txt"), store.blobs.keySet());
+        }
+    }
+
+    @Test
+    void uploadDirectoryIndexesUploadedBlobs() throws IOException {
+        Path root = tempDir.resolve("upload");
+        Files.createDirectories(root.resolve("sub"));
+        Files.writeString(root.resolve("a.txt"), "alpha");
+        Files.writeString(root.resolve("sub/b.txt"), "beta");
+        Store store = new Store(Set.of());
+        try (MetadataIndex index = MetadataIndex.open(tempDir.resolve("index"))) {
+            MetadataIndexingAsyncClient client = new MetadataIndexingAsyncClient(store, index);
+
+            DirectoryUploadResult result = client.uploadDirectory(root, "bucket", "uploads", null).join();
+
+            assertTrue(result.isSuccess());
+            assertEquals(List.of("uploads/a.txt", "uploads/sub/b.txt"),
+                    client.queryByMetadata("bucket", MetadataQuery.exists("ubsa_sha256")),
+                    "Uploaded blobs and their checksums must be indexed without a rescan.");
+        }
+    }
+
+    /**
+     * Returns an indexing client over {@code store} with four blobs of tenant {@code a} written through it: two below
+     * {@code logs/} and two below sibling prefixes that a copy of {@code logs} must not touch.
+     */
+    private static MetadataIndexingAsyncClient indexed(Store store, MetadataIndex index) {
+        MetadataIndexingAsyncClient client = new MetadataIndexingAsyncClient(store, index);
+        for (String key : List.of("logs/a.txt", "logs/fail.txt", "logs2/b.txt", "logsX.txt")) {
+            client.createBlob("bucket", Blob.builder()
+                    .key(key)
+                    .content(key.getBytes(StandardCharsets.UTF_8))
+                    .userMetadata(Map.of("tenant", "a"))
+                    .build()).join();
+        }
+        return client;
+    }
+
+    private static BlobStorageAsyncClient unsupported() {
+        return (BlobStorageAsyncClient) Proxy.newProxyInstance(
+                MetadataIndexingAsyncClientTest.class.getClassLoader(),
+                new Class<?>[]{BlobStorageAsyncClient.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    /**
+     * Single-bucket store whose copies of the given source keys are denied.
+     */
+    private static final class Store extends ForwardingBlobStorageAsyncClient {
+        private final NavigableMap<String, Blob> blobs = new ConcurrentSkipListMap<>(BlobKeys.ORDER);
+        private final Set<String> deniedCopies;
+
+        private Store(Set<String> deniedCopies) {
+            super(unsupported());
+            this.deniedCopies = deniedCopies;
+        }
+
+        @Override
+        public CompletableFuture<String> createBlob(String bucketName, Blob blob) {
+            blobs.put(blob.getKey(), blob);
+            return CompletableFuture.completedFuture("etag");
+        }
+
+        @Override
+        public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile, BlobWriteOptions options) {
+            try {
+                byte[] content = Files.readAllBytes(sourceFile);
+                blobs.put(blobKey, Blob.builder().key(blobKey).size(content.length).content(content)
+                        .userMetadata(options.userMetadata()).build());
+            } catch (IOException error) {
+                return CompletableFuture.failedFuture(error);
+            }
+            return CompletableFuture.completedFuture("etag");
+        }
+
+        @Override
+        public CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
+            List<Blob> page = blobs.values().stream()
+                    .filter(blob -> blob.getKey().startsWith(prefix == null ? "" : prefix))
+                    .toList();
+            return CompletableFuture.completedFuture(ListingPage.of(page, null));
+        }
+
+        @Override
+        public CompletableFuture<String> copyBlob(
+                String sourceBucketName,
+                String sourceBlobKey,
+                String destinationBucketName,
+                String destinationBlobKey
+        ) {
+            if (deniedCopies.contains(sourceBlobKey)) {
+                return CompletableFuture.failedFuture(new UbsaException("Access denied.", null, 403));
+            }
+            Blob source = blobs.get(sourceBlobKey);
+            blobs.put(destinationBlobKey, Blob.builder()
+                    .key(destinationBlobKey)
+                    .size(source.getSize())
+                    .content(source.getContent())
+                    .userMetadata(source.getUserMetadata())
+                    .build());
+            return CompletableFuture.completedFuture("etag");
+        }
+
+        @Override
+        public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Collection<String> blobKeys) {
+            blobKeys.forEach(blobs::remove);
+            return CompletableFuture.completedFuture(BatchDeleteResult.of(blobKeys.size(), List.of()));
+        }
+    }
+}
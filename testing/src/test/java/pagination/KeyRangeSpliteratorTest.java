@@ -0,0 +1,123 @@
+package pagination;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.KeyRangeSpliterator;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import org.junit.jupiter.api.Test;
+import support.InMemoryListing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyRangeSpliteratorTest {
+    private static final List<String> KEYS = keys();
+
+    @Test
+    void splitsIntoDisjointKeyRanges() {
+        InMemoryListing listing = new InMemoryListing("data/", KEYS);
+        try (Stream<Blob> stream = KeyRangeSpliterator.stream(listing, "data/", true)) {
+            Spliterator<Blob> upper = stream.spliterator();
+            Spliterator<Blob> lower = upper.trySplit();
+            assertNotNull(lower, "An unstarted range with keys in it must split.");
+
+            List<String> lowerKeys = drain(lower);
+            List<String> upperKeys = drain(upper);
+
+            assertFalse(lowerKeys.isEmpty());
+            assertFalse(upperKeys.isEmpty());
+            assertTrue(BlobKeys.compare(lowerKeys.getLast(), upperKeys.getFirst()) < 0,
+                    "Every key of the lower range must sort before the upper range.");
+            List<String> all = new ArrayList<>(lowerKeys);
+            all.addAll(upperKeys);
+            assertEquals(KEYS, all);
+            assertTrue(listing.requests().stream().anyMatch(request -> lowerKeys.getLast().equals(request.getStartAfter())),
+                    "The upper range must be listed after the split key instead of skipping the lower range.");
+        }
+    }
+
+    @Test
+    void parallelStreamListsEveryKeyOnce() {
+        InMemoryListing listing = new InMemoryListing("data/", KEYS);
+        try (Stream<Blob> stream = KeyRangeSpliterator.stream(listing, "data/", true)) {
+            List<String> listed = stream.parallel().map(Blob::getKey).toList();
+            assertEquals(KEYS, listed);
+        }
+        long rangeListings = listing.requests().stream()
+                .filter(request -> request.getPageSize() == null && request.getStartAfter() != null)
+                .count();
+        assertTrue(rangeListings > 0, "A parallel stream must list split ranges.");
+    }
+
+    @Test
+    void unsplittableListingDoesNotSplit() {
+        InMemoryListing listing = new InMemoryListing("data/", KEYS);
+        try (Stream<Blob> stream = KeyRangeSpliterator.stream(listing, "data/", false)) {
+            Spliterator<Blob> spliterator = stream.spliterator();
+            assertNull(spliterator.trySplit());
+            assertEquals(KEYS, drain(spliterator));
+        }
+        assertTrue(listing.requests().stream().allMatch(request -> request.getStartAfter() == null));
+    }
+
+    @Test
+    void closingStreamReleasesEveryRangeListing() throws InterruptedException {
+        InMemoryListing listing = new InMemoryListing("data/", KEYS);
+        Set<Thread> loaderThreads = ConcurrentHashMap.newKeySet();
+        Function<PageRequest, ListingPage<Blob>> smallPages = request -> {
+            if (request.getPageSize() == null) {
+                loaderThreads.add(Thread.currentThread());
+            }
+            return listing.apply(request.toBuilder().pageSize(2).build());
+        };
+        Stream<Blob> stream = KeyRangeSpliterator.stream(smallPages, "data/", true);
+        Spliterator<Blob> upper = stream.spliterator();
+        Spliterator<Blob> lower = upper.trySplit();
+        assertNotNull(lower);
+        assertTrue(lower.tryAdvance(blob -> {
+        }));
+        assertTrue(upper.tryAdvance(blob -> {
+        }));
+        assertEquals(2, loaderThreads.size(), "Each started range pages on its own thread.");
+
+        stream.close();
+
+        for (Thread thread : loaderThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(thread.isAlive(), "Closing the stream must stop " + thread);
+        }
+        assertFalse(lower.tryAdvance(blob -> {
+        }));
+        assertFalse(upper.tryAdvance(blob -> {
+        }));
+    }
+
+    private static List<String> drain(Spliterator<Blob> spliterator) {
+        List<String> keys = new ArrayList<>();
+        spliterator.forEachRemaining(blob -> keys.add(blob.getKey()));
+        return keys;
+    }
+
+    private static List<String> keys() {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add("data/" + (char) ('0' + i % 75) + String.format("%03d", i));
+        }
+        return keys.stream().sorted(BlobKeys.ORDER).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,173 @@
+package pagination;
+
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PagedFlowPublisher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PagedFlowPublisherTest {
+    @Test
+    void requestsNextPageBeforeCurrentPageIsDrained() {
+        PageLoader loader = new PageLoader();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PagedFlowPublisher<>(PageRequest.builder().pageSize(2).build(), loader).subscribe(subscriber);
+
+        subscriber.request(1);
+        assertEquals(1, loader.requests.size());
+        loader.complete(0, List.of("a", "b"), "page-1");
+
+        assertEquals(List.of("a"), subscriber.items);
+        assertEquals(2, loader.requests.size(), "Page 2 must be requested while page 1 is still being emitted.");
+        assertEquals("page-1", loader.requests.get(1).getContinuationToken());
+        assertEquals(2, loader.requests.get(1).getPageSize());
+
+        loader.complete(1, List.of("c"), null);
+        subscriber.request(Long.MAX_VALUE);
+
+        assertEquals(List.of("a", "b", "c"), subscriber.items);
+        assertTrue(subscriber.completed);
+        assertEquals(2, loader.requests.size());
+    }
+
+    @Test
+    void prefetchDepthBoundsPagesLoadedAhead() {
+        PageLoader loader = new PageLoader();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PagedFlowPublisher<>(PageRequest.firstPage(), loader, 2).subscribe(subscriber);
+
+        subscriber.request(1);
+        loader.complete(0, List.of("a", "b"), "page-1");
+        loader.complete(1, List.of("c", "d"), "page-2");
+        loader.complete(2, List.of("e", "f"), "page-3");
+
+        assertEquals(List.of("a"), subscriber.items);
+        assertEquals(3, loader.requests.size(), "Two pages may be loaded ahead, no more.");
+
+        subscriber.request(2);
+        assertEquals(List.of("a", "b", "c"), subscriber.items);
+        assertEquals(4, loader.requests.size(), "Emitting from page 2 frees room for one more page.");
+    }
+
+    @Test
+    void zeroPrefetchLoadsNextPageOnlyOnDemandAfterPageIsDrained() {
+        PageLoader loader = new PageLoader();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PagedFlowPublisher<>(PageRequest.firstPage(), loader, 0).subscribe(subscriber);
+
+        subscriber.request(1);
+        loader.complete(0, List.of("a", "b"), "page-1");
+        assertEquals(List.of("a"), subscriber.items);
+        assertEquals(1, loader.requests.size());
+
+        subscriber.request(1);
+        assertEquals(List.of("a", "b"), subscriber.items);
+        assertEquals(1, loader.requests.size(), "Without demand no page is loaded.");
+
+        subscriber.request(1);
+        assertEquals(2, loader.requests.size());
+        loader.complete(1, List.of(), null);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void cancelCancelsPrefetchInFlight() {
+        PageLoader loader = new PageLoader();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PagedFlowPublisher<>(PageRequest.firstPage(), loader).subscribe(subscriber);
+
+        subscriber.request(1);
+        loader.complete(0, List.of("a", "b"), "page-1");
+        CompletableFuture<ListingPage<String>> prefetch = loader.futures.get(1);
+        assertFalse(prefetch.isDone());
+
+        subscriber.subscription.cancel();
+
+        assertTrue(prefetch.isCancelled());
+        subscriber.request(10);
+        assertEquals(List.of("a"), subscriber.items);
+        assertEquals(2, loader.requests.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void failedPrefetchIsSignalledOnce() {
+        PageLoader loader = new PageLoader();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PagedFlowPublisher<>(PageRequest.firstPage(), loader).subscribe(subscriber);
+
+        subscriber.request(1);
+        loader.complete(0, List.of("a", "b"), "page-1");
+        IllegalStateException failure = new IllegalStateException("listing failed");
+        loader.futures.get(1).completeExceptionally(failure);
+
+        assertEquals(failure, subscriber.error);
+        subscriber.request(1);
+        assertEquals(List.of("a"), subscriber.items);
+    }
+
+    @Test
+    void negativePrefetchIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PagedFlowPublisher<>(PageRequest.firstPage(), new PageLoader(), -1));
+    }
+
+    private static final class PageLoader implements Function<PageRequest, CompletableFuture<ListingPage<String>>> {
+        private final List<PageRequest> requests = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<ListingPage<String>>> futures = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<ListingPage<String>> apply(PageRequest request) {
+            CompletableFuture<ListingPage<String>> future = new CompletableFuture<>();
+            requests.add(request);
+            futures.add(future);
+            return future;
+        }
+
+        private void complete(int index, List<String> items, String nextToken) {
+            futures.get(index).complete(ListingPage.of(items, nextToken));
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<String> {
+        private final List<String> items = new CopyOnWriteArrayList<>();
+        private Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        private void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
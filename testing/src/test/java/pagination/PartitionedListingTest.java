@@ -0,0 +1,85 @@
+package pagination;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.PartitionedListing;
+import org.junit.jupiter.api.Test;
+import support.InMemoryListing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionedListingTest {
+    @Test
+    void delimiterSplitsKeySpaceAtCommonPrefixes() {
+        List<String> keys = new ArrayList<>();
+        keys.add("logs/");
+        for (String folder : List.of("a", "b", "c", "d")) {
+            keys.add("logs/" + folder + "/");
+            for (int i = 0; i < 10; i++) {
+                keys.add("logs/" + folder + "/" + i + ".txt");
+            }
+            keys.add("logs/" + folder + ".txt");
+        }
+        InMemoryListing listing = new InMemoryListing("logs/", keys);
+        ParallelListingOptions options = ParallelListingOptions.builder()
+                .parallelism(2)
+                .pageSize(10)
+                .ordered(true)
+                .partitionDelimiter("/")
+                .build();
+
+        try (Stream<Blob> stream = PartitionedListing.stream(listing, "logs/", true, options)) {
+            assertEquals(keys.stream().sorted().toList(), stream.map(Blob::getKey).toList());
+        }
+
+        List<PageRequest> requests = listing.requests();
+        assertEquals("/", requests.getFirst().getDelimiter());
+        assertEquals(1, requests.stream().filter(request -> request.getDelimiter() != null).count());
+        List<String> rangeStarts = requests.stream()
+                .filter(request -> request.getContinuationToken() == null && request.getDelimiter() == null)
+                .map(PageRequest::getStartAfter)
+                .filter(Objects::nonNull)
+                .toList();
+        assertTrue(rangeStarts.containsAll(List.of("logs/b/", "logs/c/", "logs/d/")), () -> "Range starts: " + rangeStarts);
+        assertFalse(requests.stream().anyMatch(request -> Integer.valueOf(1).equals(request.getPageSize())),
+                "Common prefixes were found, so no key sampling probes are expected.");
+    }
+
+    @Test
+    void delimiterFallsBackToSampledBoundariesWithoutCommonPrefixes() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            keys.add("flat/" + (char) ('a' + i % 26) + i);
+        }
+        InMemoryListing listing = new InMemoryListing("flat/", keys);
+        ParallelListingOptions options = ParallelListingOptions.builder()
+                .parallelism(2)
+                .pageSize(4)
+                .ordered(true)
+                .partitionDelimiter("/")
+                .build();
+
+        List<String> listed;
+        try (Stream<Blob> stream = PartitionedListing.stream(listing, "flat/", true, options)) {
+            listed = stream.map(Blob::getKey).toList();
+        }
+
+        assertEquals(keys.stream().sorted().toList(), listed);
+        assertTrue(listing.requests().stream().anyMatch(request -> Integer.valueOf(1).equals(request.getPageSize())),
+                "Sampling probes list a single key.");
+    }
+
+    @Test
+    void emptyPartitionDelimiterIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelListingOptions.builder().partitionDelimiter("").build());
+    }
+}
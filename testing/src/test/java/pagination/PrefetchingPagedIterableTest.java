@@ -0,0 +1,136 @@
+package pagination;
+
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PrefetchingPagedIterable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefetchingPagedIterableTest {
+    @Test
+    void iteratesAllPagesInOrder() {
+        EndlessPages loader = new EndlessPages(3);
+        List<Integer> items = new ArrayList<>();
+        new PrefetchingPagedIterable<>(PageRequest.firstPage(), loader, 2).forEach(items::add);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), items);
+        assertEquals(3, loader.calls.get());
+    }
+
+    @Test
+    void loadsAtMostPrefetchPagesAhead() throws Exception {
+        EndlessPages loader = new EndlessPages(Integer.MAX_VALUE);
+        Iterator<Integer> iterator = new PrefetchingPagedIterable<>(PageRequest.firstPage(), loader, 2).iterator();
+        try {
+            assertEquals(0, iterator.next());
+
+            // One page is being consumed, two are buffered and a fourth is loaded and waits for room.
+            awaitTrue(() -> loader.calls.get() == 4);
+            Thread.sleep(100);
+            assertEquals(4, loader.calls.get());
+
+            assertEquals(1, iterator.next());
+            assertEquals(2, iterator.next());
+            awaitTrue(() -> loader.calls.get() == 5);
+        } finally {
+            ((AutoCloseable) iterator).close();
+        }
+    }
+
+    @Test
+    void closeStopsLoaderThread() throws Exception {
+        EndlessPages loader = new EndlessPages(Integer.MAX_VALUE);
+        Iterator<Integer> iterator = new PrefetchingPagedIterable<>(PageRequest.firstPage(), loader, 1).iterator();
+        assertTrue(iterator.hasNext());
+        awaitTrue(() -> loader.thread != null);
+
+        ((AutoCloseable) iterator).close();
+
+        loader.thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(loader.thread.isAlive());
+        assertFalse(iterator.hasNext());
+        int calls = loader.calls.get();
+        Thread.sleep(50);
+        assertEquals(calls, loader.calls.get());
+    }
+
+    @Test
+    void failureOfPrefetchedPageIsRethrownWhenReached() {
+        IllegalStateException failure = new IllegalStateException("listing failed");
+        Function<PageRequest, ListingPage<Integer>> loader = request -> {
+            if (request.getContinuationToken() != null) {
+                throw failure;
+            }
+            return ListingPage.of(List.of(1, 2), "page-1");
+        };
+        Iterator<Integer> iterator = new PrefetchingPagedIterable<>(PageRequest.firstPage(), loader, 2).iterator();
+
+        assertEquals(1, iterator.next());
+        assertEquals(2, iterator.next());
+        assertSame(failure, assertThrows(IllegalStateException.class, iterator::hasNext));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void abandonedIteratorStopsLoaderWhenCollected() throws Exception {
+        EndlessPages loader = new EndlessPages(Integer.MAX_VALUE);
+        startAndAbandon(new PrefetchingPagedIterable<>(PageRequest.firstPage(), loader, 1));
+        awaitTrue(() -> loader.thread != null);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (loader.thread.isAlive() && System.nanoTime() < deadline) {
+            System.gc();
+            loader.thread.join(50);
+        }
+        assertFalse(loader.thread.isAlive(), "The cleaner must stop the loader of a collected iterator.");
+    }
+
+    private static void startAndAbandon(PrefetchingPagedIterable<Integer> iterable) {
+        assertTrue(iterable.iterator().hasNext());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Pages of two consecutive numbers; the page numbered {@code pageCount - 1} is the last.
+     */
+    private static final class EndlessPages implements Function<PageRequest, ListingPage<Integer>> {
+        private final int pageCount;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Thread thread;
+
+        private EndlessPages(int pageCount) {
+            this.pageCount = pageCount;
+        }
+
+        @Override
+        public ListingPage<Integer> apply(PageRequest request) {
+            thread = Thread.currentThread();
+            int page = request.getContinuationToken() == null ? 0 : Integer.parseInt(request.getContinuationToken());
+            calls.incrementAndGet();
+            String next = page + 1 < pageCount ? Integer.toString(page + 1) : null;
+            return ListingPage.of(List.of(page * 2, page * 2 + 1), next);
+        }
+    }
+}
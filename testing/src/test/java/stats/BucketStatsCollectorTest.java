@@ -0,0 +1,100 @@
+package stats;
+
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStatsCollector;
+import io.github.michaelcirkl.ubsa.client.stats.PrefixStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BucketStatsCollectorTest {
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    @Test
+    void aggregatesSummariesAcrossParallelRanges() {
+        SummaryListing listing = new SummaryListing();
+        for (int i = 0; i < 50; i++) {
+            listing.add(String.format("logs/a/%03d.txt", i), i, i % 10 == 0 ? -1 : EPOCH + i * 1000L);
+        }
+        for (int i = 0; i < 30; i++) {
+            listing.add(String.format("logs/b/%03d.txt", i), 100 + i, EPOCH - i * 1000L);
+        }
+        ParallelListingOptions options = ParallelListingOptions.builder().parallelism(4).pageSize(7).build();
+
+        BucketStats stats = BucketStatsCollector.collect(listing, "bucket", "logs/", 1, true, options);
+
+        PrefixStats total = stats.getTotal();
+        assertEquals(80, total.getObjectCount());
+        assertEquals(49 * 50 / 2 + 30 * 100 + 29 * 30 / 2, total.getTotalBytes());
+        assertEquals(0, total.getMinSize());
+        assertEquals(129, total.getMaxSize());
+        assertEquals(5, total.getUndatedCount());
+        assertEquals(at(EPOCH - 29_000), total.getOldestLastModified());
+        assertEquals(at(EPOCH + 49_000), total.getNewestLastModified());
+        assertEquals(List.of("logs/a/", "logs/b/"), List.copyOf(stats.getGroups().keySet()));
+        assertEquals(30, stats.getGroups().get("logs/b/").getObjectCount());
+        assertTrue(listing.calls.get() > 80 / 7, "Every page of summaries must be listed.");
+    }
+
+    @Test
+    void asyncCollectionListsSummaries() {
+        SummaryListing listing = new SummaryListing();
+        listing.add("a.txt", 3, EPOCH);
+        listing.add("b.txt", 4, EPOCH);
+
+        BucketStats stats = BucketStatsCollector.collectAsync(
+                request -> CompletableFuture.completedFuture(listing.apply(request)), "bucket", null, 0, false, null).join();
+
+        assertEquals(2, stats.getTotal().getObjectCount());
+        assertEquals(7, stats.getTotal().getTotalBytes());
+        assertTrue(stats.getGroups().isEmpty());
+    }
+
+    private static LocalDateTime at(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Sorted summary listing honouring {@code startAfter}, page size and continuation tokens.
+     */
+    private static final class SummaryListing implements Function<PageRequest, ListingPage<BlobSummary>> {
+        private final NavigableMap<String, BlobSummary> summaries = new TreeMap<>(BlobKeys.ORDER);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private void add(String key, long size, long lastModifiedEpochMillis) {
+            summaries.put(key, BlobSummary.of("bucket", key, size, "etag", lastModifiedEpochMillis, null));
+        }
+
+        @Override
+        public ListingPage<BlobSummary> apply(PageRequest request) {
+            calls.incrementAndGet();
+            int pageSize = request.getPageSize() == null ? 1000 : request.getPageSize();
+            String after = request.getContinuationToken() != null ? request.getContinuationToken() : request.getStartAfter();
+            List<BlobSummary> page = new ArrayList<>();
+            for (BlobSummary summary : (after == null ? summaries : summaries.tailMap(after, false)).values()) {
+                if (page.size() == pageSize) {
+                    return ListingPage.of(page, page.getLast().getKey());
+                }
+                page.add(summary);
+            }
+            return ListingPage.of(page, null);
+        }
+    }
+}
@@ -36,24 +36,37 @@ public final class AsyncTestSupport {
     }
 
     public static byte[] readAllBytes(Flow.Publisher<ByteBuffer> publisher) {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        for (ByteBuffer buffer : collectItems(publisher)) {
-            ByteBuffer copy = buffer.asReadOnlyBuffer();
-            byte[] chunk = new byte[copy.remaining()];
-            copy.get(chunk);
-            output.write(chunk, 0, chunk.length);
-        }
-        return output.toByteArray();
+        return await(readAllBytesAsync(publisher));
+    }
+
+    public static CompletableFuture<byte[]> readAllBytesAsync(Flow.Publisher<ByteBuffer> publisher) {
+        return collectItemsAsync(publisher).thenApply(buffers -> {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            for (ByteBuffer buffer : buffers) {
+                ByteBuffer copy = buffer.asReadOnlyBuffer();
+                byte[] chunk = new byte[copy.remaining()];
+                copy.get(chunk);
+                output.write(chunk, 0, chunk.length);
+            }
+            return output.toByteArray();
+        });
     }
 
     public static <T> List<T> collectItems(Flow.Publisher<T> publisher) {
+        return await(collectItemsAsync(publisher));
+    }
+
+    /**
+     * Subscribes before returning, so the subscription is in place once this method returns.
+     */
+    public static <T> CompletableFuture<List<T>> collectItemsAsync(Flow.Publisher<T> publisher) {
         if (publisher == null) {
             throw new IllegalArgumentException("Publisher must not be null.");
         }
 
         CollectingSubscriber<T> subscriber = new CollectingSubscriber<>();
         publisher.subscribe(subscriber);
-        return await(subscriber.result());
+        return subscriber.result();
     }
 
     public static Flow.Publisher<ByteBuffer> publisherOf(byte[] content) {
@@ -0,0 +1,121 @@
+package support;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decorator that counts the calls reaching the wrapped client and can hold them back until released, so tests can
+ * observe which requests a client under test actually sends and force concurrent requests to overlap.
+ */
+public class CountingAsyncClient extends ForwardingBlobStorageAsyncClient {
+    private final ConcurrentMap<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<PageRequest>> pageRequests = new ConcurrentHashMap<>();
+    private final List<CompletableFuture<?>> upstreamFutures = new CopyOnWriteArrayList<>();
+    private volatile CompletableFuture<Void> gate = CompletableFuture.completedFuture(null);
+
+    public CountingAsyncClient(BlobStorageAsyncClient delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Returns the number of calls of the named operation that reached the wrapped client.
+     */
+    public int calls(String operation) {
+        AtomicInteger counter = calls.get(operation);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Returns the page requests of the named listing operation that reached the wrapped client, in call order.
+     */
+    public List<PageRequest> pageRequests(String operation) {
+        return List.copyOf(pageRequests.getOrDefault(operation, List.of()));
+    }
+
+    /**
+     * Holds back every following call until {@link #release()}.
+     */
+    public void hold() {
+        gate = new CompletableFuture<>();
+    }
+
+    public void release() {
+        gate.complete(null);
+    }
+
+    /**
+     * Returns the future of the last gated call, as seen by the client under test.
+     */
+    public CompletableFuture<?> lastUpstreamFuture() {
+        return upstreamFutures.getLast();
+    }
+
+    @Override
+    public CompletableFuture<Blob> getBlob(String bucketName, String blobKey) {
+        return gated("getBlob", () -> delegate().getBlob(bucketName, blobKey));
+    }
+
+    @Override
+    public CompletableFuture<Blob> getBlobMetadata(String bucketName, String blobKey) {
+        return gated("getBlobMetadata", () -> delegate().getBlobMetadata(bucketName, blobKey));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> blobExists(String bucketName, String blobKey) {
+        return gated("blobExists", () -> delegate().blobExists(bucketName, blobKey));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getByteRange(String bucketName, String blobKey, long startInclusive, long endInclusive) {
+        return gated("getByteRange", () -> delegate().getByteRange(bucketName, blobKey, startInclusive, endInclusive));
+    }
+
+    @Override
+    public Flow.Publisher<ByteBuffer> openBlobStream(String bucketName, String blobKey) {
+        count("openBlobStream");
+        CompletableFuture<Void> current = gate;
+        return subscriber -> current.thenRun(() -> delegate().openBlobStream(bucketName, blobKey).subscribe(subscriber));
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
+        record("listBlobs", request);
+        return delegate().listBlobs(bucketName, prefix, request);
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<BlobSummary>> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        record("listBlobSummaries", request);
+        return delegate().listBlobSummaries(bucketName, prefix, request);
+    }
+
+    protected void count(String operation) {
+        calls.computeIfAbsent(operation, ignored -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private void record(String operation, PageRequest request) {
+        count(operation);
+        pageRequests.computeIfAbsent(operation, ignored -> new CopyOnWriteArrayList<>()).add(request);
+    }
+
+    private <T> CompletableFuture<T> gated(String operation, Supplier<CompletableFuture<T>> call) {
+        count(operation);
+        CompletableFuture<T> future = gate.thenCompose(ignored -> call.get());
+        upstreamFutures.add(future);
+        return future;
+    }
+}
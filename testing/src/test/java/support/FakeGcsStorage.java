@@ -0,0 +1,174 @@
+package support;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.BlobWriteSession;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory Cloud Storage with just the calls the GCP async client makes for existence checks, blob streams and
+ * streaming uploads. Any other call throws {@link UnsupportedOperationException}.
+ */
+public final class FakeGcsStorage {
+    private final Map<BlobId, byte[]> blobs = new ConcurrentHashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger closes = new AtomicInteger();
+    private final StorageOptions options = StorageOptions.newBuilder()
+            .setProjectId("test")
+            .setCredentials(NoCredentials.getInstance())
+            .build();
+    private final Storage storage;
+    private volatile Runnable onGet = () -> {
+    };
+
+    public FakeGcsStorage() {
+        this.storage = (Storage) Proxy.newProxyInstance(
+                FakeGcsStorage.class.getClassLoader(),
+                new Class<?>[]{Storage.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "get" -> get(args[0] instanceof BlobId blobId ? blobId : BlobId.of((String) args[0], (String) args[1]));
+                    case "reader" -> reader((BlobId) args[0]);
+                    case "blobWriteSession" -> writeSession((BlobInfo) args[0]);
+                    case "delete" -> blobs.remove(BlobId.of((String) args[0], (String) args[1])) != null;
+                    case "getOptions" -> options;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    public Storage storage() {
+        return storage;
+    }
+
+    public void put(String bucket, String key, byte[] content) {
+        blobs.put(BlobId.of(bucket, key), content);
+    }
+
+    public byte[] content(String bucket, String key) {
+        return blobs.get(BlobId.of(bucket, key));
+    }
+
+    /**
+     * Sets an action run at the start of every {@code get} call, on the thread making it.
+     */
+    public void onGet(Runnable action) {
+        this.onGet = action;
+    }
+
+    /**
+     * Returns the number of {@code read} calls on channels opened by {@code reader}.
+     */
+    public int reads() {
+        return reads.get();
+    }
+
+    /**
+     * Returns the number of channels opened by {@code reader} that were closed.
+     */
+    public int closes() {
+        return closes.get();
+    }
+
+    private Blob get(BlobId blobId) throws ReflectiveOperationException {
+        onGet.run();
+        return blobs.containsKey(blobId) ? blob(blobId) : null;
+    }
+
+    private ReadChannel reader(BlobId blobId) {
+        byte[] content = blobs.get(blobId);
+        int[] position = {0};
+        boolean[] open = {true};
+        return (ReadChannel) Proxy.newProxyInstance(
+                FakeGcsStorage.class.getClassLoader(),
+                new Class<?>[]{ReadChannel.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "read" -> {
+                        reads.incrementAndGet();
+                        ByteBuffer target = (ByteBuffer) args[0];
+                        if (position[0] == content.length) {
+                            yield -1;
+                        }
+                        int length = Math.min(target.remaining(), content.length - position[0]);
+                        target.put(content, position[0], length);
+                        position[0] += length;
+                        yield length;
+                    }
+                    case "close" -> {
+                        if (open[0]) {
+                            open[0] = false;
+                            closes.incrementAndGet();
+                        }
+                        yield null;
+                    }
+                    case "isOpen" -> open[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private BlobWriteSession writeSession(BlobInfo blobInfo) {
+        SettableApiFuture<BlobInfo> result = SettableApiFuture.create();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        WritableByteChannel channel = new WritableByteChannel() {
+            private boolean open = true;
+
+            @Override
+            public int write(ByteBuffer source) {
+                int length = source.remaining();
+                byte[] bytes = new byte[length];
+                source.get(bytes);
+                output.writeBytes(bytes);
+                return length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() {
+                open = false;
+                blobs.put(blobInfo.getBlobId(), output.toByteArray());
+                result.set(blobInfo);
+            }
+        };
+        return new BlobWriteSession() {
+            @Override
+            public WritableByteChannel open() {
+                return channel;
+            }
+
+            @Override
+            public ApiFuture<BlobInfo> getResult() {
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Builds a {@link Blob} through its package-private constructor; the library offers no public way to create one
+     * without a request.
+     */
+    private Blob blob(BlobId blobId) throws ReflectiveOperationException {
+        Class<?> builderImpl = Class.forName("com.google.cloud.storage.BlobInfo$BuilderImpl");
+        Constructor<Blob> constructor = Blob.class.getDeclaredConstructor(Storage.class, builderImpl);
+        constructor.setAccessible(true);
+        return constructor.newInstance(storage, BlobInfo.newBuilder(blobId));
+    }
+}
@@ -0,0 +1,85 @@
+package support;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Page loader over an in-memory set of keys below a prefix, for testing listing utilities without a provider.
+ *
+ * <p>Pages follow the provider contract: keys in {@link BlobKeys#ORDER}, {@code startAfter} and {@code endBefore}
+ * bounds, continuation tokens, and common prefixes when a delimiter is given. Every request is recorded.
+ */
+public final class InMemoryListing implements Function<PageRequest, ListingPage<Blob>> {
+    private final String prefix;
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>(BlobKeys.ORDER);
+    private final List<PageRequest> requests = new CopyOnWriteArrayList<>();
+
+    public InMemoryListing(String prefix, Collection<String> keys) {
+        this.prefix = prefix == null ? "" : prefix;
+        this.keys.addAll(keys);
+    }
+
+    public void add(String key) {
+        keys.add(key);
+    }
+
+    public List<PageRequest> requests() {
+        return List.copyOf(requests);
+    }
+
+    @Override
+    public ListingPage<Blob> apply(PageRequest request) {
+        requests.add(request);
+        int pageSize = request.getPageSize() == null ? 1000 : request.getPageSize();
+        String after = request.getContinuationToken() != null ? request.getContinuationToken() : request.getStartAfter();
+        NavigableSet<String> remaining = after == null ? keys : keys.tailSet(after, false);
+        List<Blob> items = new ArrayList<>();
+        TreeSet<String> commonPrefixes = new TreeSet<>(BlobKeys.ORDER);
+        String last = null;
+        for (String key : remaining) {
+            if (!key.startsWith(prefix)) {
+                if (BlobKeys.compare(key, prefix) > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (request.getEndBefore() != null && BlobKeys.compare(key, request.getEndBefore()) >= 0) {
+                break;
+            }
+            String commonPrefix = commonPrefix(key, request.getDelimiter());
+            if (commonPrefix != null && commonPrefixes.contains(commonPrefix)) {
+                last = key;
+                continue;
+            }
+            if (items.size() + commonPrefixes.size() == pageSize) {
+                return ListingPage.of(items, List.copyOf(commonPrefixes), last);
+            }
+            if (commonPrefix != null) {
+                commonPrefixes.add(commonPrefix);
+            } else {
+                items.add(Blob.builder().key(key).size(key.length()).build());
+            }
+            last = key;
+        }
+        return ListingPage.of(items, List.copyOf(commonPrefixes), null);
+    }
+
+    private String commonPrefix(String key, String delimiter) {
+        if (delimiter == null) {
+            return null;
+        }
+        int index = key.indexOf(delimiter, prefix.length());
+        return index < 0 ? null : key.substring(0, index + delimiter.length());
+    }
+}
@@ -1,12 +1,28 @@
 package sync;
 
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.Bucket;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
 import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.inventory.BlobInventory;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingFilter;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PagedIterable;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.stats.PrefixStats;
 import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+import io.github.michaelcirkl.ubsa.client.transfer.SyncDirection;
+import io.github.michaelcirkl.ubsa.client.transfer.SyncOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.SyncReport;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -22,10 +38,18 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 
@@ -309,6 +333,20 @@ class SyncClientImplTest {
             Set<String> iteratedKeys = new HashSet<>();
             context.client().iterateBlobs(bucketName, "prefix/", 1).forEach(blob -> iteratedKeys.add(blob.getKey()));
             assertEquals(Set.of("prefix/a.txt", "prefix/b.txt", "prefix/c.txt"), iteratedKeys);
+
+            List<String> summaryKeys = new ArrayList<>();
+            context.client().iterateBlobSummaries(bucketName, "prefix/", 2).forEach(summary -> {
+                assertEquals(bucketName, summary.getBucket());
+                assertTrue(summary.getSize() > 0);
+                assertNotNull(summary.lastModified());
+                assertNotNull(summary.getPublicURI());
+                summaryKeys.add(summary.getKey());
+            });
+            assertEquals(List.of("prefix/a.txt", "prefix/b.txt", "prefix/c.txt"), summaryKeys);
+
+            List<String> prefetchedKeys = new ArrayList<>();
+            context.client().iterateBlobs(bucketName, "prefix/", 1, 2).forEach(blob -> prefetchedKeys.add(blob.getKey()));
+            assertEquals(List.of("prefix/a.txt", "prefix/b.txt", "prefix/c.txt"), prefetchedKeys);
         }
     }
 
@@ -425,6 +463,374 @@ class SyncClientImplTest {
         }
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void bulkReadsReportPerKeyResults(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("bulkread");
+            for (int i = 0; i < 5; i++) {
+                createTextBlob(context, bucketName, "bulk/" + i + ".txt", "content-" + i, Map.of("index", String.valueOf(i)), null);
+            }
+            List<String> keys = List.of("bulk/0.txt", "bulk/1.txt", "bulk/2.txt", "bulk/3.txt", "bulk/4.txt", "bulk/missing.txt");
+
+            List<BulkResult<Blob>> blobs;
+            try (Stream<BulkResult<Blob>> results = context.client().getBlobs(bucketName, keys, 2)) {
+                blobs = results.toList();
+            }
+            assertEquals(keys.size(), blobs.size());
+            assertEquals(Set.copyOf(keys), blobs.stream().map(BulkResult::getKey).collect(Collectors.toSet()));
+            for (BulkResult<Blob> result : blobs) {
+                if (result.getKey().equals("bulk/missing.txt")) {
+                    assertFalse(result.isSuccess());
+                    assertEquals(HttpURLConnection.HTTP_NOT_FOUND, result.getError().getStatusCode());
+                } else {
+                    assertTrue(result.isSuccess());
+                    String index = result.getKey().substring("bulk/".length(), "bulk/".length() + 1);
+                    assertEquals("content-" + index, new String(result.getValue().getContent(), StandardCharsets.UTF_8));
+                }
+            }
+
+            try (Stream<BulkResult<Blob>> metadata = context.client().getBlobsMetadata(bucketName, keys, 3)) {
+                List<BulkResult<Blob>> succeeded = metadata.filter(BulkResult::isSuccess).toList();
+                assertEquals(5, succeeded.size());
+                succeeded.forEach(result -> {
+                    assertNull(result.getValue().getContent());
+                    assertEquals(result.getKey().substring(5, 6), result.getValue().getUserMetadata().get("index"));
+                });
+            }
+
+            try (Stream<BulkResult<Blob>> abandoned = context.client().getBlobs(bucketName, keys, 1)) {
+                assertTrue(abandoned.findFirst().isPresent());
+            }
+            assertThrows(IllegalArgumentException.class, () -> context.client().getBlobs(bucketName, keys, 0));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void deleteBlobsRemovesExistingKeysAndIgnoresMissingOnes(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("batchdelete");
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                String key = "batch/" + i + ".txt";
+                createTextBlob(context, bucketName, key, "content-" + i, null, null);
+                keys.add(key);
+            }
+            createTextBlob(context, bucketName, "keep.txt", "keep", null, null);
+            keys.add("batch/missing.txt");
+
+            BatchDeleteResult result = context.client().deleteBlobs(bucketName, keys);
+
+            assertTrue(result.isSuccess(), () -> "Unexpected failures: " + result.getFailures());
+            assertEquals(keys.size(), result.getDeletedCount());
+            for (String key : keys) {
+                assertFalse(context.client().blobExists(bucketName, key));
+            }
+            assertTrue(context.client().blobExists(bucketName, "keep.txt"));
+
+            BatchDeleteResult empty = context.client().deleteBlobs(bucketName, List.of());
+            assertEquals(0, empty.getDeletedCount());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void deletePrefixAndForceDeleteBucketRemoveAllMatchingBlobs(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("prefixdelete");
+            for (int i = 0; i < 5; i++) {
+                createTextBlob(context, bucketName, "tmp/" + i + ".txt", "tmp-" + i, null, null);
+            }
+            createTextBlob(context, bucketName, "keep/data.txt", "keep", null, null);
+
+            BatchDeleteResult result = context.client().deletePrefix(bucketName, "tmp/");
+
+            assertTrue(result.isSuccess(), () -> "Unexpected failures: " + result.getFailures());
+            assertEquals(5, result.getDeletedCount());
+            ListingPage<Blob> remaining = context.client().listBlobs(bucketName, null, PageRequest.firstPage());
+            assertEquals(List.of("keep/data.txt"), remaining.getItems().stream().map(Blob::getKey).toList());
+
+            if (context.provider() != Provider.Azure) {
+                assertThrows(UbsaException.class, () -> context.client().deleteBucket(bucketName, false));
+            }
+            context.client().deleteBucket(bucketName, true);
+            assertFalse(context.client().bucketExists(bucketName));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void uploadDirectoryUploadsTreeAndSkipsUnchangedFiles(SyncProviderFixture fixture, @TempDir Path tempDir) throws IOException {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("uploaddir");
+            Files.createDirectories(tempDir.resolve("nested/deeper"));
+            Files.writeString(tempDir.resolve("root.txt"), "root", StandardCharsets.UTF_8);
+            Files.writeString(tempDir.resolve("nested/a.txt"), "alpha", StandardCharsets.UTF_8);
+            Files.writeString(tempDir.resolve("nested/deeper/b.txt"), "bravo", StandardCharsets.UTF_8);
+            DirectoryUploadOptions options = DirectoryUploadOptions.builder().maxConcurrency(2).build();
+
+            DirectoryUploadResult first = context.client().uploadDirectory(tempDir, bucketName, "artifacts", options);
+
+            assertTrue(first.isSuccess(), () -> "Unexpected failures: " + first.getFailures());
+            assertEquals(3, first.getUploadedCount());
+            assertEquals(14, first.getUploadedBytes());
+            assertArrayEquals(
+                    "bravo".getBytes(StandardCharsets.UTF_8),
+                    context.client().getBlob(bucketName, "artifacts/nested/deeper/b.txt").getContent()
+            );
+
+            Files.writeString(tempDir.resolve("nested/a.txt"), "alpha", StandardCharsets.UTF_8);
+            Files.writeString(tempDir.resolve("root.txt"), "ROOT", StandardCharsets.UTF_8);
+            DirectoryUploadResult second = context.client().uploadDirectory(tempDir, bucketName, "artifacts/", options);
+
+            assertTrue(second.isSuccess(), () -> "Unexpected failures: " + second.getFailures());
+            assertEquals(1, second.getUploadedCount());
+            assertEquals(2, second.getSkippedCount());
+            assertArrayEquals(
+                    "ROOT".getBytes(StandardCharsets.UTF_8),
+                    context.client().getBlob(bucketName, "artifacts/root.txt").getContent()
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void syncDirectoryPlansAndAppliesOnlyNeededChanges(SyncProviderFixture fixture, @TempDir Path tempDir) throws IOException {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("syncdir");
+            Path source = Files.createDirectories(tempDir.resolve("source"));
+            Files.createDirectories(source.resolve("nested"));
+            Files.writeString(source.resolve("a.txt"), "alpha", StandardCharsets.UTF_8);
+            Files.writeString(source.resolve("nested/b.txt"), "bravo", StandardCharsets.UTF_8);
+            createTextBlob(context, bucketName, "mirror/stale.txt", "stale", null, null);
+            SyncOptions options = SyncOptions.builder().deleteExtraneous(true).maxConcurrency(2).build();
+
+            SyncReport plan = context.client().syncDirectory(source, bucketName, "mirror", SyncDirection.UPLOAD,
+                    SyncOptions.builder().deleteExtraneous(true).dryRun(true).build());
+
+            assertTrue(plan.isDryRun());
+            assertEquals(
+                    List.of("UPLOAD mirror/a.txt", "DELETE_REMOTE mirror/stale.txt", "UPLOAD mirror/nested/b.txt"),
+                    plan.getActions().stream().map(action -> action.getType() + " " + action.getBlobKey()).toList()
+            );
+            assertTrue(context.client().blobExists(bucketName, "mirror/stale.txt"));
+
+            SyncReport upload = context.client().syncDirectory(source, bucketName, "mirror", SyncDirection.UPLOAD, options);
+
+            assertTrue(upload.isSuccess(), () -> "Unexpected failures: " + upload.getFailures());
+            assertEquals(3, upload.getCompletedCount());
+            assertEquals(10, upload.getTransferredBytes());
+            assertFalse(context.client().blobExists(bucketName, "mirror/stale.txt"));
+            assertTrue(context.client().syncDirectory(source, bucketName, "mirror", SyncDirection.UPLOAD, options)
+                    .getActions().isEmpty());
+            assertTrue(context.client().syncDirectory(source, bucketName, "mirror", SyncDirection.DOWNLOAD, options)
+                    .getActions().isEmpty(), "Uploaded files must not be downloaded back.");
+            Files.writeString(source.resolve("a.txt"), "ALPHA", StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(source.resolve("a.txt"), FileTime.from(Instant.parse("2000-01-01T00:00:00Z")));
+            assertEquals(
+                    List.of("DOWNLOAD mirror/a.txt"),
+                    context.client().syncDirectory(source, bucketName, "mirror", SyncDirection.DOWNLOAD,
+                                    SyncOptions.builder().dryRun(true).build())
+                            .getActions().stream().map(action -> action.getType() + " " + action.getBlobKey()).toList()
+            );
+
+            Path target = tempDir.resolve("target");
+            SyncReport download = context.client().syncDirectory(target, bucketName, "mirror/", SyncDirection.DOWNLOAD, options);
+
+            assertTrue(download.isSuccess(), () -> "Unexpected failures: " + download.getFailures());
+            assertEquals(2, download.getCompletedCount());
+            assertEquals("bravo", Files.readString(target.resolve("nested/b.txt"), StandardCharsets.UTF_8));
+            assertTrue(context.client().syncDirectory(target, bucketName, "mirror", SyncDirection.DOWNLOAD,
+                    SyncOptions.builder().verifyChecksums(true).build()).getActions().isEmpty());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void copyAndMovePrefixRelocateEveryBlob(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("moveprefix");
+            String archiveBucket = context.createBucket("archive");
+            createTextBlob(context, bucketName, "old/a.txt", "alpha", null, null);
+            createTextBlob(context, bucketName, "old/nested/b.txt", "bravo", null, null);
+            createTextBlob(context, bucketName, "older/c.txt", "charlie", null, null);
+            PrefixCopyOptions options = PrefixCopyOptions.builder().maxConcurrency(2).build();
+
+            PrefixCopyResult copied = context.client().copyPrefix(bucketName, "old", archiveBucket, "backup", options);
+
+            assertTrue(copied.isSuccess(), () -> "Unexpected failures: " + copied.getFailures());
+            assertEquals(2, copied.getCopiedCount());
+            assertEquals(0, copied.getDeletedCount());
+            assertTrue(context.client().blobExists(archiveBucket, "backup/nested/b.txt"));
+            assertTrue(context.client().blobExists(bucketName, "old/a.txt"));
+
+            PrefixCopyResult moved = context.client().movePrefix(bucketName, "old/", bucketName, "new/", options);
+
+            assertTrue(moved.isSuccess(), () -> "Unexpected failures: " + moved.getFailures());
+            assertEquals(2, moved.getCopiedCount());
+            assertEquals(2, moved.getDeletedCount());
+            assertArrayEquals(
+                    "bravo".getBytes(StandardCharsets.UTF_8),
+                    context.client().getBlob(bucketName, "new/nested/b.txt").getContent()
+            );
+            assertFalse(context.client().blobExists(bucketName, "old/a.txt"));
+            assertTrue(context.client().blobExists(bucketName, "older/c.txt"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> context.client().movePrefix(bucketName, "new", bucketName, "new/inner", options));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void streamBlobsParallelListsEveryBlobInKeyOrder(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("parallellist");
+            List<String> expectedKeys = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                String key = "ranges/" + (char) ('a' + i) + "/" + i + ".txt";
+                createTextBlob(context, bucketName, key, "content-" + i, null, null);
+                expectedKeys.add(key);
+            }
+            createTextBlob(context, bucketName, "rangesz.txt", "ignored", null, null);
+            ParallelListingOptions options = ParallelListingOptions.builder().parallelism(3).pageSize(2).ordered(true).build();
+
+            try (Stream<Blob> blobs = context.client().streamBlobsParallel(bucketName, "ranges/", options)) {
+                assertEquals(expectedKeys, blobs.map(Blob::getKey).toList());
+            }
+            try (Stream<Blob> blobs = context.client().streamBlobsParallel(bucketName, "missing/", options)) {
+                assertEquals(0, blobs.count());
+            }
+            try (Stream<Blob> blobs = context.client().streamAllBlobs(bucketName, "ranges/")) {
+                assertEquals(expectedKeys, blobs.parallel().map(Blob::getKey).toList());
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void listBlobsWithDelimiterReturnsOneLevelAndCommonPrefixes(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("hierarchy");
+            createTextBlob(context, bucketName, "tree/root.txt", "root", null, null);
+            createTextBlob(context, bucketName, "tree/a/one.txt", "one", null, null);
+            createTextBlob(context, bucketName, "tree/a/deep/two.txt", "two", null, null);
+            createTextBlob(context, bucketName, "tree/b/three.txt", "three", null, null);
+
+            ListingPage<Blob> page = context.client().listBlobs(bucketName, "tree/", PageRequest.builder().delimiter("/").build());
+
+            assertEquals(List.of("tree/root.txt"), page.getItems().stream().map(Blob::getKey).toList());
+            assertEquals(List.of("tree/a/", "tree/b/"), page.getCommonPrefixes());
+
+            ListingPage<Blob> flat = context.client().listBlobs(bucketName, "tree/", null);
+            assertEquals(4, flat.getItems().size());
+            assertTrue(flat.getCommonPrefixes().isEmpty());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void iterateBlobsWithinKeyRangeStopsAtEndBefore(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("keyrange");
+            for (String key : List.of("range/a", "range/b", "range/c", "range/d", "range/e")) {
+                createTextBlob(context, bucketName, key, key, null, null);
+            }
+            PageRequest request = PageRequest.builder().pageSize(1).startAfter("range/a").endBefore("range/d").build();
+
+            List<String> keys = new ArrayList<>();
+            new PagedIterable<>(request, pageRequest -> context.client().listBlobs(bucketName, "range/", pageRequest))
+                    .forEach(blob -> keys.add(blob.getKey()));
+
+            assertEquals(List.of("range/b", "range/c"), keys);
+            assertThrows(IllegalArgumentException.class,
+                    () -> PageRequest.builder().startAfter("range/d").endBefore("range/a").build());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void iterateBlobsWithFilterReturnsOnlyMatchingBlobs(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("filtered");
+            createTextBlob(context, bucketName, "filter/logs/a.gz", "0123456789", null, null);
+            createTextBlob(context, bucketName, "filter/logs/b.gz", "0", null, null);
+            createTextBlob(context, bucketName, "filter/logs/c.txt", "0123456789", null, null);
+            createTextBlob(context, bucketName, "filter/logs/deep/d.gz", "0123456789", null, null);
+            ListingFilter filter = ListingFilter.builder()
+                    .keyGlob("filter/logs/*.gz")
+                    .minSize(5)
+                    .modifiedSince(LocalDateTime.now(ZoneOffset.UTC).minusDays(1))
+                    .build();
+
+            List<String> keys = new ArrayList<>();
+            context.client().iterateBlobs(bucketName, "filter/", 1, filter).forEach(blob -> keys.add(blob.getKey()));
+
+            assertEquals(List.of("filter/logs/a.gz"), keys);
+            ListingFilter stale = ListingFilter.builder().modifiedBefore(LocalDateTime.of(2000, 1, 1, 0, 0)).build();
+            assertFalse(context.client().iterateBlobs(bucketName, "filter/", 10, stale).iterator().hasNext());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void inventoryAnswersQueriesLocallyAndRefreshesPartitions(SyncProviderFixture fixture, @TempDir Path tempDir) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("inventory");
+            createTextBlob(context, bucketName, "inv/a/one.txt", "one", null, null);
+            createTextBlob(context, bucketName, "inv/a/two.txt", "two!", null, null);
+            createTextBlob(context, bucketName, "inv/b/three.txt", "three", null, null);
+
+            BlobInventory inventory = BlobInventory.build(context.client(), bucketName, "inv/", tempDir.resolve("inv.idx"));
+
+            assertEquals(3, inventory.size());
+            assertTrue(inventory.contains("inv/a/one.txt"));
+            assertFalse(inventory.contains("inv/a/missing.txt"));
+            assertEquals(4, inventory.sizeOf("inv/a/two.txt"));
+            assertEquals(List.of("inv/a/one.txt", "inv/a/two.txt"),
+                    inventory.scan("inv/a/").map(BlobSummary::getKey).toList());
+
+            context.client().deleteBlobIfExists(bucketName, "inv/a/one.txt");
+            createTextBlob(context, bucketName, "inv/a/four.txt", "four", null, null);
+            createTextBlob(context, bucketName, "inv/b/five.txt", "five", null, null);
+            inventory.refresh(context.client(), List.of("inv/a/"));
+
+            assertEquals(List.of("inv/a/four.txt", "inv/a/two.txt", "inv/b/three.txt"),
+                    inventory.scan(null).map(BlobSummary::getKey).toList());
+            assertEquals(3, BlobInventory.open(tempDir.resolve("inv.idx")).size());
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("fixtures")
+    void computeStatsAggregatesCountsBytesAndGroups(SyncProviderFixture fixture) {
+        try (SyncTestContext context = fixture.openContext()) {
+            String bucketName = context.createBucket("stats");
+            createTextBlob(context, bucketName, "stats/a/one.txt", "one", null, null);
+            createTextBlob(context, bucketName, "stats/a/two.txt", "two!", null, null);
+            createTextBlob(context, bucketName, "stats/b/three.txt", "three", null, null);
+            createTextBlob(context, bucketName, "stats/readme", "", null, null);
+            createTextBlob(context, bucketName, "other.txt", "ignored", null, null);
+
+            BucketStats stats = context.client().computeStats(bucketName, "stats/", 1,
+                    ParallelListingOptions.builder().parallelism(2).pageSize(2).build());
+
+            PrefixStats total = stats.getTotal();
+            assertEquals(4, total.getObjectCount());
+            assertEquals(12, total.getTotalBytes());
+            assertEquals(0, total.getMinSize());
+            assertEquals(5, total.getMaxSize());
+            assertEquals(1, total.getSizeHistogram()[0]);
+            assertEquals(1, total.getSizeHistogram()[2]);
+            assertEquals(2, total.getSizeHistogram()[3]);
+            assertEquals(4, Arrays.stream(total.getAgeHistogram()).sum());
+            assertEquals(List.of("stats/", "stats/a/", "stats/b/"), List.copyOf(stats.getGroups().keySet()));
+            assertEquals(2, stats.getGroups().get("stats/a/").getObjectCount());
+            assertEquals(7, stats.getGroups().get("stats/a/").getTotalBytes());
+            assertEquals(1, stats.getGroups().get("stats/").getObjectCount());
+        }
+    }
+
     private static void createTextBlob(
             SyncTestContext context,
             String bucketName,
@@ -0,0 +1,132 @@
+package transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.transfer.BlobDifference;
+import io.github.michaelcirkl.ubsa.client.transfer.BlobMigration;
+import io.github.michaelcirkl.ubsa.client.transfer.BucketDiff;
+import io.github.michaelcirkl.ubsa.client.transfer.DiffOptions;
+import org.junit.jupiter.api.Test;
+import support.AsyncTestSupport;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BucketDiffTest {
+    @Test
+    void headsBlobsListedWithoutMetadataToFindMigratedCopies() {
+        Store source = new Store(true);
+        Store s3 = new Store(false);
+        source.put("migrated.txt", "gcs-etag-1", "same", Map.of());
+        s3.put("migrated.txt", "s3-etag-1", "same", Map.of(BlobMigration.SOURCE_ETAG_METADATA_KEY, "gcs-etag-1"));
+        source.put("changed.txt", "gcs-etag-2", "aaaa", Map.of());
+        s3.put("changed.txt", "s3-etag-2", "bbbb", Map.of());
+        source.put("resized.txt", "gcs-etag-3", "short", Map.of());
+        s3.put("resized.txt", "s3-etag-3", "much longer", Map.of());
+
+        List<BlobDifference> differences = diff(source, s3, DiffOptions.defaults());
+
+        assertEquals(List.of("changed.txt", "resized.txt"), differences.stream().map(BlobDifference::getKey).toList());
+        assertEquals(List.of(BlobDifference.Type.ETAG_MISMATCH, BlobDifference.Type.SIZE_MISMATCH),
+                differences.stream().map(BlobDifference::getType).toList());
+        assertEquals(2, s3.heads.get(), "Only same-size blobs with different ETags are fetched.");
+        assertEquals(0, source.heads.get(), "Listings with metadata need no HEAD request.");
+    }
+
+    @Test
+    void verifiesContentAfterFetchingMetadata() {
+        Store a = new Store(false);
+        Store b = new Store(false);
+        a.put("identical.txt", "etag-a1", "same", Map.of());
+        b.put("identical.txt", "etag-b1", "same", Map.of());
+        a.put("changed.txt", "etag-a2", "aaaa", Map.of());
+        b.put("changed.txt", "etag-b2", "bbbb", Map.of());
+
+        List<BlobDifference> differences = diff(a, b, DiffOptions.builder().verifyContent(true).rangeSize(2).build());
+
+        assertEquals(1, differences.size());
+        assertEquals("changed.txt", differences.getFirst().getKey());
+        assertEquals(BlobDifference.Type.CONTENT_MISMATCH, differences.getFirst().getType());
+        assertEquals(2, a.heads.get());
+        assertEquals(2, b.heads.get());
+    }
+
+    private static List<BlobDifference> diff(Store a, Store b, DiffOptions options) {
+        return AsyncTestSupport.collectItems(BucketDiff.diff(a, "bucket-a", "", b, "bucket-b", "", options));
+    }
+
+    private static BlobStorageAsyncClient unsupported() {
+        return (BlobStorageAsyncClient) Proxy.newProxyInstance(
+                BucketDiffTest.class.getClassLoader(),
+                new Class<?>[]{BlobStorageAsyncClient.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    /**
+     * Bucket whose listing returns user metadata only when {@code listsMetadata} is set, as S3 listings never do.
+     */
+    private static final class Store extends ForwardingBlobStorageAsyncClient {
+        private final boolean listsMetadata;
+        private final NavigableMap<String, Blob> blobs = new ConcurrentSkipListMap<>(BlobKeys.ORDER);
+        private final AtomicInteger heads = new AtomicInteger();
+
+        private Store(boolean listsMetadata) {
+            super(unsupported());
+            this.listsMetadata = listsMetadata;
+        }
+
+        private void put(String key, String etag, String content, Map<String, String> metadata) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            blobs.put(key, Blob.builder().key(key).etag(etag).size(bytes.length).content(bytes).userMetadata(metadata).build());
+        }
+
+        @Override
+        public CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
+            List<Blob> page = blobs.values().stream()
+                    .map(blob -> Blob.builder()
+                            .bucket(bucketName)
+                            .key(blob.getKey())
+                            .etag(blob.getEtag())
+                            .size(blob.getSize())
+                            .userMetadata(listsMetadata ? blob.getUserMetadata() : null)
+                            .build())
+                    .toList();
+            return CompletableFuture.completedFuture(ListingPage.of(page, null));
+        }
+
+        @Override
+        public CompletableFuture<Blob> getBlobMetadata(String bucketName, String blobKey) {
+            heads.incrementAndGet();
+            Blob blob = blobs.get(blobKey);
+            return CompletableFuture.completedFuture(Blob.builder()
+                    .bucket(bucketName)
+                    .key(blobKey)
+                    .etag(blob.getEtag())
+                    .size(blob.getSize())
+                    .userMetadata(blob.getUserMetadata())
+                    .build());
+        }
+
+        @Override
+        public CompletableFuture<byte[]> getByteRange(String bucketName, String blobKey, long startInclusive, long endInclusive) {
+            byte[] content = blobs.get(blobKey).getContent();
+            return CompletableFuture.completedFuture(Arrays.copyOfRange(content, (int) startInclusive, (int) endInclusive + 1));
+        }
+    }
+}
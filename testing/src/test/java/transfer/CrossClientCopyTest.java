@@ -0,0 +1,178 @@
+package transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.exception.types.AccessDeniedException;
+import io.github.michaelcirkl.ubsa.client.exception.types.BucketNotFoundException;
+import io.github.michaelcirkl.ubsa.client.exception.types.CopySourceUnreachableException;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.CrossClientCopy;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CrossClientCopyTest {
+    private static final URL SOURCE_URL = url("https://source.example/blob?signature=abc");
+
+    @Test
+    void pullsFromUrlWhenDestinationSupportsIt() {
+        Source source = new Source(null);
+        Destination destination = new Destination(CompletableFuture.completedFuture("url-etag"));
+
+        assertEquals("url-etag", copy(source, destination));
+        assertEquals(1, destination.urlPulls.get());
+        assertEquals(0, source.streams.get());
+    }
+
+    @Test
+    void streamsWhenDestinationCannotReachSourceUrl() {
+        Source source = new Source(null);
+        Destination destination = new Destination(CompletableFuture.failedFuture(
+                new CopySourceUnreachableException("Cannot verify copy source.", null, 403)));
+
+        assertEquals("stream-etag", copy(source, destination));
+        assertEquals(1, source.streams.get());
+    }
+
+    @Test
+    void streamsWhenSourceCannotPresign() {
+        Source source = new Source(new UbsaException("No signing credentials.",
+                new IllegalStateException("GCS signed URL generation requires credentials on the Storage client.")));
+        Destination destination = new Destination(CompletableFuture.completedFuture("url-etag"));
+
+        assertEquals("stream-etag", copy(source, destination));
+        assertEquals(0, destination.urlPulls.get());
+        assertEquals(1, source.streams.get());
+    }
+
+    @Test
+    void doesNotMaskOtherDestinationFailures() {
+        Source source = new Source(null);
+        Destination missingBucket = new Destination(CompletableFuture.failedFuture(
+                new BucketNotFoundException("Container not found.", null, 404)));
+        Destination denied = new Destination(CompletableFuture.failedFuture(
+                new AccessDeniedException("Authorization failure.", null, 403)));
+
+        CompletionException missing = assertThrows(CompletionException.class, () -> copy(source, missingBucket));
+        assertInstanceOf(BucketNotFoundException.class, missing.getCause());
+        CompletionException forbidden = assertThrows(CompletionException.class, () -> copy(source, denied));
+        assertInstanceOf(AccessDeniedException.class, forbidden.getCause());
+        assertEquals(0, source.streams.get());
+    }
+
+    @Test
+    void doesNotMaskPresigningFailuresOfValidClients() {
+        Source source = new Source(new IllegalArgumentException("Expiry must be positive."));
+        Destination destination = new Destination(CompletableFuture.completedFuture("url-etag"));
+
+        CompletionException error = assertThrows(CompletionException.class, () -> copy(source, destination));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(0, source.streams.get());
+    }
+
+    private static String copy(Source source, Destination destination) {
+        return CrossClientCopy.copyBlobAcrossClients(source, "source", "key", destination, "destination", "key",
+                Duration.ofMinutes(5)).join();
+    }
+
+    private static BlobStorageAsyncClient unsupported() {
+        return (BlobStorageAsyncClient) Proxy.newProxyInstance(
+                CrossClientCopyTest.class.getClassLoader(),
+                new Class<?>[]{BlobStorageAsyncClient.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static URL url(String value) {
+        try {
+            return URI.create(value).toURL();
+        } catch (Exception error) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    private static final class Source extends ForwardingBlobStorageAsyncClient {
+        private final RuntimeException presignError;
+        private final AtomicInteger streams = new AtomicInteger();
+
+        private Source(RuntimeException presignError) {
+            super(unsupported());
+            this.presignError = presignError;
+        }
+
+        @Override
+        public CompletableFuture<Blob> getBlobMetadata(String bucketName, String blobKey) {
+            return CompletableFuture.completedFuture(Blob.builder().bucket(bucketName).key(blobKey).size(7).build());
+        }
+
+        @Override
+        public URL generateGetUrl(String bucket, String objectKey, Duration expiry) {
+            if (presignError != null) {
+                throw presignError;
+            }
+            return SOURCE_URL;
+        }
+
+        @Override
+        public Flow.Publisher<ByteBuffer> openBlobStream(String bucketName, String blobKey) {
+            streams.incrementAndGet();
+            return new SubmissionPublisher<>();
+        }
+    }
+
+    private static final class Destination extends ForwardingBlobStorageAsyncClient {
+        private final CompletableFuture<String> urlResult;
+        private final AtomicInteger urlPulls = new AtomicInteger();
+
+        private Destination(CompletableFuture<String> urlResult) {
+            super(unsupported());
+            this.urlResult = urlResult;
+        }
+
+        @Override
+        public boolean supportsCreateBlobFromUrl() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<String> createBlobFromUrl(
+                String bucketName,
+                String blobKey,
+                URL sourceUrl,
+                long contentLength,
+                BlobWriteOptions options
+        ) {
+            urlPulls.incrementAndGet();
+            assertEquals(SOURCE_URL, sourceUrl);
+            return urlResult;
+        }
+
+        @Override
+        public CompletableFuture<String> createBlob(
+                String bucketName,
+                String blobKey,
+                Flow.Publisher<ByteBuffer> content,
+                long contentLength,
+                BlobWriteOptions options
+        ) {
+            return CompletableFuture.completedFuture("stream-etag");
+        }
+    }
+}
@@ -1,14 +1,35 @@
 package io.github.michaelcirkl.ubsa;
 
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkOperationPublisher;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.inventory.BlobChange;
+import io.github.michaelcirkl.ubsa.client.inventory.PrefixWatcher;
+import io.github.michaelcirkl.ubsa.client.inventory.WatchOptions;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStatsCollector;
 import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.streaming.FlowPublisherBridge;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploader;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopier;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingFilter;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
 import io.github.michaelcirkl.ubsa.client.pagination.PagedFlowPublisher;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.PartitionedListing;
 
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
@@ -52,6 +73,27 @@ public interface BlobStorageAsyncClient {
      */
     CompletableFuture<Blob> getBlobMetadata(String bucketName, String blobKey);
 
+    /**
+     * Loads the given blobs with at most {@code maxConcurrency} requests in flight.
+     *
+     * <p>The publisher emits one {@link BulkResult} per key in completion order. Per-key failures are reported as
+     * failed results rather than terminating the stream. Running requests plus undelivered results never exceed
+     * {@code maxConcurrency}, so downstream demand throttles the fan-out.
+     */
+    default Flow.Publisher<BulkResult<Blob>> getBlobs(String bucketName, Collection<String> blobKeys, int maxConcurrency) {
+        return new BulkOperationPublisher<>(blobKeys, maxConcurrency, blobKey -> getBlob(bucketName, blobKey));
+    }
+
+    /**
+     * Loads metadata for the given blobs with at most {@code maxConcurrency} requests in flight.
+     *
+     * <p>Behaves like {@link #getBlobs(String, Collection, int)}, but every successful result has {@code null}
+     * content.
+     */
+    default Flow.Publisher<BulkResult<Blob>> getBlobsMetadata(String bucketName, Collection<String> blobKeys, int maxConcurrency) {
+        return new BulkOperationPublisher<>(blobKeys, maxConcurrency, blobKey -> getBlobMetadata(bucketName, blobKey));
+    }
+
     /**
      * Opens a publisher that emits the blob content as byte buffers.
      */
@@ -62,6 +104,21 @@ public interface BlobStorageAsyncClient {
      */
     CompletableFuture<Void> deleteBucket(String bucketName);
 
+    /**
+     * Deletes the bucket/container, first removing every blob in it when {@code force} is {@code true}.
+     *
+     * <p>Without {@code force} this behaves like {@link #deleteBucket(String)}. With {@code force}, the future fails
+     * with an {@link UbsaException} if any blob could not be deleted.
+     */
+    default CompletableFuture<Void> deleteBucket(String bucketName, boolean force) {
+        if (!force) {
+            return deleteBucket(bucketName);
+        }
+        return deletePrefix(bucketName, null)
+                .thenApply(result -> BatchDeleteSupport.requireSuccess(bucketName, result))
+                .thenCompose(ignored -> deleteBucket(bucketName));
+    }
+
     /**
      * Returns whether the blob exists.
      */
@@ -90,11 +147,91 @@ public interface BlobStorageAsyncClient {
      */
     CompletableFuture<String> createBlob(String bucketName, String blobKey, Flow.Publisher<ByteBuffer> content, long contentLength, BlobWriteOptions options);
 
+    /**
+     * Returns whether {@link #createBlobFromUrl} is supported, i.e. the service can fetch blob content from a URL
+     * itself instead of receiving it from this client.
+     */
+    default boolean supportsCreateBlobFromUrl() {
+        return false;
+    }
+
+    /**
+     * Creates or overwrites a blob whose content the service downloads from {@code sourceUrl}, typically a presigned
+     * URL of another provider. The content does not pass through this process.
+     *
+     * <p>Providers without URL ingestion return a future failed with {@link UnsupportedOperationException}; check
+     * {@link #supportsCreateBlobFromUrl()} first.
+     */
+    default CompletableFuture<String> createBlobFromUrl(
+            String bucketName,
+            String blobKey,
+            URL sourceUrl,
+            long contentLength,
+            BlobWriteOptions options
+    ) {
+        return CompletableFuture.failedFuture(
+                new UnsupportedOperationException(getProvider() + " does not support creating blobs from a URL.")
+        );
+    }
+
+    /**
+     * Uploads every regular file below {@code root} to keys formed from {@code prefix} and the relative file path.
+     *
+     * <p>Files are uploaded concurrently within the limits of the given options (defaults when {@code null}).
+     * Per-file failures are reported in the returned {@link DirectoryUploadResult} instead of failing the future.
+     */
+    default CompletableFuture<DirectoryUploadResult> uploadDirectory(
+            Path root,
+            String bucketName,
+            String prefix,
+            DirectoryUploadOptions options
+    ) {
+        return DirectoryUploader.uploadAsync(this, root, bucketName, prefix, options);
+    }
+
     /**
      * Deletes the blob when it exists and does not fail when it is already missing.
      */
     CompletableFuture<Void> deleteBlobIfExists(String bucketName, String blobKey);
 
+    /**
+     * Deletes the given blobs, treating blobs that are already missing as deleted.
+     *
+     * <p>Per-key failures are reported in the returned {@link BatchDeleteResult} instead of failing the future.
+     */
+    default CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Collection<String> blobKeys) {
+        return deleteBlobs(bucketName, BatchDeleteSupport.publisherOf(blobKeys));
+    }
+
+    /**
+     * Deletes the blobs emitted by the given publisher, treating blobs that are already missing as deleted.
+     *
+     * <p>Provider clients use the native multi-object delete and pipeline several batch requests; keys are pulled
+     * from the publisher only as fast as batches complete. The default implementation issues individual deletes with
+     * bounded concurrency.
+     */
+    default CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Flow.Publisher<String> blobKeys) {
+        return BatchDeleteSupport.deleteAsync(
+                blobKeys,
+                1,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> deleteBlobIfExists(bucketName, keys.get(0)).thenApply(ignored -> List.of())
+        );
+    }
+
+    /**
+     * Deletes every blob whose key starts with the given prefix, or every blob in the bucket when the prefix is blank.
+     *
+     * <p>Listing pages are fed straight into {@link #deleteBlobs(String, Flow.Publisher)}, so the next page is listed
+     * while earlier batches are still being deleted.
+     */
+    default CompletableFuture<BatchDeleteResult> deletePrefix(String bucketName, String prefix) {
+        return deleteBlobs(
+                bucketName,
+                FlowPublisherBridge.map(streamBlobs(bucketName, prefix, BatchDeleteSupport.LISTING_PAGE_SIZE), Blob::getKey)
+        );
+    }
+
     /**
      * Copies a blob to another bucket/key and returns the ETag of the new blob when the provider exposes one.
      */
@@ -105,6 +242,38 @@ public interface BlobStorageAsyncClient {
             String destinationBlobKey
     );
 
+    /**
+     * Copies every blob below {@code sourcePrefix} to the same relative keys below {@code destinationPrefix} with
+     * server-side copies.
+     *
+     * <p>Listing pages are fed into concurrent copies within the limits of the given options (defaults when
+     * {@code null}); retryable failures are retried and the remaining per-blob failures are reported in the returned
+     * {@link PrefixCopyResult}. Prefixes are treated as directories, so a trailing {@code /} is added when missing.
+     */
+    default CompletableFuture<PrefixCopyResult> copyPrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return PrefixCopier.copyAsync(this, sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, false, options);
+    }
+
+    /**
+     * Moves every blob below {@code sourcePrefix} like {@link #copyPrefix}, deleting source blobs in batches once
+     * their copy has succeeded.
+     */
+    default CompletableFuture<PrefixCopyResult> movePrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return PrefixCopier.copyAsync(this, sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, true, options);
+    }
+
     /**
      * Returns a single page of buckets/containers.
      *
@@ -116,24 +285,50 @@ public interface BlobStorageAsyncClient {
      * Returns a single page of blobs in the given bucket/container.
      *
      * <p>If {@code prefix} is non-blank, only matching blob keys are returned. If {@code request} is
-     * {@code null}, the first page is requested with provider defaults.
+     * {@code null}, the first page is requested with provider defaults. With a
+     * {@linkplain PageRequest#getDelimiter() delimiter}, only the level directly below the prefix is listed and deeper
+     * keys are returned as {@linkplain ListingPage#getCommonPrefixes() common prefixes}.
      */
     CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request);
 
+    /**
+     * Returns a single page of blob summaries in the given bucket/container.
+     *
+     * <p>Summaries carry only key, size, ETag and last-modified time and are cheaper to produce than full blobs when
+     * listing large prefixes. The request is interpreted as in {@link #listBlobs(String, String, PageRequest)}.
+     */
+    default CompletableFuture<ListingPage<BlobSummary>> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        return listBlobs(bucketName, prefix, request).thenApply(page -> ListingPage.of(
+                page.getItems().stream().map(BlobSummary::from).toList(),
+                page.getCommonPrefixes(),
+                page.getNextContinuationToken()
+        ));
+    }
+
     /**
      * Returns all buckets/containers by repeatedly loading pages until exhaustion.
      */
     CompletableFuture<List<Bucket>> listAllBuckets();
 
     /**
-     * Streams all buckets/containers using paginated listing requests.
+     * Streams all buckets/containers using paginated listing requests, loading one page ahead of the page being
+     * emitted.
      */
     default Flow.Publisher<Bucket> streamBuckets(int pageSize) {
         return new PagedFlowPublisher<>(PageRequest.builder().pageSize(pageSize).build(), this::listBuckets);
     }
 
     /**
-     * Streams all blobs matching the given prefix using paginated listing requests.
+     * Streams all buckets/containers using paginated listing requests, loading up to {@code prefetch} pages ahead of
+     * the page being emitted. A prefetch of {@code 0} requests each page only once the previous one has been emitted.
+     */
+    default Flow.Publisher<Bucket> streamBuckets(int pageSize, int prefetch) {
+        return new PagedFlowPublisher<>(PageRequest.builder().pageSize(pageSize).build(), this::listBuckets, prefetch);
+    }
+
+    /**
+     * Streams all blobs matching the given prefix using paginated listing requests, loading one page ahead of the page
+     * being emitted.
      */
     default Flow.Publisher<Blob> streamBlobs(String bucketName, String prefix, int pageSize) {
         return new PagedFlowPublisher<>(
@@ -142,6 +337,95 @@ public interface BlobStorageAsyncClient {
         );
     }
 
+    /**
+     * Streams all blobs matching the given prefix using paginated listing requests, loading up to {@code prefetch}
+     * pages ahead of the page being emitted. A prefetch of {@code 0} requests each page only once the previous one has
+     * been emitted.
+     */
+    default Flow.Publisher<Blob> streamBlobs(String bucketName, String prefix, int pageSize, int prefetch) {
+        return new PagedFlowPublisher<>(
+                PageRequest.builder().pageSize(pageSize).build(),
+                pageRequest -> listBlobs(bucketName, prefix, pageRequest),
+                prefetch
+        );
+    }
+
+    /**
+     * Streams all blobs matching the given prefix that pass {@code filter}, using paginated listing requests. The
+     * filter is pushed to the provider where supported and otherwise applied before blobs are mapped.
+     */
+    default Flow.Publisher<Blob> streamBlobs(String bucketName, String prefix, int pageSize, ListingFilter filter) {
+        return new PagedFlowPublisher<>(
+                PageRequest.builder().pageSize(pageSize).filter(filter).build(),
+                pageRequest -> listBlobs(bucketName, prefix, pageRequest)
+        );
+    }
+
+    /**
+     * Streams summaries of all blobs matching the given prefix using paginated listing requests.
+     */
+    default Flow.Publisher<BlobSummary> streamBlobSummaries(String bucketName, String prefix, int pageSize) {
+        return new PagedFlowPublisher<>(
+                PageRequest.builder().pageSize(pageSize).build(),
+                pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest)
+        );
+    }
+
+    /**
+     * Streams all blobs matching the given prefix, listing several key ranges in parallel.
+     *
+     * <p>The key space is split at sampled boundary keys, or at common prefixes when
+     * {@link ParallelListingOptions#partitionDelimiter()} is set, and up to {@link ParallelListingOptions#parallelism()}
+     * ranges are listed at the same time. Blobs arrive in key order only when {@link ParallelListingOptions#ordered()}
+     * is set. Options default when {@code null}.
+     */
+    default Flow.Publisher<Blob> streamBlobsParallel(String bucketName, String prefix, ParallelListingOptions options) {
+        return PartitionedListing.publisher(pageRequest -> listBlobs(bucketName, prefix, pageRequest), prefix, true, options);
+    }
+
+    /**
+     * Computes object count, total bytes and size and age histograms of the blobs below {@code prefix}, overall and
+     * per group of the first {@code groupingDepth} path segments after it.
+     *
+     * <p>The prefix is listed as parallel key ranges like {@link #streamBlobsParallel}, with default options. Blobs are
+     * counted as their pages arrive and are not retained, so memory does not grow with the number of blobs.
+     */
+    default CompletableFuture<BucketStats> computeStats(String bucketName, String prefix, int groupingDepth) {
+        return computeStats(bucketName, prefix, groupingDepth, null);
+    }
+
+    /**
+     * Computes bucket statistics like {@link #computeStats(String, String, int)}, listing with the given options.
+     * Options default when {@code null}.
+     */
+    default CompletableFuture<BucketStats> computeStats(
+            String bucketName,
+            String prefix,
+            int groupingDepth,
+            ParallelListingOptions options
+    ) {
+        return BucketStatsCollector.collectAsync(pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest), bucketName,
+                prefix, groupingDepth, true, options);
+    }
+
+    /**
+     * Polls the blobs below {@code prefix} every {@code interval} and publishes those created, updated and deleted
+     * since the previous poll, as described in {@link PrefixWatcher}. The first poll is the baseline and publishes
+     * nothing.
+     */
+    default Flow.Publisher<BlobChange> watch(String bucketName, String prefix, Duration interval) {
+        return watch(bucketName, prefix, interval, null);
+    }
+
+    /**
+     * Watches the blobs below {@code prefix} like {@link #watch(String, String, Duration)} with the given options.
+     * Options default when {@code null}.
+     */
+    default Flow.Publisher<BlobChange> watch(String bucketName, String prefix, Duration interval, WatchOptions options) {
+        return PrefixWatcher.publisher(pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest), bucketName,
+                prefix, interval, true, options);
+    }
+
     /**
      * Creates a bucket/container.
      */
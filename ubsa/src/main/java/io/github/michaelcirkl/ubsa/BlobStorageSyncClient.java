@@ -1,15 +1,40 @@
 package io.github.michaelcirkl.ubsa;
 
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkOperationIterator;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.KeyRangeSpliterator;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingFilter;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
 import io.github.michaelcirkl.ubsa.client.pagination.PagedIterable;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.PartitionedListing;
+import io.github.michaelcirkl.ubsa.client.pagination.PrefetchingPagedIterable;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStatsCollector;
 import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectorySync;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploader;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopier;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+import io.github.michaelcirkl.ubsa.client.transfer.SyncDirection;
+import io.github.michaelcirkl.ubsa.client.transfer.SyncOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.SyncReport;
 
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Synchronous provider-neutral client for bucket and blob operations.
@@ -50,6 +75,27 @@ public interface BlobStorageSyncClient {
      */
     Blob getBlobMetadata(String bucketName, String blobKey);
 
+    /**
+     * Loads the given blobs on virtual threads with at most {@code maxConcurrency} requests in flight.
+     *
+     * <p>The stream yields one {@link BulkResult} per key in completion order. Per-key failures are reported as
+     * failed results rather than thrown. Running requests plus unconsumed results never exceed
+     * {@code maxConcurrency}. Close the stream to abandon the remaining keys early.
+     */
+    default Stream<BulkResult<Blob>> getBlobs(String bucketName, Collection<String> blobKeys, int maxConcurrency) {
+        return BulkOperationIterator.stream(blobKeys, maxConcurrency, blobKey -> getBlob(bucketName, blobKey));
+    }
+
+    /**
+     * Loads metadata for the given blobs on virtual threads with at most {@code maxConcurrency} requests in flight.
+     *
+     * <p>Behaves like {@link #getBlobs(String, Collection, int)}, but every successful result has {@code null}
+     * content.
+     */
+    default Stream<BulkResult<Blob>> getBlobsMetadata(String bucketName, Collection<String> blobKeys, int maxConcurrency) {
+        return BulkOperationIterator.stream(blobKeys, maxConcurrency, blobKey -> getBlobMetadata(bucketName, blobKey));
+    }
+
     /**
      * Opens a streaming read for the blob content.
      *
@@ -62,6 +108,19 @@ public interface BlobStorageSyncClient {
      */
     Void deleteBucket(String bucketName);
 
+    /**
+     * Deletes the bucket/container, first removing every blob in it when {@code force} is {@code true}.
+     *
+     * <p>Without {@code force} this behaves like {@link #deleteBucket(String)}. With {@code force}, an
+     * {@link UbsaException} is thrown if any blob could not be deleted.
+     */
+    default Void deleteBucket(String bucketName, boolean force) {
+        if (force) {
+            BatchDeleteSupport.requireSuccess(bucketName, deletePrefix(bucketName, null));
+        }
+        return deleteBucket(bucketName);
+    }
+
     /**
      * Returns whether the blob exists.
      */
@@ -90,11 +149,70 @@ public interface BlobStorageSyncClient {
      */
     String createBlob(String bucketName, String blobKey, InputStream content, long contentLength, BlobWriteOptions options);
 
+    /**
+     * Uploads every regular file below {@code root} to keys formed from {@code prefix} and the relative file path.
+     *
+     * <p>Files are uploaded concurrently on virtual threads within the limits of the given options (defaults when
+     * {@code null}). Per-file failures are reported in the returned {@link DirectoryUploadResult} instead of being
+     * thrown.
+     */
+    default DirectoryUploadResult uploadDirectory(Path root, String bucketName, String prefix, DirectoryUploadOptions options) {
+        return DirectoryUploader.upload(this, root, bucketName, prefix, options);
+    }
+
+    /**
+     * Synchronizes {@code localDir} with the blobs below {@code prefix} in the given direction.
+     *
+     * <p>The remote listing is merge-joined against the local files and only new or changed files are transferred;
+     * with {@link SyncOptions#deleteExtraneous()} items missing from the source side are deleted. A dry run returns
+     * the planned actions without changing anything. Options default when {@code null}.
+     */
+    default SyncReport syncDirectory(
+            Path localDir,
+            String bucketName,
+            String prefix,
+            SyncDirection direction,
+            SyncOptions options
+    ) {
+        return DirectorySync.sync(this, localDir, bucketName, prefix, direction, options);
+    }
+
     /**
      * Deletes the blob when it exists and does not fail when it is already missing.
      */
     Void deleteBlobIfExists(String bucketName, String blobKey);
 
+    /**
+     * Deletes the given blobs, treating blobs that are already missing as deleted.
+     *
+     * <p>Provider clients use the native multi-object delete and run several batch requests concurrently on virtual
+     * threads; keys are pulled from the iterable only as fast as batches complete. The default implementation issues
+     * individual deletes with bounded concurrency. Per-key failures are reported in the returned
+     * {@link BatchDeleteResult} instead of being thrown.
+     */
+    default BatchDeleteResult deleteBlobs(String bucketName, Iterable<String> blobKeys) {
+        return BatchDeleteSupport.deleteSync(
+                blobKeys,
+                1,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> {
+                    deleteBlobIfExists(bucketName, keys.get(0));
+                    return List.of();
+                }
+        );
+    }
+
+    /**
+     * Deletes every blob whose key starts with the given prefix, or every blob in the bucket when the prefix is blank.
+     *
+     * <p>Listing pages are fed straight into {@link #deleteBlobs(String, Iterable)}, so the next page is listed while
+     * earlier batches are still being deleted.
+     */
+    default BatchDeleteResult deletePrefix(String bucketName, String prefix) {
+        Iterable<Blob> blobs = iterateBlobs(bucketName, prefix, BatchDeleteSupport.LISTING_PAGE_SIZE);
+        return deleteBlobs(bucketName, () -> StreamSupport.stream(blobs.spliterator(), false).map(Blob::getKey).iterator());
+    }
+
     /**
      * Copies a blob to another bucket/key and returns the ETag of the new blob when the provider exposes one.
      */
@@ -105,6 +223,38 @@ public interface BlobStorageSyncClient {
             String destinationBlobKey
     );
 
+    /**
+     * Copies every blob below {@code sourcePrefix} to the same relative keys below {@code destinationPrefix} with
+     * server-side copies.
+     *
+     * <p>Listing pages are fed into concurrent copies on virtual threads within the limits of the given options (defaults when
+     * {@code null}); retryable failures are retried and the remaining per-blob failures are reported in the returned
+     * {@link PrefixCopyResult}. Prefixes are treated as directories, so a trailing {@code /} is added when missing.
+     */
+    default PrefixCopyResult copyPrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return PrefixCopier.copy(this, sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, false, options);
+    }
+
+    /**
+     * Moves every blob below {@code sourcePrefix} like {@link #copyPrefix}, deleting source blobs in batches once
+     * their copy has succeeded.
+     */
+    default PrefixCopyResult movePrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return PrefixCopier.copy(this, sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, true, options);
+    }
+
     /**
      * Returns a single page of buckets/containers.
      *
@@ -116,10 +266,27 @@ public interface BlobStorageSyncClient {
      * Returns a single page of blobs in the given bucket/container.
      *
      * <p>If {@code prefix} is non-blank, only matching blob keys are returned. If {@code request} is
-     * {@code null}, the first page is requested with provider defaults.
+     * {@code null}, the first page is requested with provider defaults. With a
+     * {@linkplain PageRequest#getDelimiter() delimiter}, only the level directly below the prefix is listed and deeper
+     * keys are returned as {@linkplain ListingPage#getCommonPrefixes() common prefixes}.
      */
     ListingPage<Blob> listBlobs(String bucketName, String prefix, PageRequest request);
 
+    /**
+     * Returns a single page of blob summaries in the given bucket/container.
+     *
+     * <p>Summaries carry only key, size, ETag and last-modified time and are cheaper to produce than full blobs when
+     * listing large prefixes. The request is interpreted as in {@link #listBlobs(String, String, PageRequest)}.
+     */
+    default ListingPage<BlobSummary> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        ListingPage<Blob> page = listBlobs(bucketName, prefix, request);
+        return ListingPage.of(
+                page.getItems().stream().map(BlobSummary::from).toList(),
+                page.getCommonPrefixes(),
+                page.getNextContinuationToken()
+        );
+    }
+
     /**
      * Returns all buckets/containers by repeatedly loading pages until exhaustion.
      */
@@ -132,6 +299,14 @@ public interface BlobStorageSyncClient {
         return new PagedIterable<>(PageRequest.builder().pageSize(pageSize).build(), this::listBuckets);
     }
 
+    /**
+     * Iterates across all buckets/containers while up to {@code prefetchPages} following pages are loaded on a
+     * background virtual thread.
+     */
+    default Iterable<Bucket> iterateBuckets(int pageSize, int prefetchPages) {
+        return new PrefetchingPagedIterable<>(PageRequest.builder().pageSize(pageSize).build(), this::listBuckets, prefetchPages);
+    }
+
     /**
      * Lazily iterates across all blobs matching the given prefix using paginated listing requests.
      */
@@ -142,6 +317,84 @@ public interface BlobStorageSyncClient {
         );
     }
 
+    /**
+     * Lazily iterates across all blobs matching the given prefix that pass {@code filter}, using paginated listing
+     * requests. The filter is pushed to the provider where supported and otherwise applied before blobs are mapped.
+     */
+    default Iterable<Blob> iterateBlobs(String bucketName, String prefix, int pageSize, ListingFilter filter) {
+        return new PagedIterable<>(
+                PageRequest.builder().pageSize(pageSize).filter(filter).build(),
+                pageRequest -> listBlobs(bucketName, prefix, pageRequest)
+        );
+    }
+
+    /**
+     * Lazily iterates across summaries of all blobs matching the given prefix using paginated listing requests.
+     */
+    default Iterable<BlobSummary> iterateBlobSummaries(String bucketName, String prefix, int pageSize) {
+        return new PagedIterable<>(
+                PageRequest.builder().pageSize(pageSize).build(),
+                pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest)
+        );
+    }
+
+    /**
+     * Iterates across all blobs matching the given prefix while up to {@code prefetchPages} following pages are
+     * loaded on a background virtual thread. Iterators implement {@link AutoCloseable} and should be closed when
+     * iteration is abandoned early.
+     */
+    default Iterable<Blob> iterateBlobs(String bucketName, String prefix, int pageSize, int prefetchPages) {
+        return new PrefetchingPagedIterable<>(
+                PageRequest.builder().pageSize(pageSize).build(),
+                pageRequest -> listBlobs(bucketName, prefix, pageRequest),
+                prefetchPages
+        );
+    }
+
+    /**
+     * Returns all blobs matching the given prefix as a lazily paged stream.
+     *
+     * <p>Following pages are prefetched while the current one is consumed. When the stream is
+     * {@linkplain Stream#parallel() parallel}, its spliterator splits the prefix into key ranges at existing keys, so
+     * ranges are listed concurrently without materializing the listing. The stream must be closed to stop paging
+     * early.
+     */
+    default Stream<Blob> streamAllBlobs(String bucketName, String prefix) {
+        return KeyRangeSpliterator.stream(pageRequest -> listBlobs(bucketName, prefix, pageRequest), prefix, true);
+    }
+
+    /**
+     * Lists all blobs matching the given prefix as several key ranges in parallel and returns them as one stream.
+     *
+     * <p>The key space is split at sampled boundary keys, or at common prefixes when
+     * {@link ParallelListingOptions#partitionDelimiter()} is set, and up to {@link ParallelListingOptions#parallelism()}
+     * ranges are listed at the same time. Blobs arrive in key order only when {@link ParallelListingOptions#ordered()}
+     * is set. The stream must be closed to stop listing early. Options default when {@code null}.
+     */
+    default Stream<Blob> streamBlobsParallel(String bucketName, String prefix, ParallelListingOptions options) {
+        return PartitionedListing.stream(pageRequest -> listBlobs(bucketName, prefix, pageRequest), prefix, true, options);
+    }
+
+    /**
+     * Computes object count, total bytes and size and age histograms of the blobs below {@code prefix}, overall and
+     * per group of the first {@code groupingDepth} path segments after it.
+     *
+     * <p>The prefix is listed as parallel key ranges like {@link #streamBlobsParallel}, with default options. Blobs are
+     * counted as their pages arrive and are not retained, so memory does not grow with the number of blobs.
+     */
+    default BucketStats computeStats(String bucketName, String prefix, int groupingDepth) {
+        return computeStats(bucketName, prefix, groupingDepth, null);
+    }
+
+    /**
+     * Computes bucket statistics like {@link #computeStats(String, String, int)}, listing with the given options.
+     * Options default when {@code null}.
+     */
+    default BucketStats computeStats(String bucketName, String prefix, int groupingDepth, ParallelListingOptions options) {
+        return BucketStatsCollector.collect(pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest), bucketName, prefix,
+                groupingDepth, true, options);
+    }
+
     /**
      * Creates a bucket/container.
      */
@@ -0,0 +1,147 @@
+package io.github.michaelcirkl.ubsa;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Compact listing entry holding only the fields every provider reports for a listed blob.
+ *
+ * <p>Listing with summaries avoids the per-entry objects a full {@link Blob} carries. The last-modified timestamp is
+ * kept as epoch milliseconds, and {@link #lastModified()} and {@link #getPublicURI()} are computed only when called.
+ * Summaries never carry content or user metadata.
+ */
+public final class BlobSummary {
+    private final String bucket;
+    private final String key;
+    private final long size;
+    private final String etag;
+    private final long lastModifiedEpochMillis;
+    private final Function<String, URI> uriResolver;
+
+    private BlobSummary(
+            String bucket,
+            String key,
+            long size,
+            String etag,
+            long lastModifiedEpochMillis,
+            Function<String, URI> uriResolver
+    ) {
+        this.bucket = bucket;
+        this.key = Objects.requireNonNull(key, "key must not be null");
+        this.size = size;
+        this.etag = etag;
+        this.lastModifiedEpochMillis = lastModifiedEpochMillis;
+        this.uriResolver = uriResolver;
+    }
+
+    /**
+     * Creates a summary. {@code uriResolver} maps a key of {@code bucket} to its public URI and is usually shared by
+     * all summaries of a page; it may be {@code null} when the provider has no URI for the blob. Pass {@code -1} as
+     * {@code lastModifiedEpochMillis} when the provider did not report a timestamp.
+     */
+    public static BlobSummary of(
+            String bucket,
+            String key,
+            long size,
+            String etag,
+            long lastModifiedEpochMillis,
+            Function<String, URI> uriResolver
+    ) {
+        return new BlobSummary(bucket, key, size, etag, lastModifiedEpochMillis, uriResolver);
+    }
+
+    /**
+     * Creates a summary of a fully mapped blob.
+     */
+    public static BlobSummary from(Blob blob) {
+        LocalDateTime lastModified = blob.lastModified();
+        URI publicURI = blob.getPublicURI();
+        return new BlobSummary(
+                blob.getBucket(),
+                blob.getKey(),
+                blob.getSize(),
+                blob.getEtag(),
+                lastModified == null ? -1 : lastModified.toInstant(ZoneOffset.UTC).toEpochMilli(),
+                publicURI == null ? null : ignored -> publicURI
+        );
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the blob size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the provider ETag, typically an identifier for a specific version of the blob content.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Returns the provider-reported last-modified timestamp in milliseconds since the epoch, or {@code -1} if the
+     * provider did not report one.
+     */
+    public long lastModifiedEpochMillis() {
+        return lastModifiedEpochMillis;
+    }
+
+    /**
+     * Returns the last-modified timestamp in UTC, converted on every call, or {@code null} if the provider did not
+     * report one.
+     */
+    public LocalDateTime lastModified() {
+        if (lastModifiedEpochMillis < 0) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(lastModifiedEpochMillis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the provider URI of the blob, built on every call, or {@code null} if the provider has none.
+     *
+     * <p>This value is intended for identification and linking. It does not guarantee anonymous/public access.
+     */
+    public URI getPublicURI() {
+        return uriResolver == null ? null : uriResolver.apply(key);
+    }
+
+    /**
+     * Returns a {@link Blob} with the fields of this summary.
+     */
+    public Blob toBlob() {
+        return Blob.builder()
+                .bucket(bucket)
+                .key(key)
+                .size(size)
+                .etag(etag)
+                .lastModified(lastModified())
+                .publicURI(getPublicURI())
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "BlobSummary{" +
+                "bucket='" + bucket + '\'' +
+                ", key='" + key + '\'' +
+                ", size=" + size +
+                ", etag='" + etag + '\'' +
+                ", lastModifiedEpochMillis=" + lastModifiedEpochMillis +
+                '}';
+    }
+}
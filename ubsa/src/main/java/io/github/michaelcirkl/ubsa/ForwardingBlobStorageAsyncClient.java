@@ -0,0 +1,263 @@
+package io.github.michaelcirkl.ubsa;
+
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.inventory.BlobChange;
+import io.github.michaelcirkl.ubsa.client.inventory.WatchOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingFilter;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Base class for {@link BlobStorageAsyncClient} decorators.
+ *
+ * <p>Every operation is forwarded to the wrapped client, including operations that have a default
+ * implementation on the interface, so provider-specific overrides of the delegate are preserved. Subclasses
+ * override only the operations they want to change.
+ */
+public abstract class ForwardingBlobStorageAsyncClient implements BlobStorageAsyncClient {
+    private final BlobStorageAsyncClient delegate;
+
+    protected ForwardingBlobStorageAsyncClient(BlobStorageAsyncClient delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    }
+
+    /**
+     * Returns the wrapped client.
+     */
+    protected BlobStorageAsyncClient delegate() {
+        return delegate;
+    }
+
+    @Override
+    public Provider getProvider() {
+        return delegate.getProvider();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> nativeType) {
+        return delegate.unwrap(nativeType);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> bucketExists(String bucketName) {
+        return delegate.bucketExists(bucketName);
+    }
+
+    @Override
+    public CompletableFuture<Blob> getBlob(String bucketName, String blobKey) {
+        return delegate.getBlob(bucketName, blobKey);
+    }
+
+    @Override
+    public CompletableFuture<Blob> getBlobMetadata(String bucketName, String blobKey) {
+        return delegate.getBlobMetadata(bucketName, blobKey);
+    }
+
+    @Override
+    public Flow.Publisher<BulkResult<Blob>> getBlobs(String bucketName, Collection<String> blobKeys, int maxConcurrency) {
+        return delegate.getBlobs(bucketName, blobKeys, maxConcurrency);
+    }
+
+    @Override
+    public Flow.Publisher<BulkResult<Blob>> getBlobsMetadata(String bucketName, Collection<String> blobKeys, int maxConcurrency) {
+        return delegate.getBlobsMetadata(bucketName, blobKeys, maxConcurrency);
+    }
+
+    @Override
+    public Flow.Publisher<ByteBuffer> openBlobStream(String bucketName, String blobKey) {
+        return delegate.openBlobStream(bucketName, blobKey);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBucket(String bucketName) {
+        return delegate.deleteBucket(bucketName);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBucket(String bucketName, boolean force) {
+        return delegate.deleteBucket(bucketName, force);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> blobExists(String bucketName, String blobKey) {
+        return delegate.blobExists(bucketName, blobKey);
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, Blob blob) {
+        return delegate.createBlob(bucketName, blob);
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile) {
+        return delegate.createBlob(bucketName, blobKey, sourceFile);
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile, BlobWriteOptions options) {
+        return delegate.createBlob(bucketName, blobKey, sourceFile, options);
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Flow.Publisher<ByteBuffer> content, long contentLength, BlobWriteOptions options) {
+        return delegate.createBlob(bucketName, blobKey, content, contentLength, options);
+    }
+
+    @Override
+    public boolean supportsCreateBlobFromUrl() {
+        return delegate.supportsCreateBlobFromUrl();
+    }
+
+    @Override
+    public CompletableFuture<String> createBlobFromUrl(String bucketName, String blobKey, URL sourceUrl, long contentLength, BlobWriteOptions options) {
+        return delegate.createBlobFromUrl(bucketName, blobKey, sourceUrl, contentLength, options);
+    }
+
+    @Override
+    public CompletableFuture<DirectoryUploadResult> uploadDirectory(Path root, String bucketName, String prefix, DirectoryUploadOptions options) {
+        return delegate.uploadDirectory(root, bucketName, prefix, options);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBlobIfExists(String bucketName, String blobKey) {
+        return delegate.deleteBlobIfExists(bucketName, blobKey);
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Collection<String> blobKeys) {
+        return delegate.deleteBlobs(bucketName, blobKeys);
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Flow.Publisher<String> blobKeys) {
+        return delegate.deleteBlobs(bucketName, blobKeys);
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deletePrefix(String bucketName, String prefix) {
+        return delegate.deletePrefix(bucketName, prefix);
+    }
+
+    @Override
+    public CompletableFuture<String> copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
+        return delegate.copyBlob(sourceBucketName, sourceBlobKey, destinationBucketName, destinationBlobKey);
+    }
+
+    @Override
+    public CompletableFuture<PrefixCopyResult> copyPrefix(String sourceBucketName, String sourcePrefix, String destinationBucketName, String destinationPrefix, PrefixCopyOptions options) {
+        return delegate.copyPrefix(sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, options);
+    }
+
+    @Override
+    public CompletableFuture<PrefixCopyResult> movePrefix(String sourceBucketName, String sourcePrefix, String destinationBucketName, String destinationPrefix, PrefixCopyOptions options) {
+        return delegate.movePrefix(sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, options);
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<Bucket>> listBuckets(PageRequest request) {
+        return delegate.listBuckets(request);
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
+        return delegate.listBlobs(bucketName, prefix, request);
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<BlobSummary>> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        return delegate.listBlobSummaries(bucketName, prefix, request);
+    }
+
+    @Override
+    public CompletableFuture<List<Bucket>> listAllBuckets() {
+        return delegate.listAllBuckets();
+    }
+
+    @Override
+    public Flow.Publisher<Bucket> streamBuckets(int pageSize) {
+        return delegate.streamBuckets(pageSize);
+    }
+
+    @Override
+    public Flow.Publisher<Bucket> streamBuckets(int pageSize, int prefetch) {
+        return delegate.streamBuckets(pageSize, prefetch);
+    }
+
+    @Override
+    public Flow.Publisher<Blob> streamBlobs(String bucketName, String prefix, int pageSize) {
+        return delegate.streamBlobs(bucketName, prefix, pageSize);
+    }
+
+    @Override
+    public Flow.Publisher<Blob> streamBlobs(String bucketName, String prefix, int pageSize, int prefetch) {
+        return delegate.streamBlobs(bucketName, prefix, pageSize, prefetch);
+    }
+
+    @Override
+    public Flow.Publisher<Blob> streamBlobs(String bucketName, String prefix, int pageSize, ListingFilter filter) {
+        return delegate.streamBlobs(bucketName, prefix, pageSize, filter);
+    }
+
+    @Override
+    public Flow.Publisher<BlobSummary> streamBlobSummaries(String bucketName, String prefix, int pageSize) {
+        return delegate.streamBlobSummaries(bucketName, prefix, pageSize);
+    }
+
+    @Override
+    public Flow.Publisher<Blob> streamBlobsParallel(String bucketName, String prefix, ParallelListingOptions options) {
+        return delegate.streamBlobsParallel(bucketName, prefix, options);
+    }
+
+    @Override
+    public CompletableFuture<BucketStats> computeStats(String bucketName, String prefix, int groupingDepth, ParallelListingOptions options) {
+        return delegate.computeStats(bucketName, prefix, groupingDepth, options);
+    }
+
+    @Override
+    public Flow.Publisher<BlobChange> watch(String bucketName, String prefix, Duration interval, WatchOptions options) {
+        return delegate.watch(bucketName, prefix, interval, options);
+    }
+
+    @Override
+    public CompletableFuture<Void> createBucket(Bucket bucket) {
+        return delegate.createBucket(bucket);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBucketIfExists(String bucketName) {
+        return delegate.deleteBucketIfExists(bucketName);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getByteRange(String bucketName, String blobKey, long startInclusive, long endInclusive) {
+        return delegate.getByteRange(bucketName, blobKey, startInclusive, endInclusive);
+    }
+
+    @Override
+    public URL generateGetUrl(String bucket, String objectKey, Duration expiry) {
+        return delegate.generateGetUrl(bucket, objectKey, expiry);
+    }
+
+    @Override
+    public URL generatePutUrl(String bucket, String objectKey, Duration expiry) {
+        return delegate.generatePutUrl(bucket, objectKey, expiry);
+    }
+}
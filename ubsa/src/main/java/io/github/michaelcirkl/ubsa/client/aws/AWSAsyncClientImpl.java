@@ -2,9 +2,12 @@ package io.github.michaelcirkl.ubsa.client.aws;
 
 
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
 import io.github.michaelcirkl.ubsa.Bucket;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
 import io.github.michaelcirkl.ubsa.client.exception.AWSExceptionHandler;
 import io.github.michaelcirkl.ubsa.client.pagination.AsyncBucketListingSupport;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
@@ -173,6 +176,19 @@ public class AWSAsyncClientImpl implements BlobStorageAsyncClient {
         return exceptionHandler.handleAsync(client.deleteObject(request).thenApply(response -> null));
     }
 
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Flow.Publisher<String> blobKeys) {
+        return BatchDeleteSupport.deleteAsync(
+                blobKeys,
+                AWSClientSupport.DELETE_OBJECTS_BATCH_SIZE,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> exceptionHandler.handleAsync(
+                        client.deleteObjects(AWSClientSupport.deleteObjectsRequest(bucketName, keys))
+                                .thenApply(response -> AWSClientSupport.mapDeleteErrors(response, exceptionHandler))
+                )
+        );
+    }
+
     @Override
     public CompletableFuture<String> copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
         CopyObjectRequest request = CopyObjectRequest.builder()
@@ -208,22 +224,25 @@ public class AWSAsyncClientImpl implements BlobStorageAsyncClient {
     @Override
     public CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
         PageRequest pageRequest = normalizePageRequest(request);
-        ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
-                .bucket(bucketName);
-        if (prefix != null && !prefix.isBlank()) {
-            requestBuilder.prefix(prefix);
-        }
-        if (pageRequest.getPageSize() != null) {
-            requestBuilder.maxKeys(pageRequest.getPageSize());
-        }
-        if (pageRequest.getContinuationToken() != null) {
-            requestBuilder.continuationToken(pageRequest.getContinuationToken());
-        }
         return exceptionHandler.handleAsync(
-                client.listObjectsV2(requestBuilder.build())
+                client.listObjectsV2(AWSClientSupport.listObjectsRequest(bucketName, prefix, pageRequest))
+                        .thenApply(response -> ListingPage.of(
+                                AWSClientSupport.mapBlobsFromList(bucketName, response, pageRequest),
+                                AWSClientSupport.mapCommonPrefixes(response, pageRequest.getEndBefore()),
+                                AWSClientSupport.nextContinuationToken(response, pageRequest.getEndBefore())
+                        ))
+        );
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<BlobSummary>> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        PageRequest pageRequest = normalizePageRequest(request);
+        return exceptionHandler.handleAsync(
+                client.listObjectsV2(AWSClientSupport.listObjectsRequest(bucketName, prefix, pageRequest))
                         .thenApply(response -> ListingPage.of(
-                                AWSClientSupport.mapBlobsFromList(bucketName, response),
-                                response.nextContinuationToken()
+                                AWSClientSupport.mapBlobSummariesFromList(bucketName, response, pageRequest),
+                                AWSClientSupport.mapCommonPrefixes(response, pageRequest.getEndBefore()),
+                                AWSClientSupport.nextContinuationToken(response, pageRequest.getEndBefore())
                         ))
         );
     }
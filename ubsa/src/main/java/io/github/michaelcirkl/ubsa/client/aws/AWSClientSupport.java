@@ -1,17 +1,30 @@
 package io.github.michaelcirkl.ubsa.client.aws;
 
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.Bucket;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.exception.AWSExceptionHandler;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.GetUrlRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
@@ -27,11 +40,13 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public final class AWSClientSupport {
     private static final String PATH_STYLE_PROBE_BUCKET = "ubsa-path-style-probe";
     private static final String PATH_STYLE_PROBE_KEY = "probe";
+    public static final int DELETE_OBJECTS_BATCH_SIZE = 1000;
 
     private AWSClientSupport() {
     }
@@ -50,19 +65,96 @@ public final class AWSClientSupport {
         return buckets;
     }
 
-    public static List<Blob> mapBlobsFromList(String bucketName, ListObjectsV2Response response) {
+    /**
+     * Maps a listing response. S3 has no end-before parameter or listing filters, so keys at or after the end-before
+     * bound and objects rejected by the filter of {@code pageRequest} are dropped here, before blobs are built.
+     */
+    public static List<Blob> mapBlobsFromList(String bucketName, ListObjectsV2Response response, PageRequest pageRequest) {
         List<Blob> blobs = new ArrayList<>();
-        response.contents().forEach(object -> blobs.add(Blob.builder()
-                .bucket(bucketName)
-                .key(object.key())
-                .size(object.size())
-                .lastModified(toLocalDateTime(object.lastModified()))
-                .etag(object.eTag())
-                .publicURI(toS3Uri(bucketName, object.key()))
-                .build()));
+        response.contents().forEach(object -> {
+            if (isListed(object, pageRequest)) {
+                blobs.add(Blob.builder()
+                        .bucket(bucketName)
+                        .key(object.key())
+                        .size(object.size())
+                        .lastModified(toLocalDateTime(object.lastModified()))
+                        .etag(object.eTag())
+                        .publicURI(toS3Uri(bucketName, object.key()))
+                        .build());
+            }
+        });
         return blobs;
     }
 
+    /**
+     * Maps a listing response to summaries like {@link #mapBlobsFromList}. All summaries of the response share one URI
+     * resolver.
+     */
+    public static List<BlobSummary> mapBlobSummariesFromList(String bucketName, ListObjectsV2Response response, PageRequest pageRequest) {
+        Function<String, URI> uriResolver = key -> toS3Uri(bucketName, key);
+        List<BlobSummary> summaries = new ArrayList<>(response.contents().size());
+        response.contents().forEach(object -> {
+            if (isListed(object, pageRequest)) {
+                summaries.add(BlobSummary.of(
+                        bucketName,
+                        object.key(),
+                        object.size() == null ? 0L : object.size(),
+                        object.eTag(),
+                        object.lastModified() == null ? -1 : object.lastModified().toEpochMilli(),
+                        uriResolver
+                ));
+            }
+        });
+        return summaries;
+    }
+
+    public static ListObjectsV2Request listObjectsRequest(String bucketName, String prefix, PageRequest pageRequest) {
+        ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
+                .bucket(bucketName);
+        String listingPrefix = pageRequest.listingPrefix(prefix);
+        if (listingPrefix != null && !listingPrefix.isBlank()) {
+            requestBuilder.prefix(listingPrefix);
+        }
+        if (pageRequest.getPageSize() != null) {
+            requestBuilder.maxKeys(pageRequest.getPageSize());
+        }
+        if (pageRequest.getContinuationToken() != null) {
+            requestBuilder.continuationToken(pageRequest.getContinuationToken());
+        }
+        if (pageRequest.getStartAfter() != null) {
+            requestBuilder.startAfter(pageRequest.getStartAfter());
+        }
+        if (pageRequest.getDelimiter() != null) {
+            requestBuilder.delimiter(pageRequest.getDelimiter());
+        }
+        return requestBuilder.build();
+    }
+
+    public static List<String> mapCommonPrefixes(ListObjectsV2Response response, String endBefore) {
+        List<String> prefixes = new ArrayList<>(response.commonPrefixes().size());
+        response.commonPrefixes().forEach(commonPrefix -> {
+            if (BlobKeys.isBefore(commonPrefix.prefix(), endBefore)) {
+                prefixes.add(commonPrefix.prefix());
+            }
+        });
+        return prefixes;
+    }
+
+    /**
+     * Returns the token for the next page, or {@code null} once the response reached {@code endBefore}.
+     */
+    public static String nextContinuationToken(ListObjectsV2Response response, String endBefore) {
+        if (endBefore != null) {
+            List<S3Object> contents = response.contents();
+            List<CommonPrefix> prefixes = response.commonPrefixes();
+            if ((!contents.isEmpty() && !BlobKeys.isBefore(contents.getLast().key(), endBefore))
+                    || (!prefixes.isEmpty() && !BlobKeys.isBefore(prefixes.getLast().prefix(), endBefore))) {
+                return null;
+            }
+        }
+        return response.nextContinuationToken();
+    }
+
     public static Blob buildBlobFromGetObject(String bucketName, String blobKey, ResponseBytes<GetObjectResponse> responseBytes) {
         GetObjectResponse response = responseBytes.response();
         return Blob.builder()
@@ -93,6 +185,26 @@ public final class AWSClientSupport {
                 .build();
     }
 
+    public static DeleteObjectsRequest deleteObjectsRequest(String bucketName, List<String> blobKeys) {
+        List<ObjectIdentifier> objects = new ArrayList<>(blobKeys.size());
+        blobKeys.forEach(key -> objects.add(ObjectIdentifier.builder().key(key).build()));
+        return DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+    }
+
+    public static List<BulkResult<Void>> mapDeleteErrors(DeleteObjectsResponse response, AWSExceptionHandler exceptionHandler) {
+        List<BulkResult<Void>> failures = new ArrayList<>();
+        for (S3Error error : response.errors()) {
+            if ("NoSuchKey".equals(error.code())) {
+                continue;
+            }
+            failures.add(BulkResult.failure(error.key(), exceptionHandler.propagate(error)));
+        }
+        return failures;
+    }
+
     public static void validateExpiry(Duration expiry) {
         if (expiry == null || expiry.isZero() || expiry.isNegative()) {
             throw new IllegalArgumentException("Expiry must be a positive duration.");
@@ -162,6 +274,15 @@ public final class AWSClientSupport {
         }
     }
 
+    private static boolean isListed(S3Object object, PageRequest pageRequest) {
+        return BlobKeys.isBefore(object.key(), pageRequest.getEndBefore())
+                && pageRequest.accepts(
+                        object.key(),
+                        object.size() == null ? 0L : object.size(),
+                        object.lastModified() == null ? -1 : object.lastModified().toEpochMilli()
+                );
+    }
+
     private static LocalDateTime toLocalDateTime(Instant instant) {
         return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
     }
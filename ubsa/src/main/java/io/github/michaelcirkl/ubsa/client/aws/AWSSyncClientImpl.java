@@ -1,9 +1,12 @@
 package io.github.michaelcirkl.ubsa.client.aws;
 
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
 import io.github.michaelcirkl.ubsa.Bucket;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
 import io.github.michaelcirkl.ubsa.client.exception.AWSExceptionHandler;
 import io.github.michaelcirkl.ubsa.client.pagination.BucketListingSupport;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
@@ -184,6 +187,19 @@ public class AWSSyncClientImpl implements BlobStorageSyncClient {
         });
     }
 
+    @Override
+    public BatchDeleteResult deleteBlobs(String bucketName, Iterable<String> blobKeys) {
+        return BatchDeleteSupport.deleteSync(
+                blobKeys,
+                AWSClientSupport.DELETE_OBJECTS_BATCH_SIZE,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> exceptionHandler.handle(() -> AWSClientSupport.mapDeleteErrors(
+                        client.deleteObjects(AWSClientSupport.deleteObjectsRequest(bucketName, keys)),
+                        exceptionHandler
+                ))
+        );
+    }
+
     @Override
     public String copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
         return exceptionHandler.handle(() -> {
@@ -219,20 +235,25 @@ public class AWSSyncClientImpl implements BlobStorageSyncClient {
     public ListingPage<Blob> listBlobs(String bucketName, String prefix, PageRequest request) {
         PageRequest pageRequest = normalizePageRequest(request);
         return exceptionHandler.handle(() -> {
-            ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
-                    .bucket(bucketName);
-            if (prefix != null && !prefix.isBlank()) {
-                requestBuilder.prefix(prefix);
-            }
-            if (pageRequest.getPageSize() != null) {
-                requestBuilder.maxKeys(pageRequest.getPageSize());
-            }
-            if (pageRequest.getContinuationToken() != null) {
-                requestBuilder.continuationToken(pageRequest.getContinuationToken());
-            }
+            ListObjectsV2Response response = client.listObjectsV2(AWSClientSupport.listObjectsRequest(bucketName, prefix, pageRequest));
+            return ListingPage.of(
+                    AWSClientSupport.mapBlobsFromList(bucketName, response, pageRequest),
+                    AWSClientSupport.mapCommonPrefixes(response, pageRequest.getEndBefore()),
+                    AWSClientSupport.nextContinuationToken(response, pageRequest.getEndBefore())
+            );
+        });
+    }
 
-            ListObjectsV2Response response = client.listObjectsV2(requestBuilder.build());
-            return ListingPage.of(AWSClientSupport.mapBlobsFromList(bucketName, response), response.nextContinuationToken());
+    @Override
+    public ListingPage<BlobSummary> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        PageRequest pageRequest = normalizePageRequest(request);
+        return exceptionHandler.handle(() -> {
+            ListObjectsV2Response response = client.listObjectsV2(AWSClientSupport.listObjectsRequest(bucketName, prefix, pageRequest));
+            return ListingPage.of(
+                    AWSClientSupport.mapBlobSummariesFromList(bucketName, response, pageRequest),
+                    AWSClientSupport.mapCommonPrefixes(response, pageRequest.getEndBefore()),
+                    AWSClientSupport.nextContinuationToken(response, pageRequest.getEndBefore())
+            );
         });
     }
 
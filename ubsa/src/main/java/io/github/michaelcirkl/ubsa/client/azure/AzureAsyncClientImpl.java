@@ -1,23 +1,42 @@
 package io.github.michaelcirkl.ubsa.client.azure;
 
+import com.azure.core.http.rest.PagedFlux;
 import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.Response;
 import com.azure.core.util.BinaryData;
 import com.azure.storage.blob.BlobAsyncClient;
 import com.azure.storage.blob.BlobContainerAsyncClient;
 import com.azure.storage.blob.BlobServiceAsyncClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchAsyncClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
 import com.azure.storage.blob.models.*;
 import com.azure.storage.blob.options.BlobParallelUploadOptions;
 import com.azure.storage.blob.options.BlobUploadFromFileOptions;
+import com.azure.storage.blob.options.BlockBlobCommitBlockListOptions;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import com.azure.storage.blob.specialized.BlockBlobAsyncClient;
 import io.github.michaelcirkl.ubsa.Blob;
 import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.Bucket;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
 import io.github.michaelcirkl.ubsa.client.exception.AzureExceptionHandler;
+import io.github.michaelcirkl.ubsa.client.inventory.BlobChange;
+import io.github.michaelcirkl.ubsa.client.inventory.PrefixWatcher;
+import io.github.michaelcirkl.ubsa.client.inventory.WatchOptions;
 import io.github.michaelcirkl.ubsa.client.pagination.AsyncBucketListingSupport;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.PartitionedListing;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStatsCollector;
 import io.github.michaelcirkl.ubsa.client.streaming.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -26,19 +45,25 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
+import java.util.function.Function;
 
 public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
     private final AzureExceptionHandler exceptionHandler = new AzureExceptionHandler();
+    private static final int BLOB_BATCH_SIZE = 256;
+    private static final long URL_BLOCK_SIZE = 100L * 1024 * 1024;
+    private static final int URL_BLOCK_CONCURRENCY = 8;
     private final BlobServiceAsyncClient client;
 
     public AzureAsyncClientImpl(BlobServiceAsyncClient client) {
@@ -128,6 +153,12 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> deleteBucket(String bucketName, boolean force) {
+        // Azure deletes a container together with all of its blobs
+        return deleteBucket(bucketName);
+    }
+
     @Override
     public CompletableFuture<Boolean> blobExists(String bucketName, String blobKey) {
         return exceptionHandler.handleAsync(
@@ -187,6 +218,40 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
         );
     }
 
+    @Override
+    public boolean supportsCreateBlobFromUrl() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<String> createBlobFromUrl(String bucketName, String blobKey, URL sourceUrl, long contentLength, BlobWriteOptions options) {
+        ContentLengthValidators.validateContentLength(contentLength);
+        if (sourceUrl == null) {
+            throw new IllegalArgumentException("Source URL must not be null.");
+        }
+        BlockBlobAsyncClient blockBlobClient = blobClient(bucketName, blobKey).getBlockBlobAsyncClient();
+        int blockCount = (int) ((contentLength + URL_BLOCK_SIZE - 1) / URL_BLOCK_SIZE);
+        List<String> blockIds = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            blockIds.add(Base64.getEncoder().encodeToString(String.format("%08d", i).getBytes(StandardCharsets.UTF_8)));
+        }
+        BlockBlobCommitBlockListOptions commitOptions = new BlockBlobCommitBlockListOptions(blockIds)
+                .setHeaders(WriteOptionsMappers.toAzureHeaders(options))
+                .setMetadata(WriteOptionsMappers.toAzureMetadata(options));
+        // Put Block From URL lets the service pull each range itself; blocks are staged in parallel and committed once.
+        return exceptionHandler.handleAsync(
+                Flux.range(0, blockCount)
+                        .flatMap(index -> {
+                            long offset = index * URL_BLOCK_SIZE;
+                            BlobRange range = new BlobRange(offset, Math.min(URL_BLOCK_SIZE, contentLength - offset));
+                            return blockBlobClient.stageBlockFromUrl(blockIds.get(index), sourceUrl.toString(), range);
+                        }, URL_BLOCK_CONCURRENCY)
+                        .then(blockBlobClient.commitBlockListWithResponse(commitOptions))
+                        .map(response -> response.getValue().getETag())
+                        .toFuture()
+        );
+    }
+
     @Override
     public CompletableFuture<Void> deleteBlobIfExists(String bucketName, String blobKey) {
         return exceptionHandler.handleAsync(
@@ -197,6 +262,26 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
         );
     }
 
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Flow.Publisher<String> blobKeys) {
+        BlobBatchAsyncClient batchClient = new BlobBatchClientBuilder(client).buildAsyncClient();
+        return BatchDeleteSupport.deleteAsync(
+                blobKeys,
+                BLOB_BATCH_SIZE,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> {
+                    BlobBatch batch = batchClient.getBlobBatch();
+                    List<Response<Void>> responses = new ArrayList<>(keys.size());
+                    keys.forEach(key -> responses.add(batch.deleteBlob(bucketName, key)));
+                    return exceptionHandler.handleAsync(
+                            batchClient.submitBatchWithResponse(batch, false)
+                                    .map(ignored -> mapBatchDeleteResults(keys, responses))
+                                    .toFuture()
+                    );
+                }
+        );
+    }
+
     @Override
     public CompletableFuture<String> copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
         BlobAsyncClient sourceBlobClient = blobClient(sourceBucketName, sourceBlobKey);
@@ -235,35 +320,90 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
     public CompletableFuture<ListingPage<Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
         PageRequest pageRequest = normalizePageRequest(request);
         BlobContainerAsyncClient containerClient = client.getBlobContainerAsyncClient(bucketName);
-        ListBlobsOptions options = new ListBlobsOptions();
-        options.setDetails(new BlobListDetails().setRetrieveMetadata(true));
-        if (prefix != null && !prefix.isBlank()) {
-            options.setPrefix(prefix);
-        }
-        String continuationToken = pageRequest.getContinuationToken();
-        Integer pageSize = pageRequest.getPageSize();
-        Mono<PagedResponse<BlobItem>> pageMono;
-        if (continuationToken == null) {
-            pageMono = pageSize == null
-                    ? containerClient.listBlobs(options, null).byPage().next()
-                    : containerClient.listBlobs(options, null).byPage(pageSize).next();
-        } else {
-            pageMono = pageSize == null
-                    ? containerClient.listBlobs(options, null).byPage(continuationToken).next()
-                    : containerClient.listBlobs(options, null).byPage(continuationToken, pageSize).next();
-        }
+        return exceptionHandler.handleAsync(
+                listPage(containerClient, prefix, pageRequest, true)
+                        .map(page -> ListingPage.of(
+                                mapBlobsFromList(bucketName, containerClient, page.getElements(), pageRequest),
+                                mapCommonPrefixes(page.getElements(), pageRequest),
+                                nextContinuationToken(page, pageRequest)
+                        ))
+                        .defaultIfEmpty(ListingPage.of(List.of(), null))
+                        .toFuture()
+        );
+    }
 
+    /**
+     * Lists without retrieving user metadata, which summaries do not carry.
+     */
+    @Override
+    public CompletableFuture<ListingPage<BlobSummary>> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        PageRequest pageRequest = normalizePageRequest(request);
+        BlobContainerAsyncClient containerClient = client.getBlobContainerAsyncClient(bucketName);
         return exceptionHandler.handleAsync(
-                pageMono
+                listPage(containerClient, prefix, pageRequest, false)
                         .map(page -> ListingPage.of(
-                                mapBlobsFromList(bucketName, containerClient, page.getElements()),
-                                page.getContinuationToken()
+                                mapBlobSummariesFromList(bucketName, containerClient, page.getElements(), pageRequest),
+                                mapCommonPrefixes(page.getElements(), pageRequest),
+                                nextContinuationToken(page, pageRequest)
                         ))
                         .defaultIfEmpty(ListingPage.of(List.of(), null))
                         .toFuture()
         );
     }
 
+    private Mono<PagedResponse<BlobItem>> listPage(
+            BlobContainerAsyncClient containerClient,
+            String prefix,
+            PageRequest pageRequest,
+            boolean retrieveMetadata
+    ) {
+        ListBlobsOptions options = new ListBlobsOptions();
+        options.setDetails(new BlobListDetails().setRetrieveMetadata(retrieveMetadata));
+        String listingPrefix = pageRequest.listingPrefix(prefix);
+        if (listingPrefix != null && !listingPrefix.isBlank()) {
+            options.setPrefix(listingPrefix);
+        }
+        PagedFlux<BlobItem> items = pageRequest.getDelimiter() == null
+                ? containerClient.listBlobs(options, null)
+                : containerClient.listBlobsByHierarchy(pageRequest.getDelimiter(), options);
+        String continuationToken = pageRequest.getContinuationToken();
+        Integer pageSize = pageRequest.getPageSize();
+        if (continuationToken == null) {
+            return pageSize == null ? items.byPage().next() : items.byPage(pageSize).next();
+        }
+        return pageSize == null ? items.byPage(continuationToken).next() : items.byPage(continuationToken, pageSize).next();
+    }
+
+    /**
+     * Azure cannot start a listing after a given key, so key ranges cannot be listed independently and the prefix is
+     * listed as a single range by this method and {@link #computeStats}.
+     */
+    @Override
+    public Flow.Publisher<Blob> streamBlobsParallel(String bucketName, String prefix, ParallelListingOptions options) {
+        return PartitionedListing.publisher(pageRequest -> listBlobs(bucketName, prefix, pageRequest), prefix, false, options);
+    }
+
+    @Override
+    public CompletableFuture<BucketStats> computeStats(
+            String bucketName,
+            String prefix,
+            int groupingDepth,
+            ParallelListingOptions options
+    ) {
+        return BucketStatsCollector.collectAsync(pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest), bucketName,
+                prefix, groupingDepth, false, options);
+    }
+
+    /**
+     * Azure filters {@code startAfter} on the client, so a poll of the keys after the last known key would still list
+     * the whole prefix. Every poll is a full poll instead, which also finds updates and deletions right away.
+     */
+    @Override
+    public Flow.Publisher<BlobChange> watch(String bucketName, String prefix, Duration interval, WatchOptions options) {
+        return PrefixWatcher.publisher(pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest), bucketName,
+                prefix, interval, false, options);
+    }
+
     @Override
     public CompletableFuture<List<Bucket>> listAllBuckets() {
         return AsyncBucketListingSupport.listAllBuckets(this::listBuckets);
@@ -361,9 +501,20 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
         return buckets;
     }
 
-    private List<Blob> mapBlobsFromList(String bucketName, BlobContainerAsyncClient containerClient, Iterable<BlobItem> blobItems) {
+    /**
+     * Maps a listing page, keeping only the blobs within the bounds of {@code pageRequest} that pass its filter.
+     */
+    private List<Blob> mapBlobsFromList(
+            String bucketName,
+            BlobContainerAsyncClient containerClient,
+            Iterable<BlobItem> blobItems,
+            PageRequest pageRequest
+    ) {
         List<Blob> blobs = new ArrayList<>();
         blobItems.forEach(item -> {
+            if (Boolean.TRUE.equals(item.isPrefix()) || !isListed(item.getName(), pageRequest) || !accepts(item, pageRequest)) {
+                return;
+            }
             BlobItemProperties properties = item.getProperties();
             long size = properties != null && properties.getContentLength() != null
                     ? properties.getContentLength()
@@ -383,6 +534,79 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
         return blobs;
     }
 
+    /**
+     * Hierarchical listings return virtual directories as prefix items next to the blobs.
+     */
+    private List<String> mapCommonPrefixes(Iterable<BlobItem> blobItems, PageRequest pageRequest) {
+        List<String> prefixes = new ArrayList<>();
+        blobItems.forEach(item -> {
+            if (Boolean.TRUE.equals(item.isPrefix()) && isListed(item.getName(), pageRequest)) {
+                prefixes.add(item.getName());
+            }
+        });
+        return prefixes;
+    }
+
+    /**
+     * Azure has no start-after or end-before parameters, so both bounds are applied to the listed names here.
+     */
+    private boolean isListed(String name, PageRequest pageRequest) {
+        return BlobKeys.isAfter(name, pageRequest.getStartAfter()) && BlobKeys.isBefore(name, pageRequest.getEndBefore());
+    }
+
+    /**
+     * Listing filters are evaluated here as well: blob index tag queries only cover tags, so Azure cannot narrow a
+     * listing by size, time or glob beyond the prefix.
+     */
+    private boolean accepts(BlobItem item, PageRequest pageRequest) {
+        BlobItemProperties properties = item.getProperties();
+        return pageRequest.accepts(
+                item.getName(),
+                properties != null && properties.getContentLength() != null ? properties.getContentLength() : 0L,
+                properties == null || properties.getLastModified() == null
+                        ? -1
+                        : properties.getLastModified().toInstant().toEpochMilli()
+        );
+    }
+
+    /**
+     * Returns the token for the next page, or {@code null} once the page reached the end-before bound.
+     */
+    private String nextContinuationToken(PagedResponse<BlobItem> page, PageRequest pageRequest) {
+        List<BlobItem> items = page.getValue();
+        if (!items.isEmpty() && !BlobKeys.isBefore(items.getLast().getName(), pageRequest.getEndBefore())) {
+            return null;
+        }
+        return page.getContinuationToken();
+    }
+
+    private List<BlobSummary> mapBlobSummariesFromList(
+            String bucketName,
+            BlobContainerAsyncClient containerClient,
+            Iterable<BlobItem> blobItems,
+            PageRequest pageRequest
+    ) {
+        Function<String, URI> uriResolver = key -> toUri(containerClient.getBlobAsyncClient(key).getBlobUrl());
+        List<BlobSummary> summaries = new ArrayList<>();
+        blobItems.forEach(item -> {
+            if (Boolean.TRUE.equals(item.isPrefix()) || !isListed(item.getName(), pageRequest) || !accepts(item, pageRequest)) {
+                return;
+            }
+            BlobItemProperties properties = item.getProperties();
+            summaries.add(BlobSummary.of(
+                    bucketName,
+                    item.getName(),
+                    properties != null && properties.getContentLength() != null ? properties.getContentLength() : 0L,
+                    properties == null ? null : properties.getETag(),
+                    properties == null || properties.getLastModified() == null
+                            ? -1
+                            : properties.getLastModified().toInstant().toEpochMilli(),
+                    uriResolver
+            ));
+        });
+        return summaries;
+    }
+
     private LocalDateTime toLocalDateTime(OffsetDateTime time) {
         return time == null ? null : time.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
     }
@@ -405,6 +629,20 @@ public class AzureAsyncClientImpl implements BlobStorageAsyncClient {
         }
     }
 
+    private List<BulkResult<Void>> mapBatchDeleteResults(List<String> blobKeys, List<Response<Void>> responses) {
+        List<BulkResult<Void>> failures = new ArrayList<>();
+        for (int i = 0; i < blobKeys.size(); i++) {
+            try {
+                responses.get(i).getStatusCode();
+            } catch (BlobStorageException error) {
+                if (error.getStatusCode() != 404) {
+                    failures.add(BulkResult.failure(blobKeys.get(i), exceptionHandler.propagate(error)));
+                }
+            }
+        }
+        return failures;
+    }
+
     private PageRequest normalizePageRequest(PageRequest request) {
         return request == null ? PageRequest.firstPage() : request;
     }
@@ -1,24 +1,39 @@
 package io.github.michaelcirkl.ubsa.client.azure;
 
+import com.azure.core.http.rest.PagedIterable;
 import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.Response;
 import com.azure.core.util.BinaryData;
 import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
 import com.azure.storage.blob.models.*;
 import com.azure.storage.blob.options.BlobParallelUploadOptions;
 import com.azure.storage.blob.options.BlobUploadFromFileOptions;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
 import io.github.michaelcirkl.ubsa.Bucket;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
 import io.github.michaelcirkl.ubsa.client.exception.AzureExceptionHandler;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
 import io.github.michaelcirkl.ubsa.client.pagination.BucketListingSupport;
+import io.github.michaelcirkl.ubsa.client.pagination.KeyRangeSpliterator;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.PartitionedListing;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStats;
+import io.github.michaelcirkl.ubsa.client.stats.BucketStatsCollector;
 import io.github.michaelcirkl.ubsa.client.streaming.*;
 
 import java.io.ByteArrayOutputStream;
@@ -36,9 +51,12 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class AzureSyncClientImpl implements BlobStorageSyncClient {
     private final AzureExceptionHandler exceptionHandler = new AzureExceptionHandler();
+    private static final int BLOB_BATCH_SIZE = 256;
     private final BlobServiceClient client;
 
     public AzureSyncClientImpl(BlobServiceClient client) {
@@ -118,6 +136,12 @@ public class AzureSyncClientImpl implements BlobStorageSyncClient {
         });
     }
 
+    @Override
+    public Void deleteBucket(String bucketName, boolean force) {
+        // Azure deletes a container together with all of its blobs
+        return deleteBucket(bucketName);
+    }
+
     @Override
     public Boolean blobExists(String bucketName, String blobKey) {
         return exceptionHandler.handle(() -> blobClient(bucketName, blobKey).exists());
@@ -185,6 +209,23 @@ public class AzureSyncClientImpl implements BlobStorageSyncClient {
         });
     }
 
+    @Override
+    public BatchDeleteResult deleteBlobs(String bucketName, Iterable<String> blobKeys) {
+        BlobBatchClient batchClient = new BlobBatchClientBuilder(client).buildClient();
+        return BatchDeleteSupport.deleteSync(
+                blobKeys,
+                BLOB_BATCH_SIZE,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> exceptionHandler.handle(() -> {
+                    BlobBatch batch = batchClient.getBlobBatch();
+                    List<Response<Void>> responses = new ArrayList<>(keys.size());
+                    keys.forEach(key -> responses.add(batch.deleteBlob(bucketName, key)));
+                    batchClient.submitBatchWithResponse(batch, false, null, Context.NONE);
+                    return mapBatchDeleteResults(keys, responses);
+                })
+        );
+    }
+
     @Override
     public String copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
         return exceptionHandler.handle(() -> {
@@ -216,23 +257,79 @@ public class AzureSyncClientImpl implements BlobStorageSyncClient {
         PageRequest pageRequest = normalizePageRequest(request);
         return exceptionHandler.handle(() -> {
             BlobContainerClient containerClient = client.getBlobContainerClient(bucketName);
-            ListBlobsOptions options = new ListBlobsOptions();
-            options.setDetails(new BlobListDetails().setRetrieveMetadata(true));
-            if (prefix != null && !prefix.isBlank()) {
-                options.setPrefix(prefix);
-            }
-            Iterator<PagedResponse<BlobItem>> pages = pageRequest.getPageSize() == null
-                    ? containerClient.listBlobs(options, null).iterableByPage(pageRequest.getContinuationToken()).iterator()
-                    : containerClient.listBlobs(options, null).iterableByPage(pageRequest.getContinuationToken(), pageRequest.getPageSize()).iterator();
-            if (!pages.hasNext()) {
+            PagedResponse<BlobItem> page = listPage(containerClient, prefix, pageRequest, true);
+            if (page == null) {
                 return ListingPage.of(List.of(), null);
             }
+            return ListingPage.of(
+                    mapBlobsFromList(bucketName, containerClient, page.getElements(), pageRequest),
+                    mapCommonPrefixes(page.getElements(), pageRequest),
+                    nextContinuationToken(page, pageRequest)
+            );
+        });
+    }
 
-            PagedResponse<BlobItem> page = pages.next();
-            return ListingPage.of(mapBlobsFromList(bucketName, containerClient, page.getElements()), page.getContinuationToken());
+    /**
+     * Lists without retrieving user metadata, which summaries do not carry.
+     */
+    @Override
+    public ListingPage<BlobSummary> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        PageRequest pageRequest = normalizePageRequest(request);
+        return exceptionHandler.handle(() -> {
+            BlobContainerClient containerClient = client.getBlobContainerClient(bucketName);
+            PagedResponse<BlobItem> page = listPage(containerClient, prefix, pageRequest, false);
+            if (page == null) {
+                return ListingPage.of(List.of(), null);
+            }
+            return ListingPage.of(
+                    mapBlobSummariesFromList(bucketName, containerClient, page.getElements(), pageRequest),
+                    mapCommonPrefixes(page.getElements(), pageRequest),
+                    nextContinuationToken(page, pageRequest)
+            );
         });
     }
 
+    private PagedResponse<BlobItem> listPage(
+            BlobContainerClient containerClient,
+            String prefix,
+            PageRequest pageRequest,
+            boolean retrieveMetadata
+    ) {
+        ListBlobsOptions options = new ListBlobsOptions();
+        options.setDetails(new BlobListDetails().setRetrieveMetadata(retrieveMetadata));
+        String listingPrefix = pageRequest.listingPrefix(prefix);
+        if (listingPrefix != null && !listingPrefix.isBlank()) {
+            options.setPrefix(listingPrefix);
+        }
+        PagedIterable<BlobItem> items = pageRequest.getDelimiter() == null
+                ? containerClient.listBlobs(options, null)
+                : containerClient.listBlobsByHierarchy(pageRequest.getDelimiter(), options, null);
+        Iterator<PagedResponse<BlobItem>> pages = pageRequest.getPageSize() == null
+                ? items.iterableByPage(pageRequest.getContinuationToken()).iterator()
+                : items.iterableByPage(pageRequest.getContinuationToken(), pageRequest.getPageSize()).iterator();
+        return pages.hasNext() ? pages.next() : null;
+    }
+
+    /**
+     * Azure cannot start a listing after a given key, so key ranges cannot be listed independently and the prefix is
+     * listed as a single range by this method, {@link #streamBlobsParallel} and {@link #computeStats}.
+     */
+    @Override
+    public Stream<Blob> streamAllBlobs(String bucketName, String prefix) {
+        return KeyRangeSpliterator.stream(pageRequest -> listBlobs(bucketName, prefix, pageRequest), prefix, false);
+    }
+
+    @Override
+    public Stream<Blob> streamBlobsParallel(String bucketName, String prefix, ParallelListingOptions options) {
+        return PartitionedListing.stream(pageRequest -> listBlobs(bucketName, prefix, pageRequest), prefix, false, options);
+    }
+
+    @Override
+    public BucketStats computeStats(String bucketName, String prefix, int groupingDepth, ParallelListingOptions options) {
+        return BucketStatsCollector.collect(pageRequest -> listBlobSummaries(bucketName, prefix, pageRequest), bucketName, prefix,
+                groupingDepth, false, options);
+    }
+
     @Override
     public List<Bucket> listAllBuckets() {
         return BucketListingSupport.listAllBuckets(this::listBuckets);
@@ -316,9 +413,20 @@ public class AzureSyncClientImpl implements BlobStorageSyncClient {
         return buckets;
     }
 
-    private List<Blob> mapBlobsFromList(String bucketName, BlobContainerClient containerClient, Iterable<BlobItem> blobItems) {
+    /**
+     * Maps a listing page, keeping only the blobs within the bounds of {@code pageRequest} that pass its filter.
+     */
+    private List<Blob> mapBlobsFromList(
+            String bucketName,
+            BlobContainerClient containerClient,
+            Iterable<BlobItem> blobItems,
+            PageRequest pageRequest
+    ) {
         List<Blob> blobs = new ArrayList<>();
         blobItems.forEach(item -> {
+            if (Boolean.TRUE.equals(item.isPrefix()) || !isListed(item.getName(), pageRequest) || !accepts(item, pageRequest)) {
+                return;
+            }
             BlobItemProperties properties = item.getProperties();
             long size = properties != null && properties.getContentLength() != null
                     ? properties.getContentLength()
@@ -338,6 +446,79 @@ public class AzureSyncClientImpl implements BlobStorageSyncClient {
         return blobs;
     }
 
+    /**
+     * Hierarchical listings return virtual directories as prefix items next to the blobs.
+     */
+    private List<String> mapCommonPrefixes(Iterable<BlobItem> blobItems, PageRequest pageRequest) {
+        List<String> prefixes = new ArrayList<>();
+        blobItems.forEach(item -> {
+            if (Boolean.TRUE.equals(item.isPrefix()) && isListed(item.getName(), pageRequest)) {
+                prefixes.add(item.getName());
+            }
+        });
+        return prefixes;
+    }
+
+    /**
+     * Azure has no start-after or end-before parameters, so both bounds are applied to the listed names here.
+     */
+    private boolean isListed(String name, PageRequest pageRequest) {
+        return BlobKeys.isAfter(name, pageRequest.getStartAfter()) && BlobKeys.isBefore(name, pageRequest.getEndBefore());
+    }
+
+    /**
+     * Listing filters are evaluated here as well: blob index tag queries only cover tags, so Azure cannot narrow a
+     * listing by size, time or glob beyond the prefix.
+     */
+    private boolean accepts(BlobItem item, PageRequest pageRequest) {
+        BlobItemProperties properties = item.getProperties();
+        return pageRequest.accepts(
+                item.getName(),
+                properties != null && properties.getContentLength() != null ? properties.getContentLength() : 0L,
+                properties == null || properties.getLastModified() == null
+                        ? -1
+                        : properties.getLastModified().toInstant().toEpochMilli()
+        );
+    }
+
+    /**
+     * Returns the token for the next page, or {@code null} once the page reached the end-before bound.
+     */
+    private String nextContinuationToken(PagedResponse<BlobItem> page, PageRequest pageRequest) {
+        List<BlobItem> items = page.getValue();
+        if (!items.isEmpty() && !BlobKeys.isBefore(items.getLast().getName(), pageRequest.getEndBefore())) {
+            return null;
+        }
+        return page.getContinuationToken();
+    }
+
+    private List<BlobSummary> mapBlobSummariesFromList(
+            String bucketName,
+            BlobContainerClient containerClient,
+            Iterable<BlobItem> blobItems,
+            PageRequest pageRequest
+    ) {
+        Function<String, URI> uriResolver = key -> toUri(containerClient.getBlobClient(key).getBlobUrl());
+        List<BlobSummary> summaries = new ArrayList<>();
+        blobItems.forEach(item -> {
+            if (Boolean.TRUE.equals(item.isPrefix()) || !isListed(item.getName(), pageRequest) || !accepts(item, pageRequest)) {
+                return;
+            }
+            BlobItemProperties properties = item.getProperties();
+            summaries.add(BlobSummary.of(
+                    bucketName,
+                    item.getName(),
+                    properties != null && properties.getContentLength() != null ? properties.getContentLength() : 0L,
+                    properties == null ? null : properties.getETag(),
+                    properties == null || properties.getLastModified() == null
+                            ? -1
+                            : properties.getLastModified().toInstant().toEpochMilli(),
+                    uriResolver
+            ));
+        });
+        return summaries;
+    }
+
     private LocalDateTime toLocalDateTime(OffsetDateTime time) {
         return time == null ? null : time.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
     }
@@ -360,6 +541,20 @@ public class AzureSyncClientImpl implements BlobStorageSyncClient {
         }
     }
 
+    private List<BulkResult<Void>> mapBatchDeleteResults(List<String> blobKeys, List<Response<Void>> responses) {
+        List<BulkResult<Void>> failures = new ArrayList<>();
+        for (int i = 0; i < blobKeys.size(); i++) {
+            try {
+                responses.get(i).getStatusCode();
+            } catch (BlobStorageException error) {
+                if (error.getStatusCode() != 404) {
+                    failures.add(BulkResult.failure(blobKeys.get(i), exceptionHandler.propagate(error)));
+                }
+            }
+        }
+        return failures;
+    }
+
     private PageRequest normalizePageRequest(PageRequest request) {
         return request == null ? PageRequest.firstPage() : request;
     }
@@ -0,0 +1,46 @@
+package io.github.michaelcirkl.ubsa.client.bulk;
+
+import java.util.List;
+
+/**
+ * Summary of a batch delete.
+ *
+ * <p>Keys that did not exist count as deleted, matching {@code deleteBlobIfExists}. Only failed keys are retained, so
+ * the result stays small even when millions of keys are deleted.
+ */
+public final class BatchDeleteResult {
+    private final long deletedCount;
+    private final List<BulkResult<Void>> failures;
+
+    private BatchDeleteResult(long deletedCount, List<BulkResult<Void>> failures) {
+        this.deletedCount = deletedCount;
+        this.failures = failures == null ? List.of() : List.copyOf(failures);
+    }
+
+    public static BatchDeleteResult of(long deletedCount, List<BulkResult<Void>> failures) {
+        return new BatchDeleteResult(deletedCount, failures);
+    }
+
+    /**
+     * Returns the number of keys that were deleted or already missing.
+     */
+    public long getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * Returns one failed result per key that could not be deleted.
+     */
+    public List<BulkResult<Void>> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchDeleteResult{deletedCount=" + deletedCount + ", failures=" + failures.size() + "}";
+    }
+}
@@ -0,0 +1,272 @@
+package io.github.michaelcirkl.ubsa.client.bulk;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Splits a stream of keys into provider-sized batches and pipelines up to a fixed number of batch requests.
+ *
+ * <p>Batch deleters return only the failed keys of their batch; a batch whose request fails as a whole reports every
+ * key in it as failed. Keys for the next batch are collected while earlier batches are in flight, and no more keys
+ * are pulled from the source while {@code maxConcurrentBatches} requests are running.
+ */
+public final class BatchDeleteSupport {
+    public static final int DEFAULT_MAX_CONCURRENT_BATCHES = 16;
+    public static final int LISTING_PAGE_SIZE = 1000;
+
+    private BatchDeleteSupport() {
+    }
+
+    public static Flow.Publisher<String> publisherOf(Iterable<String> keys) {
+        return new IterablePublisher<>(keys);
+    }
+
+    /**
+     * Throws when the result contains failures, using the first failure as the cause.
+     */
+    public static BatchDeleteResult requireSuccess(String bucketName, BatchDeleteResult result) {
+        if (result.isSuccess()) {
+            return result;
+        }
+        UbsaException firstFailure = result.getFailures().get(0).getError();
+        String message = "Failed to delete " + result.getFailures().size() + " blob(s) from bucket '" + bucketName + "'.";
+        Integer statusCode = firstFailure.getStatusCode();
+        throw statusCode == null
+                ? new UbsaException(message, firstFailure)
+                : new UbsaException(message, firstFailure, statusCode);
+    }
+
+    public static CompletableFuture<BatchDeleteResult> deleteAsync(
+            Flow.Publisher<String> keys,
+            int batchSize,
+            int maxConcurrentBatches,
+            Function<List<String>, CompletableFuture<List<BulkResult<Void>>>> batchDeleter
+    ) {
+        Objects.requireNonNull(keys, "keys must not be null");
+        validate(batchSize, maxConcurrentBatches);
+        BatchingSubscriber subscriber = new BatchingSubscriber(batchSize, maxConcurrentBatches, batchDeleter);
+        keys.subscribe(subscriber);
+        return subscriber.result;
+    }
+
+    public static BatchDeleteResult deleteSync(
+            Iterable<String> keys,
+            int batchSize,
+            int maxConcurrentBatches,
+            Function<List<String>, List<BulkResult<Void>>> batchDeleter
+    ) {
+        Objects.requireNonNull(keys, "keys must not be null");
+        validate(batchSize, maxConcurrentBatches);
+        Semaphore permits = new Semaphore(maxConcurrentBatches);
+        AtomicLong deleted = new AtomicLong();
+        ConcurrentLinkedQueue<BulkResult<Void>> failures = new ConcurrentLinkedQueue<>();
+        Set<Thread> running = ConcurrentHashMap.newKeySet();
+        try {
+            List<String> batch = new ArrayList<>(batchSize);
+            for (String key : keys) {
+                batch.add(Objects.requireNonNull(key, "keys must not contain null"));
+                if (batch.size() == batchSize) {
+                    startBatch(batch, permits, running, deleted, failures, batchDeleter);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                startBatch(batch, permits, running, deleted, failures, batchDeleter);
+            }
+            permits.acquire(maxConcurrentBatches);
+        } catch (InterruptedException interruptedException) {
+            running.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+            throw new UbsaException("Interrupted while deleting blobs.", interruptedException);
+        }
+        return BatchDeleteResult.of(deleted.get(), List.copyOf(failures));
+    }
+
+    private static void startBatch(
+            List<String> batch,
+            Semaphore permits,
+            Set<Thread> running,
+            AtomicLong deleted,
+            ConcurrentLinkedQueue<BulkResult<Void>> failures,
+            Function<List<String>, List<BulkResult<Void>>> batchDeleter
+    ) throws InterruptedException {
+        permits.acquire();
+        Thread thread = Thread.ofVirtual().name("ubsa-batch-delete").unstarted(() -> {
+            try {
+                List<BulkResult<Void>> batchFailures;
+                try {
+                    batchFailures = batchDeleter.apply(batch);
+                } catch (Throwable error) {
+                    batchFailures = failAll(batch, error);
+                }
+                record(batch, batchFailures, deleted, failures);
+            } finally {
+                running.remove(Thread.currentThread());
+                permits.release();
+            }
+        });
+        running.add(thread);
+        thread.start();
+    }
+
+    private static void record(
+            List<String> batch,
+            List<BulkResult<Void>> batchFailures,
+            AtomicLong deleted,
+            ConcurrentLinkedQueue<BulkResult<Void>> failures
+    ) {
+        List<BulkResult<Void>> reported = batchFailures == null ? List.of() : batchFailures;
+        failures.addAll(reported);
+        deleted.addAndGet(batch.size() - reported.size());
+    }
+
+    private static List<BulkResult<Void>> failAll(List<String> batch, Throwable error) {
+        List<BulkResult<Void>> failures = new ArrayList<>(batch.size());
+        for (String key : batch) {
+            failures.add(BulkResult.fromError(key, error));
+        }
+        return failures;
+    }
+
+    private static void validate(int batchSize, int maxConcurrentBatches) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0.");
+        }
+        BulkOperationPublisher.validateMaxConcurrency(maxConcurrentBatches);
+    }
+
+    private static final class BatchingSubscriber implements Flow.Subscriber<String> {
+        private final int batchSize;
+        private final int maxConcurrentBatches;
+        private final Function<List<String>, CompletableFuture<List<BulkResult<Void>>>> batchDeleter;
+        private final CompletableFuture<BatchDeleteResult> result = new CompletableFuture<>();
+        private final AtomicLong deleted = new AtomicLong();
+        private final ConcurrentLinkedQueue<BulkResult<Void>> failures = new ConcurrentLinkedQueue<>();
+        private Flow.Subscription upstream;
+        private List<String> currentBatch;
+        private int inFlightBatches;
+        private boolean waitingForSlot;
+        private boolean upstreamDone;
+
+        private BatchingSubscriber(
+                int batchSize,
+                int maxConcurrentBatches,
+                Function<List<String>, CompletableFuture<List<BulkResult<Void>>>> batchDeleter
+        ) {
+            this.batchSize = batchSize;
+            this.maxConcurrentBatches = maxConcurrentBatches;
+            this.batchDeleter = Objects.requireNonNull(batchDeleter, "batchDeleter must not be null");
+            this.currentBatch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                if (upstream != null) {
+                    subscription.cancel();
+                    return;
+                }
+                upstream = subscription;
+            }
+            result.whenComplete((ignored, error) -> {
+                if (result.isCancelled()) {
+                    subscription.cancel();
+                }
+            });
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(String key) {
+            List<String> batchToSend = null;
+            boolean requestMore = false;
+            synchronized (this) {
+                if (result.isDone()) {
+                    return;
+                }
+                currentBatch.add(key);
+                if (currentBatch.size() == batchSize) {
+                    batchToSend = currentBatch;
+                    currentBatch = new ArrayList<>(batchSize);
+                    inFlightBatches++;
+                    if (inFlightBatches < maxConcurrentBatches) {
+                        requestMore = true;
+                    } else {
+                        waitingForSlot = true;
+                    }
+                }
+            }
+            if (batchToSend != null) {
+                send(batchToSend);
+            }
+            if (requestMore) {
+                upstream.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            List<String> batchToSend = null;
+            synchronized (this) {
+                upstreamDone = true;
+                if (!currentBatch.isEmpty()) {
+                    batchToSend = currentBatch;
+                    currentBatch = new ArrayList<>(0);
+                    inFlightBatches++;
+                }
+            }
+            if (batchToSend != null) {
+                send(batchToSend);
+            } else {
+                completeIfDone();
+            }
+        }
+
+        private void send(List<String> batch) {
+            CompletableFuture<List<BulkResult<Void>>> future;
+            try {
+                future = Objects.requireNonNull(batchDeleter.apply(batch), "batchDeleter must not return null");
+            } catch (Throwable error) {
+                future = CompletableFuture.failedFuture(error);
+            }
+            future.whenComplete((batchFailures, error) -> {
+                record(batch, error == null ? batchFailures : failAll(batch, error), deleted, failures);
+                boolean requestMore;
+                synchronized (this) {
+                    inFlightBatches--;
+                    requestMore = waitingForSlot && !upstreamDone;
+                    waitingForSlot = false;
+                }
+                if (requestMore && !result.isDone()) {
+                    upstream.request(batchSize);
+                }
+                completeIfDone();
+            });
+        }
+
+        private void completeIfDone() {
+            synchronized (this) {
+                if (!upstreamDone || inFlightBatches > 0) {
+                    return;
+                }
+            }
+            result.complete(BatchDeleteResult.of(deleted.get(), List.copyOf(failures)));
+        }
+    }
+}
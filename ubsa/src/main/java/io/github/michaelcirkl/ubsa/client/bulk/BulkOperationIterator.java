@@ -0,0 +1,118 @@
+package io.github.michaelcirkl.ubsa.client.bulk;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a blocking operation for every key on virtual threads with bounded concurrency and yields one
+ * {@link BulkResult} per key in completion order.
+ *
+ * <p>Operations start when iteration begins. The number of running operations plus completed results that were not
+ * yet consumed never exceeds {@code maxConcurrency}. Closing the iterator interrupts the running operations and stops
+ * scheduling new ones; a {@link #next()} waiting for a result then throws {@link NoSuchElementException}.
+ */
+public final class BulkOperationIterator<T> implements Iterator<BulkResult<T>>, AutoCloseable {
+    private final List<String> keys;
+    private final int maxConcurrency;
+    private final Function<String, T> operation;
+    private final LinkedBlockingQueue<BulkResult<T>> completed = new LinkedBlockingQueue<>();
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+    private final BulkResult<T> closedMarker = BulkResult.success("", null);
+    private int nextKeyIndex;
+    private int pending;
+    private int delivered;
+    private volatile boolean closed;
+
+    public BulkOperationIterator(Iterable<String> keys, int maxConcurrency, Function<String, T> operation) {
+        this.keys = BulkOperationPublisher.copyKeys(keys);
+        this.maxConcurrency = BulkOperationPublisher.validateMaxConcurrency(maxConcurrency);
+        this.operation = Objects.requireNonNull(operation, "operation must not be null");
+    }
+
+    /**
+     * Returns a sequential stream over a new iterator. Closing the stream closes the iterator.
+     */
+    public static <T> Stream<BulkResult<T>> stream(Iterable<String> keys, int maxConcurrency, Function<String, T> operation) {
+        BulkOperationIterator<T> iterator = new BulkOperationIterator<>(keys, maxConcurrency, operation);
+        Spliterator<BulkResult<T>> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        return !closed && delivered < keys.size();
+    }
+
+    @Override
+    public synchronized BulkResult<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more items available.");
+        }
+        scheduleOperations();
+        BulkResult<T> result;
+        try {
+            result = completed.take();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UbsaException("Interrupted while waiting for bulk operation results.", interruptedException);
+        }
+        if (result == closedMarker) {
+            throw new NoSuchElementException("Iterator was closed.");
+        }
+        pending--;
+        delivered++;
+        scheduleOperations();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        completed.add(closedMarker);
+        running.forEach(Thread::interrupt);
+    }
+
+    private void scheduleOperations() {
+        while (!closed && nextKeyIndex < keys.size() && pending < maxConcurrency) {
+            String key = keys.get(nextKeyIndex++);
+            pending++;
+            Thread thread = Thread.ofVirtual()
+                    .name("ubsa-bulk-" + nextKeyIndex)
+                    .unstarted(() -> runOperation(key));
+            running.add(thread);
+            thread.start();
+        }
+    }
+
+    private void runOperation(String key) {
+        try {
+            BulkResult<T> result;
+            try {
+                result = BulkResult.success(key, operation.apply(key));
+            } catch (Throwable error) {
+                result = BulkResult.fromError(key, error);
+            }
+            if (!closed) {
+                completed.add(result);
+            }
+        } finally {
+            running.remove(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.michaelcirkl.ubsa.client.bulk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * Runs an async operation for every key with bounded concurrency and publishes one {@link BulkResult} per key in
+ * completion order.
+ *
+ * <p>Operations start on the first request. The number of running operations plus completed results that were not yet
+ * delivered never exceeds {@code maxConcurrency}, so a slow subscriber throttles the fan-out instead of buffering
+ * results. Cancelling the subscription cancels the running operations.
+ */
+public final class BulkOperationPublisher<T> implements Flow.Publisher<BulkResult<T>> {
+    private final List<String> keys;
+    private final int maxConcurrency;
+    private final Function<String, CompletableFuture<T>> operation;
+
+    public BulkOperationPublisher(Iterable<String> keys, int maxConcurrency, Function<String, CompletableFuture<T>> operation) {
+        this.keys = copyKeys(keys);
+        this.maxConcurrency = validateMaxConcurrency(maxConcurrency);
+        this.operation = Objects.requireNonNull(operation, "operation must not be null");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BulkResult<T>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        subscriber.onSubscribe(new BulkSubscription(subscriber));
+    }
+
+    static int validateMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be greater than 0.");
+        }
+        return maxConcurrency;
+    }
+
+    static List<String> copyKeys(Iterable<String> keys) {
+        Objects.requireNonNull(keys, "keys must not be null");
+        if (keys instanceof Collection<String> collection) {
+            return List.copyOf(collection);
+        }
+        List<String> copy = new ArrayList<>();
+        keys.forEach(key -> copy.add(Objects.requireNonNull(key, "keys must not contain null")));
+        return List.copyOf(copy);
+    }
+
+    private final class BulkSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super BulkResult<T>> downstream;
+        private final ArrayDeque<BulkResult<T>> completed = new ArrayDeque<>();
+        private final Set<CompletableFuture<T>> running = new HashSet<>();
+        private int nextKeyIndex;
+        private long demand;
+        private boolean started;
+        private boolean draining;
+        private boolean cancelled;
+        private boolean terminated;
+
+        private BulkSubscription(Flow.Subscriber<? super BulkResult<T>> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("Demand must be > 0."));
+                return;
+            }
+            synchronized (this) {
+                if (cancelled || terminated) {
+                    return;
+                }
+                demand = saturatedAdd(demand, n);
+                started = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            List<CompletableFuture<T>> toCancel;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                completed.clear();
+                toCancel = List.copyOf(running);
+                running.clear();
+            }
+            toCancel.forEach(future -> future.cancel(true));
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                BulkResult<T> itemToEmit = null;
+                String keyToStart = null;
+                boolean shouldComplete = false;
+                synchronized (this) {
+                    if (cancelled || terminated) {
+                        draining = false;
+                        return;
+                    }
+                    if (demand > 0 && !completed.isEmpty()) {
+                        itemToEmit = completed.poll();
+                        demand--;
+                    } else if (started && nextKeyIndex < keys.size() && running.size() + completed.size() < maxConcurrency) {
+                        keyToStart = keys.get(nextKeyIndex++);
+                    } else if (nextKeyIndex == keys.size() && running.isEmpty() && completed.isEmpty()) {
+                        terminated = true;
+                        shouldComplete = true;
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (itemToEmit != null) {
+                    downstream.onNext(itemToEmit);
+                } else if (shouldComplete) {
+                    downstream.onComplete();
+                    return;
+                } else {
+                    start(keyToStart);
+                }
+            }
+        }
+
+        private void start(String key) {
+            CompletableFuture<T> future;
+            try {
+                future = Objects.requireNonNull(operation.apply(key), "operation must not return null");
+            } catch (Throwable error) {
+                future = CompletableFuture.failedFuture(error);
+            }
+            boolean cancelFuture;
+            synchronized (this) {
+                cancelFuture = cancelled;
+                if (!cancelFuture) {
+                    running.add(future);
+                }
+            }
+            if (cancelFuture) {
+                future.cancel(true);
+                return;
+            }
+            CompletableFuture<T> started = future;
+            started.whenComplete((value, error) -> onOperationComplete(started, key, value, error));
+        }
+
+        private void onOperationComplete(CompletableFuture<T> future, String key, T value, Throwable error) {
+            synchronized (this) {
+                if (!running.remove(future)) {
+                    return;
+                }
+                completed.add(error == null ? BulkResult.success(key, value) : BulkResult.fromError(key, error));
+            }
+            drain();
+        }
+    }
+
+    private static long saturatedAdd(long left, long right) {
+        long result = left + right;
+        if (result < 0) {
+            return Long.MAX_VALUE;
+        }
+        return result;
+    }
+}
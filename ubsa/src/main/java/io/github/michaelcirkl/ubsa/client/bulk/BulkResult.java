@@ -0,0 +1,77 @@
+package io.github.michaelcirkl.ubsa.client.bulk;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Outcome of a single key within a bulk operation.
+ *
+ * <p>Exactly one of {@link #getValue()} and {@link #getError()} is meaningful: successful results carry the value
+ * returned by the provider (which may be {@code null} for operations without a return value), failed results carry the
+ * provider-neutral exception raised for that key.
+ */
+public final class BulkResult<T> {
+    private final String key;
+    private final T value;
+    private final UbsaException error;
+
+    private BulkResult(String key, T value, UbsaException error) {
+        this.key = Objects.requireNonNull(key, "key must not be null");
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> BulkResult<T> success(String key, T value) {
+        return new BulkResult<>(key, value, null);
+    }
+
+    public static <T> BulkResult<T> failure(String key, UbsaException error) {
+        return new BulkResult<>(key, null, Objects.requireNonNull(error, "error must not be null"));
+    }
+
+    static <T> BulkResult<T> fromError(String key, Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof UbsaException ubsaException) {
+            return failure(key, ubsaException);
+        }
+        return failure(key, new UbsaException("Bulk operation failed for key '" + key + "'.", cause));
+    }
+
+    /**
+     * Returns the blob key this result belongs to.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the value produced for the key, or {@code null} when the operation failed.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the failure raised for the key, or {@code null} when the operation succeeded.
+     */
+    public UbsaException getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? "BulkResult{key='" + key + "', success}"
+                : "BulkResult{key='" + key + "', error=" + error + "}";
+    }
+}
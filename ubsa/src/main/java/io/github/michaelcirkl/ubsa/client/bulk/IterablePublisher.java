@@ -0,0 +1,137 @@
+package io.github.michaelcirkl.ubsa.client.bulk;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes the elements of an {@link Iterable} on the requesting thread, honouring demand.
+ */
+final class IterablePublisher<T> implements Flow.Publisher<T> {
+    private final Iterable<? extends T> items;
+
+    IterablePublisher(Iterable<? extends T> items) {
+        this.items = Objects.requireNonNull(items, "items must not be null");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        Iterator<? extends T> iterator;
+        try {
+            iterator = items.iterator();
+        } catch (Throwable error) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(error);
+            return;
+        }
+        subscriber.onSubscribe(new IteratorSubscription<>(subscriber, iterator));
+    }
+
+    private static final class IteratorSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> downstream;
+        private final Iterator<? extends T> iterator;
+        private long demand;
+        private boolean draining;
+        private boolean terminated;
+
+        private IteratorSubscription(Flow.Subscriber<? super T> downstream, Iterator<? extends T> iterator) {
+            this.downstream = downstream;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                synchronized (this) {
+                    if (terminated) {
+                        return;
+                    }
+                    terminated = true;
+                }
+                downstream.onError(new IllegalArgumentException("Demand must be > 0."));
+                return;
+            }
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                demand = saturatedAdd(demand, n);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            drain();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            terminated = true;
+        }
+
+        private void drain() {
+            while (true) {
+                synchronized (this) {
+                    if (terminated || demand == 0) {
+                        draining = false;
+                        return;
+                    }
+                    demand--;
+                }
+                T item;
+                boolean hasItem;
+                try {
+                    hasItem = iterator.hasNext();
+                    item = hasItem ? iterator.next() : null;
+                } catch (Throwable error) {
+                    fail(error);
+                    return;
+                }
+                if (!hasItem) {
+                    synchronized (this) {
+                        if (terminated) {
+                            return;
+                        }
+                        terminated = true;
+                    }
+                    downstream.onComplete();
+                    return;
+                }
+                if (item == null) {
+                    fail(new NullPointerException("items must not contain null"));
+                    return;
+                }
+                downstream.onNext(item);
+            }
+        }
+
+        private void fail(Throwable error) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+            }
+            downstream.onError(error);
+        }
+    }
+
+    private static long saturatedAdd(long left, long right) {
+        long result = left + right;
+        if (result < 0) {
+            return Long.MAX_VALUE;
+        }
+        return result;
+    }
+}
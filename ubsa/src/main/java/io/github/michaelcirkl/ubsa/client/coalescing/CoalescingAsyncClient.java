@@ -0,0 +1,242 @@
+package io.github.michaelcirkl.ubsa.client.coalescing;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.streaming.ByteArrayRangeValidator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Async client decorator that coalesces concurrent identical reads into a single provider request.
+ *
+ * <p>Concurrent {@code getBlob}, {@code getBlobMetadata}, {@code blobExists} and {@code getByteRange} calls for the
+ * same bucket, key, range and operation share one in-flight request. Each caller receives its own future; cancelling
+ * it detaches only that caller, and the shared request is cancelled once every caller has cancelled. Results are
+ * shared between callers, so returned {@link Blob} content and byte arrays must not be mutated.
+ *
+ * <p>Concurrent {@code openBlobStream} subscriptions for the same blob are multicast from one download while no
+ * content has been received yet. Each subscriber has its own demand and a bounded buffer of chunks; the download
+ * advances at the pace of the slowest subscriber and is cancelled once every subscriber has cancelled.
+ *
+ * <p>Requests are coalesced only while they are in flight. Nothing is cached after completion.
+ */
+public class CoalescingAsyncClient extends ForwardingBlobStorageAsyncClient {
+    private static final int DEFAULT_STREAM_BUFFER_CHUNKS = 16;
+
+    private final ConcurrentMap<CallKey, SharedCall<?>> inFlightCalls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StreamKey, MulticastGroup> joinableStreams = new ConcurrentHashMap<>();
+    private final int streamBufferChunks;
+
+    public CoalescingAsyncClient(BlobStorageAsyncClient delegate) {
+        this(delegate, DEFAULT_STREAM_BUFFER_CHUNKS);
+    }
+
+    /**
+     * Creates a coalescing client.
+     *
+     * @param delegate the client that performs the actual requests
+     * @param streamBufferChunks the maximum number of chunks buffered per multicast stream subscriber
+     */
+    public CoalescingAsyncClient(BlobStorageAsyncClient delegate, int streamBufferChunks) {
+        super(delegate);
+        if (streamBufferChunks <= 0) {
+            throw new IllegalArgumentException("Stream buffer size must be greater than 0.");
+        }
+        this.streamBufferChunks = streamBufferChunks;
+    }
+
+    @Override
+    public CompletableFuture<Blob> getBlob(String bucketName, String blobKey) {
+        return coalesce(new CallKey(Operation.GET_BLOB, bucketName, blobKey, -1L, -1L),
+                () -> delegate().getBlob(bucketName, blobKey));
+    }
+
+    @Override
+    public CompletableFuture<Blob> getBlobMetadata(String bucketName, String blobKey) {
+        return coalesce(new CallKey(Operation.GET_BLOB_METADATA, bucketName, blobKey, -1L, -1L),
+                () -> delegate().getBlobMetadata(bucketName, blobKey));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> blobExists(String bucketName, String blobKey) {
+        return coalesce(new CallKey(Operation.BLOB_EXISTS, bucketName, blobKey, -1L, -1L),
+                () -> delegate().blobExists(bucketName, blobKey));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getByteRange(String bucketName, String blobKey, long startInclusive, long endInclusive) {
+        ByteArrayRangeValidator.validateAndGetLength(startInclusive, endInclusive);
+        return coalesce(new CallKey(Operation.GET_BYTE_RANGE, bucketName, blobKey, startInclusive, endInclusive),
+                () -> delegate().getByteRange(bucketName, blobKey, startInclusive, endInclusive));
+    }
+
+    @Override
+    public Flow.Publisher<ByteBuffer> openBlobStream(String bucketName, String blobKey) {
+        StreamKey key = new StreamKey(bucketName, blobKey);
+        return subscriber -> {
+            if (subscriber == null) {
+                throw new NullPointerException("subscriber must not be null");
+            }
+            subscribeToSharedStream(key, subscriber);
+        };
+    }
+
+    private void subscribeToSharedStream(StreamKey key, Flow.Subscriber<? super ByteBuffer> subscriber) {
+        while (true) {
+            MulticastGroup existing = joinableStreams.get(key);
+            if (existing != null) {
+                if (existing.tryJoin(subscriber)) {
+                    return;
+                }
+                joinableStreams.remove(key, existing);
+                continue;
+            }
+            MulticastGroup created = new MulticastGroup(streamBufferChunks, group -> joinableStreams.remove(key, group));
+            if (joinableStreams.putIfAbsent(key, created) != null) {
+                continue;
+            }
+            created.tryJoin(subscriber);
+            created.connect(delegate().openBlobStream(key.bucketName(), key.blobKey()));
+            return;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(CallKey key, Supplier<CompletableFuture<T>> loader) {
+        while (true) {
+            SharedCall<T> existing = (SharedCall<T>) inFlightCalls.get(key);
+            if (existing != null) {
+                CompletableFuture<T> joined = existing.join();
+                if (joined != null) {
+                    return joined;
+                }
+                inFlightCalls.remove(key, existing);
+                continue;
+            }
+            SharedCall<T> created = new SharedCall<>(call -> inFlightCalls.remove(key, call));
+            if (inFlightCalls.putIfAbsent(key, created) != null) {
+                continue;
+            }
+            CompletableFuture<T> caller = created.join();
+            CompletableFuture<T> source;
+            try {
+                source = loader.get();
+            } catch (RuntimeException error) {
+                created.fail(error);
+                throw error;
+            }
+            created.start(source);
+            return caller;
+        }
+    }
+
+    private enum Operation {
+        GET_BLOB, GET_BLOB_METADATA, BLOB_EXISTS, GET_BYTE_RANGE
+    }
+
+    private record CallKey(Operation operation, String bucketName, String blobKey, long startInclusive, long endInclusive) {
+    }
+
+    private record StreamKey(String bucketName, String blobKey) {
+    }
+
+    private static final class SharedCall<T> {
+        private final Consumer<SharedCall<T>> onClose;
+        private final List<CompletableFuture<T>> callers = new ArrayList<>();
+        private CompletableFuture<T> source;
+        private boolean closed;
+
+        private SharedCall(Consumer<SharedCall<T>> onClose) {
+            this.onClose = onClose;
+        }
+
+        private CompletableFuture<T> join() {
+            CompletableFuture<T> caller = new CompletableFuture<>();
+            synchronized (this) {
+                if (closed) {
+                    return null;
+                }
+                callers.add(caller);
+            }
+            caller.whenComplete((ignored, error) -> {
+                if (caller.isCancelled()) {
+                    leave(caller);
+                }
+            });
+            return caller;
+        }
+
+        private void start(CompletableFuture<T> sourceFuture) {
+            boolean abandoned;
+            synchronized (this) {
+                source = sourceFuture;
+                abandoned = closed;
+            }
+            if (abandoned) {
+                sourceFuture.cancel(true);
+                return;
+            }
+            sourceFuture.whenComplete(this::complete);
+        }
+
+        private void leave(CompletableFuture<T> caller) {
+            CompletableFuture<T> sourceToCancel;
+            synchronized (this) {
+                callers.remove(caller);
+                if (closed || !callers.isEmpty()) {
+                    return;
+                }
+                closed = true;
+                sourceToCancel = source;
+            }
+            onClose.accept(this);
+            if (sourceToCancel != null) {
+                sourceToCancel.cancel(true);
+            }
+        }
+
+        private void fail(Throwable error) {
+            complete(null, error);
+        }
+
+        private void complete(T result, Throwable error) {
+            List<CompletableFuture<T>> toComplete;
+            synchronized (this) {
+                closed = true;
+                toComplete = List.copyOf(callers);
+                callers.clear();
+            }
+            onClose.accept(this);
+            Throwable cause = error == null ? null : unwrap(error);
+            for (CompletableFuture<T> caller : toComplete) {
+                if (cause == null) {
+                    caller.complete(result);
+                } else {
+                    caller.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        Throwable current = throwable;
+        while (current instanceof CompletionException || current instanceof ExecutionException) {
+            if (current.getCause() == null) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return current;
+    }
+}
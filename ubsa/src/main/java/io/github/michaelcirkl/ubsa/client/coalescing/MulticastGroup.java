@@ -0,0 +1,279 @@
+package io.github.michaelcirkl.ubsa.client.coalescing;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Shares one upstream byte stream between several subscribers.
+ *
+ * <p>Subscribers may join until the first chunk arrives from upstream. Every subscriber gets its own demand and a
+ * queue bounded by {@code bufferChunks}; upstream is only asked for more chunks while every queue has room, so the
+ * download advances at the pace of the slowest subscriber. Chunks are handed out as independent read-only views.
+ */
+final class MulticastGroup implements Flow.Subscriber<ByteBuffer> {
+    private final int bufferChunks;
+    private final Consumer<MulticastGroup> onClose;
+    private final List<Member> members = new ArrayList<>();
+    private Flow.Subscription upstream;
+    private long outstanding;
+    private boolean started;
+    private boolean closed;
+    private boolean upstreamDone;
+    private Throwable upstreamError;
+
+    MulticastGroup(int bufferChunks, Consumer<MulticastGroup> onClose) {
+        this.bufferChunks = bufferChunks;
+        this.onClose = onClose;
+    }
+
+    boolean tryJoin(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Member member = new Member(subscriber);
+        synchronized (this) {
+            if (started || closed || upstreamDone) {
+                return false;
+            }
+            members.add(member);
+        }
+        subscriber.onSubscribe(member);
+        synchronized (this) {
+            member.subscribed = true;
+        }
+        member.drain();
+        return true;
+    }
+
+    void connect(Flow.Publisher<ByteBuffer> source) {
+        try {
+            source.subscribe(this);
+        } catch (Throwable error) {
+            onError(error);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        boolean cancelImmediately;
+        synchronized (this) {
+            cancelImmediately = closed || upstream != null;
+            if (!cancelImmediately) {
+                upstream = subscription;
+            }
+        }
+        if (cancelImmediately) {
+            subscription.cancel();
+            return;
+        }
+        requestUpstream();
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        List<Member> recipients;
+        boolean firstItem;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            firstItem = !started;
+            started = true;
+            outstanding = Math.max(0L, outstanding - 1);
+            recipients = List.copyOf(members);
+            for (Member member : recipients) {
+                member.queue.add(item.asReadOnlyBuffer());
+            }
+        }
+        if (firstItem) {
+            onClose.accept(this);
+        }
+        recipients.forEach(Member::drain);
+        requestUpstream();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        terminate(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(null);
+    }
+
+    private void terminate(Throwable error) {
+        List<Member> recipients;
+        synchronized (this) {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+            upstreamError = error;
+            recipients = List.copyOf(members);
+        }
+        onClose.accept(this);
+        recipients.forEach(Member::drain);
+    }
+
+    private void requestUpstream() {
+        Flow.Subscription subscription;
+        long toRequest;
+        synchronized (this) {
+            if (upstream == null || closed || upstreamDone || members.isEmpty()) {
+                return;
+            }
+            boolean anyDemand = false;
+            int largestQueue = 0;
+            for (Member member : members) {
+                anyDemand |= member.demand > 0;
+                largestQueue = Math.max(largestQueue, member.queue.size());
+            }
+            if (!anyDemand) {
+                return;
+            }
+            toRequest = bufferChunks - largestQueue - outstanding;
+            if (toRequest <= 0) {
+                return;
+            }
+            outstanding += toRequest;
+            subscription = upstream;
+        }
+        subscription.request(toRequest);
+    }
+
+    private void leave(Member member) {
+        Flow.Subscription subscriptionToCancel = null;
+        boolean lastMember;
+        synchronized (this) {
+            if (!members.remove(member)) {
+                return;
+            }
+            lastMember = members.isEmpty();
+            if (lastMember && !closed) {
+                closed = true;
+                if (!upstreamDone) {
+                    subscriptionToCancel = upstream;
+                }
+            }
+        }
+        if (lastMember) {
+            onClose.accept(this);
+            if (subscriptionToCancel != null) {
+                subscriptionToCancel.cancel();
+            }
+            return;
+        }
+        requestUpstream();
+    }
+
+    private final class Member implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        private long demand;
+        private boolean subscribed;
+        private boolean emitting;
+        private boolean finished;
+
+        private Member(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                boolean signal;
+                synchronized (MulticastGroup.this) {
+                    signal = !finished;
+                    finished = true;
+                    queue.clear();
+                }
+                if (signal) {
+                    leave(this);
+                    downstream.onError(new IllegalArgumentException("Demand must be > 0."));
+                }
+                return;
+            }
+            synchronized (MulticastGroup.this) {
+                if (finished) {
+                    return;
+                }
+                demand = saturatedAdd(demand, n);
+            }
+            drain();
+            requestUpstream();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (MulticastGroup.this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                queue.clear();
+            }
+            leave(this);
+        }
+
+        /**
+         * Emits queued chunks and the terminal signal. Does nothing until {@code onSubscribe} has returned, so a member
+         * that joins just before upstream finishes still sees {@code onSubscribe} first.
+         */
+        private void drain() {
+            synchronized (MulticastGroup.this) {
+                if (!subscribed || emitting) {
+                    return;
+                }
+                emitting = true;
+            }
+            boolean drained = false;
+            while (true) {
+                ByteBuffer item = null;
+                boolean complete = false;
+                Throwable error = null;
+                synchronized (MulticastGroup.this) {
+                    if (finished) {
+                        emitting = false;
+                        break;
+                    }
+                    if (demand > 0 && !queue.isEmpty()) {
+                        item = queue.poll();
+                        demand--;
+                        drained = true;
+                    } else if (queue.isEmpty() && upstreamDone) {
+                        finished = true;
+                        complete = upstreamError == null;
+                        error = upstreamError;
+                    } else {
+                        emitting = false;
+                        break;
+                    }
+                }
+                if (item != null) {
+                    downstream.onNext(item);
+                    continue;
+                }
+                leave(this);
+                if (complete) {
+                    downstream.onComplete();
+                } else {
+                    downstream.onError(error);
+                }
+                return;
+            }
+            if (drained) {
+                requestUpstream();
+            }
+        }
+    }
+
+    private static long saturatedAdd(long left, long right) {
+        long result = left + right;
+        if (result < 0) {
+            return Long.MAX_VALUE;
+        }
+        return result;
+    }
+}
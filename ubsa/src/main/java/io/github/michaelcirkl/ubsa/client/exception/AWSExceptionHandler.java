@@ -1,8 +1,10 @@
 package io.github.michaelcirkl.ubsa.client.exception;
 
 import io.github.michaelcirkl.ubsa.client.exception.types.*;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.io.IOException;
@@ -82,6 +84,32 @@ public final class AWSExceptionHandler {
         return new UbsaException(cause.getMessage(), cause);
     }
 
+    public UbsaException propagate(S3Error error) {
+        S3Exception exception = (S3Exception) S3Exception.builder()
+                .message(error.message())
+                .statusCode(statusCodeOf(error.code()))
+                .awsErrorDetails(AwsErrorDetails.builder()
+                        .errorCode(error.code())
+                        .errorMessage(error.message())
+                        .serviceName("S3")
+                        .build())
+                .build();
+        return propagate(exception);
+    }
+
+    private int statusCodeOf(String errorCode) { // per-key errors of DeleteObjects carry no HTTP status
+        if (errorCode == null) {
+            return 500;
+        }
+        return switch (errorCode) {
+            case "AccessDenied" -> 403;
+            case "NoSuchKey", "NoSuchBucket", "NoSuchVersion" -> 404;
+            case "InternalError" -> 500;
+            case "SlowDown", "ServiceUnavailable" -> 503;
+            default -> 400;
+        };
+    }
+
     public boolean isNotFound(S3Exception error) {
         if (error instanceof NoSuchBucketException || error instanceof NoSuchKeyException) {
             return true;
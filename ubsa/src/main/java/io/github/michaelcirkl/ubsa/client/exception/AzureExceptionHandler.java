@@ -74,6 +74,8 @@ public class AzureExceptionHandler {
                      "AuthorizationServiceMismatch",
                      "AuthorizationSourceIPMismatch":
                     return new AccessDeniedException(e.getMessage(), e, e.getStatusCode());
+                case "CannotVerifyCopySource":
+                    return new CopySourceUnreachableException(e.getMessage(), e, e.getStatusCode());
                 case "OperationTimedOut":
                     return new RequestTimeoutException(e.getMessage(), e, e.getStatusCode());
                 case "ConditionHeadersNotSupported",
@@ -0,0 +1,18 @@
+package io.github.michaelcirkl.ubsa.client.exception.types;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+/**
+ * Thrown when the service cannot read the source URL of a server-side copy, for example because the URL is not
+ * reachable from the service or has expired.
+ *
+ * <p>UBSA maps the following provider error codes to this exception:
+ * <ul>
+ *   <li>Azure: {@code CannotVerifyCopySource}</li>
+ * </ul>
+ */
+public class CopySourceUnreachableException extends UbsaException {
+    public CopySourceUnreachableException(String message, Throwable nativeException, int statusCode) {
+        super(message, nativeException, statusCode);
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.michaelcirkl.ubsa.client.existence;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link ExistenceFilteringAsyncClient}.
+ */
+public final class ExistenceFilterOptions {
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final long DEFAULT_EXPECTED_BLOBS = 1_000_000;
+    private static final Duration DEFAULT_REBUILD_INTERVAL = Duration.ofHours(1);
+    private static final int DEFAULT_LISTING_PAGE_SIZE = 1000;
+
+    private final double falsePositiveRate;
+    private final long expectedBlobs;
+    private final Duration rebuildInterval;
+    private final int listingPageSize;
+
+    private ExistenceFilterOptions(Builder builder) {
+        this.falsePositiveRate = builder.falsePositiveRate;
+        this.expectedBlobs = builder.expectedBlobs;
+        this.rebuildInterval = builder.rebuildInterval;
+        this.listingPageSize = builder.listingPageSize;
+    }
+
+    public static ExistenceFilterOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the targeted rate of absent keys that the filter cannot rule out and that fall through to the provider.
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Returns the number of blobs a filter is sized for when the bucket has not been listed before.
+     */
+    public long expectedBlobs() {
+        return expectedBlobs;
+    }
+
+    /**
+     * Returns how long a filter is used before it is rebuilt from a new listing, or {@code null} if filters are only
+     * rebuilt on request.
+     */
+    public Duration rebuildInterval() {
+        return rebuildInterval;
+    }
+
+    /**
+     * Returns the page size of the listings filters are built from.
+     */
+    public int listingPageSize() {
+        return listingPageSize;
+    }
+
+    public static class Builder {
+        private double falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+        private long expectedBlobs = DEFAULT_EXPECTED_BLOBS;
+        private Duration rebuildInterval = DEFAULT_REBUILD_INTERVAL;
+        private int listingPageSize = DEFAULT_LISTING_PAGE_SIZE;
+
+        /**
+         * Sets the targeted false-positive rate, between 0 and 1 exclusive. Defaults to 0.01; every halving costs
+         * about 1.44 more bits per blob.
+         */
+        public Builder falsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+            return this;
+        }
+
+        /**
+         * Sets the number of blobs the first filter of a bucket is sized for. Rebuilt filters are sized from the
+         * previous listing. Defaults to 1,000,000.
+         */
+        public Builder expectedBlobs(long expectedBlobs) {
+            this.expectedBlobs = expectedBlobs;
+            return this;
+        }
+
+        /**
+         * Sets how long a filter is used before it is rebuilt in the background, which bounds how long blobs written
+         * by other clients are reported absent. {@code null} disables periodic rebuilds. Defaults to 1 hour.
+         */
+        public Builder rebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+            return this;
+        }
+
+        /**
+         * Sets the page size of the listings filters are built from. Defaults to 1000.
+         */
+        public Builder listingPageSize(int listingPageSize) {
+            this.listingPageSize = listingPageSize;
+            return this;
+        }
+
+        public ExistenceFilterOptions build() {
+            if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                throw new IllegalArgumentException("False-positive rate must be between 0 and 1.");
+            }
+            if (expectedBlobs <= 0) {
+                throw new IllegalArgumentException("Expected blobs must be greater than 0.");
+            }
+            if (rebuildInterval != null && (rebuildInterval.isZero() || rebuildInterval.isNegative())) {
+                throw new IllegalArgumentException("Rebuild interval must be a positive duration.");
+            }
+            if (listingPageSize <= 0) {
+                throw new IllegalArgumentException("Listing page size must be greater than 0.");
+            }
+            return new ExistenceFilterOptions(this);
+        }
+    }
+}
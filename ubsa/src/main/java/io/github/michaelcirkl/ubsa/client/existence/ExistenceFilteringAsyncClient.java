@@ -0,0 +1,337 @@
+package io.github.michaelcirkl.ubsa.client.existence;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Async client decorator that answers {@code blobExists} for absent blobs from a local Bloom filter.
+ *
+ * <p>A bucket is {@linkplain #track(String) tracked} by listing it once into an off-heap Bloom filter. From then on
+ * {@code blobExists} completes with {@code false} without a provider request when the filter rules the key out; only
+ * keys the filter may contain, present blobs and a share of absent ones bounded by the configured false-positive
+ * rate, fall through to the provider. Keys written through this client are added to the filter before the write is
+ * issued, so a blob is never reported absent once its write may have become visible.
+ *
+ * <p>Bloom filters cannot forget keys: deleted blobs fall through to the provider until the filter is rebuilt, which
+ * happens in the background once the configured rebuild interval has elapsed. Blobs written by other clients are
+ * reported absent until then. {@code copyPrefix}, {@code movePrefix} and {@code uploadDirectory} suspend the filter of
+ * their destination bucket while they run and rebuild it when they complete.
+ */
+public class ExistenceFilteringAsyncClient extends ForwardingBlobStorageAsyncClient {
+    private final ExistenceFilterOptions options;
+    private final Map<String, BucketFilter> filters = new ConcurrentHashMap<>();
+
+    public ExistenceFilteringAsyncClient(BlobStorageAsyncClient delegate) {
+        this(delegate, null);
+    }
+
+    public ExistenceFilteringAsyncClient(BlobStorageAsyncClient delegate, ExistenceFilterOptions options) {
+        super(delegate);
+        this.options = options == null ? ExistenceFilterOptions.defaults() : options;
+    }
+
+    /**
+     * Starts answering {@code blobExists} for {@code bucketName} from a filter. Completes when the first filter has
+     * been built from a listing of the bucket; until then, and if the listing fails, calls fall through to the
+     * provider.
+     */
+    public CompletableFuture<Void> track(String bucketName) {
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        return filters.computeIfAbsent(bucketName, BucketFilter::new).rebuild();
+    }
+
+    /**
+     * Stops filtering {@code bucketName} and releases its filter.
+     */
+    public void untrack(String bucketName) {
+        filters.remove(bucketName);
+    }
+
+    /**
+     * Rebuilds the filter of a tracked bucket from a new listing, dropping deleted keys and picking up blobs written
+     * by other clients. The current filter keeps answering until the new one is complete.
+     */
+    public CompletableFuture<Void> rebuild(String bucketName) {
+        BucketFilter filter = filters.get(bucketName);
+        if (filter == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Bucket " + bucketName + " is not tracked."));
+        }
+        return filter.rebuild();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> blobExists(String bucketName, String blobKey) {
+        BucketFilter filter = filters.get(bucketName);
+        if (filter != null && filter.definitelyAbsent(blobKey)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return delegate().blobExists(bucketName, blobKey);
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, Blob blob) {
+        return write(bucketName, blob.getKey(), () -> delegate().createBlob(bucketName, blob));
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile) {
+        return write(bucketName, blobKey, () -> delegate().createBlob(bucketName, blobKey, sourceFile));
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile, BlobWriteOptions options) {
+        return write(bucketName, blobKey, () -> delegate().createBlob(bucketName, blobKey, sourceFile, options));
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(
+            String bucketName,
+            String blobKey,
+            Flow.Publisher<ByteBuffer> content,
+            long contentLength,
+            BlobWriteOptions options
+    ) {
+        return write(bucketName, blobKey,
+                () -> delegate().createBlob(bucketName, blobKey, content, contentLength, options));
+    }
+
+    @Override
+    public CompletableFuture<String> createBlobFromUrl(
+            String bucketName,
+            String blobKey,
+            URL sourceUrl,
+            long contentLength,
+            BlobWriteOptions options
+    ) {
+        return write(bucketName, blobKey,
+                () -> delegate().createBlobFromUrl(bucketName, blobKey, sourceUrl, contentLength, options));
+    }
+
+    @Override
+    public CompletableFuture<String> copyBlob(
+            String sourceBucketName,
+            String sourceBlobKey,
+            String destinationBucketName,
+            String destinationBlobKey
+    ) {
+        return write(destinationBucketName, destinationBlobKey,
+                () -> delegate().copyBlob(sourceBucketName, sourceBlobKey, destinationBucketName, destinationBlobKey));
+    }
+
+    @Override
+    public CompletableFuture<DirectoryUploadResult> uploadDirectory(
+            Path root,
+            String bucketName,
+            String prefix,
+            DirectoryUploadOptions options
+    ) {
+        return bulkWrite(bucketName, () -> delegate().uploadDirectory(root, bucketName, prefix, options));
+    }
+
+    @Override
+    public CompletableFuture<PrefixCopyResult> copyPrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return bulkWrite(destinationBucketName, () -> delegate()
+                .copyPrefix(sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, options));
+    }
+
+    @Override
+    public CompletableFuture<PrefixCopyResult> movePrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return bulkWrite(destinationBucketName, () -> delegate()
+                .movePrefix(sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, options));
+    }
+
+    private <T> CompletableFuture<T> write(String bucketName, String blobKey, Supplier<CompletableFuture<T>> operation) {
+        BucketFilter filter = filters.get(bucketName);
+        if (filter == null) {
+            return operation.get();
+        }
+        // Added before the write so the key is covered as soon as the blob may be visible, and again afterwards for
+        // a rebuild whose listing may have started before the blob was visible.
+        filter.add(blobKey);
+        return operation.get().whenComplete((result, error) -> filter.add(blobKey));
+    }
+
+    private <T> CompletableFuture<T> bulkWrite(String bucketName, Supplier<CompletableFuture<T>> operation) {
+        BucketFilter filter = filters.get(bucketName);
+        if (filter == null) {
+            return operation.get();
+        }
+        filter.suspend();
+        CompletableFuture<T> result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            filter.resume();
+            throw e;
+        }
+        return result.whenComplete((value, error) -> filter.resume());
+    }
+
+    /**
+     * Filter state of one tracked bucket.
+     *
+     * <p>{@code ready} answers lookups; {@code building} receives the listing of a rebuild in progress and replaces
+     * {@code ready} when the listing completes. Writers add keys to {@code building} before {@code ready}, and a
+     * rebuild publishes {@code ready} before clearing {@code building}, so every write reaches the filter that ends up
+     * answering. Bulk writes bump {@code generation}, which discards rebuilds that started before they finished.
+     */
+    private final class BucketFilter {
+        private final String bucketName;
+        private final AtomicInteger suspensions = new AtomicInteger();
+        private final AtomicLong generation = new AtomicLong();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile BloomFilter ready;
+        private volatile BloomFilter building;
+        private volatile CompletableFuture<Void> rebuilding;
+        private volatile long builtAtNanos;
+        private volatile long lastCount;
+
+        private BucketFilter(String bucketName) {
+            this.bucketName = bucketName;
+        }
+
+        boolean definitelyAbsent(String blobKey) {
+            BloomFilter filter = ready;
+            if (filter == null || suspensions.get() > 0) {
+                return false;
+            }
+            if (options.rebuildInterval() != null
+                    && System.nanoTime() - builtAtNanos >= options.rebuildInterval().toNanos()) {
+                rebuild();
+            }
+            return !filter.mightContain(blobKey);
+        }
+
+        void add(String blobKey) {
+            BloomFilter next = building;
+            if (next != null) {
+                next.add(blobKey);
+            }
+            BloomFilter current = ready;
+            if (current != null) {
+                current.add(blobKey);
+            }
+        }
+
+        void suspend() {
+            suspensions.incrementAndGet();
+            generation.incrementAndGet();
+        }
+
+        void resume() {
+            generation.incrementAndGet();
+            if (suspensions.decrementAndGet() == 0) {
+                rebuild();
+            }
+        }
+
+        CompletableFuture<Void> rebuild() {
+            lock.lock();
+            try {
+                CompletableFuture<Void> inProgress = rebuilding;
+                if (inProgress != null && !inProgress.isDone()) {
+                    return inProgress;
+                }
+                long startGeneration = generation.get();
+                BloomFilter filter = BloomFilter.create(
+                        Math.max(options.expectedBlobs(), lastCount + lastCount / 4), options.falsePositiveRate());
+                building = filter;
+                CompletableFuture<Long> listing = new CompletableFuture<>();
+                CompletableFuture<Void> result = listing
+                        .handle((count, error) -> {
+                            if (error != null) {
+                                install(filter, null, startGeneration);
+                                throw error instanceof CompletionException completion
+                                        ? completion : new CompletionException(error);
+                            }
+                            return install(filter, count, startGeneration);
+                        })
+                        .thenCompose(relist -> relist ? rebuild() : CompletableFuture.completedFuture(null));
+                rebuilding = result;
+                listPage(PageRequest.builder().pageSize(options.listingPageSize()).build(), filter, 0, listing);
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Publishes a completed listing unless a bulk write started since, and returns whether the caller should
+         * list again: when no rebuild will follow the bulk writes that made the listing stale, or when the bucket held
+         * so many more blobs than the filter was sized for that its false-positive rate is far off target.
+         */
+        private boolean install(BloomFilter filter, Long count, long startGeneration) {
+            lock.lock();
+            try {
+                boolean stale = generation.get() != startGeneration;
+                if (count != null && !stale) {
+                    ready = filter;
+                    lastCount = count;
+                }
+                if (building == filter) {
+                    building = null;
+                }
+                // A failed rebuild is retried after another interval rather than on every lookup.
+                builtAtNanos = System.nanoTime();
+                boolean overflowed = count != null && count > filter.expectedKeys() + filter.expectedKeys() / 2;
+                boolean relist = stale ? suspensions.get() == 0 : overflowed;
+                if (stale || relist) {
+                    rebuilding = null;
+                }
+                return relist;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void listPage(PageRequest request, BloomFilter filter, long count, CompletableFuture<Long> result) {
+            delegate().listBlobSummaries(bucketName, null, request).whenComplete((page, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                page.getItems().forEach(summary -> filter.add(summary.getKey()));
+                long listed = count + page.getItems().size();
+                if (page.hasNextPage()) {
+                    listPage(request.toBuilder().continuationToken(page.getNextContinuationToken()).build(),
+                            filter, listed, result);
+                } else {
+                    result.complete(listed);
+                }
+            });
+        }
+    }
+}
@@ -8,8 +8,11 @@ import com.google.api.gax.paging.Page;
 import com.google.cloud.ReadChannel;
 import com.google.cloud.storage.*;
 import com.google.cloud.storage.Storage.CopyRequest;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
 import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
 import io.github.michaelcirkl.ubsa.client.exception.GCPExceptionHandler;
 import io.github.michaelcirkl.ubsa.client.pagination.AsyncBucketListingSupport;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
@@ -30,14 +33,28 @@ import java.util.function.Function;
 public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     private final GCPExceptionHandler exceptionHandler = new GCPExceptionHandler();
     private final Storage client;
-    private static final ExecutorService IO_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
-        Thread thread = new Thread(runnable, "ubsa-gcp-async-io");
-        thread.setDaemon(true);
-        return thread;
-    });
+    private final GCPIoExecutor ioExecutor;
 
+    /**
+     * Creates a client with {@linkplain GCPAsyncClientOptions#defaults() default options}. This is the constructor
+     * {@link io.github.michaelcirkl.ubsa.BlobStorageClientFactory} uses.
+     */
     public GCPAsyncClientImpl(Storage client) {
+        this(client, GCPAsyncClientOptions.defaults());
+    }
+
+    public GCPAsyncClientImpl(Storage client, GCPAsyncClientOptions options) {
+        GCPAsyncClientOptions resolvedOptions = options == null ? GCPAsyncClientOptions.defaults() : options;
         this.client = client;
+        this.ioExecutor = new GCPIoExecutor(resolvedOptions.executor(), resolvedOptions.maxConcurrency());
+    }
+
+    /**
+     * Returns the executor the blocking calls of this client run on, whose active and queued task counts can be
+     * exported as gauges.
+     */
+    public GCPIoExecutor getIoExecutor() {
+        return ioExecutor;
     }
 
     @Override
@@ -56,41 +73,41 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     @Override
     public CompletableFuture<Boolean> bucketExists(String bucketName) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> client.get(bucketName) != null, IO_EXECUTOR)
+                ioExecutor.supply(() -> client.get(bucketName) != null)
         );
     }
 
     @Override
     public CompletableFuture<io.github.michaelcirkl.ubsa.Blob> getBlob(String bucketName, String blobKey) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     com.google.cloud.storage.Blob blob = requireBlob(bucketName, blobKey);
                     byte[] content = client.readAllBytes(
                             BlobId.of(bucketName, blobKey),
                             Storage.BlobSourceOption.shouldReturnRawInputStream(true)
                     );
                     return GCPClientSupport.mapFetchedBlob(bucketName, blobKey, blob, content);
-                }, IO_EXECUTOR)
+                })
         );
     }
 
     @Override
     public CompletableFuture<io.github.michaelcirkl.ubsa.Blob> getBlobMetadata(String bucketName, String blobKey) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     com.google.cloud.storage.Blob blob = client.get(bucketName, blobKey);
                     if (blob == null) {
                         throw new StorageException(404, "Blob not found: gs://" + bucketName + "/" + blobKey);
                     }
                     return GCPClientSupport.mapBlobMetadata(bucketName, blobKey, blob);
-                }, IO_EXECUTOR)
+                })
         );
     }
 
     @Override
     public Flow.Publisher<ByteBuffer> openBlobStream(String bucketName, String blobKey) {
         return FlowPublisherBridge.mapErrors(
-                new GCPReadChannelFlowPublisher(client, BlobId.of(bucketName, blobKey), IO_EXECUTOR),
+                new GCPReadChannelFlowPublisher(client, BlobId.of(bucketName, blobKey), ioExecutor),
                 exceptionHandler::propagate
         );
     }
@@ -98,19 +115,19 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     @Override
     public CompletableFuture<Void> deleteBucket(String bucketName) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     if (!client.delete(bucketName)) {
                         throw new StorageException(404, "Bucket not found: " + bucketName);
                     }
                     return null;
-                }, IO_EXECUTOR)
+                })
         );
     }
 
     @Override
     public CompletableFuture<Boolean> blobExists(String bucketName, String blobKey) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> client.get(bucketName, blobKey) != null, IO_EXECUTOR)
+                ioExecutor.supply(() -> client.get(bucketName, blobKey) != null)
         );
     }
 
@@ -119,7 +136,7 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
         BlobInfo blobInfo = buildBlobInfo(bucketName, blob);
         byte[] content = blob.getContent() == null ? new byte[0] : blob.getContent();
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> writeBlobAsync(blobInfo, content), IO_EXECUTOR)
+                ioExecutor.supply(() -> writeBlobAsync(blobInfo, content))
                         .thenCompose(this::toCompletableFuture)
                         .thenApply(BlobInfo::getEtag)
         );
@@ -135,7 +152,7 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
         FileUploadValidators.validateSourceFile(sourceFile);
         BlobInfo blobInfo = buildBlobInfo(bucketName, blobKey, options);
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> createBlobFromFile(blobInfo, sourceFile), IO_EXECUTOR)
+                ioExecutor.supply(() -> createBlobFromFile(blobInfo, sourceFile))
         );
     }
 
@@ -146,8 +163,9 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
             throw new IllegalArgumentException("Content publisher must not be null.");
         }
         BlobInfo blobInfo = buildBlobInfo(bucketName, blobKey, options);
+        // The write waits on the caller's publisher, which may itself need a slot, such as a stream from this client.
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> writeBlobAsync(blobInfo, content, contentLength), IO_EXECUTOR)
+                ioExecutor.supplyOutsideLimit(() -> writeBlobAsync(blobInfo, content, contentLength))
                         .thenCompose(this::toCompletableFuture)
                         .thenApply(BlobInfo::getEtag)
         );
@@ -156,20 +174,32 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     @Override
     public CompletableFuture<Void> deleteBlobIfExists(String bucketName, String blobKey) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.runAsync(() -> client.delete(bucketName, blobKey), IO_EXECUTOR)
+                ioExecutor.run(() -> client.delete(bucketName, blobKey))
+        );
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Flow.Publisher<String> blobKeys) {
+        return BatchDeleteSupport.deleteAsync(
+                blobKeys,
+                GCPClientSupport.DELETE_BATCH_SIZE,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> exceptionHandler.handleAsync(ioExecutor.supply(
+                        () -> GCPClientSupport.deleteBatch(client, bucketName, keys, exceptionHandler)
+                ))
         );
     }
 
     @Override
     public CompletableFuture<String> copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     CopyRequest request = CopyRequest.newBuilder()
                             .setSource(BlobId.of(sourceBucketName, sourceBlobKey))
                             .setTarget(BlobId.of(destinationBucketName, destinationBlobKey))
                             .build();
                     return client.copy(request).getResult().getEtag();
-                }, IO_EXECUTOR)
+                })
         );
     }
 
@@ -177,10 +207,10 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     public CompletableFuture<ListingPage<io.github.michaelcirkl.ubsa.Bucket>> listBuckets(PageRequest request) {
         PageRequest pageRequest = GCPClientSupport.normalizePageRequest(request);
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     Page<com.google.cloud.storage.Bucket> bucketPage = client.list(GCPClientSupport.buildBucketListOptions(pageRequest));
                     return ListingPage.of(GCPClientSupport.mapBuckets(bucketPage.getValues()), bucketPage.getNextPageToken());
-                }, IO_EXECUTOR)
+                })
         );
     }
 
@@ -188,10 +218,29 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     public CompletableFuture<ListingPage<io.github.michaelcirkl.ubsa.Blob>> listBlobs(String bucketName, String prefix, PageRequest request) {
         PageRequest pageRequest = GCPClientSupport.normalizePageRequest(request);
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     Page<com.google.cloud.storage.Blob> blobPage = client.list(bucketName, GCPClientSupport.buildBlobListOptions(prefix, pageRequest));
-                    return ListingPage.of(GCPClientSupport.mapBlobsFromPage(bucketName, blobPage.getValues()), blobPage.getNextPageToken());
-                }, IO_EXECUTOR)
+                    return ListingPage.of(
+                            GCPClientSupport.mapBlobsFromPage(bucketName, blobPage.getValues(), pageRequest),
+                            GCPClientSupport.mapCommonPrefixes(blobPage.getValues(), pageRequest.getStartAfter()),
+                            blobPage.getNextPageToken()
+                    );
+                })
+        );
+    }
+
+    @Override
+    public CompletableFuture<ListingPage<BlobSummary>> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        PageRequest pageRequest = GCPClientSupport.normalizePageRequest(request);
+        return exceptionHandler.handleAsync(
+                ioExecutor.supply(() -> {
+                    Page<com.google.cloud.storage.Blob> blobPage = client.list(bucketName, GCPClientSupport.buildBlobSummaryListOptions(prefix, pageRequest));
+                    return ListingPage.of(
+                            GCPClientSupport.mapBlobSummariesFromPage(bucketName, blobPage.getValues(), pageRequest),
+                            GCPClientSupport.mapCommonPrefixes(blobPage.getValues(), pageRequest.getStartAfter()),
+                            blobPage.getNextPageToken()
+                    );
+                })
         );
     }
 
@@ -203,7 +252,7 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
     @Override
     public CompletableFuture<Void> createBucket(io.github.michaelcirkl.ubsa.Bucket bucket) {
         return exceptionHandler.handleAsync(
-                CompletableFuture.runAsync(() -> {
+                ioExecutor.run(() -> {
                     try {
                         client.create(BucketInfo.of(bucket.getName()));
                     } catch (StorageException error) {
@@ -211,13 +260,13 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
                             throw error;
                         }
                     }
-                }, IO_EXECUTOR)
+                })
         );
     }
 
     @Override
     public CompletableFuture<Void> deleteBucketIfExists(String bucketName) {
-        return CompletableFuture.runAsync(() -> {
+        return ioExecutor.run(() -> {
             try {
                 client.delete(bucketName);
             } catch (StorageException error) {
@@ -225,14 +274,14 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
                     throw exceptionHandler.wrap(error);
                 }
             }
-        }, IO_EXECUTOR);
+        });
     }
 
     @Override
     public CompletableFuture<byte[]> getByteRange(String bucketName, String blobKey, long startInclusive, long endInclusive) {
         long requestedLength = ByteArrayRangeValidator.validateAndGetLength(startInclusive, endInclusive);
         return exceptionHandler.handleAsync(
-                CompletableFuture.supplyAsync(() -> {
+                ioExecutor.supply(() -> {
                     requireBlob(bucketName, blobKey);
                     try (ReadChannel readChannel = client.reader(
                             BlobId.of(bucketName, blobKey),
@@ -264,7 +313,7 @@ public class GCPAsyncClientImpl implements BlobStorageAsyncClient {
                     } catch (Exception error) {
                         throw new CompletionException(error);
                     }
-                }, IO_EXECUTOR)
+                })
         );
     }
 
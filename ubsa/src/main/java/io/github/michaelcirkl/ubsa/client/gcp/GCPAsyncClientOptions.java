@@ -0,0 +1,72 @@
+package io.github.michaelcirkl.ubsa.client.gcp;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Settings for {@link GCPAsyncClientImpl}.
+ *
+ * <p>The Cloud Storage client blocks, so every async operation runs one of its calls on an executor. Each client gets
+ * its own {@link GCPIoExecutor}, which caps the calls in flight and queues the rest.
+ */
+public final class GCPAsyncClientOptions {
+    private final Executor executor;
+    private final int maxConcurrency;
+
+    private GCPAsyncClientOptions(Builder builder) {
+        this.executor = builder.executor;
+        this.maxConcurrency = builder.maxConcurrency;
+    }
+
+    public static GCPAsyncClientOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the executor the blocking calls run on, or {@code null} to start a virtual thread per call.
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Returns the maximum number of blocking calls running at a time.
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public static class Builder {
+        private Executor executor;
+        private int maxConcurrency = Integer.MAX_VALUE;
+
+        /**
+         * Sets the executor the blocking calls run on. The client does not shut it down. Defaults to {@code null}, a
+         * new virtual thread per call.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of blocking calls running at a time; further calls are queued. An open blob stream
+         * takes a slot only while it reads, not while it waits for demand, and an upload from a publisher runs outside
+         * the limit, as it waits on the publisher. Defaults to no limit.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public GCPAsyncClientOptions build() {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Max concurrency must be greater than 0.");
+            }
+            return new GCPAsyncClientOptions(this);
+        }
+    }
+}
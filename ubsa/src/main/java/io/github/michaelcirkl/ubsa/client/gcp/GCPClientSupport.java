@@ -1,9 +1,17 @@
 package io.github.michaelcirkl.ubsa.client.gcp;
 
+import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.StorageBatch;
+import com.google.cloud.storage.StorageBatchResult;
+import com.google.cloud.storage.StorageException;
 import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.Bucket;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.exception.GCPExceptionHandler;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
 import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
 
 import java.net.URI;
@@ -14,7 +22,34 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 public final class GCPClientSupport {
+    public static final int DELETE_BATCH_SIZE = 100;
+
+    /**
+     * Object fields read by {@link #mapBlobMetadata}. Listings request only these, so responses leave out ACLs,
+     * checksums and the other resource fields UBSA does not map.
+     */
+    private static final Storage.BlobField[] BLOB_FIELDS = {
+            Storage.BlobField.NAME,
+            Storage.BlobField.SIZE,
+            Storage.BlobField.UPDATED,
+            Storage.BlobField.CONTENT_ENCODING,
+            Storage.BlobField.ETAG,
+            Storage.BlobField.METADATA
+    };
+    private static final Storage.BlobField[] BLOB_SUMMARY_FIELDS = {
+            Storage.BlobField.NAME,
+            Storage.BlobField.SIZE,
+            Storage.BlobField.UPDATED,
+            Storage.BlobField.ETAG
+    };
+    private static final Storage.BucketField[] BUCKET_FIELDS = {
+            Storage.BucketField.NAME,
+            Storage.BucketField.TIME_CREATED,
+            Storage.BucketField.UPDATED
+    };
+
     private GCPClientSupport() {
     }
 
@@ -33,12 +68,76 @@ public final class GCPClientSupport {
         return buckets;
     }
 
-    public static List<Blob> mapBlobsFromPage(String bucketName, Iterable<com.google.cloud.storage.Blob> blobItems) {
+    /**
+     * Maps a listing page, dropping the {@code startAfter} key itself because {@code startOffset} is inclusive, and
+     * the objects rejected by the filter of {@code pageRequest} before blobs are built.
+     */
+    public static List<Blob> mapBlobsFromPage(
+            String bucketName,
+            Iterable<com.google.cloud.storage.Blob> blobItems,
+            PageRequest pageRequest
+    ) {
         List<Blob> blobs = new ArrayList<>();
-        blobItems.forEach(gcsBlob -> blobs.add(mapBlobSummary(bucketName, gcsBlob)));
+        blobItems.forEach(gcsBlob -> {
+            if (isListed(gcsBlob, pageRequest)) {
+                blobs.add(mapBlobSummary(bucketName, gcsBlob));
+            }
+        });
         return blobs;
     }
 
+    /**
+     * Maps a listing page to summaries, dropping directory placeholders, the {@code startAfter} key and filtered
+     * objects like {@link #mapBlobsFromPage}.
+     */
+    public static List<BlobSummary> mapBlobSummariesFromPage(
+            String bucketName,
+            Iterable<com.google.cloud.storage.Blob> blobItems,
+            PageRequest pageRequest
+    ) {
+        Function<String, URI> uriResolver = key -> toGsUri(bucketName, key);
+        List<BlobSummary> summaries = new ArrayList<>();
+        blobItems.forEach(gcsBlob -> {
+            if (isListed(gcsBlob, pageRequest)) {
+                OffsetDateTime updated = gcsBlob.getUpdateTimeOffsetDateTime();
+                summaries.add(BlobSummary.of(
+                        bucketName,
+                        gcsBlob.getName(),
+                        gcsBlob.getSize() == null ? 0L : gcsBlob.getSize(),
+                        gcsBlob.getEtag(),
+                        updated == null ? -1 : updated.toInstant().toEpochMilli(),
+                        uriResolver
+                ));
+            }
+        });
+        return summaries;
+    }
+
+    private static boolean isListed(com.google.cloud.storage.Blob gcsBlob, PageRequest pageRequest) {
+        if (gcsBlob.isDirectory() || !BlobKeys.isAfter(gcsBlob.getName(), pageRequest.getStartAfter())) {
+            return false;
+        }
+        OffsetDateTime updated = gcsBlob.getUpdateTimeOffsetDateTime();
+        return pageRequest.accepts(
+                gcsBlob.getName(),
+                gcsBlob.getSize() == null ? 0L : gcsBlob.getSize(),
+                updated == null ? -1 : updated.toInstant().toEpochMilli()
+        );
+    }
+
+    /**
+     * Collects the common prefixes of a delimited listing, which GCS returns as directory placeholders among the blobs.
+     */
+    public static List<String> mapCommonPrefixes(Iterable<com.google.cloud.storage.Blob> blobItems, String startAfter) {
+        List<String> prefixes = new ArrayList<>();
+        blobItems.forEach(gcsBlob -> {
+            if (gcsBlob.isDirectory() && BlobKeys.isAfter(gcsBlob.getName(), startAfter)) {
+                prefixes.add(gcsBlob.getName());
+            }
+        });
+        return prefixes;
+    }
+
     public static Blob mapFetchedBlob(String bucketName, String blobKey, BlobInfo blobInfo, byte[] content) {
         return Blob.builder()
                 .content(content)
@@ -66,6 +165,29 @@ public final class GCPClientSupport {
                 .build();
     }
 
+    public static List<BulkResult<Void>> deleteBatch(
+            Storage client,
+            String bucketName,
+            List<String> blobKeys,
+            GCPExceptionHandler exceptionHandler
+    ) {
+        StorageBatch batch = client.batch();
+        List<StorageBatchResult<Boolean>> results = new ArrayList<>(blobKeys.size());
+        blobKeys.forEach(key -> results.add(batch.delete(BlobId.of(bucketName, key))));
+        batch.submit();
+        List<BulkResult<Void>> failures = new ArrayList<>();
+        for (int i = 0; i < blobKeys.size(); i++) {
+            try {
+                results.get(i).get(); // false means the blob was already missing
+            } catch (StorageException error) {
+                if (!exceptionHandler.isNotFound(error)) {
+                    failures.add(BulkResult.failure(blobKeys.get(i), exceptionHandler.propagate(error)));
+                }
+            }
+        }
+        return failures;
+    }
+
     public static Storage.BucketListOption[] buildBucketListOptions(PageRequest request) {
         List<Storage.BucketListOption> options = new ArrayList<>();
         if (request.getPageSize() != null) {
@@ -74,13 +196,30 @@ public final class GCPClientSupport {
         if (request.getContinuationToken() != null) {
             options.add(Storage.BucketListOption.pageToken(request.getContinuationToken()));
         }
+        options.add(Storage.BucketListOption.fields(BUCKET_FIELDS));
         return options.toArray(Storage.BucketListOption[]::new);
     }
 
     public static Storage.BlobListOption[] buildBlobListOptions(String prefix, PageRequest request) {
+        return buildBlobListOptions(prefix, request, BLOB_FIELDS);
+    }
+
+    /**
+     * Builds listing options that request only the fields of a {@link BlobSummary}.
+     */
+    public static Storage.BlobListOption[] buildBlobSummaryListOptions(String prefix, PageRequest request) {
+        return buildBlobListOptions(prefix, request, BLOB_SUMMARY_FIELDS);
+    }
+
+    /**
+     * The key glob of a filter is sent as {@code matchGlob}, except in delimited listings, where GCS would also apply it
+     * to the common prefixes. The glob is evaluated again while mapping, so both paths return the same blobs.
+     */
+    private static Storage.BlobListOption[] buildBlobListOptions(String prefix, PageRequest request, Storage.BlobField[] fields) {
         List<Storage.BlobListOption> options = new ArrayList<>();
-        if (prefix != null && !prefix.isBlank()) {
-            options.add(Storage.BlobListOption.prefix(prefix));
+        String listingPrefix = request.listingPrefix(prefix);
+        if (listingPrefix != null && !listingPrefix.isBlank()) {
+            options.add(Storage.BlobListOption.prefix(listingPrefix));
         }
         if (request.getPageSize() != null) {
             options.add(Storage.BlobListOption.pageSize(request.getPageSize()));
@@ -88,6 +227,18 @@ public final class GCPClientSupport {
         if (request.getContinuationToken() != null) {
             options.add(Storage.BlobListOption.pageToken(request.getContinuationToken()));
         }
+        if (request.getStartAfter() != null) {
+            options.add(Storage.BlobListOption.startOffset(request.getStartAfter()));
+        }
+        if (request.getEndBefore() != null) {
+            options.add(Storage.BlobListOption.endOffset(request.getEndBefore()));
+        }
+        if (request.getDelimiter() != null) {
+            options.add(Storage.BlobListOption.delimiter(request.getDelimiter()));
+        } else if (request.getFilter() != null && request.getFilter().getKeyGlob() != null) {
+            options.add(Storage.BlobListOption.matchGlob(request.getFilter().getKeyGlob()));
+        }
+        options.add(Storage.BlobListOption.fields(fields));
         return options.toArray(Storage.BlobListOption[]::new);
     }
 
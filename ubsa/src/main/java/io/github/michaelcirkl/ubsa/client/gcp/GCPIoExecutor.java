@@ -0,0 +1,176 @@
+package io.github.michaelcirkl.ubsa.client.gcp;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking Cloud Storage calls of a {@link GCPAsyncClientImpl} on an underlying executor, with at most
+ * {@code maxConcurrency} of them at a time.
+ *
+ * <p>Tasks beyond the limit wait in a FIFO queue and are handed to the underlying executor as running tasks finish,
+ * so {@link #execute(Runnable)} never blocks the caller. {@link #activeCount()} and {@link #queueDepth()} can be
+ * exported as gauges.
+ *
+ * <p>A queued task may be handed over by another task's thread, long after {@code execute} returned. If the underlying
+ * executor rejects it then, a task created by the client fails its future or subscriber with the
+ * {@link RejectedExecutionException}; any other task is reported to the uncaught exception handler of the thread that
+ * handed it over.
+ */
+public final class GCPIoExecutor implements Executor {
+    private static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().name("ubsa-gcp-async-io").factory();
+
+    private final Executor delegate;
+    private final int maxConcurrency;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    GCPIoExecutor(Executor delegate, int maxConcurrency) {
+        this.delegate = delegate == null ? task -> VIRTUAL_THREADS.newThread(task).start() : delegate;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns a task that runs {@code task}, or passes {@code onRejected} the exception if the underlying executor
+     * rejects it.
+     */
+    static Runnable rejectable(Runnable task, Consumer<? super RejectedExecutionException> onRejected) {
+        return new RejectableTask(task, onRejected);
+    }
+
+    /**
+     * Runs {@code supplier} within the concurrency limit. The future fails like one from
+     * {@link CompletableFuture#supplyAsync(Supplier, Executor)}, and also if the underlying executor rejects the call.
+     */
+    <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(supplyTask(future, supplier));
+        return future;
+    }
+
+    CompletableFuture<Void> run(Runnable action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code supplier} on the underlying executor without taking a slot, for calls that wait on something other
+     * than Cloud Storage, such as a caller's publisher, and would otherwise hold a slot the awaited work may need.
+     */
+    <T> CompletableFuture<T> supplyOutsideLimit(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = supplyTask(future, supplier);
+        try {
+            delegate.execute(task);
+        } catch (RejectedExecutionException error) {
+            fail(future, error);
+        }
+        return future;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.add(Objects.requireNonNull(task, "task must not be null"));
+        queued.incrementAndGet();
+        dispatch();
+    }
+
+    /**
+     * Returns the number of tasks handed to the underlying executor that have not finished.
+     */
+    public int activeCount() {
+        return active.get();
+    }
+
+    /**
+     * Returns the number of tasks waiting for one of the running tasks to finish.
+     */
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Starts queued tasks while there are free slots. Called after every submission and every finished task, so a
+     * task queued while all slots are taken is started by whichever task finishes next.
+     */
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            int current = active.get();
+            if (current >= maxConcurrency) {
+                return;
+            }
+            if (!active.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable task = queue.poll();
+            if (task == null) {
+                active.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            start(task);
+        }
+    }
+
+    private void start(Runnable task) {
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    dispatch();
+                }
+            });
+        } catch (RejectedExecutionException error) {
+            active.decrementAndGet();
+            reject(task, error);
+        }
+    }
+
+    private static void reject(Runnable task, RejectedExecutionException error) {
+        if (task instanceof RejectableTask rejectable) {
+            rejectable.onRejected().accept(error);
+        } else {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+        }
+    }
+
+    private static <T> Runnable supplyTask(CompletableFuture<T> future, Supplier<T> supplier) {
+        return rejectable(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable error) {
+                fail(future, error);
+            }
+        }, error -> fail(future, error));
+    }
+
+    private static void fail(CompletableFuture<?> future, Throwable error) {
+        future.completeExceptionally(error instanceof CompletionException ? error : new CompletionException(error));
+    }
+
+    private record RejectableTask(Runnable task, Consumer<? super RejectedExecutionException> onRejected)
+            implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
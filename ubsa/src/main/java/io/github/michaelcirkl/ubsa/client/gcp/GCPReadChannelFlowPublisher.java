@@ -7,11 +7,24 @@ import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageException;
 
 import java.nio.ByteBuffer;
-import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Streams a blob from a Cloud Storage read channel according to demand; GCS has no backpressure of its own like the
+ * Azure and S3 SDKs.
+ *
+ * <p>The channel blocks, so it is read by tasks on the given executor. A task reads and emits while there is demand
+ * and returns when there is none, leaving the channel open, and the next request submits a new task. A task also
+ * resubmits itself after {@value #CHUNKS_PER_TASK} chunks, so a long download takes turns with other calls on a
+ * bounded executor instead of holding a slot until it finishes. If the executor rejects a read task, the subscriber
+ * receives the rejection through {@code onError}.
+ */
 public final class GCPReadChannelFlowPublisher implements Flow.Publisher<ByteBuffer> {
+    private static final int CHUNK_SIZE = 8192;
+    private static final int CHUNKS_PER_TASK = 64;
+
     private final Storage storage;
     private final BlobId blobId;
     private final Executor executor;
@@ -24,93 +37,210 @@ public final class GCPReadChannelFlowPublisher implements Flow.Publisher<ByteBuf
 
     @Override
     public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
-        subscriber.onSubscribe(new Flow.Subscription() {
-            private final Object demandLock = new Object();
-            private boolean started;
-            private boolean cancelled;
-            private long demand;
-
-            @Override
-            public void request(long n) {
-                if (cancelled) {
+        subscriber.onSubscribe(new ReadSubscription(subscriber));
+    }
+
+    /**
+     * At most one read task is scheduled at a time, so the channel and the chunk buffer are only used by one thread at
+     * a time. {@code scheduled} is set while a task is queued or running; whoever sees the subscription end while it
+     * is clear closes the channel.
+     */
+    private final class ReadSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private long demand;
+        private boolean scheduled;
+        private boolean done;
+        private Throwable pendingError;
+        private ReadChannel readChannel;
+
+        private ReadSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            boolean schedule = false;
+            boolean idle = false;
+            lock.lock();
+            try {
+                if (done) {
                     return;
                 }
                 if (n <= 0) {
-                    cancelled = true;
-                    subscriber.onError(new IllegalArgumentException("Demand must be > 0."));
-                    return;
-                }
-                synchronized (demandLock) {
+                    done = true;
+                    pendingError = new IllegalArgumentException("Demand must be > 0.");
+                    idle = !scheduled;
+                } else {
                     demand = saturatedAdd(demand, n);
-                    if (!started) {
-                        started = true;
-                        executor.execute(this::drain);
-                    }
-                    demandLock.notifyAll();
+                    schedule = !scheduled;
+                    scheduled = true;
                 }
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                executor.execute(GCPIoExecutor.rejectable(this::drain, this::rejected));
+            } else if (idle) {
+                closeChannel();
+                subscriber.onError(pendingError);
             }
+        }
 
-            @Override
-            public void cancel() {
-                synchronized (demandLock) {
-                    cancelled = true;
-                    demandLock.notifyAll();
+        @Override
+        public void cancel() {
+            boolean idle;
+            lock.lock();
+            try {
+                if (done) {
+                    return;
                 }
+                done = true;
+                idle = !scheduled;
+            } finally {
+                lock.unlock();
+            }
+            if (idle) {
+                closeChannel();
             }
+        }
 
-            private void drain() {
-                // download backpressuree mechanism, gcp doesnt have it automatically like azure, s3
-                Blob blob = storage.get(blobId);
-                if (blob == null) {
-                    subscriber.onError(new StorageException(
-                            404,
-                            "Blob not found: gs://" + blobId.getBucket() + "/" + blobId.getName()
-                    ));
+        private void drain() {
+            try {
+                if (readChannel == null && !open()) {
                     return;
                 }
-                try (ReadChannel readChannel = storage.reader(
-                        blobId,
-                        Storage.BlobSourceOption.shouldReturnRawInputStream(true)
-                )) {
-                    byte[] chunk = new byte[8192];
-                    while (true) {
-                        synchronized (demandLock) {
-                            while (demand <= 0 && !cancelled) {
-                                demandLock.wait();
-                            }
-                            if (cancelled) {
-                                return;
-                            }
+                int chunks = 0;
+                while (true) {
+                    boolean emit = false;
+                    boolean resubmit = false;
+                    Throwable error = null;
+                    lock.lock();
+                    try {
+                        if (done) {
+                            scheduled = false;
+                            error = pendingError;
+                        } else if (demand == 0) {
+                            scheduled = false;
+                            return;
+                        } else if (chunks == CHUNKS_PER_TASK) {
+                            resubmit = true;
+                        } else {
                             demand--;
+                            emit = true;
                         }
-                        ByteBuffer buffer = ByteBuffer.wrap(chunk);
-                        int read = readChannel.read(buffer);
-                        if (read < 0) {
-                            subscriber.onComplete();
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (emit) {
+                        if (!emitChunk()) {
                             return;
                         }
-                        if (read == 0) {
-                            synchronized (demandLock) {
-                                demand++;
-                            }
-                            continue;
+                        chunks++;
+                    } else if (resubmit) {
+                        executor.execute(GCPIoExecutor.rejectable(this::drain, this::rejected));
+                        return;
+                    } else {
+                        closeChannel();
+                        if (error != null) {
+                            subscriber.onError(error);
                         }
-                        byte[] emission = new byte[read];
-                        System.arraycopy(chunk, 0, emission, 0, read);
-                        subscriber.onNext(ByteBuffer.wrap(emission));
-                    }
-                } catch (InterruptedException interruptedException) {
-                    Thread.currentThread().interrupt();
-                    if (!cancelled) {
-                        subscriber.onError(new CompletionException("Interrupted while streaming blob content from GCS.", interruptedException));
-                    }
-                } catch (Throwable error) {
-                    if (!cancelled) {
-                        subscriber.onError(error);
+                        return;
                     }
                 }
+            } catch (Throwable error) {
+                closeChannel();
+                if (terminate()) {
+                    subscriber.onError(error);
+                }
             }
-        });
+        }
+
+        /**
+         * Opens the channel once the blob is known to exist. Returns {@code false} after signalling that it does not.
+         */
+        private boolean open() {
+            Blob blob = storage.get(blobId);
+            if (blob == null) {
+                if (terminate()) {
+                    subscriber.onError(new StorageException(
+                            404,
+                            "Blob not found: gs://" + blobId.getBucket() + "/" + blobId.getName()
+                    ));
+                }
+                return false;
+            }
+            readChannel = storage.reader(blobId, Storage.BlobSourceOption.shouldReturnRawInputStream(true));
+            return true;
+        }
+
+        /**
+         * Reads and emits one chunk for one unit of demand. Returns {@code false} once the blob is exhausted.
+         */
+        private boolean emitChunk() throws Exception {
+            int read = readChannel.read(ByteBuffer.wrap(chunk));
+            if (read < 0) {
+                closeChannel();
+                if (terminate()) {
+                    subscriber.onComplete();
+                }
+                return false;
+            }
+            if (read == 0) {
+                lock.lock();
+                try {
+                    demand = saturatedAdd(demand, 1);
+                } finally {
+                    lock.unlock();
+                }
+                return true;
+            }
+            byte[] emission = new byte[read];
+            System.arraycopy(chunk, 0, emission, 0, read);
+            subscriber.onNext(ByteBuffer.wrap(emission));
+            return true;
+        }
+
+        /**
+         * Ends the subscription when the executor rejects the read task, which was the only one scheduled.
+         */
+        private void rejected(Throwable error) {
+            Throwable signal;
+            lock.lock();
+            try {
+                signal = done ? pendingError : error;
+                done = true;
+                scheduled = false;
+            } finally {
+                lock.unlock();
+            }
+            closeChannel();
+            if (signal != null) {
+                subscriber.onError(signal);
+            }
+        }
+
+        private boolean terminate() {
+            lock.lock();
+            try {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void closeChannel() {
+            ReadChannel current = readChannel;
+            readChannel = null;
+            if (current != null) {
+                current.close();
+            }
+        }
     }
 
     private static long saturatedAdd(long left, long right) {
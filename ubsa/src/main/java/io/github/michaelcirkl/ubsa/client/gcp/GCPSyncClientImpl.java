@@ -6,12 +6,15 @@ import com.google.cloud.storage.BlobId;
 import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
 import com.google.cloud.storage.Storage.CopyRequest;
+import io.github.michaelcirkl.ubsa.BlobSummary;
 import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
 import io.github.michaelcirkl.ubsa.Provider;
 import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
 import io.github.michaelcirkl.ubsa.client.streaming.ContentLengthValidators;
 import io.github.michaelcirkl.ubsa.client.streaming.FileUploadValidators;
 import io.github.michaelcirkl.ubsa.client.streaming.WriteOptionsMappers;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteSupport;
 import io.github.michaelcirkl.ubsa.client.exception.GCPExceptionHandler;
 import io.github.michaelcirkl.ubsa.client.pagination.BucketListingSupport;
 import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
@@ -159,6 +162,16 @@ public class GCPSyncClientImpl implements BlobStorageSyncClient {
         });
     }
 
+    @Override
+    public BatchDeleteResult deleteBlobs(String bucketName, Iterable<String> blobKeys) {
+        return BatchDeleteSupport.deleteSync(
+                blobKeys,
+                GCPClientSupport.DELETE_BATCH_SIZE,
+                BatchDeleteSupport.DEFAULT_MAX_CONCURRENT_BATCHES,
+                keys -> exceptionHandler.handle(() -> GCPClientSupport.deleteBatch(client, bucketName, keys, exceptionHandler))
+        );
+    }
+
     @Override
     public String copyBlob(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
         return exceptionHandler.handle(() -> {
@@ -186,7 +199,24 @@ public class GCPSyncClientImpl implements BlobStorageSyncClient {
         PageRequest pageRequest = GCPClientSupport.normalizePageRequest(request);
         return exceptionHandler.handle(() -> {
             Page<com.google.cloud.storage.Blob> blobPage = client.list(bucketName, GCPClientSupport.buildBlobListOptions(prefix, pageRequest));
-            return ListingPage.of(GCPClientSupport.mapBlobsFromPage(bucketName, blobPage.getValues()), blobPage.getNextPageToken());
+            return ListingPage.of(
+                    GCPClientSupport.mapBlobsFromPage(bucketName, blobPage.getValues(), pageRequest),
+                    GCPClientSupport.mapCommonPrefixes(blobPage.getValues(), pageRequest.getStartAfter()),
+                    blobPage.getNextPageToken()
+            );
+        });
+    }
+
+    @Override
+    public ListingPage<BlobSummary> listBlobSummaries(String bucketName, String prefix, PageRequest request) {
+        PageRequest pageRequest = GCPClientSupport.normalizePageRequest(request);
+        return exceptionHandler.handle(() -> {
+            Page<com.google.cloud.storage.Blob> blobPage = client.list(bucketName, GCPClientSupport.buildBlobSummaryListOptions(prefix, pageRequest));
+            return ListingPage.of(
+                    GCPClientSupport.mapBlobSummariesFromPage(bucketName, blobPage.getValues(), pageRequest),
+                    GCPClientSupport.mapCommonPrefixes(blobPage.getValues(), pageRequest.getStartAfter()),
+                    blobPage.getNextPageToken()
+            );
         });
     }
 
@@ -0,0 +1,55 @@
+package io.github.michaelcirkl.ubsa.client.inventory;
+
+import io.github.michaelcirkl.ubsa.BlobSummary;
+
+/**
+ * A change below a watched prefix, published by {@link PrefixWatcher}.
+ */
+public final class BlobChange {
+    public enum Type {
+        /**
+         * The key was not in the snapshot and is listed now.
+         */
+        CREATED,
+        /**
+         * The key is listed with a different size or ETag than in the snapshot.
+         */
+        UPDATED,
+        /**
+         * The key was in the snapshot and is no longer listed.
+         */
+        DELETED
+    }
+
+    private final Type type;
+    private final BlobSummary summary;
+
+    private BlobChange(Type type, BlobSummary summary) {
+        this.type = type;
+        this.summary = summary;
+    }
+
+    public static BlobChange of(Type type, BlobSummary summary) {
+        return new BlobChange(type, summary);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return summary.getKey();
+    }
+
+    /**
+     * Returns the listed blob, or for {@link Type#DELETED} the last entry of the snapshot, which carries no public URI.
+     */
+    public BlobSummary getSummary() {
+        return summary;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + summary.getKey();
+    }
+}
@@ -0,0 +1,295 @@
+package io.github.michaelcirkl.ubsa.client.inventory;
+
+import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PrefetchingPagedIterable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Local, sorted index of the blobs below a bucket prefix, stored in a memory-mapped file.
+ *
+ * <p>The index holds key, size, ETag and last-modified time of every blob, with keys prefix-compressed in blocks.
+ * {@link #contains(String)}, {@link #sizeOf(String)} and {@link #get(String)} binary search the blocks and
+ * {@link #scan(String)} walks the entries below a prefix, all without contacting the provider. Object stores cannot
+ * list only the changes since a point in time, so the index is refreshed by re-listing: either the whole prefix, or
+ * only the partitions, given as key prefixes, known to have changed. A refresh writes a new file next to the old one
+ * and replaces it atomically; queries running at that moment finish on the previous index.
+ *
+ * <p>The {@linkplain #getWatermark() watermark} is the time the last full listing started. Changes made before it are
+ * reflected by the index, changes made after it may not be.
+ */
+public final class BlobInventory {
+    private static final int LISTING_PAGE_SIZE = 1000;
+    private static final int PREFETCH_PAGES = 1;
+
+    private final Path file;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile InventoryFile index;
+
+    private BlobInventory(Path file, InventoryFile index) {
+        this.file = file;
+        this.index = index;
+    }
+
+    /**
+     * Lists all blobs below {@code prefix} and writes them to {@code file}, replacing an existing index.
+     */
+    public static BlobInventory build(BlobStorageSyncClient client, String bucketName, String prefix, Path file) {
+        Objects.requireNonNull(client, "client must not be null");
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        String normalizedPrefix = prefix == null ? "" : prefix;
+        long watermark = System.currentTimeMillis();
+        write(file, bucketName, normalizedPrefix, watermark, writer -> copyListing(client, bucketName, normalizedPrefix, writer));
+        return new BlobInventory(file, InventoryFile.open(file));
+    }
+
+    /**
+     * Opens an index written by {@link #build}.
+     */
+    public static BlobInventory open(Path file) {
+        return new BlobInventory(file, InventoryFile.open(file));
+    }
+
+    public String getBucket() {
+        return index.bucket();
+    }
+
+    public String getPrefix() {
+        return index.prefix();
+    }
+
+    /**
+     * Returns the number of blobs in the index.
+     */
+    public long size() {
+        return index.entryCount();
+    }
+
+    /**
+     * Returns the UTC time the last full listing started.
+     */
+    public LocalDateTime getWatermark() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(index.watermark()), ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns whether the index holds {@code key}.
+     */
+    public boolean contains(String key) {
+        return find(index, key) != null;
+    }
+
+    /**
+     * Returns the size of {@code key} in bytes, or {@code -1} if the index does not hold it.
+     */
+    public long sizeOf(String key) {
+        InventoryFile.Cursor cursor = find(index, key);
+        return cursor == null ? -1 : cursor.size();
+    }
+
+    /**
+     * Returns the indexed entry of {@code key}, or {@code null} if the index does not hold it. Summaries from an index
+     * carry no public URI.
+     */
+    public BlobSummary get(String key) {
+        InventoryFile.Cursor cursor = find(index, key);
+        return cursor == null ? null : cursor.toSummary();
+    }
+
+    /**
+     * Returns the entries whose keys start with {@code prefix} in ascending key order. A {@code null} or empty prefix
+     * returns all entries.
+     */
+    public Stream<BlobSummary> scan(String prefix) {
+        InventoryFile current = index;
+        byte[] keyPrefix = prefix == null ? new byte[0] : prefix.getBytes(StandardCharsets.UTF_8);
+        InventoryFile.Cursor cursor = current.seek(keyPrefix);
+        Iterator<BlobSummary> entries = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.valid() && cursor.keyStartsWith(keyPrefix);
+            }
+
+            @Override
+            public BlobSummary next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more entries below the prefix.");
+                }
+                BlobSummary summary = cursor.toSummary();
+                cursor.next();
+                return summary;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                entries, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Returns the number of entries whose keys start with {@code prefix}, without creating summaries.
+     */
+    public long count(String prefix) {
+        byte[] keyPrefix = prefix == null ? new byte[0] : prefix.getBytes(StandardCharsets.UTF_8);
+        InventoryFile.Cursor cursor = index.seek(keyPrefix);
+        long count = 0;
+        while (cursor.valid() && cursor.keyStartsWith(keyPrefix)) {
+            count++;
+            cursor.next();
+        }
+        return count;
+    }
+
+    /**
+     * Re-lists the whole prefix of the index and advances the watermark.
+     */
+    public void refresh(BlobStorageSyncClient client) {
+        refreshLock.lock();
+        try {
+            InventoryFile current = index;
+            long watermark = System.currentTimeMillis();
+            write(file, current.bucket(), current.prefix(), watermark,
+                    writer -> copyListing(client, current.bucket(), current.prefix(), writer));
+            index = InventoryFile.open(file);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Re-lists only the blobs below the given partition prefixes and keeps all other entries. Every partition must lie
+     * below the prefix of the index. The watermark is kept, since the rest of the index was not re-listed.
+     */
+    public void refresh(BlobStorageSyncClient client, Collection<String> partitions) {
+        Objects.requireNonNull(client, "client must not be null");
+        refreshLock.lock();
+        try {
+            InventoryFile current = index;
+            List<String> normalized = normalizePartitions(current.prefix(), partitions);
+            write(file, current.bucket(), current.prefix(), current.watermark(), writer -> {
+                InventoryFile.Cursor cursor = current.first();
+                for (String partition : normalized) {
+                    byte[] partitionBytes = partition.getBytes(StandardCharsets.UTF_8);
+                    while (cursor.valid() && cursor.compareKey(partitionBytes) < 0) {
+                        copyEntry(cursor, writer);
+                    }
+                    while (cursor.valid() && cursor.keyStartsWith(partitionBytes)) {
+                        cursor.next();
+                    }
+                    copyListing(client, current.bucket(), partition, writer);
+                }
+                while (cursor.valid()) {
+                    copyEntry(cursor, writer);
+                }
+            });
+            index = InventoryFile.open(file);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private static InventoryFile.Cursor find(InventoryFile current, String key) {
+        byte[] keyBytes = Objects.requireNonNull(key, "key must not be null").getBytes(StandardCharsets.UTF_8);
+        InventoryFile.Cursor cursor = current.seek(keyBytes);
+        return cursor.valid() && cursor.compareKey(keyBytes) == 0 ? cursor : null;
+    }
+
+    /**
+     * Sorts the partitions and drops those nested in another partition, so each key belongs to at most one of them.
+     */
+    private static List<String> normalizePartitions(String prefix, Collection<String> partitions) {
+        List<String> sorted = new ArrayList<>(Objects.requireNonNull(partitions, "partitions must not be null"));
+        sorted.sort(BlobKeys.ORDER);
+        List<String> normalized = new ArrayList<>(sorted.size());
+        for (String partition : sorted) {
+            if (partition == null || !partition.startsWith(prefix)) {
+                throw new IllegalArgumentException("Partition " + partition + " is not below the inventory prefix " + prefix + ".");
+            }
+            if (normalized.isEmpty() || !partition.startsWith(normalized.getLast())) {
+                normalized.add(partition);
+            }
+        }
+        return normalized;
+    }
+
+    private static void copyEntry(InventoryFile.Cursor cursor, InventoryWriter writer) {
+        writer.add(cursor.key(), cursor.size(), cursor.etag(), cursor.lastModified());
+        cursor.next();
+    }
+
+    private static void copyListing(BlobStorageSyncClient client, String bucketName, String prefix, InventoryWriter writer) {
+        Iterator<BlobSummary> summaries = new PrefetchingPagedIterable<>(
+                PageRequest.builder().pageSize(LISTING_PAGE_SIZE).build(),
+                pageRequest -> client.listBlobSummaries(bucketName, prefix, pageRequest),
+                PREFETCH_PAGES
+        ).iterator();
+        try {
+            while (summaries.hasNext()) {
+                BlobSummary summary = summaries.next();
+                writer.add(summary.getKey(), summary.getSize(), summary.getEtag(), summary.lastModifiedEpochMillis());
+            }
+        } finally {
+            if (summaries instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // Prefetching iterators do not throw on close.
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a new index to a temporary file next to {@code file} and moves it into place.
+     */
+    private static void write(
+            Path file,
+            String bucketName,
+            String prefix,
+            long watermark,
+            Consumer<InventoryWriter> entries
+    ) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (InventoryWriter writer = new InventoryWriter(temp, bucketName, prefix)) {
+                    entries.accept(writer);
+                    writer.finish(watermark);
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ignored) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write inventory " + file + ".", error);
+        }
+    }
+}
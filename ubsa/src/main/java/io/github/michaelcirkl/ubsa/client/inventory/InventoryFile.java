@@ -0,0 +1,262 @@
+package io.github.michaelcirkl.ubsa.client.inventory;
+
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only view of an inventory file mapped into memory.
+ *
+ * <p>Layout: an 8-byte magic number, the bucket and prefix, the entry blocks written by {@link InventoryWriter}, one
+ * 4-byte offset per block, and a {@value #FOOTER_SIZE}-byte footer holding the offset of the block offsets, the block
+ * and entry counts, the watermark and the magic number again. Lookups binary search the first keys of the blocks and
+ * scan at most one block, comparing UTF-8 bytes in place. All reads use absolute positions, so one file can be read
+ * by many threads at once.
+ */
+final class InventoryFile {
+    static final long MAGIC = 0x5542_5341_494E_5631L; // "UBSAINV1"
+    static final int BLOCK_ENTRIES = 32;
+    static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES + Long.BYTES;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final String bucket;
+    private final String prefix;
+    private final int dataOffset;
+    private final int indexOffset;
+    private final int blockCount;
+    private final long entryCount;
+    private final long watermark;
+
+    private InventoryFile(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        int limit = buffer.limit();
+        if (limit < Long.BYTES + FOOTER_SIZE || buffer.getLong(0) != MAGIC || buffer.getLong(limit - Long.BYTES) != MAGIC) {
+            throw new UbsaException("File " + file + " is not a UBSA inventory.", null);
+        }
+        int footer = limit - FOOTER_SIZE;
+        this.indexOffset = Math.toIntExact(buffer.getLong(footer));
+        this.blockCount = buffer.getInt(footer + Long.BYTES);
+        this.entryCount = buffer.getLong(footer + Long.BYTES + Integer.BYTES);
+        this.watermark = buffer.getLong(footer + Long.BYTES + Integer.BYTES + Long.BYTES);
+        Reader reader = new Reader(Long.BYTES);
+        this.bucket = reader.readString();
+        this.prefix = reader.readString();
+        this.dataOffset = reader.position;
+    }
+
+    static InventoryFile open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new UbsaException("Inventory file " + file + " exceeds the maximum size of 2 GiB.", null);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new InventoryFile(file, buffer);
+        } catch (IOException error) {
+            throw new UbsaException("Failed to open inventory file " + file + ".", error);
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    String bucket() {
+        return bucket;
+    }
+
+    String prefix() {
+        return prefix;
+    }
+
+    long entryCount() {
+        return entryCount;
+    }
+
+    long watermark() {
+        return watermark;
+    }
+
+    /**
+     * Returns a cursor at the first entry.
+     */
+    Cursor first() {
+        Cursor cursor = new Cursor();
+        if (entryCount > 0) {
+            cursor.startBlock(0);
+            cursor.next();
+        }
+        return cursor;
+    }
+
+    /**
+     * Returns a cursor at the first entry whose key is equal to or sorts after {@code target}.
+     */
+    Cursor seek(byte[] target) {
+        Cursor cursor = new Cursor();
+        if (entryCount == 0) {
+            return cursor;
+        }
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (compareFirstKey(middle, target) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        cursor.startBlock(low);
+        while (cursor.next() && cursor.compareKey(target) < 0) {
+            // Skip entries of the block that sort before the target.
+        }
+        return cursor;
+    }
+
+    private int compareFirstKey(int block, byte[] target) {
+        Reader reader = new Reader(blockOffset(block));
+        reader.readVarLong();
+        int length = (int) reader.readVarLong();
+        return compare(reader.position, length, target);
+    }
+
+    private int blockOffset(int block) {
+        return buffer.getInt(indexOffset + block * Integer.BYTES);
+    }
+
+    private int compare(int offset, int length, byte[] target) {
+        int common = Math.min(length, target.length);
+        for (int i = 0; i < common; i++) {
+            int difference = Byte.toUnsignedInt(buffer.get(offset + i)) - Byte.toUnsignedInt(target[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return Integer.compare(length, target.length);
+    }
+
+    private class Reader {
+        int position;
+
+        private Reader(int position) {
+            this.position = position;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = buffer.get(position++);
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Forward-only position in the entry blocks. The current key is rebuilt in a reusable buffer, so iterating does
+     * not allocate until an entry is turned into a {@link BlobSummary}.
+     */
+    final class Cursor extends Reader {
+        private long index = -1;
+        private long nextIndex;
+        private byte[] key = new byte[256];
+        private int keyLength;
+        private long size;
+        private long lastModified;
+        private int etagOffset;
+        private int etagLength;
+
+        private Cursor() {
+            super(dataOffset);
+        }
+
+        private void startBlock(int block) {
+            position = blockOffset(block);
+            nextIndex = (long) block * BLOCK_ENTRIES;
+        }
+
+        /**
+         * Moves to the next entry and returns whether there is one.
+         */
+        boolean next() {
+            if (nextIndex >= entryCount) {
+                index = entryCount;
+                return false;
+            }
+            int shared = (int) readVarLong();
+            int suffix = (int) readVarLong();
+            keyLength = shared + suffix;
+            if (keyLength > key.length) {
+                key = Arrays.copyOf(key, Math.max(keyLength, key.length * 2));
+            }
+            buffer.get(position, key, shared, suffix);
+            position += suffix;
+            size = readVarLong();
+            lastModified = readVarLong() - 1;
+            etagLength = (int) readVarLong();
+            etagOffset = position;
+            position += etagLength;
+            index = nextIndex++;
+            return true;
+        }
+
+        boolean valid() {
+            return index >= 0 && index < entryCount;
+        }
+
+        int compareKey(byte[] target) {
+            return Arrays.compareUnsigned(key, 0, keyLength, target, 0, target.length);
+        }
+
+        boolean keyStartsWith(byte[] keyPrefix) {
+            return keyLength >= keyPrefix.length
+                    && Arrays.equals(key, 0, keyPrefix.length, keyPrefix, 0, keyPrefix.length);
+        }
+
+        String key() {
+            return new String(key, 0, keyLength, StandardCharsets.UTF_8);
+        }
+
+        long size() {
+            return size;
+        }
+
+        long lastModified() {
+            return lastModified;
+        }
+
+        String etag() {
+            if (etagLength == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[etagLength];
+            buffer.get(etagOffset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        BlobSummary toSummary() {
+            return BlobSummary.of(bucket, key(), size, etag(), lastModified, null);
+        }
+    }
+}
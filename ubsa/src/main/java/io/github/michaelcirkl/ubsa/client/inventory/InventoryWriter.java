@@ -0,0 +1,169 @@
+package io.github.michaelcirkl.ubsa.client.inventory;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes an inventory file from entries added in ascending key order.
+ *
+ * <p>Entries are grouped into blocks of {@value InventoryFile#BLOCK_ENTRIES}. The first key of a block is stored in
+ * full and every other key as the number of leading bytes it shares with the previous key followed by the remaining
+ * bytes. The block offsets and a fixed-size footer follow the last block, see {@link InventoryFile}.
+ */
+final class InventoryWriter implements Closeable {
+    private final Path file;
+    private final OutputStream out;
+    private final IntList blockOffsets = new IntList();
+    private byte[] previousKey = new byte[0];
+    private long position;
+    private long entryCount;
+    private boolean finished;
+
+    InventoryWriter(Path file, String bucket, String prefix) {
+        this.file = file;
+        try {
+            this.out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+            writeLong(InventoryFile.MAGIC);
+            writeString(bucket);
+            writeString(prefix);
+        } catch (IOException error) {
+            throw new UbsaException("Failed to create inventory file " + file + ".", error);
+        }
+    }
+
+    /**
+     * Appends an entry. Keys must be added in ascending UTF-8 byte order, which is the order providers list them in.
+     */
+    void add(String key, long size, String etag, long lastModifiedEpochMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (entryCount > 0 && Arrays.compareUnsigned(keyBytes, previousKey) <= 0) {
+            throw new UbsaException("Inventory entries must be added in ascending key order, got " + key + " after "
+                    + new String(previousKey, StandardCharsets.UTF_8) + ".", null);
+        }
+        try {
+            int shared = 0;
+            if (entryCount % InventoryFile.BLOCK_ENTRIES == 0) {
+                blockOffsets.add(checkedPosition());
+            } else {
+                shared = Arrays.mismatch(keyBytes, previousKey);
+            }
+            writeVarLong(shared);
+            writeVarLong(keyBytes.length - shared);
+            write(keyBytes, shared, keyBytes.length - shared);
+            writeVarLong(Math.max(0L, size));
+            writeVarLong(Math.max(-1L, lastModifiedEpochMillis) + 1);
+            byte[] etagBytes = etag == null ? new byte[0] : etag.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(etagBytes.length);
+            write(etagBytes, 0, etagBytes.length);
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write inventory file " + file + ".", error);
+        }
+        previousKey = keyBytes;
+        entryCount++;
+    }
+
+    /**
+     * Writes the block offsets and the footer. {@code watermark} is the time in epoch milliseconds up to which the
+     * entries reflect the bucket.
+     */
+    void finish(long watermark) {
+        try {
+            int indexOffset = checkedPosition();
+            for (int i = 0; i < blockOffsets.size(); i++) {
+                writeInt(blockOffsets.get(i));
+            }
+            writeLong(indexOffset);
+            writeInt(blockOffsets.size());
+            writeLong(entryCount);
+            writeLong(watermark);
+            writeLong(InventoryFile.MAGIC);
+            checkedPosition();
+            out.flush();
+            finished = true;
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write inventory file " + file + ".", error);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException error) {
+            if (finished) {
+                throw new UbsaException("Failed to write inventory file " + file + ".", error);
+            }
+        }
+    }
+
+    private int checkedPosition() {
+        if (position > Integer.MAX_VALUE) {
+            throw new UbsaException("Inventory file " + file + " exceeds the maximum size of 2 GiB.", null);
+        }
+        return (int) position;
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        write(bytes, 0, bytes.length);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+            position++;
+        }
+        out.write((int) remaining);
+        position++;
+    }
+
+    private void writeInt(int value) throws IOException {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            out.write(value >>> shift);
+        }
+        position += Integer.BYTES;
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+        position += Long.BYTES;
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        position += length;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
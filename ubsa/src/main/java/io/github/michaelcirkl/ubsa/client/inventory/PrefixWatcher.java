@@ -0,0 +1,443 @@
+package io.github.michaelcirkl.ubsa.client.inventory;
+
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PrefetchingPagedIterable;
+import io.github.michaelcirkl.ubsa.client.streaming.BlockingIteratorPublisher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Polls a bucket prefix and publishes the blobs created, updated and deleted between polls.
+ *
+ * <p>Object stores cannot list the changes since a point in time, so changes are found by comparing listings with a
+ * snapshot of the previous one. The snapshot is an {@linkplain InventoryFile inventory file} on disk holding key,
+ * size, ETag and last-modified time of every blob, so memory does not grow with the prefix. A full poll lists the
+ * prefix and merge-joins it with the snapshot in key order while writing the next snapshot, which then replaces the
+ * previous one; its watermark records when the listing started. The polls between full polls list only the keys after
+ * the last snapshot key with {@link PageRequest#getStartAfter() startAfter} and append them to the snapshot, so
+ * blobs added in key order are found for the cost of listing them alone. Blobs added before the last snapshot key,
+ * updates and deletions are found by the next full poll. When the provider cannot start a listing after a key, every
+ * poll is a full poll, as skipping the keys on the client would still list them all.
+ *
+ * <p>Changes are published according to demand: a slow subscriber pauses the listing after the prefetched page instead
+ * of buffering changes, and the next poll starts no earlier than one interval after the previous one started. A poll
+ * that is cancelled or fails leaves the previous snapshot in place.
+ */
+public final class PrefixWatcher {
+    private static final int PREFETCH_PAGES = 1;
+
+    private PrefixWatcher() {
+    }
+
+    /**
+     * Returns a publisher that starts watching for every subscriber, polling the first time on the first request. The
+     * publisher never completes; cancelling the subscription stops the current listing. Options default when
+     * {@code null}. Pass {@code startAfterSupported = false} for providers that apply
+     * {@link PageRequest#getStartAfter() startAfter} on the client; every poll then lists the whole prefix.
+     */
+    public static Flow.Publisher<BlobChange> publisher(
+            Function<PageRequest, CompletableFuture<ListingPage<BlobSummary>>> pageLoader,
+            String bucketName,
+            String prefix,
+            Duration interval,
+            boolean startAfterSupported,
+            WatchOptions options
+    ) {
+        Objects.requireNonNull(pageLoader, "pageLoader must not be null");
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be greater than 0.");
+        }
+        String normalizedPrefix = prefix == null ? "" : prefix;
+        WatchOptions resolvedOptions = options == null ? WatchOptions.defaults() : options;
+        return new BlockingIteratorPublisher<>(
+                () -> new WatchIterator(
+                        request -> await(pageLoader.apply(request)),
+                        bucketName,
+                        normalizedPrefix,
+                        interval.toNanos(),
+                        startAfterSupported,
+                        resolvedOptions
+                ),
+                "ubsa-prefix-watch"
+        );
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UbsaException("Listing request failed.", error.getCause() == null ? error : error.getCause());
+        }
+    }
+
+    /**
+     * Runs the polls of one subscription. The emitting thread holds the lock while it polls and releases it while it
+     * waits for the next poll or for demand; cancellation closes the listing, so a poll in progress returns, and
+     * whichever thread holds the lock once the iterator is closed removes the unfinished snapshot.
+     */
+    private static final class WatchIterator implements Iterator<BlobChange>, AutoCloseable {
+        private final Function<PageRequest, ListingPage<BlobSummary>> pageLoader;
+        private final String bucketName;
+        private final String prefix;
+        private final long intervalNanos;
+        private final boolean startAfterSupported;
+        private final WatchOptions options;
+        private final boolean temporary;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition closing = lock.newCondition();
+        private Path file;
+        private InventoryFile snapshot;
+        private String lastKey;
+        private long polls;
+        private long nextPollAt;
+        private volatile Poll poll;
+        private BlobChange next;
+        private volatile boolean closed;
+
+        private WatchIterator(
+                Function<PageRequest, ListingPage<BlobSummary>> pageLoader,
+                String bucketName,
+                String prefix,
+                long intervalNanos,
+                boolean startAfterSupported,
+                WatchOptions options
+        ) {
+            this.pageLoader = pageLoader;
+            this.bucketName = bucketName;
+            this.prefix = prefix;
+            this.intervalNanos = intervalNanos;
+            this.startAfterSupported = startAfterSupported;
+            this.options = options;
+            this.file = options.snapshotFile();
+            this.temporary = file == null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            lock.lock();
+            try {
+                while (next == null) {
+                    if (poll == null) {
+                        if (!awaitNextPoll()) {
+                            return false;
+                        }
+                        poll = startPoll();
+                    }
+                    next = poll.advance();
+                    if (closed) {
+                        return false;
+                    }
+                    if (next == null) {
+                        poll.commit();
+                        poll = null;
+                    }
+                }
+                return true;
+            } finally {
+                lock.unlock();
+                if (closed) {
+                    cleanUpIfIdle();
+                }
+            }
+        }
+
+        @Override
+        public BlobChange next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The watch was cancelled.");
+            }
+            BlobChange change = next;
+            next = null;
+            return change;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            Poll current = poll;
+            if (current != null) {
+                current.closeListing();
+            }
+            cleanUpIfIdle();
+        }
+
+        private boolean awaitNextPoll() {
+            if (polls > 0) {
+                try {
+                    long remaining = nextPollAt - System.nanoTime();
+                    while (remaining > 0 && !closed) {
+                        remaining = closing.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new UbsaException("Interrupted while waiting for the next poll.", interruptedException);
+                }
+            }
+            return !closed;
+        }
+
+        private Poll startPoll() {
+            if (polls == 0) {
+                openSnapshot();
+            }
+            nextPollAt = System.nanoTime() + intervalNanos;
+            boolean full = snapshot == null || !startAfterSupported || polls % options.fullListingEvery() == 0;
+            polls++;
+            return new Poll(full);
+        }
+
+        private void openSnapshot() {
+            try {
+                if (temporary) {
+                    file = Files.createTempFile("ubsa-watch", ".inventory");
+                    return;
+                }
+                if (!Files.exists(file)) {
+                    return;
+                }
+            } catch (IOException error) {
+                throw new UbsaException("Failed to create watch snapshot.", error);
+            }
+            InventoryFile existing = InventoryFile.open(file);
+            if (!existing.bucket().equals(bucketName) || !existing.prefix().equals(prefix)) {
+                throw new UbsaException("Snapshot " + file + " belongs to " + existing.bucket() + "/" + existing.prefix()
+                        + ", not to " + bucketName + "/" + prefix + ".", null);
+            }
+            snapshot = existing;
+        }
+
+        /**
+         * Removes the unfinished and the temporary snapshot unless the emitting thread is polling. Both threads call
+         * this after setting or seeing {@code closed} and releasing the lock, so one of them gets it.
+         */
+        private void cleanUpIfIdle() {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                closing.signalAll();
+                cleanUp();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void cleanUp() {
+            Poll current = poll;
+            poll = null;
+            if (current != null) {
+                current.discard();
+            }
+            if (temporary && file != null) {
+                deleteQuietly(file);
+                file = null;
+            }
+        }
+
+        /**
+         * A single listing compared with the snapshot. A full poll starts the next snapshot right away and carries
+         * every listed blob over; a poll of the keys after the last snapshot key starts it with a copy of the snapshot
+         * once the first new key arrives, and leaves the snapshot alone when there is none.
+         */
+        private final class Poll {
+            private final boolean full;
+            private final boolean report;
+            private final long startedAt = System.currentTimeMillis();
+            private final Iterator<BlobSummary> listing;
+            private final InventoryFile.Cursor cursor;
+            private Path temp;
+            private InventoryWriter writer;
+            private BlobSummary head;
+            private String lastWritten;
+
+            private Poll(boolean full) {
+                this.full = full;
+                this.lastWritten = full ? null : lastKey;
+                this.report = snapshot != null || options.reportExisting();
+                PageRequest.Builder request = PageRequest.builder().pageSize(options.pageSize());
+                if (!full) {
+                    request.startAfter(lastKey);
+                }
+                this.listing = new PrefetchingPagedIterable<>(request.build(), pageLoader, PREFETCH_PAGES).iterator();
+                this.cursor = full && snapshot != null ? snapshot.first() : null;
+                if (full) {
+                    openWriter();
+                }
+            }
+
+            /**
+             * Returns the next change, or {@code null} once the listing and the snapshot are exhausted.
+             */
+            private BlobChange advance() {
+                while (!closed) {
+                    if (head == null && listing.hasNext()) {
+                        head = listing.next();
+                    }
+                    if (closed) {
+                        return null;
+                    }
+                    boolean snapshotLeft = cursor != null && cursor.valid();
+                    if (head == null && !snapshotLeft) {
+                        return null;
+                    }
+                    int order = head == null ? -1
+                            : !snapshotLeft ? 1
+                            : cursor.compareKey(head.getKey().getBytes(StandardCharsets.UTF_8));
+                    if (order < 0) {
+                        BlobSummary deleted = cursor.toSummary();
+                        cursor.next();
+                        return BlobChange.of(BlobChange.Type.DELETED, deleted);
+                    }
+                    BlobSummary listed = head;
+                    head = null;
+                    if (order > 0) {
+                        if (append(listed) && report) {
+                            return BlobChange.of(BlobChange.Type.CREATED, listed);
+                        }
+                        continue;
+                    }
+                    boolean changed = changed(cursor, listed);
+                    cursor.next();
+                    append(listed);
+                    if (changed) {
+                        return BlobChange.of(BlobChange.Type.UPDATED, listed);
+                    }
+                }
+                return null;
+            }
+
+            /**
+             * Replaces the snapshot with the one written by this poll.
+             */
+            private void commit() {
+                if (writer == null) {
+                    return;
+                }
+                writer.finish(full || snapshot == null ? startedAt : snapshot.watermark());
+                writer.close();
+                writer = null;
+                try {
+                    try {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException ignored) {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } catch (IOException error) {
+                    throw new UbsaException("Failed to replace watch snapshot " + file + ".", error);
+                }
+                snapshot = InventoryFile.open(file);
+                lastKey = lastWritten;
+            }
+
+            private void closeListing() {
+                if (listing instanceof AutoCloseable closeable) {
+                    try {
+                        closeable.close();
+                    } catch (Exception ignored) {
+                        // Prefetching iterators do not throw on close.
+                    }
+                }
+            }
+
+            private void discard() {
+                closeListing();
+                if (writer != null) {
+                    try {
+                        writer.close();
+                    } catch (UbsaException ignored) {
+                        // The unfinished snapshot is deleted below.
+                    }
+                    writer = null;
+                }
+                if (temp != null) {
+                    deleteQuietly(temp);
+                }
+            }
+
+            /**
+             * Adds a listed blob to the next snapshot. Returns {@code false} for keys that do not sort after the last
+             * one written, which a provider may repeat at the {@code startAfter} boundary.
+             */
+            private boolean append(BlobSummary summary) {
+                if (!BlobKeys.isAfter(summary.getKey(), lastWritten)) {
+                    return false;
+                }
+                if (writer == null) {
+                    openWriter();
+                    copySnapshot();
+                }
+                writer.add(summary.getKey(), summary.getSize(), summary.getEtag(), summary.lastModifiedEpochMillis());
+                lastWritten = summary.getKey();
+                return true;
+            }
+
+            private void openWriter() {
+                try {
+                    Path parent = file.toAbsolutePath().getParent();
+                    Files.createDirectories(parent);
+                    temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+                } catch (IOException error) {
+                    throw new UbsaException("Failed to create watch snapshot next to " + file + ".", error);
+                }
+                writer = new InventoryWriter(temp, bucketName, prefix);
+            }
+
+            private void copySnapshot() {
+                if (snapshot == null) {
+                    return;
+                }
+                InventoryFile.Cursor entries = snapshot.first();
+                while (entries.valid()) {
+                    writer.add(entries.key(), entries.size(), entries.etag(), entries.lastModified());
+                    entries.next();
+                }
+            }
+
+            /**
+             * Compares ETags where both sides have one, and size and last-modified time otherwise.
+             */
+            private static boolean changed(InventoryFile.Cursor entry, BlobSummary listed) {
+                if (entry.size() != listed.getSize()) {
+                    return true;
+                }
+                String etag = entry.etag();
+                if (etag != null && listed.getEtag() != null) {
+                    return !etag.equals(listed.getEtag());
+                }
+                return entry.lastModified() != listed.lastModifiedEpochMillis();
+            }
+        }
+
+        private static void deleteQuietly(Path path) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // A leftover file in the temporary directory does not affect later polls.
+            }
+        }
+    }
+}
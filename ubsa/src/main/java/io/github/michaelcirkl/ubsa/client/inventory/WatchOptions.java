@@ -0,0 +1,116 @@
+package io.github.michaelcirkl.ubsa.client.inventory;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for {@link PrefixWatcher}.
+ */
+public final class WatchOptions {
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int DEFAULT_FULL_LISTING_EVERY = 10;
+
+    private final int pageSize;
+    private final int fullListingEvery;
+    private final Path snapshotFile;
+    private final boolean reportExisting;
+
+    private WatchOptions(Builder builder) {
+        this.pageSize = builder.pageSize;
+        this.fullListingEvery = builder.fullListingEvery;
+        this.snapshotFile = builder.snapshotFile;
+        this.reportExisting = builder.reportExisting;
+    }
+
+    public static WatchOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the page size requested for every listing.
+     */
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns every how many polls the whole prefix is listed. The polls in between only list the keys after the
+     * last known key. Providers that cannot start a listing after a key list the whole prefix on every poll.
+     */
+    public int fullListingEvery() {
+        return fullListingEvery;
+    }
+
+    /**
+     * Returns the file the snapshot is kept in across subscriptions, or {@code null} if every subscription keeps its
+     * own temporary snapshot.
+     */
+    public Path snapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Returns whether the blobs found by the first listing without a snapshot are published as created.
+     */
+    public boolean reportExisting() {
+        return reportExisting;
+    }
+
+    public static class Builder {
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private int fullListingEvery = DEFAULT_FULL_LISTING_EVERY;
+        private Path snapshotFile;
+        private boolean reportExisting;
+
+        /**
+         * Sets the page size requested for every listing. Defaults to 1000.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Sets every how many polls the whole prefix is listed. Only full listings find updated and deleted blobs and
+         * new keys that sort before the last known key; the polls in between list from the last known key with
+         * {@code startAfter}, which finds blobs added in key order, such as keys starting with a timestamp, for the
+         * cost of the new keys alone. {@code 1} lists the whole prefix on every poll. Defaults to 10.
+         */
+        public Builder fullListingEvery(int fullListingEvery) {
+            this.fullListingEvery = fullListingEvery;
+            return this;
+        }
+
+        /**
+         * Sets the file the snapshot is kept in. A subscription resumes from an existing snapshot of the same bucket
+         * and prefix and reports the changes made since it was written; only one subscription may use the file at a
+         * time. Defaults to {@code null}, a temporary file deleted when the subscription ends.
+         */
+        public Builder snapshotFile(Path snapshotFile) {
+            this.snapshotFile = snapshotFile;
+            return this;
+        }
+
+        /**
+         * Sets whether the blobs found by the first listing without a snapshot are published as
+         * {@link BlobChange.Type#CREATED}. Defaults to {@code false}, which takes the first listing as the baseline.
+         */
+        public Builder reportExisting(boolean reportExisting) {
+            this.reportExisting = reportExisting;
+            return this;
+        }
+
+        public WatchOptions build() {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be greater than 0.");
+            }
+            if (fullListingEvery <= 0) {
+                throw new IllegalArgumentException("Full listing interval must be greater than 0.");
+            }
+            return new WatchOptions(this);
+        }
+    }
+}
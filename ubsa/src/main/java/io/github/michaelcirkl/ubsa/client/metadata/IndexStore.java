@@ -0,0 +1,750 @@
+package io.github.michaelcirkl.ubsa.client.metadata;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Sorted string map stored on disk as a log-structured merge tree, backing {@link MetadataIndex}.
+ *
+ * <p>Writes are appended to a write-ahead log and applied to a table of recent changes in memory. When that table
+ * reaches {@link #MEMTABLE_LIMIT} entries it is written out as an immutable sorted segment file and the log starts
+ * over. A new segment is merged with the previous one while it is at least as large, so the number of segments stays
+ * logarithmic in the number of entries. Besides the recent changes only a sparse index holding the first key of every
+ * {@link #BLOCK_ENTRIES} segment records is kept in memory; scans read the segments from disk. The live segments are
+ * listed in a manifest that is replaced atomically, so a crash leaves either the old or the new set of segments.
+ *
+ * <p>Keys are ordered by {@link BlobKeys#ORDER}. The store is not thread-safe for writes; concurrent scans and reads
+ * are safe while no write runs.
+ */
+final class IndexStore implements AutoCloseable {
+    static final int MEMTABLE_LIMIT = 4096;
+    static final int BLOCK_ENTRIES = 64;
+    private static final long LOG_MAGIC = 0x5542_5341_4D44_584CL; // "UBSAMDXL"
+    private static final long SEGMENT_MAGIC = 0x5542_5341_4D44_5853L; // "UBSAMDXS"
+    private static final long MANIFEST_MAGIC = 0x5542_5341_4D44_584DL; // "UBSAMDXM"
+    private static final String LOG_FILE = "wal.log";
+    private static final String MANIFEST_FILE = "MANIFEST";
+    private static final String SEGMENT_SUFFIX = ".sst";
+    private static final int FOOTER_BYTES = 3 * Long.BYTES;
+    private static final byte DELETE = 0;
+    private static final byte PUT = 1;
+
+    private final Path directory;
+    private final NavigableMap<String, String> memtable = new TreeMap<>(BlobKeys.ORDER);
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSequence = 1;
+    private DataOutputStream log;
+
+    private IndexStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the store in {@code directory}, creating it when the directory does not exist.
+     */
+    static IndexStore open(Path directory) {
+        IndexStore store = new IndexStore(directory);
+        try {
+            if (Files.exists(directory) && !Files.isDirectory(directory)) {
+                throw new UbsaException("Metadata index " + directory + " is not a directory.", null);
+            }
+            Files.createDirectories(directory);
+            store.readManifest();
+            store.deleteUnreferencedFiles();
+            store.replayLog();
+            if (store.memtable.size() >= MEMTABLE_LIMIT) {
+                store.flush();
+            }
+            return store;
+        } catch (IOException | UncheckedIOException error) {
+            store.closeQuietly();
+            throw new UbsaException("Failed to open metadata index " + directory + ".", error);
+        } catch (RuntimeException error) {
+            store.closeQuietly();
+            throw error;
+        }
+    }
+
+    /**
+     * Applies a batch of changes atomically: after a crash either all of them or none are recovered. An entry with a
+     * {@code null} value deletes its key.
+     */
+    void write(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream payload = new DataOutputStream(buffer);
+            payload.writeInt(batch.size());
+            for (Entry entry : batch) {
+                writeEntry(payload, entry);
+            }
+            byte[] bytes = buffer.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            log.writeInt(bytes.length);
+            log.writeInt((int) crc.getValue());
+            log.write(bytes);
+            log.flush();
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write metadata index " + directory + ".", error);
+        }
+        batch.forEach(entry -> memtable.put(entry.key(), entry.value()));
+        if (memtable.size() >= MEMTABLE_LIMIT) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the value of {@code key}, or {@code null} if the store does not hold it.
+     */
+    String get(String key) {
+        if (memtable.containsKey(key)) {
+            return memtable.get(key);
+        }
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Iterator<Entry> iterator = segments.get(i).scan(key);
+            if (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.key().equals(key)) {
+                    return entry.value();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the live entries whose keys start with {@code prefix}, in key order. The iterator must be consumed
+     * before the next write.
+     */
+    Iterator<Entry> scan(String prefix) {
+        List<Iterator<Entry>> sources = new ArrayList<>(segments.size() + 1);
+        sources.add(memtableScan(prefix));
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            sources.add(segments.get(i).scan(prefix));
+        }
+        return new MergingIterator(sources, false);
+    }
+
+    /**
+     * Writes out the recent changes and merges all segments into one without deleted entries.
+     */
+    void compact() {
+        flush();
+        if (segments.size() > 1 || segments.size() == 1 && segments.getFirst().hasDeletes) {
+            commit(merge(0));
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeFiles();
+        } catch (IOException error) {
+            throw new UbsaException("Failed to close metadata index " + directory + ".", error);
+        }
+    }
+
+    private void flush() {
+        if (memtable.isEmpty()) {
+            return;
+        }
+        Iterator<Entry> entries = memtableScan("");
+        segments.add(writeSegment(segments.isEmpty() ? withoutDeletes(entries) : entries));
+        List<Segment> obsolete = new ArrayList<>();
+        while (segments.size() > 1 && segments.getLast().entries >= segments.get(segments.size() - 2).entries) {
+            obsolete.addAll(merge(segments.size() - 2));
+        }
+        commit(obsolete);
+        memtable.clear();
+        try {
+            log.close();
+            log = null;
+            startLog();
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write metadata index " + directory + ".", error);
+        }
+    }
+
+    /**
+     * Replaces the segments from {@code from} on with a single merged segment; deleted entries are dropped when no
+     * older segment remains that they could shadow. Returns the replaced segments, which are deleted once the manifest
+     * no longer lists them.
+     */
+    private List<Segment> merge(int from) {
+        List<Segment> merged = new ArrayList<>(segments.subList(from, segments.size()));
+        List<Iterator<Entry>> sources = new ArrayList<>(merged.size());
+        for (int i = merged.size() - 1; i >= 0; i--) {
+            sources.add(merged.get(i).scan(""));
+        }
+        Segment segment = writeSegment(new MergingIterator(sources, from > 0));
+        segments.subList(from, segments.size()).clear();
+        segments.add(segment);
+        return merged;
+    }
+
+    private void commit(List<Segment> obsolete) {
+        try {
+            writeManifest();
+            for (Segment segment : obsolete) {
+                segment.close();
+                Files.deleteIfExists(segment.path);
+            }
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write metadata index " + directory + ".", error);
+        }
+    }
+
+    private Segment writeSegment(Iterator<Entry> entries) {
+        Path path = directory.resolve(String.format("%08d%s", nextSequence++, SEGMENT_SUFFIX));
+        try {
+            Segment.write(path, entries);
+            return Segment.open(path);
+        } catch (IOException | UncheckedIOException error) {
+            throw new UbsaException("Failed to write metadata index " + directory + ".", error);
+        }
+    }
+
+    private Iterator<Entry> memtableScan(String prefix) {
+        Iterator<Map.Entry<String, String>> iterator = memtable.tailMap(prefix, true).entrySet().iterator();
+        return new Iterator<>() {
+            private Entry next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Entry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Entry current = next;
+                next = advance();
+                return current;
+            }
+
+            private Entry advance() {
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                Map.Entry<String, String> entry = iterator.next();
+                return entry.getKey().startsWith(prefix) ? new Entry(entry.getKey(), entry.getValue()) : null;
+            }
+        };
+    }
+
+    private void readManifest() throws IOException {
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        if (!Files.exists(manifest)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+            if (in.readLong() != MANIFEST_MAGIC) {
+                throw new UbsaException("Directory " + directory + " is not a UBSA metadata index.", null);
+            }
+            nextSequence = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                segments.add(Segment.open(directory.resolve(readString(in))));
+            }
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        Path temp = Files.createTempFile(directory, MANIFEST_FILE, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.writeLong(MANIFEST_MAGIC);
+                out.writeLong(nextSequence);
+                out.writeInt(segments.size());
+                for (Segment segment : segments) {
+                    writeString(out, segment.path.getFileName().toString());
+                }
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, directory.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temp, directory.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes segments left behind by a crash between writing a segment and the manifest that references it.
+     */
+    private void deleteUnreferencedFiles() throws IOException {
+        Set<Path> live = new HashSet<>();
+        segments.forEach(segment -> live.add(segment.path));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                if ((name.endsWith(SEGMENT_SUFFIX) || name.endsWith(".tmp")) && !live.contains(path)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the batches of the log to the recent changes. Everything from the first batch that cannot be decoded
+     * on is a tail torn by a crash: it was never acknowledged, so it is truncated before new batches are appended.
+     */
+    private void replayLog() throws IOException {
+        Path path = directory.resolve(LOG_FILE);
+        if (!Files.exists(path) || Files.size(path) < Long.BYTES) {
+            startLog();
+            return;
+        }
+        long length = Files.size(path);
+        long valid = Long.BYTES;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readLong() != LOG_MAGIC) {
+                throw new UbsaException("Directory " + directory + " is not a UBSA metadata index.", null);
+            }
+            while (valid < length) {
+                Batch batch = readBatch(in, length - valid);
+                if (batch == null) {
+                    break;
+                }
+                batch.entries().forEach(entry -> memtable.put(entry.key(), entry.value()));
+                valid += 2L * Integer.BYTES + batch.bytes();
+            }
+        }
+        if (valid < length) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * Reads one batch of the log, or returns {@code null} if it is torn or corrupt.
+     */
+    private static Batch readBatch(DataInputStream in, long remaining) {
+        try {
+            if (remaining < 2L * Integer.BYTES) {
+                return null;
+            }
+            int size = in.readInt();
+            int checksum = in.readInt();
+            if (size < Integer.BYTES || size > remaining - 2L * Integer.BYTES) {
+                return null;
+            }
+            byte[] bytes = in.readNBytes(size);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if (bytes.length < size || (int) crc.getValue() != checksum) {
+                return null;
+            }
+            DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes));
+            int count = payload.readInt();
+            if (count < 0) {
+                return null;
+            }
+            List<Entry> entries = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(payload));
+            }
+            return payload.available() > 0 ? null : new Batch(entries, size);
+        } catch (IOException | RuntimeException corrupt) {
+            return null;
+        }
+    }
+
+    private void startLog() throws IOException {
+        Path path = directory.resolve(LOG_FILE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, LOG_MAGIC));
+            channel.force(true);
+        }
+        log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.APPEND)));
+    }
+
+    private void closeFiles() throws IOException {
+        IOException failure = null;
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException error) {
+                failure = error;
+            }
+            log = null;
+        }
+        for (Segment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException error) {
+                failure = failure == null ? error : failure;
+            }
+        }
+        segments.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            closeFiles();
+        } catch (IOException ignored) {
+            // The open failure is reported instead.
+        }
+    }
+
+    private static Iterator<Entry> withoutDeletes(Iterator<Entry> entries) {
+        return new MergingIterator(List.of(entries), false);
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeByte(entry.value() == null ? DELETE : PUT);
+        writeString(out, entry.key());
+        if (entry.value() != null) {
+            writeString(out, entry.value());
+        }
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type != PUT && type != DELETE) {
+            throw new IOException("Unknown metadata index record " + type + ".");
+        }
+        String key = readString(in);
+        return new Entry(key, type == PUT ? readString(in) : null);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative string length " + length + ".");
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Key and value of the store; a {@code null} value marks a deleted key.
+     */
+    record Entry(String key, String value) {
+    }
+
+    private record Batch(List<Entry> entries, int bytes) {
+    }
+
+    /**
+     * Immutable sorted file of entries followed by a sparse index of its blocks and a footer.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final long dataEnd;
+        private final long entries;
+        private final boolean hasDeletes;
+        private final String[] blockKeys;
+        private final long[] blockOffsets;
+
+        private Segment(Path path, FileChannel channel, long dataEnd, long entries, boolean hasDeletes,
+                        String[] blockKeys, long[] blockOffsets) {
+            this.path = path;
+            this.channel = channel;
+            this.dataEnd = dataEnd;
+            this.entries = entries;
+            this.hasDeletes = hasDeletes;
+            this.blockKeys = blockKeys;
+            this.blockOffsets = blockOffsets;
+        }
+
+        static void write(Path path, Iterator<Entry> entries) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                CountingOutputStream counter = new CountingOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+                DataOutputStream out = new DataOutputStream(counter);
+                out.writeLong(SEGMENT_MAGIC);
+                List<String> blockKeys = new ArrayList<>();
+                List<Long> blockOffsets = new ArrayList<>();
+                long count = 0;
+                boolean hasDeletes = false;
+                while (entries.hasNext()) {
+                    Entry entry = entries.next();
+                    if (count % BLOCK_ENTRIES == 0) {
+                        blockKeys.add(entry.key());
+                        blockOffsets.add(counter.count);
+                    }
+                    writeEntry(out, entry);
+                    hasDeletes |= entry.value() == null;
+                    count++;
+                }
+                long indexOffset = counter.count;
+                out.writeBoolean(hasDeletes);
+                out.writeInt(blockKeys.size());
+                for (int i = 0; i < blockKeys.size(); i++) {
+                    writeString(out, blockKeys.get(i));
+                    out.writeLong(blockOffsets.get(i));
+                }
+                out.writeLong(indexOffset);
+                out.writeLong(count);
+                out.writeLong(SEGMENT_MAGIC);
+                out.flush();
+                channel.force(true);
+            }
+        }
+
+        static Segment open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+                if (size < Long.BYTES + FOOTER_BYTES || channel.read(footer, size - FOOTER_BYTES) < FOOTER_BYTES
+                        || footer.getLong(2 * Long.BYTES) != SEGMENT_MAGIC) {
+                    throw new IOException("Segment " + path + " is incomplete.");
+                }
+                long indexOffset = footer.getLong(0);
+                long entries = footer.getLong(Long.BYTES);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        new ChannelInputStream(channel, indexOffset, size - FOOTER_BYTES)));
+                boolean hasDeletes = in.readBoolean();
+                int blocks = in.readInt();
+                String[] blockKeys = new String[blocks];
+                long[] blockOffsets = new long[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    blockKeys[i] = readString(in);
+                    blockOffsets[i] = in.readLong();
+                }
+                return new Segment(path, channel, indexOffset, entries, hasDeletes, blockKeys, blockOffsets);
+            } catch (IOException | RuntimeException error) {
+                channel.close();
+                throw error;
+            }
+        }
+
+        /**
+         * Returns the entries, deleted ones included, whose keys start with {@code prefix}.
+         */
+        Iterator<Entry> scan(String prefix) {
+            int block = 0;
+            int low = 0;
+            int high = blockKeys.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (BlobKeys.compare(blockKeys[middle], prefix) <= 0) {
+                    block = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            long start = blockKeys.length == 0 ? dataEnd : blockOffsets[block];
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new ChannelInputStream(channel, start, dataEnd)));
+            return new Iterator<>() {
+                private Entry next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Entry next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry current = next;
+                    next = advance();
+                    return current;
+                }
+
+                private Entry advance() {
+                    try {
+                        while (in.available() > 0) {
+                            Entry entry = readEntry(in);
+                            if (entry.key().startsWith(prefix)) {
+                                return entry;
+                            }
+                            if (BlobKeys.compare(entry.key(), prefix) > 0) {
+                                return null;
+                            }
+                        }
+                        return null;
+                    } catch (IOException error) {
+                        throw new UncheckedIOException("Failed to read segment " + path + ".", error);
+                    }
+                }
+            };
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Merges sorted sources; for keys present in several sources the earliest source wins.
+     */
+    private static final class MergingIterator implements Iterator<Entry> {
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(
+                Comparator.<Head, String>comparing(head -> head.entry.key(), BlobKeys.ORDER).thenComparingInt(Head::rank));
+        private final boolean keepDeletes;
+        private Entry next;
+
+        MergingIterator(List<Iterator<Entry>> sources, boolean keepDeletes) {
+            this.keepDeletes = keepDeletes;
+            for (int i = 0; i < sources.size(); i++) {
+                offer(sources.get(i), i);
+            }
+            next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry current = next;
+            next = advance();
+            return current;
+        }
+
+        private Entry advance() {
+            while (!heads.isEmpty()) {
+                Head winner = heads.poll();
+                while (!heads.isEmpty() && heads.peek().entry.key().equals(winner.entry.key())) {
+                    Head shadowed = heads.poll();
+                    offer(shadowed.source, shadowed.rank);
+                }
+                offer(winner.source, winner.rank);
+                if (keepDeletes || winner.entry.value() != null) {
+                    return winner.entry;
+                }
+            }
+            return null;
+        }
+
+        private void offer(Iterator<Entry> source, int rank) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source, rank));
+            }
+        }
+
+        private record Head(Entry entry, Iterator<Entry> source, int rank) {
+        }
+    }
+
+    /**
+     * Reads a range of a file with positional reads, so that several readers can share one channel.
+     */
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        ChannelInputStream(FileChannel channel, long position, long end) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
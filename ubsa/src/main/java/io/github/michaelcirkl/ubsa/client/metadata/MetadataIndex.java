@@ -0,0 +1,351 @@
+package io.github.michaelcirkl.ubsa.client.metadata;
+
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Local secondary index over blob user metadata, answering metadata queries without provider requests.
+ *
+ * <p>The index is an embedded on-disk sorted map (see {@link IndexStore}) holding two kinds of records per bucket: the
+ * metadata of each known blob, keyed by blob key, and an inverted index with one record per metadata key, value and
+ * blob key, so that the blobs carrying a value are a contiguous range in blob key order. Every change of a blob is
+ * written as one atomic batch. Only recent changes and a sparse index of the files are held in memory; everything
+ * else is read from disk when a query needs it.
+ *
+ * <p>The index only knows what it is told: {@link MetadataIndexingAsyncClient} records the writes made through it,
+ * and {@link MetadataIndexingAsyncClient#scanMetadata} picks up blobs written by other clients. Blobs without user
+ * metadata are not stored. Metadata keys are stored in lower case.
+ */
+public final class MetadataIndex implements AutoCloseable {
+    private static final String ENTRY = "e";
+    private static final String POSTING = "p";
+    private static final int REMOVE_BATCH = 1000;
+
+    private final Path directory;
+    private final IndexStore store;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long entryCount;
+    private boolean closed;
+
+    private MetadataIndex(Path directory, IndexStore store) {
+        this.directory = directory;
+        this.store = store;
+    }
+
+    /**
+     * Opens the index stored in {@code directory}, creating it when the directory does not exist.
+     */
+    public static MetadataIndex open(Path directory) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        MetadataIndex index = new MetadataIndex(directory, IndexStore.open(directory));
+        for (Iterator<IndexStore.Entry> entries = index.store.scan(ENTRY); entries.hasNext(); entries.next()) {
+            index.entryCount++;
+        }
+        return index;
+    }
+
+    /**
+     * Records the user metadata of a blob, replacing what was recorded before. Empty or {@code null} metadata removes
+     * the blob from the index.
+     */
+    public void put(String bucketName, String blobKey, Map<String, String> userMetadata) {
+        if (userMetadata == null || userMetadata.isEmpty()) {
+            remove(bucketName, blobKey);
+            return;
+        }
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        Objects.requireNonNull(blobKey, "blobKey must not be null");
+        Map<String, String> normalized = new LinkedHashMap<>();
+        userMetadata.forEach((key, value) -> normalized.put(MetadataQuery.normalizeKey(key), value == null ? "" : value));
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            List<IndexStore.Entry> batch = new ArrayList<>();
+            Map<String, String> previous = read(bucketName, blobKey);
+            if (previous != null) {
+                removals(batch, bucketName, blobKey, previous);
+            }
+            batch.add(new IndexStore.Entry(entryKey(bucketName, blobKey), encode(normalized)));
+            normalized.forEach((key, value) -> batch.add(new IndexStore.Entry(postingKey(bucketName, key, value, blobKey), "")));
+            store.write(batch);
+            if (previous == null) {
+                entryCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a blob from the index.
+     */
+    public void remove(String bucketName, String blobKey) {
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        Objects.requireNonNull(blobKey, "blobKey must not be null");
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            Map<String, String> previous = read(bucketName, blobKey);
+            if (previous != null) {
+                List<IndexStore.Entry> batch = new ArrayList<>();
+                removals(batch, bucketName, blobKey, previous);
+                store.write(batch);
+                entryCount--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all blobs whose keys start with {@code prefix}.
+     */
+    public void removePrefix(String bucketName, String prefix) {
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        String bucketPrefix = entryKey(bucketName, "");
+        String entryPrefix = bucketPrefix + (prefix == null ? "" : prefix);
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            while (true) {
+                List<IndexStore.Entry> batch = new ArrayList<>();
+                int removed = 0;
+                Iterator<IndexStore.Entry> entries = store.scan(entryPrefix);
+                while (entries.hasNext() && removed < REMOVE_BATCH) {
+                    IndexStore.Entry entry = entries.next();
+                    removals(batch, bucketName, entry.key().substring(bucketPrefix.length()), decode(entry.value()));
+                    removed++;
+                }
+                if (removed == 0) {
+                    return;
+                }
+                store.write(batch);
+                entryCount -= removed;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all blobs of a bucket.
+     */
+    public void removeBucket(String bucketName) {
+        removePrefix(bucketName, "");
+    }
+
+    /**
+     * Records the metadata of a source blob for a copy of it, as copies keep their user metadata.
+     */
+    public void copy(String sourceBucketName, String sourceBlobKey, String destinationBucketName, String destinationBlobKey) {
+        put(destinationBucketName, destinationBlobKey, get(sourceBucketName, sourceBlobKey));
+    }
+
+    /**
+     * Returns the recorded metadata of a blob, or {@code null} if the index holds none.
+     */
+    public Map<String, String> get(String bucketName, String blobKey) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            Map<String, String> metadata = read(bucketName, blobKey);
+            return metadata == null ? null : Collections.unmodifiableMap(metadata);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the keys of the blobs in {@code bucketName} matching {@code query}, in {@link BlobKeys#ORDER}.
+     */
+    public List<String> query(String bucketName, MetadataQuery query) {
+        Objects.requireNonNull(bucketName, "bucketName must not be null");
+        Objects.requireNonNull(query, "query must not be null");
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return List.copyOf(query.evaluate(new BucketIndex(bucketName)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed blobs across all buckets.
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return entryCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes out recent changes and merges the index files into one, dropping the space held by removed blobs.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            store.compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                closed = true;
+                store.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed keys of a bucket that start with {@code prefix}, in {@link BlobKeys#ORDER}.
+     */
+    List<String> keysWithPrefix(String bucketName, String prefix) {
+        String normalizedPrefix = prefix == null ? "" : prefix;
+        String bucketPrefix = entryKey(bucketName, "");
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            List<String> keys = new ArrayList<>();
+            store.scan(bucketPrefix + normalizedPrefix)
+                    .forEachRemaining(entry -> keys.add(entry.key().substring(bucketPrefix.length())));
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the blobs below {@code prefix} that are not in {@code keys}, after a scan listed the prefix.
+     */
+    void retain(String bucketName, String prefix, Set<String> keys) {
+        for (String key : keysWithPrefix(bucketName, prefix)) {
+            if (!keys.contains(key)) {
+                remove(bucketName, key);
+            }
+        }
+    }
+
+    private Map<String, String> read(String bucketName, String blobKey) {
+        String value = store.get(entryKey(bucketName, blobKey));
+        return value == null ? null : decode(value);
+    }
+
+    private static void removals(List<IndexStore.Entry> batch, String bucketName, String blobKey, Map<String, String> metadata) {
+        batch.add(new IndexStore.Entry(entryKey(bucketName, blobKey), null));
+        metadata.forEach((key, value) -> batch.add(new IndexStore.Entry(postingKey(bucketName, key, value, blobKey), null)));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Metadata index " + directory + " is closed.");
+        }
+    }
+
+    private static String entryKey(String bucketName, String blobKey) {
+        return ENTRY + component(bucketName) + blobKey;
+    }
+
+    private static String postingPrefix(String bucketName, String metadataKey) {
+        return POSTING + component(bucketName) + component(metadataKey);
+    }
+
+    private static String postingKey(String bucketName, String metadataKey, String value, String blobKey) {
+        return postingPrefix(bucketName, metadataKey) + component(value) + blobKey;
+    }
+
+    /**
+     * Encodes a key component with its length, so that no component is a prefix of another and a run of components
+     * selects exactly the records below it.
+     */
+    private static String component(String value) {
+        return value.length() + ":" + value;
+    }
+
+    private static String encode(Map<String, String> metadata) {
+        StringBuilder encoded = new StringBuilder();
+        metadata.forEach((key, value) -> encoded.append(component(key)).append(component(value)));
+        return encoded.toString();
+    }
+
+    private static Map<String, String> decode(String encoded) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        int[] position = {0};
+        while (position[0] < encoded.length()) {
+            String key = readComponent(encoded, position);
+            metadata.put(key, readComponent(encoded, position));
+        }
+        return metadata;
+    }
+
+    private static String readComponent(String encoded, int[] position) {
+        int separator = encoded.indexOf(':', position[0]);
+        int length = Integer.parseInt(encoded, position[0], separator, 10);
+        position[0] = separator + 1 + length;
+        return encoded.substring(separator + 1, position[0]);
+    }
+
+    /**
+     * Inverted index of one bucket, read from disk by {@link MetadataQuery}.
+     */
+    final class BucketIndex {
+        private final String bucketName;
+
+        private BucketIndex(String bucketName) {
+            this.bucketName = bucketName;
+        }
+
+        /**
+         * Returns the keys of the blobs whose metadata entry {@code metadataKey} equals {@code value}.
+         */
+        NavigableSet<String> keysWithValue(String metadataKey, String value) {
+            String prefix = postingPrefix(bucketName, metadataKey) + component(value);
+            NavigableSet<String> keys = new TreeSet<>(BlobKeys.ORDER);
+            store.scan(prefix).forEachRemaining(entry -> keys.add(entry.key().substring(prefix.length())));
+            return keys;
+        }
+
+        /**
+         * Returns the keys of the blobs whose metadata entry {@code metadataKey} has a value accepted by
+         * {@code valuePredicate}, which is evaluated once per distinct value.
+         */
+        NavigableSet<String> keysWithValue(String metadataKey, Predicate<String> valuePredicate) {
+            String prefix = postingPrefix(bucketName, metadataKey);
+            NavigableSet<String> keys = new TreeSet<>(BlobKeys.ORDER);
+            Map<String, Boolean> accepted = new HashMap<>();
+            store.scan(prefix).forEachRemaining(entry -> {
+                int[] position = {prefix.length()};
+                String value = readComponent(entry.key(), position);
+                if (accepted.computeIfAbsent(value, valuePredicate::test)) {
+                    keys.add(entry.key().substring(position[0]));
+                }
+            });
+            return keys;
+        }
+    }
+}
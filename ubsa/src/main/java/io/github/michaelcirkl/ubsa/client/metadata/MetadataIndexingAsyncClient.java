@@ -0,0 +1,317 @@
+package io.github.michaelcirkl.ubsa.client.metadata;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.ForwardingBlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.Provider;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.exception.types.BlobNotFoundException;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+import io.github.michaelcirkl.ubsa.client.streaming.FlowPublisherBridge;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploadResult;
+import io.github.michaelcirkl.ubsa.client.transfer.DirectoryUploader;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopier;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyOptions;
+import io.github.michaelcirkl.ubsa.client.transfer.PrefixCopyResult;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * Async client decorator that maintains a {@link MetadataIndex} of the user metadata written through it.
+ *
+ * <p>Successful {@code createBlob} and {@code createBlobFromUrl} calls record the metadata they wrote; deletes and
+ * {@code copyBlob} update the index accordingly. {@code copyPrefix}, {@code movePrefix} and {@code uploadDirectory} run
+ * through this client rather than the delegate's, so every blob they copy, delete or upload is recorded by the calls
+ * above as it happens. Blobs written by other clients are picked up by {@link #scanMetadata(String, String)}.
+ * {@link #queryByMetadata} then answers queries such as "all blobs where tenant=X" from the index without provider
+ * requests.
+ *
+ * <p>The index is not closed by this client.
+ */
+public class MetadataIndexingAsyncClient extends ForwardingBlobStorageAsyncClient {
+    private static final int SCAN_PAGE_SIZE = 100;
+
+    private final MetadataIndex index;
+
+    public MetadataIndexingAsyncClient(BlobStorageAsyncClient delegate, MetadataIndex index) {
+        super(delegate);
+        this.index = Objects.requireNonNull(index, "index must not be null");
+    }
+
+    /**
+     * Returns the index maintained by this client.
+     */
+    public MetadataIndex index() {
+        return index;
+    }
+
+    /**
+     * Returns the keys of the indexed blobs in {@code bucketName} matching {@code query}, without provider requests.
+     */
+    public List<String> queryByMetadata(String bucketName, MetadataQuery query) {
+        return index.query(bucketName, query);
+    }
+
+    /**
+     * Lists the blobs below {@code prefix} and records their user metadata, replacing what the index held for the
+     * prefix. Azure and GCS return user metadata with the listing; S3 listings do not, so on S3 the metadata of every
+     * listed blob is fetched, one page of requests at a time. Completes with the number of blobs scanned.
+     */
+    public CompletableFuture<Long> scanMetadata(String bucketName, String prefix) {
+        String normalizedPrefix = prefix == null ? "" : prefix;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        scanPage(bucketName, normalizedPrefix, PageRequest.builder().pageSize(SCAN_PAGE_SIZE).build(), seen, result);
+        return result.thenApply(count -> {
+            index.retain(bucketName, normalizedPrefix, seen);
+            return count;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, Blob blob) {
+        return record(delegate().createBlob(bucketName, blob), bucketName, blob.getKey(), blob.getUserMetadata());
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile) {
+        return record(delegate().createBlob(bucketName, blobKey, sourceFile), bucketName, blobKey, null);
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(String bucketName, String blobKey, Path sourceFile, BlobWriteOptions options) {
+        return record(delegate().createBlob(bucketName, blobKey, sourceFile, options), bucketName, blobKey, metadataOf(options));
+    }
+
+    @Override
+    public CompletableFuture<String> createBlob(
+            String bucketName,
+            String blobKey,
+            Flow.Publisher<ByteBuffer> content,
+            long contentLength,
+            BlobWriteOptions options
+    ) {
+        return record(delegate().createBlob(bucketName, blobKey, content, contentLength, options), bucketName, blobKey,
+                metadataOf(options));
+    }
+
+    @Override
+    public CompletableFuture<String> createBlobFromUrl(
+            String bucketName,
+            String blobKey,
+            URL sourceUrl,
+            long contentLength,
+            BlobWriteOptions options
+    ) {
+        return record(delegate().createBlobFromUrl(bucketName, blobKey, sourceUrl, contentLength, options), bucketName,
+                blobKey, metadataOf(options));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBlobIfExists(String bucketName, String blobKey) {
+        return delegate().deleteBlobIfExists(bucketName, blobKey).thenApply(ignored -> {
+            index.remove(bucketName, blobKey);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Collection<String> blobKeys) {
+        List<String> keys = List.copyOf(blobKeys);
+        return delegate().deleteBlobs(bucketName, keys).thenApply(result -> removeDeleted(bucketName, keys, result));
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteBlobs(String bucketName, Flow.Publisher<String> blobKeys) {
+        Queue<String> keys = new ConcurrentLinkedQueue<>();
+        Flow.Publisher<String> recorded = FlowPublisherBridge.map(blobKeys, key -> {
+            keys.add(key);
+            return key;
+        });
+        return delegate().deleteBlobs(bucketName, recorded).thenApply(result -> removeDeleted(bucketName, keys, result));
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deletePrefix(String bucketName, String prefix) {
+        return delegate().deletePrefix(bucketName, prefix).thenApply(result -> {
+            if (result.isSuccess()) {
+                index.removePrefix(bucketName, prefix);
+            } else {
+                Set<String> failed = new HashSet<>();
+                result.getFailures().forEach(failure -> failed.add(failure.getKey()));
+                for (String key : index.keysWithPrefix(bucketName, prefix == null ? "" : prefix)) {
+                    if (!failed.contains(key)) {
+                        index.remove(bucketName, key);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBucket(String bucketName) {
+        return delegate().deleteBucket(bucketName).thenApply(ignored -> {
+            index.removeBucket(bucketName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBucket(String bucketName, boolean force) {
+        return delegate().deleteBucket(bucketName, force).thenApply(ignored -> {
+            index.removeBucket(bucketName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBucketIfExists(String bucketName) {
+        return delegate().deleteBucketIfExists(bucketName).thenApply(ignored -> {
+            index.removeBucket(bucketName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> copyBlob(
+            String sourceBucketName,
+            String sourceBlobKey,
+            String destinationBucketName,
+            String destinationBlobKey
+    ) {
+        return delegate().copyBlob(sourceBucketName, sourceBlobKey, destinationBucketName, destinationBlobKey)
+                .thenApply(etag -> {
+                    index.copy(sourceBucketName, sourceBlobKey, destinationBucketName, destinationBlobKey);
+                    return etag;
+                });
+    }
+
+    @Override
+    public CompletableFuture<PrefixCopyResult> copyPrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return PrefixCopier.copyAsync(this, sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, false,
+                options);
+    }
+
+    @Override
+    public CompletableFuture<PrefixCopyResult> movePrefix(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            PrefixCopyOptions options
+    ) {
+        return PrefixCopier.copyAsync(this, sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, true,
+                options);
+    }
+
+    @Override
+    public CompletableFuture<DirectoryUploadResult> uploadDirectory(
+            Path root,
+            String bucketName,
+            String prefix,
+            DirectoryUploadOptions options
+    ) {
+        return DirectoryUploader.uploadAsync(this, root, bucketName, prefix, options);
+    }
+
+    private CompletableFuture<String> record(
+            CompletableFuture<String> write,
+            String bucketName,
+            String blobKey,
+            Map<String, String> userMetadata
+    ) {
+        return write.thenApply(etag -> {
+            index.put(bucketName, blobKey, userMetadata);
+            return etag;
+        });
+    }
+
+    private BatchDeleteResult removeDeleted(String bucketName, Collection<String> keys, BatchDeleteResult result) {
+        Set<String> failed = new HashSet<>();
+        result.getFailures().forEach(failure -> failed.add(failure.getKey()));
+        keys.forEach(key -> {
+            if (!failed.contains(key)) {
+                index.remove(bucketName, key);
+            }
+        });
+        return result;
+    }
+
+    private void scanPage(
+            String bucketName,
+            String prefix,
+            PageRequest request,
+            Set<String> seen,
+            CompletableFuture<Long> result
+    ) {
+        delegate().listBlobs(bucketName, prefix, request)
+                .thenCompose(page -> indexPage(bucketName, page, seen).thenApply(ignored -> page))
+                .whenComplete((page, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else if (page.hasNextPage()) {
+                        scanPage(bucketName, prefix, request.toBuilder()
+                                .continuationToken(page.getNextContinuationToken())
+                                .build(), seen, result);
+                    } else {
+                        result.complete((long) seen.size());
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> indexPage(String bucketName, ListingPage<Blob> page, Set<String> seen) {
+        if (getProvider() != Provider.AWS) {
+            page.getItems().forEach(blob -> {
+                seen.add(blob.getKey());
+                index.put(bucketName, blob.getKey(), blob.getUserMetadata());
+            });
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> heads = new ArrayList<>(page.getItems().size());
+        for (Blob blob : page.getItems()) {
+            heads.add(delegate().getBlobMetadata(bucketName, blob.getKey()).handle((metadata, error) -> {
+                if (error == null) {
+                    seen.add(blob.getKey());
+                    index.put(bucketName, blob.getKey(), metadata.getUserMetadata());
+                } else if (!(unwrap(error) instanceof BlobNotFoundException)) {
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(heads.toArray(CompletableFuture[]::new));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static Map<String, String> metadataOf(BlobWriteOptions options) {
+        return options == null ? null : options.userMetadata();
+    }
+}
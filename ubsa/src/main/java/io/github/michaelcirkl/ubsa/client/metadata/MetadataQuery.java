@@ -0,0 +1,140 @@
+package io.github.michaelcirkl.ubsa.client.metadata;
+
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Condition on user metadata evaluated by a {@link MetadataIndex}.
+ *
+ * <p>Every condition names a metadata key and is answered from the inverted index of that key, so a query reads
+ * only the index records of blobs that carry the key. Metadata keys are compared case-insensitively, as providers do; values are
+ * compared exactly.
+ */
+public abstract class MetadataQuery {
+    private MetadataQuery() {
+    }
+
+    /**
+     * Matches blobs whose metadata entry {@code key} equals {@code value}.
+     */
+    public static MetadataQuery equalTo(String key, String value) {
+        String normalizedKey = normalizeKey(key);
+        Objects.requireNonNull(value, "value must not be null");
+        return new MetadataQuery() {
+            @Override
+            NavigableSet<String> evaluate(MetadataIndex.BucketIndex index) {
+                return index.keysWithValue(normalizedKey, value);
+            }
+        };
+    }
+
+    /**
+     * Matches blobs whose metadata entry {@code key} equals any of {@code values}.
+     */
+    public static MetadataQuery in(String key, Collection<String> values) {
+        List<MetadataQuery> alternatives = new ArrayList<>(values.size());
+        values.forEach(value -> alternatives.add(equalTo(key, value)));
+        return or(alternatives.toArray(MetadataQuery[]::new));
+    }
+
+    /**
+     * Matches blobs that carry the metadata entry {@code key}, whatever its value.
+     */
+    public static MetadataQuery exists(String key) {
+        return matches(key, value -> true);
+    }
+
+    /**
+     * Matches blobs whose metadata entry {@code key} has a value accepted by {@code valuePredicate}. The predicate is
+     * evaluated once per distinct value of the key.
+     */
+    public static MetadataQuery matches(String key, Predicate<String> valuePredicate) {
+        String normalizedKey = normalizeKey(key);
+        Objects.requireNonNull(valuePredicate, "valuePredicate must not be null");
+        return new MetadataQuery() {
+            @Override
+            NavigableSet<String> evaluate(MetadataIndex.BucketIndex index) {
+                return index.keysWithValue(normalizedKey, valuePredicate);
+            }
+        };
+    }
+
+    /**
+     * Matches blobs matched by all {@code queries}.
+     */
+    public static MetadataQuery and(MetadataQuery... queries) {
+        List<MetadataQuery> operands = operands(queries);
+        return new MetadataQuery() {
+            @Override
+            NavigableSet<String> evaluate(MetadataIndex.BucketIndex index) {
+                List<NavigableSet<String>> sets = new ArrayList<>(operands.size());
+                operands.forEach(query -> sets.add(query.evaluate(index)));
+                sets.sort(Comparator.comparingInt(NavigableSet::size));
+                NavigableSet<String> keys = new TreeSet<>(BlobKeys.ORDER);
+                for (String key : sets.getFirst()) {
+                    if (sets.stream().skip(1).allMatch(set -> set.contains(key))) {
+                        keys.add(key);
+                    }
+                }
+                return keys;
+            }
+        };
+    }
+
+    /**
+     * Matches blobs matched by any of {@code queries}.
+     */
+    public static MetadataQuery or(MetadataQuery... queries) {
+        List<MetadataQuery> operands = operands(queries);
+        return new MetadataQuery() {
+            @Override
+            NavigableSet<String> evaluate(MetadataIndex.BucketIndex index) {
+                NavigableSet<String> keys = new TreeSet<>(BlobKeys.ORDER);
+                operands.forEach(query -> keys.addAll(query.evaluate(index)));
+                return keys;
+            }
+        };
+    }
+
+    /**
+     * Matches blobs matched by this query and {@code other}.
+     */
+    public MetadataQuery and(MetadataQuery other) {
+        return and(this, other);
+    }
+
+    /**
+     * Matches blobs matched by this query or {@code other}.
+     */
+    public MetadataQuery or(MetadataQuery other) {
+        return or(this, other);
+    }
+
+    /**
+     * Returns the matching blob keys of one bucket in {@link BlobKeys#ORDER}.
+     */
+    abstract NavigableSet<String> evaluate(MetadataIndex.BucketIndex index);
+
+    static String normalizeKey(String key) {
+        return Objects.requireNonNull(key, "key must not be null").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<MetadataQuery> operands(MetadataQuery[] queries) {
+        if (queries == null || queries.length == 0) {
+            throw new IllegalArgumentException("At least one query is required.");
+        }
+        List<MetadataQuery> operands = Arrays.asList(queries.clone());
+        operands.forEach(query -> Objects.requireNonNull(query, "queries must not contain null"));
+        return operands;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import java.util.Comparator;
+
+/**
+ * Ordering helpers for blob keys.
+ *
+ * <p>All supported providers list keys in ascending UTF-8 byte order, which is the same as ascending Unicode code
+ * point order. {@link String#compareTo(String)} compares UTF-16 code units instead and disagrees for characters
+ * outside the Basic Multilingual Plane, so merge-joins against provider listings must use {@link #ORDER}.
+ */
+public final class BlobKeys {
+    public static final Comparator<String> ORDER = BlobKeys::compare;
+
+    private BlobKeys() {
+    }
+
+    public static int compare(String left, String right) {
+        int leftIndex = 0;
+        int rightIndex = 0;
+        while (leftIndex < left.length() && rightIndex < right.length()) {
+            int leftCodePoint = left.codePointAt(leftIndex);
+            int rightCodePoint = right.codePointAt(rightIndex);
+            if (leftCodePoint != rightCodePoint) {
+                return Integer.compare(leftCodePoint, rightCodePoint);
+            }
+            leftIndex += Character.charCount(leftCodePoint);
+            rightIndex += Character.charCount(rightCodePoint);
+        }
+        return Integer.compare(left.length() - leftIndex, right.length() - rightIndex);
+    }
+
+    /**
+     * Returns whether {@code key} sorts strictly after {@code startAfter}; every key does when {@code startAfter} is
+     * {@code null}.
+     */
+    public static boolean isAfter(String key, String startAfter) {
+        return startAfter == null || compare(key, startAfter) > 0;
+    }
+
+    /**
+     * Returns whether {@code key} sorts strictly before {@code endBefore}; every key does when {@code endBefore} is
+     * {@code null}.
+     */
+    public static boolean isBefore(String key, String endBefore) {
+        return endBefore == null || compare(key, endBefore) < 0;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import java.util.regex.Pattern;
+
+/**
+ * Translates key globs in the Cloud Storage {@code matchGlob} syntax into regular expressions, so the same glob gives
+ * the same result whether a provider evaluates it or the client does.
+ */
+final class KeyGlob {
+    private static final String SPECIAL = "*?[{";
+
+    private KeyGlob() {
+    }
+
+    /**
+     * Returns the part of {@code glob} before its first wildcard, which every matching key starts with.
+     */
+    static String literalPrefix(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            if (SPECIAL.indexOf(glob.charAt(i)) >= 0) {
+                return glob.substring(0, i);
+            }
+        }
+        return glob;
+    }
+
+    static Pattern compile(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() * 2);
+        boolean inAlternatives = false;
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*' -> {
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                        boolean directories = i + 2 < glob.length() && glob.charAt(i + 2) == '/';
+                        regex.append(directories ? "(?:.*/)?" : ".*");
+                        i += directories ? 3 : 2;
+                        continue;
+                    }
+                    regex.append("[^/]*");
+                }
+                case '?' -> regex.append("[^/]");
+                case '[' -> i = appendCharacterClass(glob, i, regex) - 1;
+                case '{' -> {
+                    if (inAlternatives) {
+                        throw new IllegalArgumentException("Nested alternatives are not supported in key globs: " + glob);
+                    }
+                    inAlternatives = true;
+                    regex.append("(?:");
+                }
+                case '}' -> {
+                    if (inAlternatives) {
+                        inAlternatives = false;
+                        regex.append(')');
+                    } else {
+                        regex.append("\\}");
+                    }
+                }
+                case ',' -> regex.append(inAlternatives ? "|" : ",");
+                default -> appendLiteral(c, regex);
+            }
+            i++;
+        }
+        if (inAlternatives) {
+            throw new IllegalArgumentException("Unclosed alternatives in key glob: " + glob);
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Appends the character class starting at {@code start} and returns the index after its closing bracket.
+     */
+    private static int appendCharacterClass(String glob, int start, StringBuilder regex) {
+        int i = start + 1;
+        regex.append('[');
+        if (i < glob.length() && (glob.charAt(i) == '!' || glob.charAt(i) == '^')) {
+            regex.append('^');
+            i++;
+        }
+        boolean empty = true;
+        while (i < glob.length() && (glob.charAt(i) != ']' || empty)) {
+            char c = glob.charAt(i);
+            if (c == '-' && !empty && i + 1 < glob.length() && glob.charAt(i + 1) != ']') {
+                regex.append('-');
+            } else {
+                appendLiteral(c, regex);
+            }
+            empty = false;
+            i++;
+        }
+        if (i >= glob.length()) {
+            throw new IllegalArgumentException("Unclosed character class in key glob: " + glob);
+        }
+        regex.append(']');
+        return i + 1;
+    }
+
+    private static void appendLiteral(char c, StringBuilder regex) {
+        if ("\\.[]{}()<>*+-=!?^$|&".indexOf(c) >= 0) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+}
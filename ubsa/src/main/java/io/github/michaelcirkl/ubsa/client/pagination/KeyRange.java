@@ -0,0 +1,28 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A contiguous range of keys: every key after {@code startAfter} up to and including {@code endInclusive}. A
+ * {@code null} bound leaves that side of the range open.
+ */
+record KeyRange(String startAfter, String endInclusive) {
+    static final KeyRange ALL = new KeyRange(null, null);
+
+    /**
+     * Splits the key space at the given boundaries, which must be sorted in {@link BlobKeys#ORDER}. Every boundary
+     * is the last key of one range.
+     */
+    static List<KeyRange> between(Collection<String> boundaries) {
+        List<KeyRange> ranges = new ArrayList<>(boundaries.size() + 1);
+        String previous = null;
+        for (String boundary : boundaries) {
+            ranges.add(new KeyRange(previous, boundary));
+            previous = boundary;
+        }
+        ranges.add(new KeyRange(previous, null));
+        return ranges;
+    }
+}
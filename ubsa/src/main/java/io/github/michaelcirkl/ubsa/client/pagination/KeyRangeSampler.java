@@ -0,0 +1,258 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Finds range boundaries below a prefix by probing the listing, or by listing its first level with a delimiter.
+ *
+ * <p>Keys are mapped to numbers over the printable ASCII alphabet, so points between two keys can be computed. A
+ * probe lists a single key after such a point; the key it returns exists and becomes a boundary candidate. All probes
+ * of one call run concurrently, so finding boundaries costs a single listing round trip.
+ */
+final class KeyRangeSampler {
+    private static final char MIN_CHAR = ' ';
+    private static final char MAX_CHAR = '~';
+    private static final BigInteger RADIX = BigInteger.valueOf(MAX_CHAR - MIN_CHAR + 1);
+    private static final int MIN_DIGITS = 4;
+    private static final int MAX_DIGITS = 64;
+    private static final int GALLOP_STEPS = 8;
+
+    private KeyRangeSampler() {
+    }
+
+    /**
+     * Splits the key space below {@code prefix} at up to {@code targetRanges - 1} existing keys found after evenly
+     * spaced points.
+     */
+    static <T> List<KeyRange> sample(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            int targetRanges,
+            ExecutorService executor
+    ) {
+        KeySpace space = KeySpace.between(prefix, upperBound(prefix));
+        BigInteger low = space.toNumber(prefix);
+        BigInteger span = space.toNumber(upperBound(prefix)).subtract(low);
+        List<String> points = new ArrayList<>(targetRanges);
+        for (int i = 1; i < targetRanges; i++) {
+            points.add(space.toKey(low.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(targetRanges)))));
+        }
+        TreeSet<String> boundaries = new TreeSet<>(BlobKeys.ORDER);
+        for (String key : probeAll(pageLoader, keyOf, prefix, points, executor)) {
+            if (key != null) {
+                boundaries.add(key);
+            }
+        }
+        return KeyRange.between(boundaries);
+    }
+
+    /**
+     * Splits the key space below the listed prefix at up to {@code targetRanges - 1} of the common prefixes on the
+     * first page of a listing with {@code delimiter}, spread evenly over them. Every range but the first starts at one
+     * of the common prefixes, so a folder is only split between ranges when it is later split by work stealing.
+     * Returns a single range when the page has fewer than two common prefixes.
+     *
+     * <p>A boundary need not be an existing key: the range ending at a common prefix holds every key sorting before
+     * it, the next range every key below it.
+     */
+    static List<KeyRange> byCommonPrefixes(
+            Function<PageRequest, ? extends ListingPage<?>> pageLoader,
+            String delimiter,
+            int pageSize,
+            int targetRanges
+    ) {
+        ListingPage<?> page = pageLoader.apply(PageRequest.builder().pageSize(pageSize).delimiter(delimiter).build());
+        List<String> prefixes = new ArrayList<>(page.getCommonPrefixes());
+        prefixes.sort(BlobKeys.ORDER);
+        if (prefixes.size() < 2) {
+            return List.of(KeyRange.ALL);
+        }
+        TreeSet<String> boundaries = new TreeSet<>(BlobKeys.ORDER);
+        int ranges = Math.min(targetRanges, prefixes.size());
+        for (int i = 1; i < ranges; i++) {
+            boundaries.add(prefixes.get(i * prefixes.size() / ranges));
+        }
+        return KeyRange.between(boundaries);
+    }
+
+    /**
+     * Finds a key at which the unlisted part of a range, the keys after {@code position} and before {@code high}, can
+     * be split, or returns {@code null} if that part is too small or nothing was found.
+     *
+     * <p>The last listed page, which spans {@code pageStart} to {@code position}, serves as the density estimate.
+     * Points one, two, four and more page spans ahead are probed; a point is dense when the next key after it lies
+     * within one page span. The key after the farthest dense point is returned, so the range keeps a part of known
+     * density and the remainder goes to the caller. When no point is dense, the key after the midpoint of the
+     * unlisted part is used.
+     */
+    static <T> String findBoundary(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            String pageStart,
+            String position,
+            String high,
+            ExecutorService executor
+    ) {
+        if (BlobKeys.compare(position, high) >= 0) {
+            return null;
+        }
+        KeySpace space = KeySpace.between(pageStart, high);
+        BigInteger current = space.toNumber(position);
+        BigInteger end = space.toNumber(high);
+        BigInteger pageSpan = current.subtract(space.toNumber(pageStart)).max(BigInteger.ONE);
+        List<BigInteger> points = new ArrayList<>(GALLOP_STEPS + 1);
+        for (int step = 0; step < GALLOP_STEPS; step++) {
+            BigInteger point = current.add(pageSpan.shiftLeft(step));
+            if (point.compareTo(end) >= 0) {
+                break;
+            }
+            points.add(point);
+        }
+        if (points.isEmpty()) {
+            return null;
+        }
+        List<String> probePoints = new ArrayList<>(points.size() + 1);
+        points.forEach(point -> probePoints.add(space.toKey(point)));
+        probePoints.add(space.toKey(current.add(end).shiftRight(1)));
+        List<String> keys = probeAll(pageLoader, keyOf, prefix, probePoints, executor);
+
+        String first = keys.getFirst();
+        if (first == null || BlobKeys.compare(first, high) >= 0) {
+            return null;
+        }
+        String boundary = null;
+        for (int i = 0; i < points.size(); i++) {
+            String key = keys.get(i);
+            if (key != null
+                    && BlobKeys.compare(key, high) < 0
+                    && space.toNumber(key).subtract(points.get(i)).compareTo(pageSpan) < 0) {
+                boundary = key;
+            }
+        }
+        if (boundary == null) {
+            String key = keys.getLast();
+            boundary = key != null && BlobKeys.compare(key, high) < 0 ? key : first;
+        }
+        return BlobKeys.compare(boundary, position) > 0 ? boundary : null;
+    }
+
+    /**
+     * Returns the first key after the point halfway between {@code low} and {@code high}, or {@code null} if there is
+     * none below the prefix.
+     */
+    static <T> String midpoint(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            String low,
+            String high
+    ) {
+        KeySpace space = KeySpace.between(low, high);
+        return probe(pageLoader, keyOf, prefix, space.toKey(space.toNumber(low).add(space.toNumber(high)).shiftRight(1)));
+    }
+
+    /**
+     * Returns the upper end of the sampled key space below {@code prefix}. Keys above it are rare and always belong to
+     * the last range.
+     */
+    static String upperBound(String prefix) {
+        return prefix + String.valueOf(MAX_CHAR).repeat(MIN_DIGITS);
+    }
+
+    private static <T> List<String> probeAll(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            List<String> points,
+            ExecutorService executor
+    ) {
+        List<CompletableFuture<String>> probes = new ArrayList<>(points.size());
+        for (String point : points) {
+            probes.add(CompletableFuture.supplyAsync(() -> probe(pageLoader, keyOf, prefix, point), executor));
+        }
+        List<String> keys = new ArrayList<>(points.size());
+        for (CompletableFuture<String> probe : probes) {
+            keys.add(join(probe));
+        }
+        return keys;
+    }
+
+    private static <T> String probe(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            String startAfter
+    ) {
+        Iterator<T> items = new PagedIterable<>(
+                PageRequest.builder().pageSize(1).startAfter(startAfter).build(),
+                pageLoader
+        ).iterator();
+        if (!items.hasNext()) {
+            return null;
+        }
+        String key = keyOf.apply(items.next());
+        return key.startsWith(prefix) ? key : null;
+    }
+
+    private static String join(CompletableFuture<String> probe) {
+        try {
+            return probe.join();
+        } catch (CompletionException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UbsaException("Failed to sample listing boundaries.", error.getCause());
+        }
+    }
+
+    /**
+     * Maps keys that share {@code common} to fixed-width numbers over the printable ASCII alphabet. Characters outside
+     * the alphabet are clamped, which only affects how evenly points are spread, never which keys are listed.
+     */
+    private record KeySpace(String common, int width) {
+        private static KeySpace between(String low, String high) {
+            int common = 0;
+            while (common < low.length() && common < high.length() && low.charAt(common) == high.charAt(common)) {
+                common++;
+            }
+            if (common > 0 && Character.isHighSurrogate(low.charAt(common - 1))) {
+                common--;
+            }
+            int width = Math.min(MAX_DIGITS, Math.max(MIN_DIGITS, Math.max(low.length(), high.length()) - common + 1));
+            return new KeySpace(low.substring(0, common), width);
+        }
+
+        private BigInteger toNumber(String key) {
+            BigInteger value = BigInteger.ZERO;
+            for (int i = 0; i < width; i++) {
+                int index = common.length() + i;
+                int digit = index < key.length() ? Math.clamp(key.charAt(index) - MIN_CHAR, 0, MAX_CHAR - MIN_CHAR) : 0;
+                value = value.multiply(RADIX).add(BigInteger.valueOf(digit));
+            }
+            return value;
+        }
+
+        private String toKey(BigInteger value) {
+            char[] digits = new char[width];
+            BigInteger remaining = value;
+            for (int i = width - 1; i >= 0; i--) {
+                BigInteger[] quotientAndRemainder = remaining.divideAndRemainder(RADIX);
+                digits[i] = (char) (MIN_CHAR + quotientAndRemainder[1].intValue());
+                remaining = quotientAndRemainder[0];
+            }
+            return common + new String(digits);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import io.github.michaelcirkl.ubsa.Blob;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator over all blobs below a prefix that splits by key range.
+ *
+ * <p>Each spliterator covers a {@link KeyRange}. Before it starts listing, {@link #trySplit()} probes for an existing
+ * key near the middle of its range and hands the lower half to a new spliterator, so parallel streams list disjoint
+ * ranges concurrently. Splitting stops after a few levels, derived from the common pool parallelism, or when no key
+ * is found inside the range. Every range is listed with {@link PageRequest#getStartAfter() startAfter} and
+ * {@linkplain PrefetchingPagedIterable page prefetch}.
+ */
+public final class KeyRangeSpliterator implements Spliterator<Blob> {
+    private static final int PREFETCH_PAGES = 1;
+    private static final int EXTRA_SPLIT_LEVELS = 2;
+
+    private final Listing listing;
+    private KeyRange range;
+    private int depth;
+    private Iterator<Blob> blobs;
+    private boolean finished;
+
+    private KeyRangeSpliterator(Listing listing, KeyRange range, int depth) {
+        this.listing = listing;
+        this.range = range;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns a stream over all blobs listed by {@code pageLoader}. When {@code splittable} is {@code false}, the
+     * provider cannot start a listing after a key and the stream is listed as a single range even when it is parallel.
+     * Closing the stream stops all listings that are still paging.
+     */
+    public static Stream<Blob> stream(
+            Function<PageRequest, ListingPage<Blob>> pageLoader,
+            String prefix,
+            boolean splittable
+    ) {
+        Listing listing = new Listing(Objects.requireNonNull(pageLoader, "pageLoader must not be null"),
+                prefix == null ? "" : prefix, splittable);
+        return StreamSupport.stream(new KeyRangeSpliterator(listing, KeyRange.ALL, 0), false)
+                .onClose(listing::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Blob> action) {
+        if (finished) {
+            return false;
+        }
+        if (blobs == null) {
+            blobs = listing.open(range);
+        }
+        if (listing.closed || !blobs.hasNext()) {
+            finish();
+            return false;
+        }
+        Blob blob = blobs.next();
+        if (range.endInclusive() != null && BlobKeys.compare(blob.getKey(), range.endInclusive()) > 0) {
+            finish();
+            return false;
+        }
+        action.accept(blob);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Blob> trySplit() {
+        if (blobs != null || finished || !listing.splittable || depth >= listing.maxDepth || listing.closed) {
+            return null;
+        }
+        String low = range.startAfter() == null ? listing.prefix : range.startAfter();
+        String high = range.endInclusive() == null ? KeyRangeSampler.upperBound(listing.prefix) : range.endInclusive();
+        String boundary = KeyRangeSampler.midpoint(listing.pageLoader, Blob::getKey, listing.prefix, low, high);
+        if (boundary == null || BlobKeys.compare(boundary, low) <= 0 || BlobKeys.compare(boundary, high) >= 0) {
+            depth = listing.maxDepth;
+            return null;
+        }
+        depth++;
+        KeyRangeSpliterator lower = new KeyRangeSpliterator(listing, new KeyRange(range.startAfter(), boundary), depth);
+        range = new KeyRange(boundary, range.endInclusive());
+        return lower;
+    }
+
+    @Override
+    public long estimateSize() {
+        return finished ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private void finish() {
+        finished = true;
+        if (blobs != null) {
+            listing.release(blobs);
+        }
+    }
+
+    /**
+     * State shared by all spliterators split from the same stream.
+     */
+    private static final class Listing {
+        private final Function<PageRequest, ListingPage<Blob>> pageLoader;
+        private final String prefix;
+        private final boolean splittable;
+        private final int maxDepth;
+        private final Set<Iterator<Blob>> open = ConcurrentHashMap.newKeySet();
+        private volatile boolean closed;
+
+        private Listing(Function<PageRequest, ListingPage<Blob>> pageLoader, String prefix, boolean splittable) {
+            this.pageLoader = pageLoader;
+            this.prefix = prefix;
+            this.splittable = splittable;
+            int parallelism = ForkJoinPool.getCommonPoolParallelism();
+            this.maxDepth = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, parallelism - 1)) + EXTRA_SPLIT_LEVELS;
+        }
+
+        private Iterator<Blob> open(KeyRange range) {
+            Iterator<Blob> blobs = new PrefetchingPagedIterable<>(
+                    PageRequest.builder().startAfter(range.startAfter()).build(),
+                    pageLoader,
+                    PREFETCH_PAGES
+            ).iterator();
+            open.add(blobs);
+            if (closed) {
+                release(blobs);
+            }
+            return blobs;
+        }
+
+        private void release(Iterator<Blob> blobs) {
+            if (open.remove(blobs) && blobs instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // Prefetching iterators do not throw on close.
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            open.forEach(this::release);
+        }
+    }
+}
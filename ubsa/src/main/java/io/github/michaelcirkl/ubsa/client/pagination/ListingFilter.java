@@ -0,0 +1,195 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.regex.Pattern;
+
+/**
+ * Conditions a listed blob must meet to be returned, set on a {@link PageRequest}.
+ *
+ * <p>Conditions are pushed to the provider where it supports them: every provider lists below the literal start of
+ * the {@linkplain #getKeyGlob() key glob}, and Google Cloud Storage evaluates the glob itself. All remaining conditions
+ * are checked against the raw listing entries before blobs are mapped, so rejected entries cost no allocations.
+ * Pages of a filtered listing may therefore be smaller than requested, or empty, while further pages remain.
+ * Filters apply to blobs only; {@linkplain ListingPage#getCommonPrefixes() common prefixes} are returned unfiltered.
+ *
+ * <p>Timestamps are interpreted as UTC, like {@link io.github.michaelcirkl.ubsa.Blob#lastModified()}.
+ */
+public final class ListingFilter {
+    private final LocalDateTime modifiedSince;
+    private final LocalDateTime modifiedBefore;
+    private final long modifiedSinceEpochMillis;
+    private final long modifiedBeforeEpochMillis;
+    private final long minSize;
+    private final long maxSize;
+    private final String keyGlob;
+    private final String globPrefix;
+    private final Pattern keyPattern;
+
+    private ListingFilter(Builder builder) {
+        if (builder.minSize < 0) {
+            throw new IllegalArgumentException("Minimum size must not be negative.");
+        }
+        if (builder.maxSize < builder.minSize) {
+            throw new IllegalArgumentException("Maximum size must not be less than minimum size.");
+        }
+        if (builder.modifiedSince != null && builder.modifiedBefore != null
+                && !builder.modifiedSince.isBefore(builder.modifiedBefore)) {
+            throw new IllegalArgumentException("modifiedBefore must be after modifiedSince.");
+        }
+        this.modifiedSince = builder.modifiedSince;
+        this.modifiedBefore = builder.modifiedBefore;
+        this.modifiedSinceEpochMillis = toEpochMillis(builder.modifiedSince, Long.MIN_VALUE);
+        this.modifiedBeforeEpochMillis = toEpochMillis(builder.modifiedBefore, Long.MAX_VALUE);
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.keyGlob = builder.keyGlob == null || builder.keyGlob.isEmpty() ? null : builder.keyGlob;
+        this.globPrefix = keyGlob == null ? "" : KeyGlob.literalPrefix(keyGlob);
+        this.keyPattern = keyGlob == null ? null : KeyGlob.compile(keyGlob);
+    }
+
+    /**
+     * Creates a builder for a listing filter.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the inclusive lower bound of the last-modified time, or {@code null} if unbounded.
+     */
+    public LocalDateTime getModifiedSince() {
+        return modifiedSince;
+    }
+
+    /**
+     * Returns the exclusive upper bound of the last-modified time, or {@code null} if unbounded.
+     */
+    public LocalDateTime getModifiedBefore() {
+        return modifiedBefore;
+    }
+
+    /**
+     * Returns the inclusive minimum blob size in bytes.
+     */
+    public long getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the inclusive maximum blob size in bytes, {@link Long#MAX_VALUE} if unbounded.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the glob whole keys must match, or {@code null} to accept every key.
+     */
+    public String getKeyGlob() {
+        return keyGlob;
+    }
+
+    /**
+     * Returns the prefix to list below: the literal start of the key glob when it extends {@code prefix}, and
+     * {@code prefix} otherwise.
+     */
+    public String listingPrefix(String prefix) {
+        String current = prefix == null ? "" : prefix;
+        return globPrefix.length() > current.length() && globPrefix.startsWith(current) ? globPrefix : prefix;
+    }
+
+    /**
+     * Returns whether a listed entry meets all conditions. Pass {@code -1} as {@code lastModifiedEpochMillis} when the
+     * provider did not report a timestamp; such entries never meet a time bound.
+     */
+    public boolean matches(String key, long size, long lastModifiedEpochMillis) {
+        if (size < minSize || size > maxSize) {
+            return false;
+        }
+        if (modifiedSince != null || modifiedBefore != null) {
+            if (lastModifiedEpochMillis < 0
+                    || lastModifiedEpochMillis < modifiedSinceEpochMillis
+                    || lastModifiedEpochMillis >= modifiedBeforeEpochMillis) {
+                return false;
+            }
+        }
+        return keyPattern == null || (key.startsWith(globPrefix) && keyPattern.matcher(key).matches());
+    }
+
+    private static long toEpochMillis(LocalDateTime time, long unbounded) {
+        return time == null ? unbounded : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Override
+    public String toString() {
+        return "ListingFilter{" +
+                "modifiedSince=" + modifiedSince +
+                ", modifiedBefore=" + modifiedBefore +
+                ", minSize=" + minSize +
+                ", maxSize=" + maxSize +
+                ", keyGlob='" + keyGlob + '\'' +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ListingFilter}.
+     */
+    public static final class Builder {
+        private LocalDateTime modifiedSince;
+        private LocalDateTime modifiedBefore;
+        private long minSize;
+        private long maxSize = Long.MAX_VALUE;
+        private String keyGlob;
+
+        /**
+         * Accepts only blobs last modified at or after the given UTC time.
+         */
+        public Builder modifiedSince(LocalDateTime modifiedSince) {
+            this.modifiedSince = modifiedSince;
+            return this;
+        }
+
+        /**
+         * Accepts only blobs last modified before the given UTC time.
+         */
+        public Builder modifiedBefore(LocalDateTime modifiedBefore) {
+            this.modifiedBefore = modifiedBefore;
+            return this;
+        }
+
+        /**
+         * Accepts only blobs of at least the given size in bytes.
+         */
+        public Builder minSize(long minSize) {
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * Accepts only blobs of at most the given size in bytes.
+         */
+        public Builder maxSize(long maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Accepts only keys that match the glob as a whole, using the Cloud Storage glob syntax: {@code *} matches any
+         * characters except {@code /}, {@code **} matches any characters, {@code ?} matches one character except
+         * {@code /}, {@code [abc]}, {@code [a-z]} and {@code [!abc]} match character classes, and {@code {a,b}} matches
+         * either alternative.
+         */
+        public Builder keyGlob(String keyGlob) {
+            this.keyGlob = keyGlob;
+            return this;
+        }
+
+        /**
+         * Builds the listing filter.
+         */
+        public ListingFilter build() {
+            return new ListingFilter(this);
+        }
+    }
+}
@@ -8,21 +8,28 @@ import java.util.Iterator;
  * A single page of listing results returned by a paginated UBSA operation.
  *
  * <p>The page contains the current items and, when available, the continuation token needed to request
- * the next page.
+ * the next page. Listings with a {@linkplain PageRequest#getDelimiter() delimiter} also return the common prefixes
+ * that group the keys below the listed level.
  */
 public final class ListingPage<T> implements Iterable<T> {
     private final List<T> items;
+    private final List<String> commonPrefixes;
     private final String nextContinuationToken;
     private final boolean hasNextPage;
 
-    private ListingPage(List<T> items, String nextContinuationToken) {
+    private ListingPage(List<T> items, List<String> commonPrefixes, String nextContinuationToken) {
         this.items = List.copyOf(Objects.requireNonNull(items, "items must not be null"));
+        this.commonPrefixes = List.copyOf(Objects.requireNonNull(commonPrefixes, "commonPrefixes must not be null"));
         this.nextContinuationToken = normalizeToken(nextContinuationToken);
         this.hasNextPage = this.nextContinuationToken != null;
     }
 
     public static <T> ListingPage<T> of(List<T> items, String nextContinuationToken) {
-        return new ListingPage<>(items, nextContinuationToken);
+        return new ListingPage<>(items, List.of(), nextContinuationToken);
+    }
+
+    public static <T> ListingPage<T> of(List<T> items, List<String> commonPrefixes, String nextContinuationToken) {
+        return new ListingPage<>(items, commonPrefixes, nextContinuationToken);
     }
 
     /**
@@ -32,6 +39,13 @@ public final class ListingPage<T> implements Iterable<T> {
         return items;
     }
 
+    /**
+     * Returns the common prefixes in the current page, each ending with the delimiter. Empty for flat listings.
+     */
+    public List<String> getCommonPrefixes() {
+        return commonPrefixes;
+    }
+
     /**
      * Returns the token to pass into the next {@link PageRequest}, or {@code null} when there is no next page.
      */
@@ -4,15 +4,33 @@ package io.github.michaelcirkl.ubsa.client.pagination;
  * Parameters for requesting a single page from a paginated UBSA listing operation.
  *
  * <p>{@code pageSize} is optional and provider-dependent. {@code continuationToken} resumes listing from a
- * previously returned {@link ListingPage}.
+ * previously returned {@link ListingPage}. {@code startAfter} starts a listing with the first key that sorts after the
+ * given key and {@code endBefore} ends it before the first key that sorts at or after the given key. Both bounds are
+ * sent to the provider where supported and applied client-side otherwise; paging stops once a listing passes
+ * {@code endBefore}, so key ranges can be listed independently. {@code delimiter} lists a
+ * single level of a key hierarchy: keys that contain the delimiter after the prefix are rolled up into the
+ * {@linkplain ListingPage#getCommonPrefixes() common prefixes} of the page instead of being returned one by one.
+ * {@code filter} restricts the listed blobs by key glob, size and last-modified time as described in
+ * {@link ListingFilter}.
  */
 public final class PageRequest {
     private final Integer pageSize;
     private final String continuationToken;
+    private final String startAfter;
+    private final String endBefore;
+    private final String delimiter;
+    private final ListingFilter filter;
 
     private PageRequest(Builder builder) {
         this.pageSize = validatePageSize(builder.pageSize);
         this.continuationToken = normalizeToken(builder.continuationToken);
+        this.startAfter = builder.startAfter == null || builder.startAfter.isEmpty() ? null : builder.startAfter;
+        this.endBefore = builder.endBefore == null || builder.endBefore.isEmpty() ? null : builder.endBefore;
+        if (startAfter != null && endBefore != null && BlobKeys.compare(startAfter, endBefore) >= 0) {
+            throw new IllegalArgumentException("endBefore must sort after startAfter.");
+        }
+        this.delimiter = builder.delimiter == null || builder.delimiter.isEmpty() ? null : builder.delimiter;
+        this.filter = builder.filter;
     }
 
     /**
@@ -43,6 +61,63 @@ public final class PageRequest {
         return continuationToken;
     }
 
+    /**
+     * Returns the key after which listing starts, or {@code null} to start at the first key.
+     */
+    public String getStartAfter() {
+        return startAfter;
+    }
+
+    /**
+     * Returns the key before which listing ends, or {@code null} to list up to the last key.
+     */
+    public String getEndBefore() {
+        return endBefore;
+    }
+
+    /**
+     * Returns the delimiter that groups keys into common prefixes, or {@code null} for a flat listing.
+     */
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Returns the filter listed blobs must match, or {@code null} to return all blobs.
+     */
+    public ListingFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the prefix providers list below, which the {@linkplain ListingFilter#listingPrefix(String) filter} may
+     * narrow.
+     */
+    public String listingPrefix(String prefix) {
+        return filter == null ? prefix : filter.listingPrefix(prefix);
+    }
+
+    /**
+     * Returns whether a listed entry passes the {@linkplain #getFilter() filter}. Providers call this before mapping
+     * an entry to a blob.
+     */
+    public boolean accepts(String key, long size, long lastModifiedEpochMillis) {
+        return filter == null || filter.matches(key, size, lastModifiedEpochMillis);
+    }
+
+    /**
+     * Returns a builder initialized with the values of this request, used to derive the request for the next page.
+     */
+    public Builder toBuilder() {
+        return builder()
+                .pageSize(pageSize)
+                .continuationToken(continuationToken)
+                .startAfter(startAfter)
+                .endBefore(endBefore)
+                .delimiter(delimiter)
+                .filter(filter);
+    }
+
     private static Integer validatePageSize(Integer pageSize) {
         if (pageSize != null && pageSize <= 0) {
             throw new IllegalArgumentException("Page size must be greater than 0.");
@@ -63,6 +138,10 @@ public final class PageRequest {
     public static final class Builder {
         private Integer pageSize;
         private String continuationToken;
+        private String startAfter;
+        private String endBefore;
+        private String delimiter;
+        private ListingFilter filter;
 
         /**
          * Sets the requested page size.
@@ -80,6 +159,38 @@ public final class PageRequest {
             return this;
         }
 
+        /**
+         * Sets the key after which listing starts. Keys equal to or sorting before it are not returned.
+         */
+        public Builder startAfter(String startAfter) {
+            this.startAfter = startAfter;
+            return this;
+        }
+
+        /**
+         * Sets the exclusive upper bound of the listing. Keys equal to or sorting after it are not returned.
+         */
+        public Builder endBefore(String endBefore) {
+            this.endBefore = endBefore;
+            return this;
+        }
+
+        /**
+         * Sets the delimiter, usually {@code "/"}, that groups keys into common prefixes.
+         */
+        public Builder delimiter(String delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /**
+         * Sets the filter listed blobs must match.
+         */
+        public Builder filter(ListingFilter filter) {
+            this.filter = filter;
+            return this;
+        }
+
         /**
          * Builds the page request.
          */
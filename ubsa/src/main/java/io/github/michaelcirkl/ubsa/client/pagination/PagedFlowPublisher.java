@@ -1,6 +1,8 @@
 package io.github.michaelcirkl.ubsa.client.pagination;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -9,16 +11,43 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Flow;
 import java.util.function.Function;
 
+/**
+ * Publishes the items of a paginated listing according to subscriber demand.
+ *
+ * <p>Continuation tokens make page requests sequential, but a page does not have to wait for the previous one to be
+ * consumed. Up to {@code prefetch} pages are loaded ahead of the page being emitted, so a subscriber that keeps up
+ * does not idle for a listing round trip at every page boundary. Cancelling the subscription cancels the page request
+ * in flight.
+ */
 public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
+    private static final int DEFAULT_PREFETCH = 1;
+
     private final PageRequest initialRequest;
     private final Function<PageRequest, CompletableFuture<ListingPage<T>>> pageLoader;
+    private final int prefetch;
 
     public PagedFlowPublisher(
             PageRequest initialRequest,
             Function<PageRequest, CompletableFuture<ListingPage<T>>> pageLoader
     ) {
+        this(initialRequest, pageLoader, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Creates a publisher that loads up to {@code prefetch} pages ahead of the page being emitted. A prefetch of
+     * {@code 0} loads the next page only once the current one has been emitted and demand is outstanding.
+     */
+    public PagedFlowPublisher(
+            PageRequest initialRequest,
+            Function<PageRequest, CompletableFuture<ListingPage<T>>> pageLoader,
+            int prefetch
+    ) {
+        if (prefetch < 0) {
+            throw new IllegalArgumentException("Prefetch must not be negative.");
+        }
         this.initialRequest = initialRequest == null ? PageRequest.firstPage() : initialRequest;
         this.pageLoader = pageLoader;
+        this.prefetch = prefetch;
     }
 
     @Override
@@ -31,6 +60,7 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
 
     private final class PageSubscription implements Flow.Subscription {
         private final Flow.Subscriber<? super T> downstream;
+        private final Deque<ListingPage<T>> loadedPages = new ArrayDeque<>();
         private PageRequest nextRequest = initialRequest;
         private Iterator<T> currentItems = Collections.emptyIterator();
         private CompletableFuture<ListingPage<T>> inFlightPageFuture;
@@ -39,7 +69,7 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
         private boolean terminated;
         private boolean loading;
         private boolean draining;
-        private boolean completeAfterItems;
+        private boolean lastPageLoaded;
 
         private PageSubscription(Flow.Subscriber<? super T> downstream) {
             this.downstream = downstream;
@@ -70,6 +100,7 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
             synchronized (this) {
                 cancelled = true;
                 loading = false;
+                loadedPages.clear();
                 futureToCancel = inFlightPageFuture;
                 inFlightPageFuture = null;
             }
@@ -89,21 +120,32 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
                         draining = false;
                         return;
                     }
-                    if (demand > 0 && currentItems.hasNext()) {
+                    while (!currentItems.hasNext() && !loadedPages.isEmpty()) {
+                        currentItems = loadedPages.poll().iterator();
+                    }
+                    if (!loading && !lastPageLoaded
+                            && (loadedPages.size() < prefetch || (demand > 0 && !currentItems.hasNext()))) {
+                        loading = true;
+                        requestToLoad = nextRequest;
+                    } else if (demand > 0 && currentItems.hasNext()) {
                         itemToEmit = currentItems.next();
                         demand--;
-                    } else if (completeAfterItems && !currentItems.hasNext()) {
+                    } else if (lastPageLoaded && !loading && !currentItems.hasNext()) {
                         terminated = true;
                         shouldComplete = true;
-                    } else if (demand > 0 && !loading) {
-                        loading = true;
-                        requestToLoad = nextRequest;
                     } else {
                         draining = false;
                         return;
                     }
                 }
 
+                if (requestToLoad != null) {
+                    if (!load(requestToLoad)) {
+                        return;
+                    }
+                    continue;
+                }
+
                 if (itemToEmit != null) {
                     downstream.onNext(itemToEmit);
                     continue;
@@ -113,42 +155,39 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
                     downstream.onComplete();
                     return;
                 }
+            }
+        }
 
-                synchronized (this) {
-                    if (cancelled || terminated) {
-                        draining = false;
-                        return;
-                    }
-                    draining = false;
-                }
-                PageRequest capturedRequest = requestToLoad;
-                CompletableFuture<ListingPage<T>> pageFuture;
-                try {
-                    pageFuture = pageLoader.apply(capturedRequest);
-                } catch (Throwable throwable) {
-                    fail(throwable);
-                    return;
-                }
-                if (pageFuture == null) {
-                    fail(new NullPointerException("pageLoader must not return null"));
-                    return;
-                }
-                boolean shouldCancelFuture = false;
-                synchronized (this) {
-                    if (cancelled || terminated) {
-                        loading = false;
-                        shouldCancelFuture = true;
-                    } else {
-                        inFlightPageFuture = pageFuture;
-                    }
-                }
-                if (shouldCancelFuture) {
-                    pageFuture.cancel(true);
-                    return;
+        /**
+         * Starts loading a page while the caller keeps draining. Returns {@code false} if the subscription ended.
+         */
+        private boolean load(PageRequest request) {
+            CompletableFuture<ListingPage<T>> pageFuture;
+            try {
+                pageFuture = pageLoader.apply(request);
+            } catch (Throwable throwable) {
+                fail(throwable);
+                return false;
+            }
+            if (pageFuture == null) {
+                fail(new NullPointerException("pageLoader must not return null"));
+                return false;
+            }
+            boolean shouldCancelFuture = false;
+            synchronized (this) {
+                if (cancelled || terminated) {
+                    loading = false;
+                    shouldCancelFuture = true;
+                } else {
+                    inFlightPageFuture = pageFuture;
                 }
-                pageFuture.whenComplete((page, error) -> handlePageLoadCompletion(pageFuture, page, error, capturedRequest));
-                return;
             }
+            if (shouldCancelFuture) {
+                pageFuture.cancel(true);
+                return false;
+            }
+            pageFuture.whenComplete((page, error) -> handlePageLoadCompletion(pageFuture, page, error, request));
+            return true;
         }
 
         private void handlePageLoadCompletion(
@@ -179,15 +218,13 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
                     return;
                 }
                 loading = false;
-                currentItems = page.iterator();
+                loadedPages.add(page);
                 if (page.hasNextPage()) {
-                    nextRequest = PageRequest.builder()
-                            .pageSize(requestUsed.getPageSize())
+                    nextRequest = requestUsed.toBuilder()
                             .continuationToken(page.getNextContinuationToken())
                             .build();
-                    completeAfterItems = false;
                 } else {
-                    completeAfterItems = true;
+                    lastPageLoaded = true;
                 }
                 if (draining) {
                     return;
@@ -205,6 +242,7 @@ public final class PagedFlowPublisher<T> implements Flow.Publisher<T> {
                 cancelled = true;
                 terminated = true;
                 loading = false;
+                loadedPages.clear();
                 inFlightPageFuture = null;
             }
             downstream.onError(throwable);
@@ -8,7 +8,7 @@ import java.util.function.Function;
 /**
  * Lazily iterates across all items produced by a paginated listing function.
  *
- * <p>Pages are loaded on demand as iteration advances, reusing the previous page size and the continuation
+ * <p>Pages are loaded on demand as iteration advances, reusing the previous request parameters and the continuation
  * token returned by each {@link ListingPage}.
  */
 public final class PagedIterable<T> implements Iterable<T> {
@@ -57,8 +57,7 @@ public final class PagedIterable<T> implements Iterable<T> {
                     ListingPage<T> page = pageLoader.apply(nextRequest);
                     currentItems = page.iterator();
                     if (page.hasNextPage()) {
-                        nextRequest = PageRequest.builder()
-                                .pageSize(nextRequest.getPageSize())
+                        nextRequest = nextRequest.toBuilder()
                                 .continuationToken(page.getNextContinuationToken())
                                 .build();
                     } else {
@@ -0,0 +1,114 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+/**
+ * Settings for listing a prefix as several key ranges in parallel.
+ */
+public final class ParallelListingOptions {
+    private static final int DEFAULT_PARALLELISM = 8;
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private final int parallelism;
+    private final int pageSize;
+    private final boolean ordered;
+    private final String partitionDelimiter;
+
+    private ParallelListingOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.pageSize = builder.pageSize;
+        this.ordered = builder.ordered;
+        this.partitionDelimiter = builder.partitionDelimiter;
+    }
+
+    public static ParallelListingOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum number of key ranges listed at the same time.
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the page size requested for every listing call.
+     */
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns whether blobs are emitted in key order. Unordered listings emit blobs as soon as any range delivers
+     * them.
+     */
+    public boolean ordered() {
+        return ordered;
+    }
+
+    /**
+     * Returns the delimiter whose common prefixes split the key space, or {@code null} to split it at sampled keys.
+     */
+    public String partitionDelimiter() {
+        return partitionDelimiter;
+    }
+
+    public static class Builder {
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private boolean ordered;
+        private String partitionDelimiter;
+
+        /**
+         * Sets the maximum number of key ranges listed at the same time. Defaults to 8.
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the page size requested for every listing call. Defaults to 1000.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Sets whether blobs are emitted in key order. Ordered listings still list ranges in parallel but buffer later
+         * ranges until earlier ones have been consumed. Defaults to {@code false}.
+         */
+        public Builder ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Sets a delimiter, usually {@code "/"}, to split the key space at the common prefixes of the first level below
+         * the listed prefix, which suits keys laid out as a hierarchy of similar sized folders. The prefixes come from
+         * one delimited listing page; with fewer than two, the key space is split at sampled keys instead. Defaults to
+         * {@code null}, sampled keys.
+         */
+        public Builder partitionDelimiter(String partitionDelimiter) {
+            this.partitionDelimiter = partitionDelimiter;
+            return this;
+        }
+
+        public ParallelListingOptions build() {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be greater than 0.");
+            }
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be greater than 0.");
+            }
+            if (partitionDelimiter != null && partitionDelimiter.isEmpty()) {
+                throw new IllegalArgumentException("Partition delimiter must not be empty.");
+            }
+            return new ParallelListingOptions(this);
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.streaming.BlockingIteratorPublisher;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lists a prefix as several key ranges in parallel and merges them into one sequence of blobs.
+ *
+ * <p>When iteration begins, the key space below the prefix is split into a few ranges per unit of parallelism at
+ * {@linkplain KeyRangeSampler sampled} boundary keys, or at the common prefixes of its first level when
+ * {@link ParallelListingOptions#partitionDelimiter()} is set. {@code parallelism} virtual threads then list the ranges with
+ * {@link PageRequest#getStartAfter() startAfter}, each range stopping at its last key. A thread that runs out of
+ * ranges splits the range that has listed the most pages so far and continues with its upper part. The split key is
+ * found by probing ahead of the range's last page, so dense parts of the key space are spread across all threads even
+ * when the sampled boundaries were uneven.
+ *
+ * <p>Unordered listings emit blobs as soon as any range delivers them. Ordered listings emit the ranges one after
+ * another, which yields the key order of a sequential listing while later ranges are already being listed. Listing
+ * threads pause once about two pages per range are buffered and not consumed yet.
+ *
+ * <p>{@link #aggregate} lists the same way but folds the listed items into one accumulator per listing thread
+ * instead of emitting them, so nothing is buffered or handed between threads.
+ *
+ * <p>Splitting needs a provider that can start a listing after a key. When {@code splittable} is {@code false}, or
+ * the parallelism is 1, the prefix is listed as a single range. Closing the iterator stops all listing threads.
+ */
+public final class PartitionedListing<T> implements Iterator<T>, AutoCloseable {
+    private static final int RANGES_PER_WORKER = 4;
+    private static final int MAX_OPEN_RANGES_PER_WORKER = 8;
+    private static final Object RANGE_END = new Object();
+
+    private final Function<PageRequest, ListingPage<T>> pageLoader;
+    private final Function<? super T, String> keyOf;
+    private final String prefix;
+    private final boolean splittable;
+    private final ParallelListingOptions options;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<Range> pending = new ConcurrentLinkedQueue<>();
+    private final Set<Range> active = ConcurrentHashMap.newKeySet();
+    private final Semaphore openRangeSlots;
+    private final AtomicInteger openRanges = new AtomicInteger();
+    private BlockingQueue<Object> merged;
+    private Range current;
+    private T next;
+    private boolean started;
+    private boolean finished;
+    private volatile boolean closed;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private boolean aggregating;
+
+    private PartitionedListing(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            boolean splittable,
+            ParallelListingOptions options
+    ) {
+        this.pageLoader = Objects.requireNonNull(pageLoader, "pageLoader must not be null");
+        this.keyOf = keyOf;
+        this.prefix = prefix == null ? "" : prefix;
+        this.splittable = splittable;
+        this.options = options == null ? ParallelListingOptions.defaults() : options;
+        this.openRangeSlots = new Semaphore(this.options.parallelism() * MAX_OPEN_RANGES_PER_WORKER);
+    }
+
+    /**
+     * Returns a sequential stream over a new listing. Closing the stream stops the listing.
+     */
+    public static Stream<Blob> stream(
+            Function<PageRequest, ListingPage<Blob>> pageLoader,
+            String prefix,
+            boolean splittable,
+            ParallelListingOptions options
+    ) {
+        PartitionedListing<Blob> listing = new PartitionedListing<>(pageLoader, Blob::getKey, prefix, splittable, options);
+        int characteristics = Spliterator.NONNULL | (listing.options.ordered() ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(listing, characteristics), false)
+                .onClose(listing::close);
+    }
+
+    /**
+     * Returns a publisher that runs a new listing for every subscriber. Blobs are emitted from a virtual thread
+     * according to demand, and cancelling the subscription stops the listing.
+     */
+    public static Flow.Publisher<Blob> publisher(
+            Function<PageRequest, CompletableFuture<ListingPage<Blob>>> pageLoader,
+            String prefix,
+            boolean splittable,
+            ParallelListingOptions options
+    ) {
+        Objects.requireNonNull(pageLoader, "pageLoader must not be null");
+        return new BlockingIteratorPublisher<>(
+                () -> new PartitionedListing<>(request -> await(pageLoader.apply(request)), Blob::getKey, prefix, splittable,
+                        options),
+                "ubsa-parallel-listing"
+        );
+    }
+
+    /**
+     * Lists all items and folds them into accumulators created by {@code supplier}, one per listing thread, which are
+     * merged with {@code combiner} once every range is listed. Items reach an accumulator in key order within a range,
+     * but the ranges of one accumulator are not in order. {@code keyOf} returns the key of a listed item, so that a
+     * compact item type such as {@link io.github.michaelcirkl.ubsa.BlobSummary} can be listed instead of full blobs.
+     */
+    public static <T, A> A aggregate(
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            Function<? super T, String> keyOf,
+            String prefix,
+            boolean splittable,
+            ParallelListingOptions options,
+            Supplier<A> supplier,
+            BiConsumer<A, ? super T> accumulator,
+            BinaryOperator<A> combiner
+    ) {
+        Objects.requireNonNull(keyOf, "keyOf must not be null");
+        Objects.requireNonNull(supplier, "supplier must not be null");
+        Objects.requireNonNull(accumulator, "accumulator must not be null");
+        Objects.requireNonNull(combiner, "combiner must not be null");
+        return new PartitionedListing<>(pageLoader, keyOf, prefix, splittable, options)
+                .aggregate(supplier, accumulator, combiner);
+    }
+
+    @Override
+    public boolean hasNext() {
+        lock.lock();
+        try {
+            return advance();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T next() {
+        lock.lock();
+        try {
+            if (!advance()) {
+                throw new NoSuchElementException("No more items available.");
+            }
+            T item = next;
+            next = null;
+            return item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops all listing threads. Blobs that were not consumed yet are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean advance() {
+        if (next != null) {
+            return true;
+        }
+        if (finished || closed) {
+            return false;
+        }
+        if (!started) {
+            started = true;
+            start();
+        }
+        while (true) {
+            Object item;
+            try {
+                item = options.ordered() ? current.queue.take() : merged.take();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new UbsaException("Interrupted while listing " + prefix + ".", interruptedException);
+            }
+            if (item == RANGE_END) {
+                openRangeSlots.release();
+                boolean last = options.ordered() ? (current = current.next) == null : openRanges.decrementAndGet() == 0;
+                if (last) {
+                    finished = true;
+                    close();
+                    return false;
+                }
+                continue;
+            }
+            if (item instanceof Failure failure) {
+                close();
+                throw failure.error();
+            }
+            next = (T) item;
+            return true;
+        }
+    }
+
+    private <A> A aggregate(Supplier<A> supplier, BiConsumer<A, ? super T> accumulator, BinaryOperator<A> combiner) {
+        List<A> partials = new ArrayList<>(options.parallelism());
+        List<Future<?>> workers = new ArrayList<>(options.parallelism());
+        aggregating = true;
+        try {
+            planRanges();
+            for (int i = 0; i < options.parallelism(); i++) {
+                A partial = supplier.get();
+                partials.add(partial);
+                workers.add(executor.submit(() -> work(item -> accumulator.accept(partial, item))));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new UbsaException("Interrupted while listing " + prefix + ".", interruptedException);
+        } catch (ExecutionException executionException) {
+            if (executionException.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UbsaException("Listing " + prefix + " failed.", executionException.getCause());
+        } catch (CancellationException cancellationException) {
+            // A worker is only cancelled by close(), after another worker recorded its failure.
+        } finally {
+            close();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        A result = partials.getFirst();
+        for (int i = 1; i < partials.size(); i++) {
+            result = combiner.apply(result, partials.get(i));
+        }
+        return result;
+    }
+
+    private void start() {
+        if (!options.ordered()) {
+            merged = new LinkedBlockingQueue<>(queueCapacity() * options.parallelism());
+        }
+        planRanges();
+        for (int i = 0; i < options.parallelism(); i++) {
+            executor.execute(() -> work(null));
+        }
+    }
+
+    private void planRanges() {
+        List<KeyRange> ranges;
+        try {
+            ranges = splittable && options.parallelism() > 1 ? initialRanges() : List.of(KeyRange.ALL);
+        } catch (RuntimeException error) {
+            close();
+            throw error;
+        }
+        Range previous = null;
+        for (KeyRange keyRange : ranges) {
+            Range range = newRange(keyRange.startAfter(), keyRange.endInclusive());
+            openRangeSlots.acquireUninterruptibly();
+            openRanges.incrementAndGet();
+            if (previous == null) {
+                current = range;
+            } else {
+                previous.next = range;
+            }
+            pending.add(range);
+            previous = range;
+        }
+    }
+
+    private List<KeyRange> initialRanges() {
+        int targetRanges = options.parallelism() * RANGES_PER_WORKER;
+        if (options.partitionDelimiter() != null) {
+            List<KeyRange> ranges = KeyRangeSampler.byCommonPrefixes(pageLoader, options.partitionDelimiter(),
+                    options.pageSize(), targetRanges);
+            if (ranges.size() > 1) {
+                return ranges;
+            }
+        }
+        return KeyRangeSampler.sample(pageLoader, keyOf, prefix, targetRanges, executor);
+    }
+
+    private Range newRange(String startAfter, String endInclusive) {
+        BlockingQueue<Object> queue = aggregating ? null : options.ordered() ? new LinkedBlockingQueue<>(queueCapacity()) : merged;
+        return new Range(startAfter, endInclusive, queue);
+    }
+
+    private int queueCapacity() {
+        return options.pageSize() * 2;
+    }
+
+    /**
+     * Lists ranges until none is left. Items go to {@code sink} when aggregating, otherwise to the queue of their
+     * range.
+     */
+    private void work(Consumer<T> sink) {
+        try {
+            while (!closed) {
+                Range range = pending.poll();
+                if (range == null) {
+                    range = steal();
+                    if (range == null) {
+                        return;
+                    }
+                }
+                list(range, sink);
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void list(Range range, Consumer<T> sink) throws InterruptedException {
+        active.add(range);
+        try {
+            PageRequest request = PageRequest.builder()
+                    .pageSize(options.pageSize())
+                    .startAfter(range.startAfter)
+                    .build();
+            listing:
+            while (!closed) {
+                ListingPage<T> page = pageLoader.apply(request);
+                boolean pageStart = true;
+                for (T item : page) {
+                    if (!range.advanceTo(keyOf.apply(item), pageStart)) {
+                        break listing;
+                    }
+                    pageStart = false;
+                    if (sink != null) {
+                        sink.accept(item);
+                    } else {
+                        range.queue.put(item);
+                    }
+                }
+                range.pages++;
+                if (!page.hasNextPage()) {
+                    break;
+                }
+                request = request.toBuilder().continuationToken(page.getNextContinuationToken()).build();
+            }
+            range.finish();
+            if (sink != null) {
+                openRangeSlots.release();
+            } else {
+                range.queue.put(RANGE_END);
+            }
+        } catch (RuntimeException error) {
+            range.finish();
+            if (sink != null) {
+                // Only the first failure is reported; the others are usually interruptions caused by close().
+                failure.compareAndSet(null, error);
+                close();
+            } else {
+                range.queue.put(new Failure(error));
+            }
+        } finally {
+            active.remove(range);
+        }
+    }
+
+    /**
+     * Splits the active range that has listed the most pages and returns its upper part, or {@code null} when no
+     * range can be split.
+     */
+    private Range steal() throws InterruptedException {
+        if (!splittable) {
+            return null;
+        }
+        openRangeSlots.acquire();
+        try {
+            while (!closed) {
+                Range victim = null;
+                for (Range candidate : active) {
+                    if (candidate.splittable && !candidate.splitting && candidate.pages > 0
+                            && (victim == null || candidate.pages > victim.pages)) {
+                        victim = candidate;
+                    }
+                }
+                if (victim == null) {
+                    break;
+                }
+                Range split = split(victim);
+                if (split != null) {
+                    return split;
+                }
+            }
+        } catch (RuntimeException error) {
+            // A failed probe only means that no further split happens; the ranges themselves are still listed.
+        }
+        openRangeSlots.release();
+        return null;
+    }
+
+    private Range split(Range victim) {
+        String pageStart;
+        String position;
+        String high;
+        victim.lock.lock();
+        try {
+            if (victim.finished || victim.splitting || victim.position == null) {
+                victim.splittable = false;
+                return null;
+            }
+            victim.splitting = true;
+            pageStart = victim.pageStart;
+            position = victim.position;
+            high = victim.endInclusive != null ? victim.endInclusive : KeyRangeSampler.upperBound(prefix);
+        } finally {
+            victim.lock.unlock();
+        }
+        String boundary = null;
+        try {
+            boundary = KeyRangeSampler.findBoundary(pageLoader, keyOf, prefix, pageStart, position, high, executor);
+        } finally {
+            victim.lock.lock();
+            try {
+                victim.splitting = false;
+                if (boundary == null) {
+                    victim.splittable = false;
+                }
+            } finally {
+                victim.lock.unlock();
+            }
+        }
+        if (boundary == null) {
+            return null;
+        }
+        victim.lock.lock();
+        try {
+            if (victim.finished || BlobKeys.compare(boundary, victim.position) <= 0 || victim.isBeyondEnd(boundary)) {
+                victim.splittable = false;
+                return null;
+            }
+            Range split = newRange(boundary, victim.endInclusive);
+            openRanges.incrementAndGet();
+            split.next = victim.next;
+            victim.next = split;
+            victim.endInclusive = boundary;
+            return split;
+        } finally {
+            victim.lock.unlock();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UbsaException("Listing request failed.", error.getCause() == null ? error : error.getCause());
+        }
+    }
+
+    private record Failure(RuntimeException error) {
+    }
+
+    /**
+     * A key range being listed. Its upper end shrinks when another thread splits it.
+     */
+    private static final class Range {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String startAfter;
+        private final BlockingQueue<Object> queue;
+        private String endInclusive;
+        private String pageStart;
+        private String position;
+        private boolean finished;
+        private volatile boolean splitting;
+        private volatile boolean splittable = true;
+        private volatile int pages;
+        private volatile Range next;
+
+        private Range(String startAfter, String endInclusive, BlockingQueue<Object> queue) {
+            this.startAfter = startAfter;
+            this.endInclusive = endInclusive;
+            this.queue = queue;
+        }
+
+        /**
+         * Records {@code key} as listed, or returns {@code false} if it lies beyond the end of this range.
+         */
+        private boolean advanceTo(String key, boolean firstOfPage) {
+            lock.lock();
+            try {
+                if (isBeyondEnd(key)) {
+                    return false;
+                }
+                if (firstOfPage) {
+                    pageStart = key;
+                }
+                position = key;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isBeyondEnd(String key) {
+            return endInclusive != null && BlobKeys.compare(key, endInclusive) > 0;
+        }
+
+        private void finish() {
+            lock.lock();
+            try {
+                finished = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.michaelcirkl.ubsa.client.pagination;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.lang.ref.Cleaner;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Iterates across all items produced by a paginated listing function while loading the following pages in the
+ * background.
+ *
+ * <p>Every iterator starts a virtual thread that requests pages one after another and keeps up to
+ * {@code prefetchPages} loaded pages ahead of the page being consumed, so the consumer only waits when it outpaces
+ * the listing. The thread stops when the listing is exhausted, when the iterator is {@linkplain AutoCloseable#close()
+ * closed}, or when an abandoned iterator is garbage collected.
+ */
+public final class PrefetchingPagedIterable<T> implements Iterable<T> {
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final Object END = new Object();
+
+    private final PageRequest initialRequest;
+    private final Function<PageRequest, ListingPage<T>> pageLoader;
+    private final int prefetchPages;
+
+    /**
+     * Creates an iterable backed by the given page loader.
+     *
+     * <p>If {@code initialRequest} is {@code null}, iteration starts from {@link PageRequest#firstPage()}.
+     */
+    public PrefetchingPagedIterable(
+            PageRequest initialRequest,
+            Function<PageRequest, ListingPage<T>> pageLoader,
+            int prefetchPages
+    ) {
+        if (prefetchPages <= 0) {
+            throw new IllegalArgumentException("Prefetch pages must be greater than 0.");
+        }
+        this.initialRequest = initialRequest == null ? PageRequest.firstPage() : initialRequest;
+        this.pageLoader = pageLoader;
+        this.prefetchPages = prefetchPages;
+    }
+
+    /**
+     * Returns an iterator that starts loading pages in the background on its first call to {@code hasNext()}. The
+     * iterator implements {@link AutoCloseable}; closing it stops the background thread early.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new PrefetchingIterator<>(new PageLoader<>(initialRequest, pageLoader, prefetchPages));
+    }
+
+    private static final class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+        private final PageLoader<T> loader;
+        private final Cleaner.Cleanable cleanable;
+        private Iterator<T> currentItems = Collections.emptyIterator();
+        private boolean started;
+        private boolean exhausted;
+
+        private PrefetchingIterator(PageLoader<T> loader) {
+            this.loader = loader;
+            this.cleanable = CLEANER.register(this, loader::stop);
+        }
+
+        @Override
+        public boolean hasNext() {
+            loadUntilItemAvailable();
+            return currentItems.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more items available.");
+            }
+            return currentItems.next();
+        }
+
+        @Override
+        public void close() {
+            exhausted = true;
+            currentItems = Collections.emptyIterator();
+            cleanable.clean();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void loadUntilItemAvailable() {
+            if (!started && !exhausted) {
+                started = true;
+                loader.start();
+            }
+            while (!currentItems.hasNext() && !exhausted) {
+                Object result;
+                try {
+                    result = loader.pages.take();
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new UbsaException("Interrupted while waiting for the next page.", interruptedException);
+                }
+                if (result == END) {
+                    exhausted = true;
+                } else if (result instanceof Failure failure) {
+                    close();
+                    if (failure.error() instanceof Error error) {
+                        throw error;
+                    }
+                    throw (RuntimeException) failure.error();
+                } else {
+                    currentItems = ((ListingPage<T>) result).iterator();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads pages on a virtual thread. It holds no reference to the iterator, so an abandoned iterator can be
+     * collected and its cleaner can stop the thread.
+     */
+    private static final class PageLoader<T> implements Runnable {
+        private final BlockingQueue<Object> pages;
+        private final Function<PageRequest, ListingPage<T>> pageLoader;
+        private PageRequest nextRequest;
+        private volatile boolean stopped;
+        private volatile Thread thread;
+
+        private PageLoader(PageRequest initialRequest, Function<PageRequest, ListingPage<T>> pageLoader, int prefetchPages) {
+            this.pages = new ArrayBlockingQueue<>(prefetchPages);
+            this.pageLoader = pageLoader;
+            this.nextRequest = initialRequest;
+        }
+
+        private void start() {
+            thread = Thread.ofVirtual().name("ubsa-page-prefetch").start(this);
+            if (stopped) {
+                // stop() ran before the thread was published and could not interrupt it.
+                thread.interrupt();
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            Thread current = thread;
+            if (current != null) {
+                current.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped) {
+                    ListingPage<T> page;
+                    try {
+                        page = pageLoader.apply(nextRequest);
+                    } catch (RuntimeException | Error error) {
+                        pages.put(new Failure(error));
+                        return;
+                    }
+                    pages.put(page);
+                    if (!page.hasNextPage()) {
+                        pages.put(END);
+                        return;
+                    }
+                    nextRequest = nextRequest.toBuilder()
+                            .continuationToken(page.getNextContinuationToken())
+                            .build();
+                }
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Stopped early: drop the buffered pages and wake a consumer that may be waiting on another thread.
+            pages.clear();
+            pages.offer(END);
+        }
+    }
+
+    private record Failure(Throwable error) {
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.michaelcirkl.ubsa.client.stats;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+
+/**
+ * Statistics of the blobs below a prefix, overall and per group.
+ *
+ * <p>Groups are the key prefixes formed by the listing prefix and the first {@code groupingDepth} {@code /}-separated
+ * path segments after it: with prefix {@code logs/} and depth 1, {@code logs/app/2024/x.gz} counts towards
+ * {@code logs/app/}. A blob with fewer segments counts towards its own directory, so {@code logs/readme} belongs to
+ * group {@code logs/}. Depth 0 computes only the totals.
+ */
+public final class BucketStats {
+    private final String bucketName;
+    private final String prefix;
+    private final int groupingDepth;
+    private final LocalDateTime computedAt;
+    private final PrefixStats total;
+    private final NavigableMap<String, PrefixStats> groups;
+
+    BucketStats(
+            String bucketName,
+            String prefix,
+            int groupingDepth,
+            LocalDateTime computedAt,
+            PrefixStats total,
+            NavigableMap<String, PrefixStats> groups
+    ) {
+        this.bucketName = bucketName;
+        this.prefix = prefix;
+        this.groupingDepth = groupingDepth;
+        this.computedAt = computedAt;
+        this.total = total;
+        this.groups = groups;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int getGroupingDepth() {
+        return groupingDepth;
+    }
+
+    /**
+     * Returns the time in UTC when the listing started; blob ages are measured from it.
+     */
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    /**
+     * Returns the statistics of all blobs below the prefix.
+     */
+    public PrefixStats getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the statistics per group, keyed and ordered by group prefix. Empty when the grouping depth is 0.
+     */
+    public NavigableMap<String, PrefixStats> getGroups() {
+        return groups;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.michaelcirkl.ubsa.client.stats;
+
+import io.github.michaelcirkl.ubsa.BlobSummary;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.ListingPage;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.ParallelListingOptions;
+import io.github.michaelcirkl.ubsa.client.pagination.PartitionedListing;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Computes {@link BucketStats} from a {@linkplain PartitionedListing parallel listing}.
+ *
+ * <p>The listing runs over {@link BlobSummary} entries, so no full {@code Blob} is built per listed key. Every listing
+ * thread folds the size and epoch-millisecond timestamp of each summary into its own primitive accumulators, which
+ * are merged when the listing completes. Summaries are not retained, so memory grows with the number of groups, not
+ * the number of blobs.
+ */
+public final class BucketStatsCollector {
+    private BucketStatsCollector() {
+    }
+
+    public static BucketStats collect(
+            Function<PageRequest, ListingPage<BlobSummary>> pageLoader,
+            String bucketName,
+            String prefix,
+            int groupingDepth,
+            boolean splittable,
+            ParallelListingOptions options
+    ) {
+        if (groupingDepth < 0) {
+            throw new IllegalArgumentException("Grouping depth must not be negative.");
+        }
+        String normalizedPrefix = prefix == null ? "" : prefix;
+        long now = System.currentTimeMillis();
+        GroupedAccumulator result = PartitionedListing.aggregate(
+                pageLoader,
+                BlobSummary::getKey,
+                normalizedPrefix,
+                splittable,
+                options,
+                () -> new GroupedAccumulator(normalizedPrefix, groupingDepth, now),
+                GroupedAccumulator::add,
+                GroupedAccumulator::merge
+        );
+        NavigableMap<String, PrefixStats> groups = new TreeMap<>(BlobKeys.ORDER);
+        result.groups.forEach((group, accumulator) -> groups.put(group, new PrefixStats(group, accumulator)));
+        return new BucketStats(
+                bucketName,
+                normalizedPrefix,
+                groupingDepth,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneOffset.UTC),
+                new PrefixStats(normalizedPrefix, result.total),
+                Collections.unmodifiableNavigableMap(groups)
+        );
+    }
+
+    /**
+     * Computes the statistics on a virtual thread, waiting for each listing page in turn.
+     */
+    public static CompletableFuture<BucketStats> collectAsync(
+            Function<PageRequest, CompletableFuture<ListingPage<BlobSummary>>> pageLoader,
+            String bucketName,
+            String prefix,
+            int groupingDepth,
+            boolean splittable,
+            ParallelListingOptions options
+    ) {
+        CompletableFuture<BucketStats> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("ubsa-bucket-stats").start(() -> {
+            try {
+                result.complete(collect(request -> await(pageLoader.apply(request)), bucketName, prefix, groupingDepth,
+                        splittable, options));
+            } catch (Throwable error) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UbsaException("Listing request failed.", error.getCause() == null ? error : error.getCause());
+        }
+    }
+
+    /**
+     * Accumulators of one listing thread. Keys of a range arrive in order, so consecutive summaries usually share a
+     * group and the group of the previous one is checked before the map is consulted.
+     */
+    private static final class GroupedAccumulator {
+        private final String prefix;
+        private final int groupingDepth;
+        private final long now;
+        private final StatsAccumulator total = new StatsAccumulator();
+        private final Map<String, StatsAccumulator> groups = new HashMap<>();
+        private String lastGroup;
+        private StatsAccumulator lastGroupAccumulator;
+
+        private GroupedAccumulator(String prefix, int groupingDepth, long now) {
+            this.prefix = prefix;
+            this.groupingDepth = groupingDepth;
+            this.now = now;
+        }
+
+        private void add(BlobSummary summary) {
+            long size = summary.getSize();
+            long lastModifiedEpochMillis = summary.lastModifiedEpochMillis();
+            total.add(size, lastModifiedEpochMillis, now);
+            if (groupingDepth > 0) {
+                groupOf(summary.getKey()).add(size, lastModifiedEpochMillis, now);
+            }
+        }
+
+        private StatsAccumulator groupOf(String key) {
+            int end = prefix.length();
+            for (int depth = 0; depth < groupingDepth; depth++) {
+                int slash = key.indexOf('/', end);
+                if (slash < 0) {
+                    break;
+                }
+                end = slash + 1;
+            }
+            if (lastGroup != null && lastGroup.length() == end && key.startsWith(lastGroup)) {
+                return lastGroupAccumulator;
+            }
+            lastGroup = key.substring(0, end);
+            lastGroupAccumulator = groups.computeIfAbsent(lastGroup, ignored -> new StatsAccumulator());
+            return lastGroupAccumulator;
+        }
+
+        private GroupedAccumulator merge(GroupedAccumulator other) {
+            total.merge(other.total);
+            other.groups.forEach((group, accumulator) -> groups.merge(group, accumulator, (left, right) -> {
+                left.merge(right);
+                return left;
+            }));
+            return this;
+        }
+    }
+}
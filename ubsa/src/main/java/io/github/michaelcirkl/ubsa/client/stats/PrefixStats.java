@@ -0,0 +1,140 @@
+package io.github.michaelcirkl.ubsa.client.stats;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Object count, byte totals and size and age distributions of the blobs below one prefix.
+ *
+ * <p>Both histograms have 64 base-2 logarithmic buckets. Bucket 0 of the size histogram counts empty blobs and
+ * bucket {@code i} counts sizes in {@code [2^(i-1), 2^i)} bytes. The age histogram works the same way on whole hours
+ * before {@link BucketStats#getComputedAt()}: bucket 0 counts blobs modified less than an hour before, bucket
+ * {@code i} ages in {@code [2^(i-1), 2^i)} hours. Blobs without a last-modified time are only counted by
+ * {@link #getUndatedCount()}.
+ */
+public final class PrefixStats {
+    private final String prefix;
+    private final long objectCount;
+    private final long totalBytes;
+    private final long minSize;
+    private final long maxSize;
+    private final long undatedCount;
+    private final LocalDateTime oldestLastModified;
+    private final LocalDateTime newestLastModified;
+    private final long[] sizeHistogram;
+    private final long[] ageHistogram;
+
+    PrefixStats(String prefix, StatsAccumulator accumulator) {
+        this.prefix = prefix;
+        this.objectCount = accumulator.objectCount;
+        this.totalBytes = accumulator.totalBytes;
+        this.minSize = accumulator.objectCount == 0 ? -1 : accumulator.minSize;
+        this.maxSize = accumulator.maxSize;
+        this.undatedCount = accumulator.undatedCount;
+        boolean dated = accumulator.objectCount > accumulator.undatedCount;
+        this.oldestLastModified = dated ? toDateTime(accumulator.oldestEpochMillis) : null;
+        this.newestLastModified = dated ? toDateTime(accumulator.newestEpochMillis) : null;
+        this.sizeHistogram = accumulator.sizeHistogram.clone();
+        this.ageHistogram = accumulator.ageHistogram.clone();
+    }
+
+    /**
+     * Returns the prefix the statistics cover.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public long getObjectCount() {
+        return objectCount;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the size of the smallest blob, or {@code -1} if there are none.
+     */
+    public long getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the size of the largest blob, or {@code -1} if there are none.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the mean blob size, or 0 if there are no blobs.
+     */
+    public double getAverageSize() {
+        return objectCount == 0 ? 0 : (double) totalBytes / objectCount;
+    }
+
+    /**
+     * Returns the number of blobs without a last-modified time.
+     */
+    public long getUndatedCount() {
+        return undatedCount;
+    }
+
+    /**
+     * Returns the earliest last-modified time in UTC, or {@code null} if no blob has one.
+     */
+    public LocalDateTime getOldestLastModified() {
+        return oldestLastModified;
+    }
+
+    /**
+     * Returns the latest last-modified time in UTC, or {@code null} if no blob has one.
+     */
+    public LocalDateTime getNewestLastModified() {
+        return newestLastModified;
+    }
+
+    /**
+     * Returns a copy of the size histogram described in the class documentation.
+     */
+    public long[] getSizeHistogram() {
+        return sizeHistogram.clone();
+    }
+
+    /**
+     * Returns a copy of the age histogram described in the class documentation.
+     */
+    public long[] getAgeHistogram() {
+        return ageHistogram.clone();
+    }
+
+    /**
+     * Returns an upper bound for the given size percentile, between 0 and 100: the upper end of the histogram bucket
+     * the percentile falls into, capped at the largest size. The bound is at most twice the exact percentile. Returns
+     * {@code -1} if there are no blobs.
+     */
+    public long approximateSizePercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        if (objectCount == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(objectCount * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < sizeHistogram.length; bucket++) {
+            seen += sizeHistogram[bucket];
+            if (seen >= rank) {
+                long upperBound = bucket == 0 ? 0 : bucket == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+                return Math.min(upperBound, maxSize);
+            }
+        }
+        return maxSize;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
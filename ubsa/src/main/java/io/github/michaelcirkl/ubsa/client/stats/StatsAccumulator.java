@@ -0,0 +1,60 @@
+package io.github.michaelcirkl.ubsa.client.stats;
+
+/**
+ * Mutable counters for one group of blobs. Sizes and ages are counted in base-2 logarithmic buckets, so an
+ * accumulator has a fixed size however many blobs it has seen.
+ */
+final class StatsAccumulator {
+    static final int BUCKETS = Long.SIZE;
+    private static final long MILLIS_PER_HOUR = 3_600_000;
+
+    long objectCount;
+    long totalBytes;
+    long minSize = Long.MAX_VALUE;
+    long maxSize = -1;
+    long undatedCount;
+    long oldestEpochMillis = Long.MAX_VALUE;
+    long newestEpochMillis = Long.MIN_VALUE;
+    final long[] sizeHistogram = new long[BUCKETS];
+    final long[] ageHistogram = new long[BUCKETS];
+
+    /**
+     * Counts a blob. Pass {@code -1} as {@code lastModifiedEpochMillis} for a blob without a timestamp.
+     */
+    void add(long size, long lastModifiedEpochMillis, long nowEpochMillis) {
+        long normalizedSize = Math.max(0, size);
+        objectCount++;
+        totalBytes += normalizedSize;
+        minSize = Math.min(minSize, normalizedSize);
+        maxSize = Math.max(maxSize, normalizedSize);
+        sizeHistogram[bucketOf(normalizedSize)]++;
+        if (lastModifiedEpochMillis < 0) {
+            undatedCount++;
+            return;
+        }
+        oldestEpochMillis = Math.min(oldestEpochMillis, lastModifiedEpochMillis);
+        newestEpochMillis = Math.max(newestEpochMillis, lastModifiedEpochMillis);
+        ageHistogram[bucketOf(Math.max(0, nowEpochMillis - lastModifiedEpochMillis) / MILLIS_PER_HOUR)]++;
+    }
+
+    void merge(StatsAccumulator other) {
+        objectCount += other.objectCount;
+        totalBytes += other.totalBytes;
+        minSize = Math.min(minSize, other.minSize);
+        maxSize = Math.max(maxSize, other.maxSize);
+        undatedCount += other.undatedCount;
+        oldestEpochMillis = Math.min(oldestEpochMillis, other.oldestEpochMillis);
+        newestEpochMillis = Math.max(newestEpochMillis, other.newestEpochMillis);
+        for (int i = 0; i < BUCKETS; i++) {
+            sizeHistogram[i] += other.sizeHistogram[i];
+            ageHistogram[i] += other.ageHistogram[i];
+        }
+    }
+
+    /**
+     * Returns 0 for 0 and {@code i} for values in {@code [2^(i-1), 2^i)}.
+     */
+    static int bucketOf(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.michaelcirkl.ubsa.client.streaming;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the elements of a blocking iterator from a virtual thread according to demand.
+ *
+ * <p>Every subscriber gets a new iterator from {@code iterators}. The emitting thread starts on the first request and
+ * waits while there is no demand, so the iterator may block on I/O without holding up the requesting thread.
+ * Iterators that implement {@link AutoCloseable} are closed when they are exhausted, when they fail and when the
+ * subscription is cancelled; cancelling also interrupts the emitting thread.
+ */
+public final class BlockingIteratorPublisher<T> implements Flow.Publisher<T> {
+    private final Supplier<? extends Iterator<? extends T>> iterators;
+    private final String threadName;
+
+    public BlockingIteratorPublisher(Supplier<? extends Iterator<? extends T>> iterators, String threadName) {
+        this.iterators = Objects.requireNonNull(iterators, "iterators must not be null");
+        this.threadName = Objects.requireNonNull(threadName, "threadName must not be null");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        subscriber.onSubscribe(new IteratorSubscription<>(subscriber, iterators.get(), threadName));
+    }
+
+    private static final class IteratorSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> downstream;
+        private final Iterator<? extends T> iterator;
+        private final String threadName;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demandAvailable = lock.newCondition();
+        private long demand;
+        private boolean cancelled;
+        private Thread emitter;
+
+        private IteratorSubscription(Flow.Subscriber<? super T> downstream, Iterator<? extends T> iterator, String threadName) {
+            this.downstream = downstream;
+            this.iterator = iterator;
+            this.threadName = threadName;
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    cancelled = true;
+                } else {
+                    demand = saturatedAdd(demand, n);
+                    if (emitter == null) {
+                        emitter = Thread.ofVirtual().name(threadName).start(this::emit);
+                    }
+                    demandAvailable.signal();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            stop();
+            downstream.onError(new IllegalArgumentException("Demand must be > 0."));
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                demandAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+            stop();
+        }
+
+        private void emit() {
+            try {
+                while (awaitDemand()) {
+                    if (!iterator.hasNext()) {
+                        closeIterator();
+                        if (terminate()) {
+                            downstream.onComplete();
+                        }
+                        return;
+                    }
+                    downstream.onNext(iterator.next());
+                }
+            } catch (Throwable error) {
+                closeIterator();
+                if (terminate()) {
+                    downstream.onError(error);
+                }
+            }
+        }
+
+        private boolean awaitDemand() throws InterruptedException {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled) {
+                    demandAvailable.await();
+                }
+                if (cancelled) {
+                    return false;
+                }
+                demand--;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean terminate() {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return false;
+                }
+                cancelled = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void stop() {
+            closeIterator();
+            Thread current;
+            lock.lock();
+            try {
+                current = emitter;
+            } finally {
+                lock.unlock();
+            }
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+
+        private void closeIterator() {
+            if (iterator instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // Closing only releases resources; the subscriber has been or will be signalled already.
+                }
+            }
+        }
+
+        private static long saturatedAdd(long left, long right) {
+            long result = left + right;
+            if (result < 0) {
+                return Long.MAX_VALUE;
+            }
+            return result;
+        }
+    }
+}
@@ -19,6 +19,52 @@ public final class FlowPublisherBridge {
         };
     }
 
+    public static <T, R> Flow.Publisher<R> map(Flow.Publisher<T> publisher, Function<? super T, ? extends R> mapper) {
+        return downstream -> publisher.subscribe(new Flow.Subscriber<T>() {
+            private Flow.Subscription upstream;
+            private boolean done;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                upstream = subscription;
+                downstream.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(T item) {
+                if (done) {
+                    return;
+                }
+                R mapped;
+                try {
+                    mapped = mapper.apply(item);
+                } catch (Throwable mapperFailure) {
+                    done = true;
+                    upstream.cancel();
+                    downstream.onError(mapperFailure);
+                    return;
+                }
+                downstream.onNext(mapped);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (!done) {
+                    done = true;
+                    downstream.onError(throwable);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                if (!done) {
+                    done = true;
+                    downstream.onComplete();
+                }
+            }
+        });
+    }
+
     public static <T> Flow.Publisher<T> mapErrors(
             Flow.Publisher<T> publisher,
             Function<? super Throwable, ? extends Throwable> errorMapper
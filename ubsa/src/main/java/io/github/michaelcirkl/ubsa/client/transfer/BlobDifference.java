@@ -0,0 +1,77 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+
+/**
+ * A single difference found by {@link BucketDiff}.
+ */
+public final class BlobDifference {
+    public enum Type {
+        /**
+         * The key exists only on side A.
+         */
+        ONLY_IN_A,
+        /**
+         * The key exists only on side B.
+         */
+        ONLY_IN_B,
+        /**
+         * Both sides have the key with different sizes.
+         */
+        SIZE_MISMATCH,
+        /**
+         * Both sides have the key with the same size but different ETags, and the content was not compared.
+         */
+        ETAG_MISMATCH,
+        /**
+         * Both sides have the key with the same size, and comparing the content found different bytes.
+         */
+        CONTENT_MISMATCH
+    }
+
+    private final Type type;
+    private final String key;
+    private final Blob blobA;
+    private final Blob blobB;
+
+    private BlobDifference(Type type, String key, Blob blobA, Blob blobB) {
+        this.type = type;
+        this.key = key;
+        this.blobA = blobA;
+        this.blobB = blobB;
+    }
+
+    public static BlobDifference of(Type type, String key, Blob blobA, Blob blobB) {
+        return new BlobDifference(type, key, blobA, blobB);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the key relative to the compared prefixes.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the listed blob on side A, or {@code null} for {@link Type#ONLY_IN_B}.
+     */
+    public Blob getBlobA() {
+        return blobA;
+    }
+
+    /**
+     * Returns the listed blob on side B, or {@code null} for {@link Type#ONLY_IN_A}.
+     */
+    public Blob getBlobB() {
+        return blobB;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + key;
+    }
+}
@@ -0,0 +1,290 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PagedIterable;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Copies every blob below a prefix from one client to another, typically between two providers.
+ *
+ * <p>The source prefix is listed page by page while earlier blobs are still being copied. Each blob is copied with
+ * {@link CrossClientCopy}: the destination pulls it from a presigned source URL where supported, otherwise it is
+ * streamed from {@code openBlobStream} on the source straight into {@code createBlob} on the destination, so content
+ * is never buffered as a whole. Encoding and user metadata are carried over. Copies run within the concurrency and
+ * in-flight byte limits of the {@link MigrationOptions}.
+ *
+ * <p>Every copy records the source ETag in the {@value #SOURCE_ETAG_METADATA_KEY} user metadata entry. With
+ * {@link MigrationOptions#skipIdentical()}, the destination prefix is listed alongside the source and a blob is
+ * skipped when the destination has a blob of the same size that was copied from the same source ETag, or that carries
+ * the same SHA-256 checksum written by the transfer utilities.
+ *
+ * <p>With a checkpoint file, the key up to which everything has finished is persisted periodically and after the
+ * run; a later run with the same file lists both prefixes starting after that key, so finished keys are not listed
+ * again.
+ */
+public final class BlobMigration {
+    public static final String SOURCE_ETAG_METADATA_KEY = "ubsa_source_etag";
+
+    private BlobMigration() {
+    }
+
+    public static CompletableFuture<MigrationResult> migrate(
+            BlobStorageAsyncClient source,
+            String sourceBucketName,
+            BlobStorageAsyncClient destination,
+            String destinationBucketName,
+            String prefix,
+            MigrationOptions options
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(destination, "destination must not be null");
+        MigrationOptions resolvedOptions = options == null ? MigrationOptions.defaults() : options;
+        String keyPrefix = prefix == null ? "" : prefix;
+        MigrationCheckpoint checkpoint = resolvedOptions.checkpointFile() == null
+                ? null
+                : MigrationCheckpoint.open(resolvedOptions.checkpointFile(), sourceBucketName, destinationBucketName, keyPrefix);
+        Migration migration = new Migration(source, sourceBucketName, destination, destinationBucketName, keyPrefix,
+                resolvedOptions, checkpoint);
+        CompletableFuture<MigrationResult> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("ubsa-migration").start(() -> {
+            try {
+                result.complete(migration.run(result::isDone));
+            } catch (Throwable error) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    private static final class Migration {
+        private final BlobStorageAsyncClient source;
+        private final String sourceBucketName;
+        private final BlobStorageAsyncClient destination;
+        private final String destinationBucketName;
+        private final String prefix;
+        private final MigrationOptions options;
+        private final MigrationCheckpoint checkpoint;
+        private final Semaphore slots;
+        private final ByteBudget budget;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong discoveredCount = new AtomicLong();
+        private final AtomicLong discoveredBytes = new AtomicLong();
+        private final AtomicLong copiedCount = new AtomicLong();
+        private final AtomicLong copiedBytes = new AtomicLong();
+        private final AtomicLong skippedCount = new AtomicLong();
+        private final AtomicLong processedBytes = new AtomicLong();
+        private final ConcurrentLinkedQueue<TransferFailure> failures = new ConcurrentLinkedQueue<>();
+        private volatile boolean listingComplete;
+
+        private Migration(
+                BlobStorageAsyncClient source,
+                String sourceBucketName,
+                BlobStorageAsyncClient destination,
+                String destinationBucketName,
+                String prefix,
+                MigrationOptions options,
+                MigrationCheckpoint checkpoint
+        ) {
+            this.source = source;
+            this.sourceBucketName = sourceBucketName;
+            this.destination = destination;
+            this.destinationBucketName = destinationBucketName;
+            this.prefix = prefix;
+            this.options = options;
+            this.checkpoint = checkpoint;
+            this.slots = new Semaphore(options.maxConcurrency());
+            this.budget = new ByteBudget(options.maxInFlightBytes());
+        }
+
+        private MigrationResult run(BooleanSupplier cancelled) {
+            ProgressReporter reporter = options.progressListener() == null && checkpoint == null
+                    ? null
+                    : ProgressReporter.start(options.progressInterval(), this::report);
+            try {
+                copyAll(cancelled);
+            } finally {
+                if (reporter != null) {
+                    reporter.stop();
+                }
+            }
+            report();
+            return MigrationResult.of(copiedCount.get(), skippedCount.get(), copiedBytes.get(), List.copyOf(failures),
+                    elapsed());
+        }
+
+        private void copyAll(BooleanSupplier cancelled) {
+            String resumeAfter = checkpoint == null ? null : checkpoint.watermark();
+            Iterator<Blob> sourceBlobs = listing(source, sourceBucketName, resumeAfter).iterator();
+            Iterator<Blob> destinationBlobs = options.skipIdentical()
+                    ? listing(destination, destinationBucketName, resumeAfter).iterator()
+                    : null;
+            Blob destinationBlob = null;
+            try {
+                while (sourceBlobs.hasNext() && !cancelled.getAsBoolean()) {
+                    Blob sourceBlob = sourceBlobs.next();
+                    String key = sourceBlob.getKey();
+                    if (key.endsWith("/")) {
+                        continue;
+                    }
+                    discoveredCount.incrementAndGet();
+                    discoveredBytes.addAndGet(sourceBlob.getSize());
+
+                    Blob existing = null;
+                    if (destinationBlobs != null) {
+                        while (destinationBlob == null || BlobKeys.compare(destinationBlob.getKey(), key) < 0) {
+                            if (!destinationBlobs.hasNext()) {
+                                destinationBlob = null;
+                                destinationBlobs = null;
+                                break;
+                            }
+                            destinationBlob = destinationBlobs.next();
+                        }
+                        if (destinationBlob != null && destinationBlob.getKey().equals(key)) {
+                            existing = destinationBlob;
+                        }
+                    }
+
+                    MigrationCheckpoint.Entry entry = checkpoint == null ? null : checkpoint.register(key);
+                    slots.acquire();
+                    long reserved;
+                    try {
+                        reserved = budget.acquire(sourceBlob.getSize());
+                    } catch (InterruptedException interruptedException) {
+                        slots.release();
+                        throw interruptedException;
+                    }
+                    copy(sourceBlob, existing).whenComplete((copied, error) -> {
+                        if (error != null) {
+                            failures.add(TransferFailure.of(
+                                    sourceBucketName + "/" + key,
+                                    key,
+                                    Transfers.toUbsaException(error, "Failed to copy " + key + ".")
+                            ));
+                        } else if (copied) {
+                            copiedCount.incrementAndGet();
+                            copiedBytes.addAndGet(sourceBlob.getSize());
+                        } else {
+                            skippedCount.incrementAndGet();
+                        }
+                        processedBytes.addAndGet(sourceBlob.getSize());
+                        if (entry != null) {
+                            checkpoint.finish(entry, error == null);
+                        }
+                        budget.release(reserved);
+                        slots.release();
+                    });
+                }
+                listingComplete = true;
+                slots.acquire(options.maxConcurrency());
+                slots.release(options.maxConcurrency());
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new UbsaException("Interrupted while migrating " + sourceBucketName + ".", interruptedException);
+            }
+        }
+
+        private CompletableFuture<Boolean> copy(Blob listed, Blob existing) {
+            String key = listed.getKey();
+            return source.getBlobMetadata(sourceBucketName, key).thenCompose(sourceBlob -> {
+                if (existing != null && existing.getSize() == sourceBlob.getSize()) {
+                    return destination.getBlobMetadata(destinationBucketName, key)
+                            .handle((destinationBlob, error) -> error == null && isIdentical(sourceBlob, destinationBlob))
+                            .thenCompose(identical -> identical
+                                    ? CompletableFuture.completedFuture(false)
+                                    : put(sourceBlob));
+                }
+                return put(sourceBlob);
+            });
+        }
+
+        private CompletableFuture<Boolean> put(Blob sourceBlob) {
+            Map<String, String> metadata = new HashMap<>();
+            if (sourceBlob.getUserMetadata() != null) {
+                metadata.putAll(sourceBlob.getUserMetadata());
+            }
+            if (sourceBlob.getEtag() != null) {
+                metadata.put(SOURCE_ETAG_METADATA_KEY, sourceBlob.getEtag());
+            }
+            BlobWriteOptions writeOptions = BlobWriteOptions.builder()
+                    .encoding(sourceBlob.encoding())
+                    .userMetadata(metadata)
+                    .build();
+            return CrossClientCopy.copy(
+                    source,
+                    sourceBucketName,
+                    sourceBlob,
+                    destination,
+                    destinationBucketName,
+                    sourceBlob.getKey(),
+                    writeOptions,
+                    CrossClientCopy.DEFAULT_URL_EXPIRY
+            ).thenApply(etag -> true);
+        }
+
+        private void report() {
+            if (checkpoint != null) {
+                checkpoint.save();
+            }
+            if (options.progressListener() != null) {
+                options.progressListener().accept(progress());
+            }
+        }
+
+        private TransferProgress progress() {
+            return TransferProgress.of(
+                    discoveredCount.get(),
+                    discoveredBytes.get(),
+                    listingComplete,
+                    copiedCount.get(),
+                    skippedCount.get(),
+                    failures.size(),
+                    copiedBytes.get(),
+                    processedBytes.get(),
+                    elapsed()
+            );
+        }
+
+        private Duration elapsed() {
+            return Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+
+        private Iterable<Blob> listing(BlobStorageAsyncClient client, String bucketName, String startAfter) {
+            return new PagedIterable<>(
+                    PageRequest.builder().pageSize(Transfers.LISTING_PAGE_SIZE).startAfter(startAfter).build(),
+                    request -> Transfers.await(client.listBlobs(bucketName, prefix, request))
+            );
+        }
+    }
+
+    private static boolean isIdentical(Blob sourceBlob, Blob destinationBlob) {
+        if (destinationBlob == null || destinationBlob.getSize() != sourceBlob.getSize()) {
+            return false;
+        }
+        Map<String, String> sourceMetadata = sourceBlob.getUserMetadata() == null ? Map.of() : sourceBlob.getUserMetadata();
+        Map<String, String> destinationMetadata = destinationBlob.getUserMetadata() == null
+                ? Map.of()
+                : destinationBlob.getUserMetadata();
+        String copiedFrom = destinationMetadata.get(SOURCE_ETAG_METADATA_KEY);
+        if (copiedFrom != null && copiedFrom.equals(sourceBlob.getEtag())) {
+            return true;
+        }
+        String checksum = sourceMetadata.get(Checksums.SHA256_METADATA_KEY);
+        return checksum != null && checksum.equals(destinationMetadata.get(Checksums.SHA256_METADATA_KEY));
+    }
+}
@@ -0,0 +1,309 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PrefetchingPagedIterable;
+import io.github.michaelcirkl.ubsa.client.streaming.BlockingIteratorPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares the blobs below two prefixes, typically in two buckets on different providers, without loading either
+ * listing into memory.
+ *
+ * <p>Both prefixes are listed page by page, with the next page prefetched, and merge-joined on the key relative to
+ * their prefix. Every provider lists in {@link BlobKeys#ORDER}, so each key is compared once and only the current blob
+ * of each side is held. Keys present on one side only, and keys whose sizes or ETags differ, are published as
+ * {@link BlobDifference}s in key order.
+ *
+ * <p>A blob written by {@link BlobMigration} carries the ETag of its source and matches it even though the
+ * providers' ETags differ. That ETag is stored in user metadata, which S3 listings do not return, so when two blobs
+ * have the same size, different ETags and a side was listed without metadata, that side's metadata is fetched with a
+ * HEAD request before the blobs are compared. Other blobs of the same size with different ETags are reported as ETag
+ * mismatches, or, with
+ * {@link DiffOptions#verifyContent()}, read from both sides in parallel ranges and compared byte by byte. Several
+ * blobs are verified at the same time while their results are still published in key order.
+ */
+public final class BucketDiff {
+    private static final int PREFETCH_PAGES = 1;
+    private static final Executor VERIFIER = task -> Thread.ofVirtual().name("ubsa-bucket-diff-verify").start(task);
+
+    private BucketDiff() {
+    }
+
+    public static Flow.Publisher<BlobDifference> diff(
+            BlobStorageAsyncClient clientA,
+            String bucketA,
+            String prefixA,
+            BlobStorageAsyncClient clientB,
+            String bucketB,
+            String prefixB
+    ) {
+        return diff(clientA, bucketA, prefixA, clientB, bucketB, prefixB, null);
+    }
+
+    /**
+     * Returns a publisher that compares the two prefixes anew for every subscriber. Options default when
+     * {@code null}. Cancelling the subscription stops both listings and any content verification.
+     */
+    public static Flow.Publisher<BlobDifference> diff(
+            BlobStorageAsyncClient clientA,
+            String bucketA,
+            String prefixA,
+            BlobStorageAsyncClient clientB,
+            String bucketB,
+            String prefixB,
+            DiffOptions options
+    ) {
+        Side a = new Side(Objects.requireNonNull(clientA, "clientA must not be null"), bucketA, prefixA);
+        Side b = new Side(Objects.requireNonNull(clientB, "clientB must not be null"), bucketB, prefixB);
+        DiffOptions resolvedOptions = options == null ? DiffOptions.defaults() : options;
+        return new BlockingIteratorPublisher<>(() -> new DiffIterator(a, b, resolvedOptions), "ubsa-bucket-diff");
+    }
+
+    private record Side(BlobStorageAsyncClient client, String bucketName, String prefix) {
+        private Side {
+            prefix = prefix == null ? "" : prefix;
+        }
+
+        private Iterator<Blob> list(int pageSize) {
+            return new PrefetchingPagedIterable<>(
+                    PageRequest.builder().pageSize(pageSize).build(),
+                    request -> Transfers.await(client.listBlobs(bucketName, prefix, request)),
+                    PREFETCH_PAGES
+            ).iterator();
+        }
+
+        private String relativeKey(Blob blob) {
+            return blob.getKey().substring(prefix.length());
+        }
+
+        /**
+         * Returns {@code blob}, or the blob as returned by a HEAD request when it was listed without user metadata.
+         */
+        private CompletableFuture<Blob> withMetadata(Blob blob) {
+            return blob.getUserMetadata() != null
+                    ? CompletableFuture.completedFuture(blob)
+                    : client.getBlobMetadata(bucketName, blob.getKey());
+        }
+    }
+
+    /**
+     * Merge-joins the two listings. Differences are queued as futures in key order; a queued difference is either
+     * already known or waits for content verification. Up to {@code maxConcurrency} differences are queued, so
+     * verifications of later blobs overlap with earlier ones.
+     */
+    private static final class DiffIterator implements Iterator<BlobDifference>, AutoCloseable {
+        private final Side a;
+        private final Side b;
+        private final DiffOptions options;
+        private final Iterator<Blob> blobsA;
+        private final Iterator<Blob> blobsB;
+        private final Queue<CompletableFuture<BlobDifference>> pending = new ConcurrentLinkedQueue<>();
+        private final Semaphore readSlots;
+        private Blob headA;
+        private Blob headB;
+        private BlobDifference next;
+        private volatile boolean closed;
+
+        private DiffIterator(Side a, Side b, DiffOptions options) {
+            this.a = a;
+            this.b = b;
+            this.options = options;
+            this.blobsA = a.list(options.pageSize());
+            this.blobsB = b.list(options.pageSize());
+            this.readSlots = new Semaphore(options.maxConcurrency());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                boolean oldestKnown = !pending.isEmpty() && pending.peek().isDone();
+                if (!oldestKnown && pending.size() < options.maxConcurrency() && joinNext()) {
+                    continue;
+                }
+                CompletableFuture<BlobDifference> oldest = pending.poll();
+                if (oldest == null) {
+                    return false;
+                }
+                next = Transfers.await(oldest);
+            }
+            return true;
+        }
+
+        @Override
+        public BlobDifference next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more differences.");
+            }
+            BlobDifference difference = next;
+            next = null;
+            return difference;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            closeQuietly(blobsA);
+            closeQuietly(blobsB);
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        /**
+         * Compares the next key of either side and queues a difference if there is one. Returns {@code false} when
+         * both listings are exhausted.
+         */
+        private boolean joinNext() {
+            if (headA == null && blobsA.hasNext()) {
+                headA = blobsA.next();
+            }
+            if (headB == null && blobsB.hasNext()) {
+                headB = blobsB.next();
+            }
+            if (headA == null && headB == null) {
+                return false;
+            }
+            int order = headA == null ? 1 : headB == null ? -1 : BlobKeys.compare(a.relativeKey(headA), b.relativeKey(headB));
+            if (order < 0) {
+                pending.add(CompletableFuture.completedFuture(
+                        BlobDifference.of(BlobDifference.Type.ONLY_IN_A, a.relativeKey(headA), headA, null)));
+                headA = null;
+            } else if (order > 0) {
+                pending.add(CompletableFuture.completedFuture(
+                        BlobDifference.of(BlobDifference.Type.ONLY_IN_B, b.relativeKey(headB), null, headB)));
+                headB = null;
+            } else {
+                CompletableFuture<BlobDifference> difference = compare(a.relativeKey(headA), headA, headB);
+                if (difference != null) {
+                    pending.add(difference);
+                }
+                headA = null;
+                headB = null;
+            }
+            return true;
+        }
+
+        private CompletableFuture<BlobDifference> compare(String key, Blob blobA, Blob blobB) {
+            if (blobA.getSize() != blobB.getSize()) {
+                return CompletableFuture.completedFuture(
+                        BlobDifference.of(BlobDifference.Type.SIZE_MISMATCH, key, blobA, blobB));
+            }
+            if (sameVersion(blobA, blobB)) {
+                return null;
+            }
+            if (blobA.getUserMetadata() == null || blobB.getUserMetadata() == null) {
+                // Verification blocks on read slots, so it continues on its own thread rather than a client callback.
+                return a.withMetadata(blobA)
+                        .thenCombine(b.withMetadata(blobB), DiffIterator::sameVersion)
+                        .thenComposeAsync(same -> same
+                                ? CompletableFuture.completedFuture(null)
+                                : mismatch(key, blobA, blobB), VERIFIER);
+            }
+            return mismatch(key, blobA, blobB);
+        }
+
+        /**
+         * Reports two blobs of the same size but of different versions, after comparing their content if configured.
+         */
+        private CompletableFuture<BlobDifference> mismatch(String key, Blob blobA, Blob blobB) {
+            if (!options.verifyContent()) {
+                return CompletableFuture.completedFuture(
+                        BlobDifference.of(BlobDifference.Type.ETAG_MISMATCH, key, blobA, blobB));
+            }
+            return verify(blobA, blobB).thenApply(identical -> identical
+                    ? null
+                    : BlobDifference.of(BlobDifference.Type.CONTENT_MISMATCH, key, blobA, blobB));
+        }
+
+        /**
+         * Reads both blobs in ranges and compares them. Every range pair takes two read slots, so issuing ranges
+         * blocks while {@code maxConcurrency} reads are in flight. No further ranges are read once one differs.
+         */
+        private CompletableFuture<Boolean> verify(Blob blobA, Blob blobB) {
+            long size = blobA.getSize();
+            AtomicBoolean differs = new AtomicBoolean();
+            List<CompletableFuture<Boolean>> ranges = new ArrayList<>();
+            for (long start = 0; start < size && !differs.get() && !closed; start += options.rangeSize()) {
+                long end = Math.min(size, start + options.rangeSize()) - 1;
+                try {
+                    readSlots.acquire(2);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new UbsaException("Interrupted while comparing " + blobA.getKey() + ".", interruptedException);
+                }
+                CompletableFuture<Boolean> equal;
+                try {
+                    equal = a.client().getByteRange(a.bucketName(), blobA.getKey(), start, end)
+                            .thenCombine(b.client().getByteRange(b.bucketName(), blobB.getKey(), start, end), Arrays::equals);
+                } catch (RuntimeException error) {
+                    readSlots.release(2);
+                    throw error;
+                }
+                equal.whenComplete((identical, error) -> {
+                    readSlots.release(2);
+                    if (Boolean.FALSE.equals(identical)) {
+                        differs.set(true);
+                    }
+                });
+                ranges.add(equal);
+            }
+            return CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> !differs.get());
+        }
+
+        private static boolean sameVersion(Blob blobA, Blob blobB) {
+            String etagA = normalizeEtag(blobA.getEtag());
+            String etagB = normalizeEtag(blobB.getEtag());
+            if (etagA != null && etagA.equals(etagB)) {
+                return true;
+            }
+            return etagA != null && etagA.equals(normalizeEtag(sourceEtag(blobB)))
+                    || etagB != null && etagB.equals(normalizeEtag(sourceEtag(blobA)));
+        }
+
+        private static String sourceEtag(Blob blob) {
+            Map<String, String> metadata = blob.getUserMetadata();
+            return metadata == null ? null : metadata.get(BlobMigration.SOURCE_ETAG_METADATA_KEY);
+        }
+
+        /**
+         * Strips the weak-validator marker and quotes, which providers apply inconsistently.
+         */
+        private static String normalizeEtag(String etag) {
+            if (etag == null) {
+                return null;
+            }
+            String normalized = etag.startsWith("W/") ? etag.substring(2) : etag;
+            if (normalized.length() >= 2 && normalized.startsWith("\"") && normalized.endsWith("\"")) {
+                normalized = normalized.substring(1, normalized.length() - 1);
+            }
+            return normalized.isEmpty() ? null : normalized;
+        }
+
+        private static void closeQuietly(Iterator<Blob> blobs) {
+            if (blobs instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // Prefetching iterators do not throw on close.
+                }
+            }
+        }
+    }
+}
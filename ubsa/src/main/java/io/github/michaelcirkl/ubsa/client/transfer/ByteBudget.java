@@ -0,0 +1,32 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+/**
+ * Limits the combined size of concurrently transferred items.
+ *
+ * <p>An item larger than the whole budget is admitted once nothing else is in flight, so it never deadlocks.
+ */
+final class ByteBudget {
+    private final long capacity;
+    private long used;
+
+    ByteBudget(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Blocks until {@code bytes} fit into the budget and returns the amount that must later be released.
+     */
+    synchronized long acquire(long bytes) throws InterruptedException {
+        long reserved = Math.min(Math.max(0L, bytes), capacity);
+        while (used > 0 && used + reserved > capacity) {
+            wait();
+        }
+        used += reserved;
+        return reserved;
+    }
+
+    synchronized void release(long reserved) {
+        used -= reserved;
+        notifyAll();
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.exception.types.CopySourceUnreachableException;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Copies a single blob between two clients, server-side where the providers allow it.
+ *
+ * <p>When both sides are the same client, the provider's native {@code copyBlob} is used. Otherwise, when the
+ * destination {@linkplain BlobStorageAsyncClient#supportsCreateBlobFromUrl() can ingest from a URL}, a short-lived
+ * presigned GET URL is generated on the source and the destination service pulls the content itself, in parallel
+ * blocks for large blobs. In every other case the content is streamed from {@code openBlobStream} on the source into
+ * {@code createBlob} on the destination. Encoding and user metadata are carried over in all cases.
+ *
+ * <p>The copy also falls back to streaming when the source cannot presign URLs with its credentials, when the
+ * destination turns out not to support URL ingestion, or when the destination service cannot reach the presigned URL.
+ * Any other failure, such as a missing destination bucket or rejected credentials, fails the copy.
+ */
+public final class CrossClientCopy {
+    public static final Duration DEFAULT_URL_EXPIRY = Duration.ofHours(1);
+
+    private CrossClientCopy() {
+    }
+
+    public static CompletableFuture<String> copyBlobAcrossClients(
+            BlobStorageAsyncClient source,
+            String sourceBucketName,
+            String sourceBlobKey,
+            BlobStorageAsyncClient destination,
+            String destinationBucketName,
+            String destinationBlobKey
+    ) {
+        return copyBlobAcrossClients(source, sourceBucketName, sourceBlobKey, destination, destinationBucketName,
+                destinationBlobKey, DEFAULT_URL_EXPIRY);
+    }
+
+    /**
+     * Copies a blob and returns the ETag of the new blob when the provider exposes one.
+     *
+     * @param urlExpiry how long the presigned source URL stays valid; it must cover the whole server-side pull
+     */
+    public static CompletableFuture<String> copyBlobAcrossClients(
+            BlobStorageAsyncClient source,
+            String sourceBucketName,
+            String sourceBlobKey,
+            BlobStorageAsyncClient destination,
+            String destinationBucketName,
+            String destinationBlobKey,
+            Duration urlExpiry
+    ) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(destination, "destination must not be null");
+        if (source == destination) {
+            return source.copyBlob(sourceBucketName, sourceBlobKey, destinationBucketName, destinationBlobKey);
+        }
+        return source.getBlobMetadata(sourceBucketName, sourceBlobKey).thenCompose(sourceBlob -> copy(
+                source,
+                sourceBucketName,
+                sourceBlob,
+                destination,
+                destinationBucketName,
+                destinationBlobKey,
+                BlobWriteOptions.builder()
+                        .encoding(sourceBlob.encoding())
+                        .userMetadata(sourceBlob.getUserMetadata())
+                        .build(),
+                urlExpiry
+        ));
+    }
+
+    /**
+     * Copies content of {@code sourceBlob}, whose metadata has already been fetched, writing it with
+     * {@code writeOptions}.
+     */
+    static CompletableFuture<String> copy(
+            BlobStorageAsyncClient source,
+            String sourceBucketName,
+            Blob sourceBlob,
+            BlobStorageAsyncClient destination,
+            String destinationBucketName,
+            String destinationBlobKey,
+            BlobWriteOptions writeOptions,
+            Duration urlExpiry
+    ) {
+        if (!destination.supportsCreateBlobFromUrl()) {
+            return stream(source, sourceBucketName, sourceBlob, destination, destinationBucketName, destinationBlobKey, writeOptions);
+        }
+        URL sourceUrl;
+        try {
+            sourceUrl = source.generateGetUrl(sourceBucketName, sourceBlob.getKey(), urlExpiry);
+        } catch (RuntimeException error) {
+            if (!isPresigningUnavailable(error)) {
+                return CompletableFuture.failedFuture(error);
+            }
+            return stream(source, sourceBucketName, sourceBlob, destination, destinationBucketName, destinationBlobKey, writeOptions);
+        }
+        return destination.createBlobFromUrl(destinationBucketName, destinationBlobKey, sourceUrl, sourceBlob.getSize(), writeOptions)
+                .exceptionallyCompose(error -> isUrlIngestionUnavailable(error)
+                        ? stream(source, sourceBucketName, sourceBlob, destination, destinationBucketName,
+                                destinationBlobKey, writeOptions)
+                        : CompletableFuture.failedFuture(error));
+    }
+
+    /**
+     * Returns whether presigning failed because the source cannot sign URLs at all, e.g. a Cloud Storage client
+     * without service account credentials, rather than because the request was invalid.
+     */
+    private static boolean isPresigningUnavailable(Throwable error) {
+        Throwable cause = error instanceof UbsaException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof UnsupportedOperationException || cause instanceof IllegalStateException;
+    }
+
+    private static boolean isUrlIngestionUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof UnsupportedOperationException || cause instanceof CopySourceUnreachableException;
+    }
+
+    private static CompletableFuture<String> stream(
+            BlobStorageAsyncClient source,
+            String sourceBucketName,
+            Blob sourceBlob,
+            BlobStorageAsyncClient destination,
+            String destinationBucketName,
+            String destinationBlobKey,
+            BlobWriteOptions writeOptions
+    ) {
+        return destination.createBlob(
+                destinationBucketName,
+                destinationBlobKey,
+                source.openBlobStream(sourceBucketName, sourceBlob.getKey()),
+                sourceBlob.getSize(),
+                writeOptions
+        );
+    }
+}
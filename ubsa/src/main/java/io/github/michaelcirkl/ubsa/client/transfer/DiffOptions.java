@@ -0,0 +1,114 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+/**
+ * Settings for {@link BucketDiff}.
+ */
+public final class DiffOptions {
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int DEFAULT_MAX_CONCURRENCY = 16;
+    private static final long DEFAULT_RANGE_SIZE = 8L * 1024 * 1024;
+
+    private final int pageSize;
+    private final boolean verifyContent;
+    private final int maxConcurrency;
+    private final long rangeSize;
+
+    private DiffOptions(Builder builder) {
+        this.pageSize = builder.pageSize;
+        this.verifyContent = builder.verifyContent;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.rangeSize = builder.rangeSize;
+    }
+
+    public static DiffOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the page size requested for both listings.
+     */
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns whether blobs of the same size with different ETags are compared byte by byte.
+     */
+    public boolean verifyContent() {
+        return verifyContent;
+    }
+
+    /**
+     * Returns the maximum number of ranged reads in flight, counting both sides, while content is verified.
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the size of the ranges in which content is read and compared.
+     */
+    public long rangeSize() {
+        return rangeSize;
+    }
+
+    public static class Builder {
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private boolean verifyContent;
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private long rangeSize = DEFAULT_RANGE_SIZE;
+
+        /**
+         * Sets the page size requested for both listings. Defaults to 1000.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Sets whether blobs of the same size with different ETags are compared byte by byte instead of being reported
+         * as {@link BlobDifference.Type#ETAG_MISMATCH}. ETags of different providers, and of multipart uploads, rarely
+         * agree for identical content. Defaults to {@code false}.
+         */
+        public Builder verifyContent(boolean verifyContent) {
+            this.verifyContent = verifyContent;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of ranged reads in flight, counting both sides, while content is verified. Defaults
+         * to 16.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the size of the ranges in which content is read and compared. At most {@code maxConcurrency} ranges are
+         * held in memory. Defaults to 8 MiB.
+         */
+        public Builder rangeSize(long rangeSize) {
+            this.rangeSize = rangeSize;
+            return this;
+        }
+
+        public DiffOptions build() {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be greater than 0.");
+            }
+            if (maxConcurrency < 2) {
+                throw new IllegalArgumentException("Max concurrency must be at least 2.");
+            }
+            if (rangeSize <= 0 || rangeSize > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Range size must be greater than 0 and fit in a byte array.");
+            }
+            return new DiffOptions(this);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.BlobKeys;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * One-way synchronization between a local directory and a bucket prefix, in the style of {@code rsync}.
+ *
+ * <p>The remote prefix is streamed page by page and merge-joined against the local files sorted in
+ * {@link BlobKeys#ORDER}, so memory use is bounded by the local file list rather than the size of the prefix. A file
+ * is considered changed when its size differs or the source side is newer than the destination side; with
+ * {@link SyncOptions#verifyChecksums()} files that pass this check are also compared by the SHA-256 checksum stored
+ * in the {@value Checksums#SHA256_METADATA_KEY} user metadata entry. Only the resulting actions are executed, in
+ * parallel on virtual threads; a dry run returns the plan without executing it.
+ *
+ * <p>Uploaded blobs store their checksum and the file's last modified time in user metadata, and downloaded files get
+ * the blob's last modified time, so that a later sync in either direction sees them as unchanged. An uploaded blob is
+ * always newer than its source file; when downloading, a blob that is newer but has the same size is therefore only
+ * considered changed if its recorded {@value #MODIFIED_METADATA_KEY} differs from the local file's. The entry is read
+ * from the listing where the provider includes metadata, and with one metadata request otherwise.
+ */
+public final class DirectorySync {
+    static final String MODIFIED_METADATA_KEY = "ubsa_mtime";
+    private static final String TEMP_FILE_PREFIX = ".ubsa-sync-";
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private DirectorySync() {
+    }
+
+    public static SyncReport sync(
+            BlobStorageSyncClient client,
+            Path localDir,
+            String bucketName,
+            String prefix,
+            SyncDirection direction,
+            SyncOptions options
+    ) {
+        if (direction == null) {
+            throw new IllegalArgumentException("Sync direction must not be null.");
+        }
+        if (localDir == null) {
+            throw new IllegalArgumentException("Local directory must not be null.");
+        }
+        if (direction == SyncDirection.UPLOAD && !Files.isDirectory(localDir)) {
+            throw new IllegalArgumentException("Local directory must exist when uploading.");
+        }
+        SyncOptions resolvedOptions = options == null ? SyncOptions.defaults() : options;
+        String keyPrefix = Transfers.normalizePrefix(prefix);
+        Path root = localDir.toAbsolutePath().normalize();
+
+        List<Planned> plan = plan(client, root, bucketName, keyPrefix, direction, resolvedOptions);
+        List<SyncAction> actions = plan.stream().map(Planned::action).toList();
+        if (resolvedOptions.dryRun()) {
+            return SyncReport.of(true, actions, 0, 0, List.of());
+        }
+        return execute(client, bucketName, plan, resolvedOptions, actions);
+    }
+
+    private static List<Planned> plan(
+            BlobStorageSyncClient client,
+            Path root,
+            String bucketName,
+            String keyPrefix,
+            SyncDirection direction,
+            SyncOptions options
+    ) {
+        List<LocalFile> localFiles = walk(root);
+        Iterator<LocalFile> locals = localFiles.iterator();
+        Iterator<Blob> remotes = client.iterateBlobs(bucketName, keyPrefix, Transfers.LISTING_PAGE_SIZE).iterator();
+
+        List<Planned> plan = new ArrayList<>();
+        List<Candidate> toVerify = new ArrayList<>();
+        LocalFile local = locals.hasNext() ? locals.next() : null;
+        Blob remote = nextRemote(remotes, keyPrefix, null);
+        while (local != null || remote != null) {
+            String remoteRelative = remote == null ? null : remote.getKey().substring(keyPrefix.length());
+            int order = local == null ? 1 : remote == null ? -1 : BlobKeys.compare(local.relativeKey(), remoteRelative);
+            if (order < 0) {
+                if (direction == SyncDirection.UPLOAD) {
+                    plan.add(upload(keyPrefix, local, null));
+                } else if (options.deleteExtraneous()) {
+                    plan.add(new Planned(SyncAction.of(SyncAction.Type.DELETE_LOCAL,
+                            keyPrefix + local.relativeKey(), local.path(), local.size()), null));
+                }
+                local = locals.hasNext() ? locals.next() : null;
+            } else if (order > 0) {
+                if (direction == SyncDirection.DOWNLOAD) {
+                    plan.add(download(root, remote, remoteRelative));
+                } else if (options.deleteExtraneous()) {
+                    plan.add(new Planned(SyncAction.of(SyncAction.Type.DELETE_REMOTE,
+                            remote.getKey(), null, remote.getSize()), remote));
+                }
+                remote = nextRemote(remotes, keyPrefix, remote);
+            } else {
+                Planned planned = direction == SyncDirection.UPLOAD
+                        ? upload(keyPrefix, local, remote)
+                        : download(root, remote, remoteRelative);
+                Change change = compare(local, remote, direction);
+                if (change == Change.CHANGED) {
+                    plan.add(planned);
+                } else if (change == Change.UNKNOWN || options.verifyChecksums()) {
+                    toVerify.add(new Candidate(planned, local, change == Change.UNKNOWN));
+                }
+                local = locals.hasNext() ? locals.next() : null;
+                remote = nextRemote(remotes, keyPrefix, remote);
+            }
+        }
+        if (!toVerify.isEmpty()) {
+            plan.addAll(mismatches(client, bucketName, toVerify, options));
+            plan.sort((left, right) -> BlobKeys.compare(left.action().getBlobKey(), right.action().getBlobKey()));
+        }
+        return plan;
+    }
+
+    private static Blob nextRemote(Iterator<Blob> remotes, String keyPrefix, Blob previous) {
+        while (remotes.hasNext()) {
+            Blob next = remotes.next();
+            String key = next.getKey();
+            if (key.endsWith("/") || key.length() == keyPrefix.length()) {
+                continue;
+            }
+            if (previous != null && BlobKeys.compare(previous.getKey(), key) >= 0) {
+                throw new UbsaException("Remote listing is not in key order: '" + key + "' after '"
+                        + previous.getKey() + "'.", null);
+            }
+            return next;
+        }
+        return null;
+    }
+
+    private static Change compare(LocalFile local, Blob remote, SyncDirection direction) {
+        if (local.size() != remote.getSize()) {
+            return Change.CHANGED;
+        }
+        Instant remoteModified = toInstant(remote.lastModified());
+        if (remoteModified == null) {
+            return Change.UNCHANGED;
+        }
+        if (direction == SyncDirection.UPLOAD) {
+            return local.modified().isAfter(remoteModified) ? Change.CHANGED : Change.UNCHANGED;
+        }
+        if (!remoteModified.isAfter(local.modified())) {
+            return Change.UNCHANGED;
+        }
+        String recorded = remote.getUserMetadata() == null ? null : remote.getUserMetadata().get(MODIFIED_METADATA_KEY);
+        if (recorded == null) {
+            return Change.UNKNOWN;
+        }
+        return recorded.equals(modifiedValue(local.modified())) ? Change.UNCHANGED : Change.CHANGED;
+    }
+
+    /**
+     * Fetches the metadata of every candidate and returns those whose recorded modification time or checksum does not
+     * match the local file.
+     */
+    private static List<Planned> mismatches(
+            BlobStorageSyncClient client,
+            String bucketName,
+            List<Candidate> candidates,
+            SyncOptions options
+    ) {
+        Semaphore slots = new Semaphore(options.maxConcurrency());
+        List<Future<Boolean>> mismatches = new ArrayList<>(candidates.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Candidate candidate : candidates) {
+                slots.acquire();
+                mismatches.add(executor.submit(() -> {
+                    try {
+                        Blob metadata = client.getBlobMetadata(bucketName, candidate.planned().action().getBlobKey());
+                        Map<String, String> userMetadata = metadata.getUserMetadata() == null
+                                ? Map.of()
+                                : metadata.getUserMetadata();
+                        if (candidate.checkRecordedModified() && !modifiedValue(candidate.local().modified())
+                                .equals(userMetadata.get(MODIFIED_METADATA_KEY))) {
+                            return true;
+                        }
+                        return options.verifyChecksums() && !Checksums.sha256Hex(candidate.local().path())
+                                .equals(userMetadata.get(Checksums.SHA256_METADATA_KEY));
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+            List<Planned> changed = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (mismatches.get(i).get()) {
+                    changed.add(candidates.get(i).planned());
+                }
+            }
+            return changed;
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new UbsaException("Interrupted while comparing blob metadata.", interruptedException);
+        } catch (ExecutionException error) {
+            throw Transfers.toUbsaException(error, "Failed to compare blob metadata.");
+        }
+    }
+
+    private static SyncReport execute(
+            BlobStorageSyncClient client,
+            String bucketName,
+            List<Planned> plan,
+            SyncOptions options,
+            List<SyncAction> actions
+    ) {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong transferredBytes = new AtomicLong();
+        ConcurrentLinkedQueue<TransferFailure> failures = new ConcurrentLinkedQueue<>();
+        List<Planned> remoteDeletes = new ArrayList<>();
+        Semaphore slots = new Semaphore(options.maxConcurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Planned planned : plan) {
+                if (planned.action().getType() == SyncAction.Type.DELETE_REMOTE) {
+                    remoteDeletes.add(planned);
+                    continue;
+                }
+                slots.acquire();
+                executor.execute(() -> {
+                    SyncAction action = planned.action();
+                    try {
+                        switch (action.getType()) {
+                            case UPLOAD -> uploadFile(client, bucketName, action);
+                            case DOWNLOAD -> downloadFile(client, bucketName, action, planned.remote());
+                            case DELETE_LOCAL -> Files.deleteIfExists(action.getLocalPath());
+                            default -> throw new IllegalStateException("Unexpected action " + action.getType());
+                        }
+                        completed.incrementAndGet();
+                        if (action.getType() != SyncAction.Type.DELETE_LOCAL) {
+                            transferredBytes.addAndGet(action.getSize());
+                        }
+                    } catch (Throwable error) {
+                        failures.add(failure(action, error));
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+            if (!remoteDeletes.isEmpty()) {
+                deleteRemote(client, bucketName, remoteDeletes, completed, failures);
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new UbsaException("Interrupted while synchronizing.", interruptedException);
+        }
+        return SyncReport.of(false, actions, completed.get(), transferredBytes.get(), List.copyOf(failures));
+    }
+
+    private static void uploadFile(BlobStorageSyncClient client, String bucketName, SyncAction action) throws IOException {
+        Instant modified = Files.getLastModifiedTime(action.getLocalPath()).toInstant();
+        String checksum = Checksums.sha256Hex(action.getLocalPath());
+        BlobWriteOptions writeOptions = BlobWriteOptions.builder()
+                .userMetadata(Map.of(
+                        Checksums.SHA256_METADATA_KEY, checksum,
+                        MODIFIED_METADATA_KEY, modifiedValue(modified)
+                ))
+                .build();
+        client.createBlob(bucketName, action.getBlobKey(), action.getLocalPath(), writeOptions);
+    }
+
+    private static void downloadFile(
+            BlobStorageSyncClient client,
+            String bucketName,
+            SyncAction action,
+            Blob remote
+    ) throws IOException {
+        Path target = action.getLocalPath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        try {
+            try (InputStream content = client.openBlobStream(bucketName, action.getBlobKey())) {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Instant remoteModified = toInstant(remote.lastModified());
+            if (remoteModified != null) {
+                Files.setLastModifiedTime(temp, FileTime.from(remoteModified));
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void deleteRemote(
+            BlobStorageSyncClient client,
+            String bucketName,
+            List<Planned> deletes,
+            AtomicLong completed,
+            ConcurrentLinkedQueue<TransferFailure> failures
+    ) {
+        Map<String, SyncAction> byKey = new HashMap<>();
+        for (Planned planned : deletes) {
+            byKey.put(planned.action().getBlobKey(), planned.action());
+        }
+        try {
+            BatchDeleteResult result = client.deleteBlobs(bucketName, byKey.keySet());
+            completed.addAndGet(result.getDeletedCount());
+            for (BulkResult<Void> failure : result.getFailures()) {
+                failures.add(TransferFailure.of(failure.getKey(), failure.getKey(), failure.getError()));
+            }
+        } catch (RuntimeException error) {
+            for (SyncAction action : byKey.values()) {
+                failures.add(failure(action, error));
+            }
+        }
+    }
+
+    private static Planned upload(String keyPrefix, LocalFile local, Blob remote) {
+        return new Planned(SyncAction.of(SyncAction.Type.UPLOAD, keyPrefix + local.relativeKey(), local.path(),
+                local.size()), remote);
+    }
+
+    private static Planned download(Path root, Blob remote, String relativeKey) {
+        Path target = root.resolve(relativeKey).normalize();
+        if (!target.startsWith(root) || target.equals(root)) {
+            throw new UbsaException("Blob key '" + remote.getKey() + "' resolves outside of " + root + ".", null);
+        }
+        return new Planned(SyncAction.of(SyncAction.Type.DOWNLOAD, remote.getKey(), target, remote.getSize()), remote);
+    }
+
+    private static TransferFailure failure(SyncAction action, Throwable error) {
+        String source = action.getType() == SyncAction.Type.UPLOAD || action.getType() == SyncAction.Type.DELETE_LOCAL
+                ? String.valueOf(action.getLocalPath())
+                : action.getBlobKey();
+        return TransferFailure.of(source, action.getBlobKey(),
+                Transfers.toUbsaException(error, "Failed to " + action.getType() + " " + action.getBlobKey() + "."));
+    }
+
+    private static List<LocalFile> walk(Path root) {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(path -> !isPartialDownload(path))
+                    .map(path -> toLocalFile(root, path))
+                    .sorted((left, right) -> BlobKeys.compare(left.relativeKey(), right.relativeKey()))
+                    .toList();
+        } catch (IOException | UncheckedIOException error) {
+            throw Transfers.toUbsaException(error, "Failed to walk directory " + root + ".");
+        }
+    }
+
+    private static boolean isPartialDownload(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(TEMP_FILE_PREFIX) && name.endsWith(TEMP_FILE_SUFFIX);
+    }
+
+    private static LocalFile toLocalFile(Path root, Path path) {
+        try {
+            Path relative = root.relativize(path);
+            String key = relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+            return new LocalFile(key, path, Files.size(path), Files.getLastModifiedTime(path).toInstant());
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime lastModified) {
+        return lastModified == null ? null : lastModified.toInstant(ZoneOffset.UTC);
+    }
+
+    private static String modifiedValue(Instant modified) {
+        return Long.toString(modified.toEpochMilli());
+    }
+
+    private record LocalFile(String relativeKey, Path path, long size, Instant modified) {
+    }
+
+    private record Planned(SyncAction action, Blob remote) {
+    }
+
+    private record Candidate(Planned planned, LocalFile local, boolean checkRecordedModified) {
+    }
+
+    private enum Change {
+        CHANGED,
+        UNCHANGED,
+        /**
+         * The blob is newer than the local file, but it may be the upload of that file; decided by its metadata.
+         */
+        UNKNOWN
+    }
+}
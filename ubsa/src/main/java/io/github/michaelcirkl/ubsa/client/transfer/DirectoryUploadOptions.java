@@ -0,0 +1,110 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+
+/**
+ * Settings for uploading a local directory tree.
+ */
+public final class DirectoryUploadOptions {
+    private static final int DEFAULT_MAX_CONCURRENCY = 16;
+    private static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 256L * 1024 * 1024;
+
+    private final int maxConcurrency;
+    private final long maxInFlightBytes;
+    private final boolean skipUnchanged;
+    private final BlobWriteOptions writeOptions;
+
+    private DirectoryUploadOptions(Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxInFlightBytes = builder.maxInFlightBytes;
+        this.skipUnchanged = builder.skipUnchanged;
+        this.writeOptions = builder.writeOptions;
+    }
+
+    public static DirectoryUploadOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum number of files uploaded at the same time.
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the maximum combined size of the files being uploaded at the same time.
+     *
+     * <p>A file larger than the budget is uploaded on its own.
+     */
+    public long maxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * Returns whether files whose size and SHA-256 checksum match the existing blob are skipped.
+     */
+    public boolean skipUnchanged() {
+        return skipUnchanged;
+    }
+
+    /**
+     * Returns the write options applied to every uploaded blob.
+     */
+    public BlobWriteOptions writeOptions() {
+        return writeOptions;
+    }
+
+    public static class Builder {
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+        private boolean skipUnchanged = true;
+        private BlobWriteOptions writeOptions;
+
+        /**
+         * Sets the maximum number of files uploaded at the same time. Defaults to 16.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum combined size of the files being uploaded at the same time. Defaults to 256 MiB.
+         */
+        public Builder maxInFlightBytes(long maxInFlightBytes) {
+            this.maxInFlightBytes = maxInFlightBytes;
+            return this;
+        }
+
+        /**
+         * Sets whether unchanged files are skipped. Defaults to {@code true}.
+         */
+        public Builder skipUnchanged(boolean skipUnchanged) {
+            this.skipUnchanged = skipUnchanged;
+            return this;
+        }
+
+        /**
+         * Sets the encoding and user metadata applied to every uploaded blob.
+         */
+        public Builder writeOptions(BlobWriteOptions writeOptions) {
+            this.writeOptions = writeOptions;
+            return this;
+        }
+
+        public DirectoryUploadOptions build() {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Max concurrency must be greater than 0.");
+            }
+            if (maxInFlightBytes <= 0) {
+                throw new IllegalArgumentException("Max in-flight bytes must be greater than 0.");
+            }
+            return new DirectoryUploadOptions(this);
+        }
+    }
+}
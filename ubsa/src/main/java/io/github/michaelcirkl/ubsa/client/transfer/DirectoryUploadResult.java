@@ -0,0 +1,64 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.util.List;
+
+/**
+ * Summary of a directory upload.
+ */
+public final class DirectoryUploadResult {
+    private final long uploadedCount;
+    private final long skippedCount;
+    private final long uploadedBytes;
+    private final List<TransferFailure> failures;
+
+    private DirectoryUploadResult(long uploadedCount, long skippedCount, long uploadedBytes, List<TransferFailure> failures) {
+        this.uploadedCount = uploadedCount;
+        this.skippedCount = skippedCount;
+        this.uploadedBytes = uploadedBytes;
+        this.failures = failures == null ? List.of() : List.copyOf(failures);
+    }
+
+    public static DirectoryUploadResult of(long uploadedCount, long skippedCount, long uploadedBytes, List<TransferFailure> failures) {
+        return new DirectoryUploadResult(uploadedCount, skippedCount, uploadedBytes, failures);
+    }
+
+    /**
+     * Returns the number of files that were uploaded.
+     */
+    public long getUploadedCount() {
+        return uploadedCount;
+    }
+
+    /**
+     * Returns the number of files that were skipped because the existing blob already matched.
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Returns the total size of the uploaded files.
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * Returns one entry per file that could not be uploaded.
+     */
+    public List<TransferFailure> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectoryUploadResult{uploadedCount=" + uploadedCount
+                + ", skippedCount=" + skippedCount
+                + ", uploadedBytes=" + uploadedBytes
+                + ", failures=" + failures.size() + "}";
+    }
+}
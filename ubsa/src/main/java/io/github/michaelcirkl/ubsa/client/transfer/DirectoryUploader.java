@@ -0,0 +1,259 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PagedIterable;
+import io.github.michaelcirkl.ubsa.client.streaming.BlobWriteOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Uploads a local directory tree with bounded concurrency and an in-flight byte budget.
+ *
+ * <p>Every uploaded blob stores the SHA-256 checksum of its file in user metadata. When unchanged files are skipped,
+ * the destination prefix is listed once and a metadata request is only made for files whose size matches the existing
+ * blob. Files are uploaded through the client's file upload path, which uses the provider's large-object transfer
+ * where available.
+ */
+public final class DirectoryUploader {
+    private DirectoryUploader() {
+    }
+
+    public static CompletableFuture<DirectoryUploadResult> uploadAsync(
+            BlobStorageAsyncClient client,
+            Path root,
+            String bucketName,
+            String prefix,
+            DirectoryUploadOptions options
+    ) {
+        validateRoot(root);
+        DirectoryUploadOptions resolvedOptions = options == null ? DirectoryUploadOptions.defaults() : options;
+        String keyPrefix = Transfers.normalizePrefix(prefix);
+        Operations operations = new Operations(
+                () -> new PagedIterable<>(
+                        PageRequest.builder().pageSize(Transfers.LISTING_PAGE_SIZE).build(),
+                        request -> Transfers.await(client.listBlobs(bucketName, keyPrefix, request))
+                ),
+                key -> client.getBlobMetadata(bucketName, key),
+                (key, file, writeOptions) -> client.createBlob(bucketName, key, file, writeOptions)
+        );
+        CompletableFuture<DirectoryUploadResult> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("ubsa-directory-upload").start(() -> {
+            try {
+                result.complete(run(root, keyPrefix, resolvedOptions, operations, result::isDone));
+            } catch (Throwable error) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    public static DirectoryUploadResult upload(
+            BlobStorageSyncClient client,
+            Path root,
+            String bucketName,
+            String prefix,
+            DirectoryUploadOptions options
+    ) {
+        validateRoot(root);
+        DirectoryUploadOptions resolvedOptions = options == null ? DirectoryUploadOptions.defaults() : options;
+        String keyPrefix = Transfers.normalizePrefix(prefix);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Operations operations = new Operations(
+                    () -> client.iterateBlobs(bucketName, keyPrefix, Transfers.LISTING_PAGE_SIZE),
+                    key -> CompletableFuture.supplyAsync(() -> client.getBlobMetadata(bucketName, key), executor),
+                    (key, file, writeOptions) -> CompletableFuture.supplyAsync(
+                            () -> client.createBlob(bucketName, key, file, writeOptions),
+                            executor
+                    )
+            );
+            return run(root, keyPrefix, resolvedOptions, operations, () -> false);
+        }
+    }
+
+    private static DirectoryUploadResult run(
+            Path root,
+            String keyPrefix,
+            DirectoryUploadOptions options,
+            Operations operations,
+            BooleanSupplier cancelled
+    ) {
+        Map<String, Long> existingSizes = new HashMap<>();
+        if (options.skipUnchanged()) {
+            for (Blob blob : operations.existing().get()) {
+                existingSizes.put(blob.getKey(), blob.getSize());
+            }
+        }
+        UploadState state = new UploadState(options);
+        try (ExecutorService checksumExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             Stream<Path> walk = Files.walk(root)) {
+            Iterator<Path> files = walk.filter(Files::isRegularFile).iterator();
+            while (files.hasNext() && !cancelled.getAsBoolean()) {
+                Path file = files.next();
+                String key = keyPrefix + toKey(root.relativize(file));
+                long size;
+                try {
+                    size = Files.size(file);
+                } catch (IOException error) {
+                    state.fail(file, key, error);
+                    continue;
+                }
+                state.slots.acquire();
+                long reserved;
+                try {
+                    reserved = state.budget.acquire(size);
+                } catch (InterruptedException interruptedException) {
+                    state.slots.release();
+                    throw interruptedException;
+                }
+                uploadFile(file, key, size, existingSizes.get(key), options, operations, checksumExecutor)
+                        .whenComplete((uploaded, error) -> {
+                            if (error != null) {
+                                state.fail(file, key, error);
+                            } else if (uploaded) {
+                                state.uploaded(size);
+                            } else {
+                                state.skipped.incrementAndGet();
+                            }
+                            state.budget.release(reserved);
+                            state.slots.release();
+                        });
+            }
+            state.slots.acquire(options.maxConcurrency());
+            state.slots.release(options.maxConcurrency());
+        } catch (IOException | UncheckedIOException error) {
+            throw Transfers.toUbsaException(error, "Failed to walk directory " + root + ".");
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new UbsaException("Interrupted while uploading directory " + root + ".", interruptedException);
+        }
+        return state.toResult();
+    }
+
+    private static CompletableFuture<Boolean> uploadFile(
+            Path file,
+            String key,
+            long size,
+            Long existingSize,
+            DirectoryUploadOptions options,
+            Operations operations,
+            ExecutorService checksumExecutor
+    ) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return Checksums.sha256Hex(file);
+            } catch (IOException error) {
+                throw new UncheckedIOException(error);
+            }
+        }, checksumExecutor).thenCompose(checksum -> {
+            if (!options.skipUnchanged() || existingSize == null || existingSize != size) {
+                return put(file, key, checksum, options, operations);
+            }
+            return operations.head().apply(key)
+                    .handle((blob, error) -> error == null && matchesChecksum(blob, checksum))
+                    .thenCompose(unchanged -> unchanged
+                            ? CompletableFuture.completedFuture(false)
+                            : put(file, key, checksum, options, operations));
+        });
+    }
+
+    private static CompletableFuture<Boolean> put(
+            Path file,
+            String key,
+            String checksum,
+            DirectoryUploadOptions options,
+            Operations operations
+    ) {
+        return operations.put().upload(key, file, withChecksum(options.writeOptions(), checksum)).thenApply(etag -> true);
+    }
+
+    private static boolean matchesChecksum(Blob blob, String checksum) {
+        return blob != null
+                && blob.getUserMetadata() != null
+                && checksum.equals(blob.getUserMetadata().get(Checksums.SHA256_METADATA_KEY));
+    }
+
+    private static BlobWriteOptions withChecksum(BlobWriteOptions writeOptions, String checksum) {
+        Map<String, String> metadata = new HashMap<>();
+        if (writeOptions != null && writeOptions.userMetadata() != null) {
+            metadata.putAll(writeOptions.userMetadata());
+        }
+        metadata.put(Checksums.SHA256_METADATA_KEY, checksum);
+        return BlobWriteOptions.builder()
+                .encoding(writeOptions == null ? null : writeOptions.encoding())
+                .userMetadata(metadata)
+                .build();
+    }
+
+    private static String toKey(Path relativePath) {
+        return relativePath.toString().replace(relativePath.getFileSystem().getSeparator(), "/");
+    }
+
+    private static void validateRoot(Path root) {
+        if (root == null || !Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Upload root must be an existing directory.");
+        }
+    }
+
+    private interface FileUpload {
+        CompletableFuture<String> upload(String key, Path file, BlobWriteOptions writeOptions);
+    }
+
+    private record Operations(
+            Supplier<Iterable<Blob>> existing,
+            Function<String, CompletableFuture<Blob>> head,
+            FileUpload put
+    ) {
+    }
+
+    private static final class UploadState {
+        private final Semaphore slots;
+        private final ByteBudget budget;
+        private final AtomicLong uploadedCount = new AtomicLong();
+        private final AtomicLong uploadedBytes = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final ConcurrentLinkedQueue<TransferFailure> failures = new ConcurrentLinkedQueue<>();
+
+        private UploadState(DirectoryUploadOptions options) {
+            this.slots = new Semaphore(options.maxConcurrency());
+            this.budget = new ByteBudget(options.maxInFlightBytes());
+        }
+
+        private void uploaded(long size) {
+            uploadedCount.incrementAndGet();
+            uploadedBytes.addAndGet(size);
+        }
+
+        private void fail(Path file, String key, Throwable error) {
+            failures.add(TransferFailure.of(
+                    file.toString(),
+                    key,
+                    Transfers.toUbsaException(error, "Failed to upload " + file + ".")
+            ));
+        }
+
+        private DirectoryUploadResult toResult() {
+            return DirectoryUploadResult.of(uploadedCount.get(), skipped.get(), uploadedBytes.get(), List.copyOf(failures));
+        }
+    }
+}
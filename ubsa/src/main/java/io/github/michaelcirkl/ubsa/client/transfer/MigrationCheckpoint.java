@@ -0,0 +1,142 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Tracks the low watermark of a migration: the greatest key such that it and every key listed before it have been
+ * copied or skipped.
+ *
+ * <p>Keys are registered in listing order and may finish in any order. A failed key stops the watermark from
+ * advancing, so a resumed migration retries it; keys after it that were already copied are then skipped as
+ * identical.
+ */
+final class MigrationCheckpoint {
+    private static final String SOURCE_BUCKET = "sourceBucket";
+    private static final String DESTINATION_BUCKET = "destinationBucket";
+    private static final String PREFIX = "prefix";
+    private static final String WATERMARK = "watermark";
+
+    private final Path file;
+    private final Properties identity = new Properties();
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private String watermark;
+    private String savedWatermark;
+    private boolean blocked;
+
+    private MigrationCheckpoint(Path file, String sourceBucket, String destinationBucket, String prefix, String watermark) {
+        this.file = file;
+        this.identity.setProperty(SOURCE_BUCKET, sourceBucket);
+        this.identity.setProperty(DESTINATION_BUCKET, destinationBucket);
+        this.identity.setProperty(PREFIX, prefix);
+        this.watermark = watermark;
+        this.savedWatermark = watermark;
+    }
+
+    /**
+     * Opens the checkpoint stored in {@code file}, or starts a new one when the file does not exist.
+     */
+    static MigrationCheckpoint open(Path file, String sourceBucket, String destinationBucket, String prefix) {
+        if (!Files.exists(file)) {
+            return new MigrationCheckpoint(file, sourceBucket, destinationBucket, prefix, null);
+        }
+        Properties stored = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            stored.load(reader);
+        } catch (IOException error) {
+            throw new UbsaException("Failed to read migration checkpoint " + file + ".", error);
+        }
+        if (!Objects.equals(sourceBucket, stored.getProperty(SOURCE_BUCKET))
+                || !Objects.equals(destinationBucket, stored.getProperty(DESTINATION_BUCKET))
+                || !Objects.equals(prefix, stored.getProperty(PREFIX))) {
+            throw new IllegalArgumentException("Checkpoint file " + file + " belongs to a different migration.");
+        }
+        return new MigrationCheckpoint(file, sourceBucket, destinationBucket, prefix, stored.getProperty(WATERMARK));
+    }
+
+    /**
+     * Returns the watermark an earlier run reached, or {@code null} when none was recorded. A resumed migration lists
+     * from the first key after it.
+     */
+    synchronized String watermark() {
+        return watermark;
+    }
+
+    synchronized Entry register(String key) {
+        Entry entry = new Entry(key);
+        pending.add(entry);
+        return entry;
+    }
+
+    synchronized void finish(Entry entry, boolean success) {
+        entry.finished = true;
+        entry.success = success;
+        while (!pending.isEmpty() && pending.peek().finished) {
+            Entry head = pending.poll();
+            blocked |= !head.success;
+            if (!blocked) {
+                watermark = head.key;
+            }
+        }
+    }
+
+    /**
+     * Writes the current watermark when it changed since the last save. The file is replaced atomically where the
+     * file system supports it.
+     */
+    void save() {
+        String current;
+        synchronized (this) {
+            current = watermark;
+            if (current == null || current.equals(savedWatermark)) {
+                return;
+            }
+        }
+        Properties properties = new Properties();
+        properties.putAll(identity);
+        properties.setProperty(WATERMARK, current);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    properties.store(writer, "ubsa migration checkpoint");
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ignored) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException error) {
+            throw new UbsaException("Failed to write migration checkpoint " + file + ".", error);
+        }
+        synchronized (this) {
+            savedWatermark = current;
+        }
+    }
+
+    static final class Entry {
+        private final String key;
+        private boolean finished;
+        private boolean success;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+    }
+}
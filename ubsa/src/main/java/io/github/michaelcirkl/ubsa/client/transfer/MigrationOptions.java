@@ -0,0 +1,152 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Settings for {@link BlobMigration}.
+ */
+public final class MigrationOptions {
+    private static final int DEFAULT_MAX_CONCURRENCY = 16;
+    private static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 256L * 1024 * 1024;
+    private static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+    private final int maxConcurrency;
+    private final long maxInFlightBytes;
+    private final boolean skipIdentical;
+    private final Path checkpointFile;
+    private final Consumer<TransferProgress> progressListener;
+    private final Duration progressInterval;
+
+    private MigrationOptions(Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxInFlightBytes = builder.maxInFlightBytes;
+        this.skipIdentical = builder.skipIdentical;
+        this.checkpointFile = builder.checkpointFile;
+        this.progressListener = builder.progressListener;
+        this.progressInterval = builder.progressInterval;
+    }
+
+    public static MigrationOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum number of blobs copied at the same time.
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the maximum combined size of the blobs being copied at the same time.
+     *
+     * <p>A blob larger than the budget is copied on its own.
+     */
+    public long maxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * Returns whether blobs that already have an identical copy in the destination are skipped.
+     */
+    public boolean skipIdentical() {
+        return skipIdentical;
+    }
+
+    /**
+     * Returns the file used to persist progress for resuming, or {@code null} when no checkpoint is kept.
+     */
+    public Path checkpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Returns the listener that receives periodic progress snapshots, or {@code null}.
+     */
+    public Consumer<TransferProgress> progressListener() {
+        return progressListener;
+    }
+
+    /**
+     * Returns how often progress is reported and the checkpoint is written.
+     */
+    public Duration progressInterval() {
+        return progressInterval;
+    }
+
+    public static class Builder {
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+        private boolean skipIdentical = true;
+        private Path checkpointFile;
+        private Consumer<TransferProgress> progressListener;
+        private Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+        /**
+         * Sets the maximum number of blobs copied at the same time. Defaults to 16.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum combined size of the blobs being copied at the same time. Defaults to 256 MiB.
+         */
+        public Builder maxInFlightBytes(long maxInFlightBytes) {
+            this.maxInFlightBytes = maxInFlightBytes;
+            return this;
+        }
+
+        /**
+         * Sets whether blobs with an identical destination copy are skipped. Defaults to {@code true}.
+         */
+        public Builder skipIdentical(boolean skipIdentical) {
+            this.skipIdentical = skipIdentical;
+            return this;
+        }
+
+        /**
+         * Sets the checkpoint file. When it exists, the migration resumes after the last key it records.
+         */
+        public Builder checkpointFile(Path checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        /**
+         * Sets the listener that receives progress snapshots. It is called from a background thread.
+         */
+        public Builder progressListener(Consumer<TransferProgress> progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * Sets how often progress is reported and the checkpoint is written. Defaults to 5 seconds.
+         */
+        public Builder progressInterval(Duration progressInterval) {
+            this.progressInterval = progressInterval;
+            return this;
+        }
+
+        public MigrationOptions build() {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Max concurrency must be greater than 0.");
+            }
+            if (maxInFlightBytes <= 0) {
+                throw new IllegalArgumentException("Max in-flight bytes must be greater than 0.");
+            }
+            if (progressInterval == null || progressInterval.isNegative() || progressInterval.isZero()) {
+                throw new IllegalArgumentException("Progress interval must be greater than 0.");
+            }
+            return new MigrationOptions(this);
+        }
+    }
+}
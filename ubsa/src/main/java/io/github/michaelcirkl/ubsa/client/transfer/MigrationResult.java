@@ -0,0 +1,72 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of a blob migration between two clients.
+ */
+public final class MigrationResult {
+    private final long copiedCount;
+    private final long skippedCount;
+    private final long copiedBytes;
+    private final List<TransferFailure> failures;
+    private final Duration elapsed;
+
+    private MigrationResult(long copiedCount, long skippedCount, long copiedBytes, List<TransferFailure> failures, Duration elapsed) {
+        this.copiedCount = copiedCount;
+        this.skippedCount = skippedCount;
+        this.copiedBytes = copiedBytes;
+        this.failures = failures == null ? List.of() : List.copyOf(failures);
+        this.elapsed = elapsed;
+    }
+
+    public static MigrationResult of(long copiedCount, long skippedCount, long copiedBytes, List<TransferFailure> failures, Duration elapsed) {
+        return new MigrationResult(copiedCount, skippedCount, copiedBytes, failures, elapsed);
+    }
+
+    /**
+     * Returns the number of blobs that were copied.
+     */
+    public long getCopiedCount() {
+        return copiedCount;
+    }
+
+    /**
+     * Returns the number of blobs that were skipped because the destination already had an identical copy.
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Returns the total size of the copied blobs.
+     */
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    /**
+     * Returns one entry per blob that could not be copied.
+     */
+    public List<TransferFailure> getFailures() {
+        return failures;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "MigrationResult{copiedCount=" + copiedCount
+                + ", skippedCount=" + skippedCount
+                + ", copiedBytes=" + copiedBytes
+                + ", failures=" + failures.size()
+                + ", elapsed=" + elapsed + "}";
+    }
+}
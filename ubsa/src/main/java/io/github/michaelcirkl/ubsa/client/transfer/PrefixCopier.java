@@ -0,0 +1,285 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.Blob;
+import io.github.michaelcirkl.ubsa.BlobStorageAsyncClient;
+import io.github.michaelcirkl.ubsa.BlobStorageSyncClient;
+import io.github.michaelcirkl.ubsa.client.bulk.BatchDeleteResult;
+import io.github.michaelcirkl.ubsa.client.bulk.BulkResult;
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+import io.github.michaelcirkl.ubsa.client.pagination.PageRequest;
+import io.github.michaelcirkl.ubsa.client.pagination.PagedIterable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Copies or moves every blob below a prefix with server-side copies.
+ *
+ * <p>Listing pages are fed straight into concurrent {@code copyBlob} calls, so copying starts with the first page.
+ * For moves, source keys are deleted in batches through {@code deleteBlobs} once their copy has succeeded, while
+ * later copies are still running; a source blob is never deleted before its copy exists. Copies and deletes that
+ * fail with a retryable error are retried with exponential backoff.
+ */
+public final class PrefixCopier {
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final int MAX_CONCURRENT_DELETE_BATCHES = 4;
+
+    private PrefixCopier() {
+    }
+
+    public static CompletableFuture<PrefixCopyResult> copyAsync(
+            BlobStorageAsyncClient client,
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            boolean deleteSource,
+            PrefixCopyOptions options
+    ) {
+        Plan plan = Plan.of(sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, deleteSource, options);
+        Operations operations = new Operations(
+                () -> new PagedIterable<>(
+                        PageRequest.builder().pageSize(Transfers.LISTING_PAGE_SIZE).build(),
+                        request -> Transfers.await(client.listBlobs(sourceBucketName, plan.sourcePrefix(), request))
+                ),
+                (sourceKey, destinationKey) -> client.copyBlob(sourceBucketName, sourceKey, destinationBucketName, destinationKey),
+                keys -> client.deleteBlobs(sourceBucketName, keys)
+        );
+        CompletableFuture<PrefixCopyResult> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("ubsa-prefix-copy").start(() -> {
+            try {
+                result.complete(new Run(plan, operations).execute(result::isDone));
+            } catch (Throwable error) {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    public static PrefixCopyResult copy(
+            BlobStorageSyncClient client,
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            boolean deleteSource,
+            PrefixCopyOptions options
+    ) {
+        Plan plan = Plan.of(sourceBucketName, sourcePrefix, destinationBucketName, destinationPrefix, deleteSource, options);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Operations operations = new Operations(
+                    () -> client.iterateBlobs(sourceBucketName, plan.sourcePrefix(), Transfers.LISTING_PAGE_SIZE),
+                    (sourceKey, destinationKey) -> CompletableFuture.supplyAsync(
+                            () -> client.copyBlob(sourceBucketName, sourceKey, destinationBucketName, destinationKey),
+                            executor
+                    ),
+                    keys -> CompletableFuture.supplyAsync(() -> client.deleteBlobs(sourceBucketName, keys), executor)
+            );
+            return new Run(plan, operations).execute(() -> false);
+        }
+    }
+
+    private record Plan(
+            String sourceBucketName,
+            String sourcePrefix,
+            String destinationBucketName,
+            String destinationPrefix,
+            boolean deleteSource,
+            PrefixCopyOptions options
+    ) {
+        private static Plan of(
+                String sourceBucketName,
+                String sourcePrefix,
+                String destinationBucketName,
+                String destinationPrefix,
+                boolean deleteSource,
+                PrefixCopyOptions options
+        ) {
+            String normalizedSource = Transfers.normalizePrefix(sourcePrefix);
+            String normalizedDestination = Transfers.normalizePrefix(destinationPrefix);
+            if (sourceBucketName.equals(destinationBucketName)
+                    && (normalizedSource.startsWith(normalizedDestination) || normalizedDestination.startsWith(normalizedSource))) {
+                throw new IllegalArgumentException("Source and destination prefixes must not overlap within the same bucket.");
+            }
+            return new Plan(sourceBucketName, normalizedSource, destinationBucketName, normalizedDestination, deleteSource,
+                    options == null ? PrefixCopyOptions.defaults() : options);
+        }
+
+        private String destinationKey(String sourceKey) {
+            return destinationPrefix + sourceKey.substring(sourcePrefix.length());
+        }
+    }
+
+    private record Operations(
+            Supplier<Iterable<Blob>> listing,
+            BiFunction<String, String, CompletableFuture<String>> copy,
+            Function<List<String>, CompletableFuture<BatchDeleteResult>> delete
+    ) {
+    }
+
+    private static final class Run {
+        private final Plan plan;
+        private final Operations operations;
+        private final PrefixCopyOptions options;
+        private final Semaphore copySlots;
+        private final Semaphore deleteSlots = new Semaphore(MAX_CONCURRENT_DELETE_BATCHES);
+        private final ConcurrentLinkedQueue<String> pendingDeletes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingDeleteCount = new AtomicInteger();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong discoveredCount = new AtomicLong();
+        private final AtomicLong discoveredBytes = new AtomicLong();
+        private final AtomicLong copiedCount = new AtomicLong();
+        private final AtomicLong copiedBytes = new AtomicLong();
+        private final AtomicLong processedBytes = new AtomicLong();
+        private final AtomicLong deletedCount = new AtomicLong();
+        private final ConcurrentLinkedQueue<TransferFailure> failures = new ConcurrentLinkedQueue<>();
+        private volatile boolean listingComplete;
+
+        private Run(Plan plan, Operations operations) {
+            this.plan = plan;
+            this.operations = operations;
+            this.options = plan.options();
+            this.copySlots = new Semaphore(options.maxConcurrency());
+        }
+
+        private PrefixCopyResult execute(BooleanSupplier cancelled) {
+            ProgressReporter reporter = options.progressListener() == null
+                    ? null
+                    : ProgressReporter.start(options.progressInterval(), this::report);
+            try {
+                copyAll(cancelled);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new UbsaException("Interrupted while copying " + plan.sourcePrefix() + ".", interruptedException);
+            } finally {
+                if (reporter != null) {
+                    reporter.stop();
+                }
+            }
+            report();
+            return PrefixCopyResult.of(copiedCount.get(), copiedBytes.get(), deletedCount.get(), List.copyOf(failures),
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+
+        private void copyAll(BooleanSupplier cancelled) throws InterruptedException {
+            for (Blob blob : operations.listing().get()) {
+                if (cancelled.getAsBoolean()) {
+                    break;
+                }
+                discoveredCount.incrementAndGet();
+                discoveredBytes.addAndGet(blob.getSize());
+                String sourceKey = blob.getKey();
+                String destinationKey = plan.destinationKey(sourceKey);
+                copySlots.acquire();
+                Transfers.retrying(
+                        () -> operations.copy().apply(sourceKey, destinationKey),
+                        options.maxAttempts(),
+                        options.retryBackoff()
+                ).whenComplete((etag, error) -> {
+                    if (error != null) {
+                        fail(sourceKey, destinationKey, error, "Failed to copy " + sourceKey + ".");
+                    } else {
+                        copiedCount.incrementAndGet();
+                        copiedBytes.addAndGet(blob.getSize());
+                        if (plan.deleteSource()) {
+                            pendingDeletes.add(sourceKey);
+                            pendingDeleteCount.incrementAndGet();
+                        }
+                    }
+                    processedBytes.addAndGet(blob.getSize());
+                    copySlots.release();
+                });
+                flushDeletes(false);
+            }
+            listingComplete = true;
+            copySlots.acquire(options.maxConcurrency());
+            copySlots.release(options.maxConcurrency());
+            flushDeletes(true);
+            deleteSlots.acquire(MAX_CONCURRENT_DELETE_BATCHES);
+            deleteSlots.release(MAX_CONCURRENT_DELETE_BATCHES);
+        }
+
+        private void flushDeletes(boolean all) throws InterruptedException {
+            while (pendingDeleteCount.get() >= DELETE_BATCH_SIZE || (all && pendingDeleteCount.get() > 0)) {
+                List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+                String key;
+                while (batch.size() < DELETE_BATCH_SIZE && (key = pendingDeletes.poll()) != null) {
+                    batch.add(key);
+                }
+                pendingDeleteCount.addAndGet(-batch.size());
+                deleteSlots.acquire();
+                delete(batch, 1).whenComplete((ignored, error) -> deleteSlots.release());
+            }
+        }
+
+        private CompletableFuture<Void> delete(List<String> keys, int attempt) {
+            CompletableFuture<BatchDeleteResult> deletion;
+            try {
+                deletion = operations.delete().apply(keys);
+            } catch (RuntimeException error) {
+                deletion = CompletableFuture.failedFuture(error);
+            }
+            return deletion.handle((result, error) -> {
+                if (error != null) {
+                    if (attempt < options.maxAttempts() && Transfers.isRetryable(error)) {
+                        return retryDelete(keys, attempt);
+                    }
+                    keys.forEach(key -> fail(key, plan.destinationKey(key), error, "Failed to delete " + key + "."));
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                deletedCount.addAndGet(result.getDeletedCount());
+                List<String> retry = new ArrayList<>();
+                for (BulkResult<Void> failure : result.getFailures()) {
+                    if (attempt < options.maxAttempts() && Transfers.isRetryable(failure.getError())) {
+                        retry.add(failure.getKey());
+                    } else {
+                        fail(failure.getKey(), plan.destinationKey(failure.getKey()), failure.getError(),
+                                "Failed to delete " + failure.getKey() + ".");
+                    }
+                }
+                return retry.isEmpty() ? CompletableFuture.<Void>completedFuture(null) : retryDelete(retry, attempt);
+            }).thenCompose(Function.identity());
+        }
+
+        private CompletableFuture<Void> retryDelete(List<String> keys, int attempt) {
+            return Transfers.backoff(options.retryBackoff(), attempt).thenCompose(ignored -> delete(keys, attempt + 1));
+        }
+
+        private void fail(String sourceKey, String destinationKey, Throwable error, String message) {
+            failures.add(TransferFailure.of(
+                    plan.sourceBucketName() + "/" + sourceKey,
+                    destinationKey,
+                    Transfers.toUbsaException(error, message)
+            ));
+        }
+
+        private void report() {
+            if (options.progressListener() == null) {
+                return;
+            }
+            options.progressListener().accept(TransferProgress.of(
+                    discoveredCount.get(),
+                    discoveredBytes.get(),
+                    listingComplete,
+                    copiedCount.get(),
+                    0,
+                    failures.size(),
+                    copiedBytes.get(),
+                    processedBytes.get(),
+                    Duration.ofNanos(System.nanoTime() - startNanos)
+            ));
+        }
+    }
+}
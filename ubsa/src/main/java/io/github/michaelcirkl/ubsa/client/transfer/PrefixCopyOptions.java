@@ -0,0 +1,132 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Settings for copying or moving every blob below a prefix.
+ */
+public final class PrefixCopyOptions {
+    private static final int DEFAULT_MAX_CONCURRENCY = 32;
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofMillis(200);
+    private static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Consumer<TransferProgress> progressListener;
+    private final Duration progressInterval;
+
+    private PrefixCopyOptions(Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxAttempts = builder.maxAttempts;
+        this.retryBackoff = builder.retryBackoff;
+        this.progressListener = builder.progressListener;
+        this.progressInterval = builder.progressInterval;
+    }
+
+    public static PrefixCopyOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum number of copy requests running at the same time.
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns how often a single copy or delete is attempted before it is reported as failed.
+     */
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the delay before the first retry. It doubles with every further attempt.
+     */
+    public Duration retryBackoff() {
+        return retryBackoff;
+    }
+
+    /**
+     * Returns the listener that receives periodic progress snapshots, or {@code null}.
+     */
+    public Consumer<TransferProgress> progressListener() {
+        return progressListener;
+    }
+
+    public Duration progressInterval() {
+        return progressInterval;
+    }
+
+    public static class Builder {
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private Duration retryBackoff = DEFAULT_RETRY_BACKOFF;
+        private Consumer<TransferProgress> progressListener;
+        private Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+        /**
+         * Sets the maximum number of copy requests running at the same time. Defaults to 32.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets how often a single copy or delete is attempted. Defaults to 3.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the delay before the first retry. Defaults to 200 milliseconds.
+         */
+        public Builder retryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the listener that receives progress snapshots. It is called from a background thread.
+         */
+        public Builder progressListener(Consumer<TransferProgress> progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * Sets how often progress is reported. Defaults to 5 seconds.
+         */
+        public Builder progressInterval(Duration progressInterval) {
+            this.progressInterval = progressInterval;
+            return this;
+        }
+
+        public PrefixCopyOptions build() {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Max concurrency must be greater than 0.");
+            }
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Max attempts must be greater than 0.");
+            }
+            if (retryBackoff == null || retryBackoff.isNegative()) {
+                throw new IllegalArgumentException("Retry backoff must not be negative.");
+            }
+            if (progressInterval == null || progressInterval.isNegative() || progressInterval.isZero()) {
+                throw new IllegalArgumentException("Progress interval must be greater than 0.");
+            }
+            return new PrefixCopyOptions(this);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of copying or moving a prefix.
+ */
+public final class PrefixCopyResult {
+    private final long copiedCount;
+    private final long copiedBytes;
+    private final long deletedCount;
+    private final List<TransferFailure> failures;
+    private final Duration elapsed;
+
+    private PrefixCopyResult(long copiedCount, long copiedBytes, long deletedCount, List<TransferFailure> failures, Duration elapsed) {
+        this.copiedCount = copiedCount;
+        this.copiedBytes = copiedBytes;
+        this.deletedCount = deletedCount;
+        this.failures = failures == null ? List.of() : List.copyOf(failures);
+        this.elapsed = elapsed;
+    }
+
+    public static PrefixCopyResult of(long copiedCount, long copiedBytes, long deletedCount, List<TransferFailure> failures, Duration elapsed) {
+        return new PrefixCopyResult(copiedCount, copiedBytes, deletedCount, failures, elapsed);
+    }
+
+    /**
+     * Returns the number of blobs that were copied.
+     */
+    public long getCopiedCount() {
+        return copiedCount;
+    }
+
+    /**
+     * Returns the total size of the copied blobs.
+     */
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    /**
+     * Returns the number of source blobs deleted after being copied. Always 0 for copies.
+     */
+    public long getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * Returns one entry per blob that could not be copied, or for moves, whose source could not be deleted.
+     */
+    public List<TransferFailure> getFailures() {
+        return failures;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixCopyResult{copiedCount=" + copiedCount
+                + ", copiedBytes=" + copiedBytes
+                + ", deletedCount=" + deletedCount
+                + ", failures=" + failures.size()
+                + ", elapsed=" + elapsed + "}";
+    }
+}
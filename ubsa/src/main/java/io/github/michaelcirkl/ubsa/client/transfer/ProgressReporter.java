@@ -0,0 +1,41 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a callback periodically on a virtual thread until the transfer it reports on has finished.
+ */
+final class ProgressReporter {
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final Thread thread;
+
+    private ProgressReporter(Duration interval, Runnable tick) {
+        this.thread = Thread.ofVirtual().name("ubsa-transfer-progress").start(() -> {
+            try {
+                while (!finished.await(interval.toNanos(), TimeUnit.NANOSECONDS)) {
+                    tick.run();
+                }
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    static ProgressReporter start(Duration interval, Runnable tick) {
+        return new ProgressReporter(interval, tick);
+    }
+
+    /**
+     * Stops reporting and waits for a callback that is currently running, so no tick happens after this returns.
+     */
+    void stop() {
+        finished.countDown();
+        try {
+            thread.join();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
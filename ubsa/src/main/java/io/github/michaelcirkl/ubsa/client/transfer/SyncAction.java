@@ -0,0 +1,55 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.nio.file.Path;
+
+/**
+ * A single change planned by {@link DirectorySync}.
+ */
+public final class SyncAction {
+    public enum Type {
+        UPLOAD,
+        DOWNLOAD,
+        DELETE_REMOTE,
+        DELETE_LOCAL
+    }
+
+    private final Type type;
+    private final String blobKey;
+    private final Path localPath;
+    private final long size;
+
+    private SyncAction(Type type, String blobKey, Path localPath, long size) {
+        this.type = type;
+        this.blobKey = blobKey;
+        this.localPath = localPath;
+        this.size = size;
+    }
+
+    public static SyncAction of(Type type, String blobKey, Path localPath, long size) {
+        return new SyncAction(type, blobKey, localPath, size);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getBlobKey() {
+        return blobKey;
+    }
+
+    public Path getLocalPath() {
+        return localPath;
+    }
+
+    /**
+     * Returns the number of bytes the action transfers, or the size of the deleted item.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + blobKey + " <-> " + localPath + " (" + size + " bytes)";
+    }
+}
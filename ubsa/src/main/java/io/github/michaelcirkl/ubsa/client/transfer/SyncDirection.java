@@ -0,0 +1,15 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+/**
+ * Direction in which {@link DirectorySync} propagates changes.
+ */
+public enum SyncDirection {
+    /**
+     * The local directory is the source of truth and the bucket prefix is updated to match it.
+     */
+    UPLOAD,
+    /**
+     * The bucket prefix is the source of truth and the local directory is updated to match it.
+     */
+    DOWNLOAD
+}
@@ -0,0 +1,103 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+/**
+ * Settings for {@link DirectorySync}.
+ */
+public final class SyncOptions {
+    private static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private final boolean dryRun;
+    private final boolean deleteExtraneous;
+    private final boolean verifyChecksums;
+    private final int maxConcurrency;
+
+    private SyncOptions(Builder builder) {
+        this.dryRun = builder.dryRun;
+        this.deleteExtraneous = builder.deleteExtraneous;
+        this.verifyChecksums = builder.verifyChecksums;
+        this.maxConcurrency = builder.maxConcurrency;
+    }
+
+    public static SyncOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns whether only the plan is computed and nothing is changed.
+     */
+    public boolean dryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Returns whether items missing from the source side are deleted from the destination side.
+     */
+    public boolean deleteExtraneous() {
+        return deleteExtraneous;
+    }
+
+    /**
+     * Returns whether files that pass the size and modification time check are also compared by SHA-256 checksum.
+     */
+    public boolean verifyChecksums() {
+        return verifyChecksums;
+    }
+
+    /**
+     * Returns the maximum number of transfers running at the same time.
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public static class Builder {
+        private boolean dryRun;
+        private boolean deleteExtraneous;
+        private boolean verifyChecksums;
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+        /**
+         * Computes the plan without changing anything. Defaults to {@code false}.
+         */
+        public Builder dryRun(boolean dryRun) {
+            this.dryRun = dryRun;
+            return this;
+        }
+
+        /**
+         * Deletes destination items that no longer exist on the source side. Defaults to {@code false}.
+         */
+        public Builder deleteExtraneous(boolean deleteExtraneous) {
+            this.deleteExtraneous = deleteExtraneous;
+            return this;
+        }
+
+        /**
+         * Also compares SHA-256 checksums of files whose size and modification time match. Defaults to
+         * {@code false}.
+         */
+        public Builder verifyChecksums(boolean verifyChecksums) {
+            this.verifyChecksums = verifyChecksums;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of transfers running at the same time. Defaults to 16.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public SyncOptions build() {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Max concurrency must be greater than 0.");
+            }
+            return new SyncOptions(this);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link DirectorySync} run.
+ *
+ * <p>For a dry run, {@link #getActions()} is the plan that would have been executed and nothing was completed.
+ */
+public final class SyncReport {
+    private final boolean dryRun;
+    private final List<SyncAction> actions;
+    private final long completedCount;
+    private final long transferredBytes;
+    private final List<TransferFailure> failures;
+
+    private SyncReport(
+            boolean dryRun,
+            List<SyncAction> actions,
+            long completedCount,
+            long transferredBytes,
+            List<TransferFailure> failures
+    ) {
+        this.dryRun = dryRun;
+        this.actions = List.copyOf(actions);
+        this.completedCount = completedCount;
+        this.transferredBytes = transferredBytes;
+        this.failures = List.copyOf(failures);
+    }
+
+    public static SyncReport of(
+            boolean dryRun,
+            List<SyncAction> actions,
+            long completedCount,
+            long transferredBytes,
+            List<TransferFailure> failures
+    ) {
+        return new SyncReport(dryRun, actions, completedCount, transferredBytes, failures);
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Returns the planned actions in key order.
+     */
+    public List<SyncAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * Returns the number of actions that completed successfully.
+     */
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Returns the number of bytes uploaded and downloaded.
+     */
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    public List<TransferFailure> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SyncReport{dryRun=" + dryRun
+                + ", actions=" + actions.size()
+                + ", completedCount=" + completedCount
+                + ", transferredBytes=" + transferredBytes
+                + ", failures=" + failures.size() + "}";
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.util.Objects;
+
+/**
+ * A single item that could not be transferred.
+ */
+public final class TransferFailure {
+    private final String source;
+    private final String destinationKey;
+    private final UbsaException error;
+
+    private TransferFailure(String source, String destinationKey, UbsaException error) {
+        this.source = source;
+        this.destinationKey = destinationKey;
+        this.error = Objects.requireNonNull(error, "error must not be null");
+    }
+
+    public static TransferFailure of(String source, String destinationKey, UbsaException error) {
+        return new TransferFailure(source, destinationKey, error);
+    }
+
+    /**
+     * Returns the source of the transfer, such as a local file path or a source blob key.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the destination blob key, or {@code null} when the failure happened before a key was assigned.
+     */
+    public String getDestinationKey() {
+        return destinationKey;
+    }
+
+    public UbsaException getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferFailure{source='" + source + "', destinationKey='" + destinationKey + "', error=" + error + "}";
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Point-in-time snapshot of a running bulk transfer.
+ *
+ * <p>Items are discovered by listing while the transfer runs, so the totals grow until {@link #isListingComplete()}
+ * returns {@code true}. An estimate of the remaining time is only available from then on.
+ */
+public final class TransferProgress {
+    private final long discoveredCount;
+    private final long discoveredBytes;
+    private final boolean listingComplete;
+    private final long transferredCount;
+    private final long skippedCount;
+    private final long failedCount;
+    private final long transferredBytes;
+    private final long processedBytes;
+    private final Duration elapsed;
+
+    private TransferProgress(
+            long discoveredCount,
+            long discoveredBytes,
+            boolean listingComplete,
+            long transferredCount,
+            long skippedCount,
+            long failedCount,
+            long transferredBytes,
+            long processedBytes,
+            Duration elapsed
+    ) {
+        this.discoveredCount = discoveredCount;
+        this.discoveredBytes = discoveredBytes;
+        this.listingComplete = listingComplete;
+        this.transferredCount = transferredCount;
+        this.skippedCount = skippedCount;
+        this.failedCount = failedCount;
+        this.transferredBytes = transferredBytes;
+        this.processedBytes = processedBytes;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param processedBytes the combined size of every finished item, whether transferred, skipped or failed
+     */
+    public static TransferProgress of(
+            long discoveredCount,
+            long discoveredBytes,
+            boolean listingComplete,
+            long transferredCount,
+            long skippedCount,
+            long failedCount,
+            long transferredBytes,
+            long processedBytes,
+            Duration elapsed
+    ) {
+        return new TransferProgress(discoveredCount, discoveredBytes, listingComplete, transferredCount, skippedCount,
+                failedCount, transferredBytes, processedBytes, elapsed);
+    }
+
+    /**
+     * Returns the number of items found by the listing so far.
+     */
+    public long getDiscoveredCount() {
+        return discoveredCount;
+    }
+
+    /**
+     * Returns the combined size of the items found by the listing so far.
+     */
+    public long getDiscoveredBytes() {
+        return discoveredBytes;
+    }
+
+    public boolean isListingComplete() {
+        return listingComplete;
+    }
+
+    public long getTransferredCount() {
+        return transferredCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns the average number of bytes transferred per second since the transfer started.
+     */
+    public double getBytesPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000d;
+        return seconds <= 0 ? 0d : transferredBytes / seconds;
+    }
+
+    /**
+     * Returns the estimated time until every discovered item is finished, based on the average throughput so far.
+     *
+     * <p>Empty while the listing is still running or before anything has been transferred.
+     */
+    public Optional<Duration> getEstimatedRemaining() {
+        if (!listingComplete) {
+            return Optional.empty();
+        }
+        long remainingBytes = Math.max(0L, discoveredBytes - processedBytes);
+        if (remainingBytes == 0) {
+            return Optional.of(Duration.ZERO);
+        }
+        double bytesPerSecond = getBytesPerSecond();
+        if (bytesPerSecond <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofMillis((long) Math.ceil(remainingBytes / bytesPerSecond * 1000d)));
+    }
+
+    @Override
+    public String toString() {
+        return "TransferProgress{discoveredCount=" + discoveredCount
+                + ", listingComplete=" + listingComplete
+                + ", transferredCount=" + transferredCount
+                + ", skippedCount=" + skippedCount
+                + ", failedCount=" + failedCount
+                + ", transferredBytes=" + transferredBytes
+                + ", bytesPerSecond=" + Math.round(getBytesPerSecond())
+                + ", estimatedRemaining=" + getEstimatedRemaining().map(Duration::toString).orElse("unknown") + "}";
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.michaelcirkl.ubsa.client.transfer;
+
+import io.github.michaelcirkl.ubsa.client.exception.UbsaException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+final class Transfers {
+    static final int LISTING_PAGE_SIZE = 1000;
+
+    private Transfers() {
+    }
+
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException error) {
+            throw toUbsaException(error, "Transfer request failed.");
+        }
+    }
+
+    static UbsaException toUbsaException(Throwable error, String message) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof UbsaException ubsaException) {
+            return ubsaException;
+        }
+        return new UbsaException(cause.getMessage() == null ? message : cause.getMessage(), cause);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException
+                || cause instanceof ExecutionException
+                || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Runs {@code attempt} until it succeeds, fails with a non-retryable error or {@code maxAttempts} is reached,
+     * doubling the delay after every failed attempt.
+     */
+    static <T> CompletableFuture<T> retrying(Supplier<CompletableFuture<T>> attempt, int maxAttempts, Duration backoff) {
+        return retrying(attempt, 1, maxAttempts, backoff);
+    }
+
+    private static <T> CompletableFuture<T> retrying(
+            Supplier<CompletableFuture<T>> attempt,
+            int attemptNumber,
+            int maxAttempts,
+            Duration backoff
+    ) {
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException error) {
+            future = CompletableFuture.failedFuture(error);
+        }
+        return future.exceptionallyCompose(error -> {
+            if (attemptNumber >= maxAttempts || !isRetryable(error)) {
+                return CompletableFuture.failedFuture(error);
+            }
+            return backoff(backoff, attemptNumber)
+                    .thenCompose(ignored -> retrying(attempt, attemptNumber + 1, maxAttempts, backoff));
+        });
+    }
+
+    /**
+     * Completes after the delay that follows failed attempt number {@code attemptNumber}: {@code backoff} doubled for
+     * every earlier failed attempt.
+     */
+    static CompletableFuture<Void> backoff(Duration backoff, int attemptNumber) {
+        long delayMillis = backoff.toMillis() << Math.min(attemptNumber - 1, 20);
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Returns whether a failure is worth retrying: throttling, timeouts, server errors and failures without a
+     * provider status code, such as connection errors.
+     */
+    static boolean isRetryable(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof UbsaException ubsaException) {
+            Integer statusCode = ubsaException.getStatusCode();
+            return statusCode == null || statusCode == 408 || statusCode == 429 || statusCode >= 500;
+        }
+        return cause instanceof IOException;
+    }
+
+    static String normalizePrefix(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return "";
+        }
+        return prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+}